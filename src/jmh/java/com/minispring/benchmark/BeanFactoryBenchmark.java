@@ -0,0 +1,118 @@
+package com.minispring.benchmark;
+
+import com.minispring.ioc.beans.BeanDefinition;
+import com.minispring.ioc.beans.DefaultBeanFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DefaultBeanFactory基准
+ *
+ * 覆盖按名称/类型获取单例、原型创建、字段注入与构造器注入、@Value解析以及循环依赖解析。
+ * 单线程与高并发两种场景分别由SingleThreadedBeanFactoryBenchmark和ConcurrentBeanFactoryBenchmark
+ * 指定线程数，共享同一个工厂实例，并发场景下测量的是缓存与锁的争用。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class BeanFactoryBenchmark {
+    
+    /** 工厂中的Bean总数，按类型查找需要遍历全部定义 */
+    @Param({"10", "1000"})
+    public int beanCount;
+    
+    private DefaultBeanFactory beanFactory;
+    
+    @Setup
+    public void setUp() {
+        System.setProperty("bench.value.name", "jmh");
+        System.setProperty("bench.value.count", "42");
+        
+        beanFactory = new DefaultBeanFactory();
+        register(beanFactory, "repository", BenchmarkBeans.Repository.class, "singleton");
+        register(beanFactory, "prototypeBean", BenchmarkBeans.PrototypeBean.class, "prototype");
+        register(beanFactory, "fieldInjectedService", BenchmarkBeans.FieldInjectedService.class,
+                "prototype");
+        register(beanFactory, "constructorInjectedService", BenchmarkBeans.ConstructorInjectedService.class,
+                "prototype");
+        register(beanFactory, "valueBean", BenchmarkBeans.ValueBean.class, "prototype");
+        for (int i = 5; i < beanCount; i++) {
+            register(beanFactory, "filler" + i, BenchmarkBeans.Filler.class, "singleton");
+        }
+        
+        // 预先创建单例，测量的是缓存命中路径
+        beanFactory.getBean("repository");
+    }
+    
+    private static void register(DefaultBeanFactory beanFactory, String beanName, Class<?> beanClass, String scope) {
+        BeanDefinition beanDefinition = new BeanDefinition(beanClass);
+        beanDefinition.setScope(scope);
+        beanFactory.registerBeanDefinition(beanName, beanDefinition);
+    }
+    
+    @Benchmark
+    public Object getSingletonByName() {
+        return beanFactory.getBean("repository");
+    }
+    
+    @Benchmark
+    public Object getSingletonByType() {
+        return beanFactory.getBean(BenchmarkBeans.Repository.class);
+    }
+    
+    @Benchmark
+    public Object createPrototype() {
+        return beanFactory.getBean("prototypeBean");
+    }
+    
+    @Benchmark
+    public Object createWithFieldInjection() {
+        return beanFactory.getBean("fieldInjectedService");
+    }
+    
+    @Benchmark
+    public Object createWithConstructorInjection() {
+        return beanFactory.getBean("constructorInjectedService");
+    }
+    
+    @Benchmark
+    public Object createWithValueResolution() {
+        return beanFactory.getBean("valueBean");
+    }
+    
+    /**
+     * 在新工厂中创建一对相互依赖的单例，需经过三级缓存提前暴露引用
+     */
+    @Benchmark
+    public Object resolveCircularReference() {
+        DefaultBeanFactory factory = new DefaultBeanFactory();
+        register(factory, "circularA", BenchmarkBeans.CircularA.class, "singleton");
+        register(factory, "circularB", BenchmarkBeans.CircularB.class, "singleton");
+        return factory.getBean("circularA");
+    }
+    
+    /**
+     * resolveCircularReference的对照组：同样两个单例，但依赖无环
+     */
+    @Benchmark
+    public Object resolveAcyclicReference() {
+        DefaultBeanFactory factory = new DefaultBeanFactory();
+        register(factory, "plainA", BenchmarkBeans.PlainA.class, "singleton");
+        register(factory, "plainB", BenchmarkBeans.PlainB.class, "singleton");
+        return factory.getBean("plainA");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.minispring.benchmark;
+
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.ioc.annotation.Value;
+
+/**
+ * JMH基准使用的Bean类型
+ */
+public final class BenchmarkBeans {
+    
+    private BenchmarkBeans() {
+    }
+    
+    /** 按类型查找时需要跳过的填充Bean */
+    public static class Filler {
+    }
+    
+    public static class Repository {
+    }
+    
+    public static class PrototypeBean {
+    }
+    
+    public static class FieldInjectedService {
+        @Autowired
+        private Repository repository;
+        
+        public Repository getRepository() {
+            return repository;
+        }
+    }
+    
+    public static class ConstructorInjectedService {
+        private final Repository repository;
+        
+        @Autowired
+        public ConstructorInjectedService(Repository repository) {
+            this.repository = repository;
+        }
+        
+        public Repository getRepository() {
+            return repository;
+        }
+    }
+    
+    public static class ValueBean {
+        @Value("${bench.value.name:default}")
+        private String name;
+        
+        @Value("${bench.value.count:10}")
+        private int count;
+        
+        @Value("${bench.value.missing:fallback}")
+        private String missing;
+        
+        @Value("literal")
+        private String literal;
+    }
+    
+    public static class CircularA {
+        @Autowired
+        private CircularB circularB;
+    }
+    
+    public static class CircularB {
+        @Autowired
+        private CircularA circularA;
+    }
+    
+    public static class PlainA {
+        @Autowired
+        private PlainB plainB;
+    }
+    
+    public static class PlainB {
+    }
+}
\ No newline at end of file
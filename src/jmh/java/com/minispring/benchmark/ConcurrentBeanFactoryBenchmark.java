@@ -0,0 +1,10 @@
+package com.minispring.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * 高并发访问容器：线程数等于可用处理器数（可用-t参数调大），所有线程共享同一个工厂
+ */
+@Threads(Threads.MAX)
+public class ConcurrentBeanFactoryBenchmark extends BeanFactoryBenchmark {
+}
\ No newline at end of file
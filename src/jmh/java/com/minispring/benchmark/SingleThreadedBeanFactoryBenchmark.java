@@ -0,0 +1,10 @@
+package com.minispring.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * 单线程访问容器
+ */
+@Threads(1)
+public class SingleThreadedBeanFactoryBenchmark extends BeanFactoryBenchmark {
+}
\ No newline at end of file
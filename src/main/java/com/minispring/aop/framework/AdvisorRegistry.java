@@ -0,0 +1,243 @@
+package com.minispring.aop.framework;
+
+import com.minispring.aop.pointcut.PointcutExpression;
+import com.minispring.ioc.core.MergedAnnotations;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 通知注册表
+ *
+ * 切面在注册时解析一次，通知按顺序编号（内置切面在前，其后按切面注册顺序），并按切点类型建立索引：
+ * execution与within按表达式开头的包名或类名前缀索引，@annotation与@within按注解类型名索引，
+ * 前缀为空的表达式（如execution(* *(..))）放在根前缀下。
+ * 为某个类查找候选通知时只访问类名各级前缀与类上、方法上出现的注解对应的桶，
+ * 再经类级别过滤，结果按编号排列，可直接作为代理的切面列表。
+ * 注册或注销切面时重建索引，查找只读取不可变的快照，无需加锁。
+ */
+public class AdvisorRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AdvisorRegistry.class);
+    
+    private final List<AspectInfo> infrastructureAdvisors = new ArrayList<>();
+    
+    /** 切面实例 -> 解析得到的通知，按注册顺序 */
+    private final Map<Object, List<AspectInfo>> aspectAdvisors = new LinkedHashMap<>();
+    
+    private volatile Index index = new Index(Collections.emptyList());
+    
+    /**
+     * 注册框架内置切面，其通知排在所有用户切面之前
+     */
+    public synchronized void registerInfrastructureAspect(Object aspectInstance) {
+        infrastructureAdvisors.addAll(parse(aspectInstance));
+        rebuild();
+    }
+    
+    /**
+     * 注册切面实例，已注册过的实例不重复解析
+     * @return 是否为新注册的切面
+     */
+    public synchronized boolean registerAspect(Object aspectInstance) {
+        if (aspectAdvisors.containsKey(aspectInstance)) {
+            return false;
+        }
+        aspectAdvisors.put(aspectInstance, parse(aspectInstance));
+        rebuild();
+        return true;
+    }
+    
+    /**
+     * 注销切面实例（如切面Bean被销毁时）
+     */
+    public synchronized boolean unregisterAspect(Object aspectInstance) {
+        if (aspectAdvisors.remove(aspectInstance) == null) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+    
+    /**
+     * 注销所有用户切面，内置切面保留
+     */
+    public synchronized void clearAspects() {
+        aspectAdvisors.clear();
+        rebuild();
+    }
+    
+    public synchronized List<Object> getAspectInstances() {
+        return new ArrayList<>(aspectAdvisors.keySet());
+    }
+    
+    /**
+     * 所有通知，按编号排列
+     */
+    public List<AspectInfo> getAdvisors() {
+        return index.advisors;
+    }
+    
+    /**
+     * 查找可能匹配目标类的通知，按编号排列
+     * 结果经过类级别过滤，仍需逐个方法匹配才能确定是否真正被通知
+     */
+    public List<AspectInfo> getCandidateAdvisors(Class<?> targetClass) {
+        Index current = this.index;
+        if (current.advisors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        BitSet found = new BitSet(current.advisors.size());
+        
+        // 根前缀、各级包名与类名本身
+        String className = targetClass.getName();
+        current.collectByPrefix("", found);
+        for (int dot = className.indexOf('.'); dot >= 0; dot = className.indexOf('.', dot + 1)) {
+            current.collectByPrefix(className.substring(0, dot), found);
+        }
+        current.collectByPrefix(className, found);
+        
+        if (!current.byTypeAnnotation.isEmpty()) {
+            for (Annotation annotation : MergedAnnotations.from(targetClass).getAll()) {
+                current.collect(current.byTypeAnnotation, annotation.annotationType().getName(), found);
+            }
+        }
+        if (!current.byMethodAnnotation.isEmpty()) {
+            for (String annotationName : methodAnnotationNames(targetClass)) {
+                current.collect(current.byMethodAnnotation, annotationName, found);
+            }
+        }
+        
+        List<AspectInfo> candidates = new ArrayList<>(found.cardinality());
+        for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+            AspectInfo advisor = current.advisors.get(i);
+            if (advisor.getPointcut().matchesClass(targetClass)) {
+                candidates.add(advisor);
+            }
+        }
+        return candidates;
+    }
+    
+    /**
+     * 解析切面的通知方法与切点表达式，表达式不受支持的通知被忽略
+     */
+    private static List<AspectInfo> parse(Object aspectInstance) {
+        List<AspectInfo> advisors = new ArrayList<>();
+        for (AspectInfo advisor : AspectParser.parseAspect(aspectInstance)) {
+            try {
+                advisor.getPointcut();
+                advisors.add(advisor);
+            } catch (RuntimeException e) {
+                logger.warn("切点表达式解析失败: " + advisor.getPointcutExpression() + ", 错误: " + e.getMessage());
+            }
+        }
+        return advisors;
+    }
+    
+    private void rebuild() {
+        List<AspectInfo> advisors = new ArrayList<>(infrastructureAdvisors);
+        for (List<AspectInfo> aspectInfos : aspectAdvisors.values()) {
+            advisors.addAll(aspectInfos);
+        }
+        this.index = new Index(advisors);
+    }
+    
+    /**
+     * 目标类可被代理拦截的方法上出现的所有注解类型名（含元注解），与代理通知链枚举的方法一致
+     */
+    private static Set<String> methodAnnotationNames(Class<?> targetClass) {
+        Set<String> names = new HashSet<>();
+        for (Method method : ReflectionUtils.getAllMethods(targetClass)) {
+            addAnnotationNames(method, names);
+        }
+        for (Method method : targetClass.getMethods()) {
+            addAnnotationNames(method, names);
+        }
+        return names;
+    }
+    
+    private static void addAnnotationNames(Method method, Set<String> names) {
+        for (Annotation annotation : MergedAnnotations.from(method).getAll()) {
+            names.add(annotation.annotationType().getName());
+        }
+    }
+    
+    /**
+     * 注册表某一时刻的不可变快照，桶中存放通知的编号
+     */
+    private static final class Index {
+        
+        final List<AspectInfo> advisors;
+        
+        /** execution/within：字面前缀截至最后一个点之前的包名或类名 -> 编号 */
+        final Map<String, int[]> byPrefix;
+        
+        /** @annotation：注解类型名 -> 编号 */
+        final Map<String, int[]> byMethodAnnotation;
+        
+        /** @within：注解类型名 -> 编号 */
+        final Map<String, int[]> byTypeAnnotation;
+        
+        Index(List<AspectInfo> allAdvisors) {
+            Map<String, List<Integer>> prefixes = new HashMap<>();
+            Map<String, List<Integer>> methodAnnotations = new HashMap<>();
+            Map<String, List<Integer>> typeAnnotations = new HashMap<>();
+            for (int order = 0; order < allAdvisors.size(); order++) {
+                // ||组合的表达式在每个子表达式的桶中各登记一次
+                for (PointcutExpression alternative : allAdvisors.get(order).getPointcut().getAlternatives()) {
+                    String prefix = alternative.getTypeNamePrefix();
+                    if (prefix != null) {
+                        add(prefixes, prefix.substring(0, Math.max(0, prefix.lastIndexOf('.'))), order);
+                    } else if (alternative.getType() == PointcutExpression.ExpressionType.ANNOTATION) {
+                        add(methodAnnotations, alternative.getAnnotationTypeName(), order);
+                    } else if (alternative.getType() == PointcutExpression.ExpressionType.WITHIN_ANNOTATION) {
+                        add(typeAnnotations, alternative.getAnnotationTypeName(), order);
+                    } else {
+                        add(prefixes, "", order);
+                    }
+                }
+            }
+            this.advisors = Collections.unmodifiableList(allAdvisors);
+            this.byPrefix = toArrays(prefixes);
+            this.byMethodAnnotation = toArrays(methodAnnotations);
+            this.byTypeAnnotation = toArrays(typeAnnotations);
+        }
+        
+        void collectByPrefix(String prefix, BitSet found) {
+            collect(byPrefix, prefix, found);
+        }
+        
+        void collect(Map<String, int[]> buckets, String key, BitSet found) {
+            int[] orders = buckets.get(key);
+            if (orders != null) {
+                for (int order : orders) {
+                    found.set(order);
+                }
+            }
+        }
+        
+        private static void add(Map<String, List<Integer>> buckets, String key, int order) {
+            buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(order);
+        }
+        
+        private static Map<String, int[]> toArrays(Map<String, List<Integer>> buckets) {
+            Map<String, int[]> result = new HashMap<>();
+            for (Map.Entry<String, List<Integer>> entry : buckets.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            }
+            return result;
+        }
+    }
+}
\ No newline at end of file
@@ -1,28 +1,43 @@
 package com.minispring.aop.framework;
 
 import com.minispring.aop.annotation.Aspect;
+import com.minispring.aop.proxy.CglibAopProxy;
+import com.minispring.ioc.beans.BeanDefinition;
 import com.minispring.ioc.beans.BeanFactory;
 import com.minispring.ioc.beans.BeanPostProcessor;
 import com.minispring.ioc.beans.BeansException;
 import com.minispring.ioc.beans.DefaultBeanFactory;
+import com.minispring.ioc.beans.DestructionAwareBeanPostProcessor;
 import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * AOP Bean后置处理器
  * 这是Spring AOP的核心集成点：在Bean初始化后检查是否需要创建代理
  * 实现BeanPostProcessor接口，集成到IoC容器的Bean生命周期中
+ *
+ * 只有至少一个可拦截方法匹配某个切点时才创建代理：先从通知注册表按类名前缀与注解取得候选通知，
+ * 再逐个方法匹配，匹配结果即创建代理时使用的通知链表，不会重复计算
  */
-public class AopBeanPostProcessor implements BeanPostProcessor, DefaultBeanFactory.SmartInstantiationAwareBeanPostProcessor {
+public class AopBeanPostProcessor implements DestructionAwareBeanPostProcessor,
+        DefaultBeanFactory.SmartInstantiationAwareBeanPostProcessor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AopBeanPostProcessor.class);
     
     private final BeanFactory beanFactory;
-    private final List<Object> aspectInstances = new ArrayList<>();
+    private final AdvisorRegistry advisorRegistry = new AdvisorRegistry();
     private final Map<String, Object> proxyCache = new ConcurrentHashMap<>();
     
+    private final LongAdder proxiedBeanCount = new LongAdder();
+    private final LongAdder skippedBeanCount = new LongAdder();
+    
     public AopBeanPostProcessor(BeanFactory beanFactory) {
         this.beanFactory = beanFactory;
     }
@@ -47,16 +62,18 @@ public class AopBeanPostProcessor implements BeanPostProcessor, DefaultBeanFacto
         }
         
         // 检查是否是切面类
-        if (isAspectClass(bean.getClass())) {
+        if (isAspectClass(ReflectionUtils.getUserClass(bean.getClass()))) {
             registerAspect(bean);
             return bean; // 切面类本身不需要被代理
         }
         
         // 检查是否需要为此Bean创建代理
-        if (shouldCreateProxy(bean.getClass())) {
-            return createProxy(bean, beanName);
+        List<AspectInfo> advisors = findAdvisors(bean.getClass());
+        if (!advisors.isEmpty()) {
+            return createProxy(bean, beanName, advisors, proxiedBeanCount);
         }
         
+        skippedBeanCount.increment();
         return bean;
     }
     
@@ -68,27 +85,37 @@ public class AopBeanPostProcessor implements BeanPostProcessor, DefaultBeanFacto
     }
     
     /**
-     * 注册切面实例
+     * 注册切面实例，通知方法在注册时解析一次
      */
     private void registerAspect(Object aspectInstance) {
-        if (!aspectInstances.contains(aspectInstance)) {
-            aspectInstances.add(aspectInstance);
-            System.out.println("注册切面: " + aspectInstance.getClass().getSimpleName());
+        if (advisorRegistry.registerAspect(aspectInstance)) {
+            logger.debug(() -> "注册切面: " + aspectInstance.getClass().getSimpleName());
         }
     }
     
     /**
-     * 判断是否需要为Bean创建代理
-     * 检查是否有任何切面匹配此Bean的方法
+     * 注册框架内置切面（如@Async执行切面）
+     * 内置切面不是容器中的Bean，其通知排在用户切面之前，只有方法匹配时才会触发代理
+     */
+    public void registerInfrastructureAspect(Object aspectInstance) {
+        advisorRegistry.registerInfrastructureAspect(aspectInstance);
+    }
+    
+    /**
+     * 查找Bean需要应用的通知
+     * 有切面匹配此Bean的至少一个可拦截方法时返回候选通知（按顺序），否则返回空列表
      */
-    private boolean shouldCreateProxy(Class<?> targetClass) {
+    private List<AspectInfo> findAdvisors(Class<?> targetClass) {
         // 避免为基础设施类创建代理
         if (isInfrastructureClass(targetClass)) {
-            return false;
+            return Collections.emptyList();
         }
         
-        // 检查是否有切面匹配此类
-        return hasMatchingAspect(targetClass);
+        List<AspectInfo> candidates = advisorRegistry.getCandidateAdvisors(targetClass);
+        if (candidates.isEmpty() || !CglibAopProxy.hasAdvisedMethods(targetClass, candidates)) {
+            return Collections.emptyList();
+        }
+        return candidates;
     }
     
     /**
@@ -104,53 +131,52 @@ public class AopBeanPostProcessor implements BeanPostProcessor, DefaultBeanFacto
                className.contains("CGLIB");
     }
     
-    /**
-     * 检查是否有匹配的切面
-     */
-    private boolean hasMatchingAspect(Class<?> targetClass) {
-        if (aspectInstances.isEmpty()) {
-            return false;
-        }
-        
-        // 简化检查：如果有任何切面，就认为可能需要代理
-        // 实际匹配会在代理执行时进行
-        return true;
-    }
-    
     /**
      * 创建代理对象 - 使用简化的ProxyFactory
+     * 只有单例的代理按名称缓存；原型每次创建的实例各自获得新代理，代理类由CglibAopProxy按通知结构复用
+     * @param createdCount 实际创建了新代理时递增，返回缓存的代理或创建失败时不计入；为null时不计数
      */
-    private Object createProxy(Object bean, String beanName) {
+    private Object createProxy(Object bean, String beanName, List<AspectInfo> advisors, LongAdder createdCount) {
         // 检查缓存
-        Object cachedProxy = proxyCache.get(beanName);
+        boolean cacheable = !isPrototype(beanName);
+        Object cachedProxy = cacheable ? proxyCache.get(beanName) : null;
         if (cachedProxy != null) {
             return cachedProxy;
         }
         
         try {
-            // 解析所有切面信息
-            List<AspectInfo> allAspectInfos = new ArrayList<>();
-            for (Object aspectInstance : aspectInstances) {
-                List<AspectInfo> aspectInfos = AspectParser.parseAspect(aspectInstance);
-                allAspectInfos.addAll(aspectInfos);
-            }
-            
             // 使用ProxyFactory创建CGLIB代理
-            ProxyFactory proxyFactory = new ProxyFactory(bean, allAspectInfos);
+            ProxyFactory proxyFactory = new ProxyFactory(bean, advisors);
             Object proxy = proxyFactory.getProxy();
               
             // 缓存代理对象
-            proxyCache.put(beanName, proxy);
+            if (cacheable) {
+                proxyCache.put(beanName, proxy);
+            }
+            if (createdCount != null) {
+                createdCount.increment();
+            }
             
-            System.out.println("为Bean创建CGLIB代理: " + beanName + " -> " + proxy.getClass().getSimpleName());
+            logger.debug(() -> "为Bean创建CGLIB代理: " + beanName + " -> " + proxy.getClass().getSimpleName());
             return proxy;
             
         } catch (Exception e) {
-            System.err.println("创建CGLIB代理失败 for bean: " + beanName + ", 错误: " + e.getMessage());
+            logger.error("创建CGLIB代理失败 for bean: " + beanName, e);
             return bean; // 代理创建失败时返回原对象
         }
     }
     
+    /**
+     * 判断名称对应的Bean定义是否为原型作用域，没有定义的名称（如striped的各实例）按单例处理
+     */
+    private boolean isPrototype(String beanName) {
+        if (beanFactory instanceof DefaultBeanFactory) {
+            BeanDefinition beanDefinition = ((DefaultBeanFactory) beanFactory).getBeanDefinition(beanName);
+            return beanDefinition != null && beanDefinition.isPrototype();
+        }
+        return false;
+    }
+    
     /**
      * 检查是否是代理对象
      */
@@ -162,7 +188,28 @@ public class AopBeanPostProcessor implements BeanPostProcessor, DefaultBeanFacto
      * 获取所有已注册的切面实例
      */
     public List<Object> getAspectInstances() {
-        return new ArrayList<>(aspectInstances);
+        return advisorRegistry.getAspectInstances();
+    }
+    
+    /**
+     * 获取通知注册表
+     */
+    public AdvisorRegistry getAdvisorRegistry() {
+        return advisorRegistry;
+    }
+    
+    /**
+     * 初始化后处理中实际创建了新代理的Bean数（返回缓存的代理或代理创建失败时不计入）
+     */
+    public long getProxiedBeanCount() {
+        return proxiedBeanCount.sum();
+    }
+    
+    /**
+     * 初始化后处理中因没有方法匹配任何切点而未代理的Bean数（切面Bean与已是代理的Bean不计入）
+     */
+    public long getSkippedBeanCount() {
+        return skippedBeanCount.sum();
     }
     
     /**
@@ -172,17 +219,28 @@ public class AopBeanPostProcessor implements BeanPostProcessor, DefaultBeanFacto
     @Override
     public Object getEarlyBeanReference(Object bean, String beanName) throws BeansException {
         // 如果需要代理，则提前创建代理（用于循环依赖解决）
-        if (shouldCreateProxy(bean.getClass())) {
-            return createProxy(bean, beanName + "_early");
+        List<AspectInfo> advisors = findAdvisors(bean.getClass());
+        if (!advisors.isEmpty()) {
+            return createProxy(bean, beanName + "_early", advisors, null);
         }
         return bean;
     }
     
+    /**
+     * Bean销毁时丢弃其缓存的代理，使按新定义重建的Bean获得新代理
+     */
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+        proxyCache.remove(beanName);
+        proxyCache.remove(beanName + "_early");
+        advisorRegistry.unregisterAspect(bean);
+    }
+    
     /**
      * 清除缓存（用于测试）
      */
     public void clearCache() {
         proxyCache.clear();
-        aspectInstances.clear();
+        advisorRegistry.clearAspects();
     }
 }
\ No newline at end of file
@@ -3,8 +3,11 @@ package com.minispring.aop.framework;
 import com.minispring.aop.JoinPoint;
 import com.minispring.aop.ProceedingJoinPoint;
 import com.minispring.aop.annotation.*;
+import com.minispring.aop.pointcut.PointcutExpression;
+import com.minispring.ioc.core.ReflectionUtils;
 
 import java.lang.reflect.Method;
+import java.util.Objects;
 
 /**
  * 切面信息封装类
@@ -17,6 +20,9 @@ public class AspectInfo {
     private final AdviceType adviceType;
     private final String pointcutExpression;
     
+    /** 解析后的切点，首次使用时创建；PointcutExpression不可变，并发下重复解析无害 */
+    private PointcutExpression pointcut;
+    
     public AspectInfo(Object aspectInstance, Method adviceMethod, AdviceType adviceType, String pointcutExpression) {
         this.aspectInstance = aspectInstance;
         this.adviceMethod = adviceMethod;
@@ -82,7 +88,7 @@ public class AspectInfo {
         Object result = proceedingJoinPoint.proceed();
         
         // 执行返回后通知，可能需要传递返回值
-        AfterReturning afterReturning = adviceMethod.getAnnotation(AfterReturning.class);
+        AfterReturning afterReturning = ReflectionUtils.getAnnotation(adviceMethod, AfterReturning.class);
         if (afterReturning != null && !afterReturning.returning().isEmpty()) {
             // 如果指定了returning参数，需要传递返回值
             invokeAdviceMethod(joinPoint, result);
@@ -101,7 +107,7 @@ public class AspectInfo {
             return proceedingJoinPoint.proceed();
         } catch (Throwable throwable) {
             // 执行异常后通知
-            AfterThrowing afterThrowing = adviceMethod.getAnnotation(AfterThrowing.class);
+            AfterThrowing afterThrowing = ReflectionUtils.getAnnotation(adviceMethod, AfterThrowing.class);
             if (afterThrowing != null && !afterThrowing.throwing().isEmpty()) {
                 // 如果指定了throwing参数，需要传递异常对象
                 invokeAdviceMethod(joinPoint, throwable);
@@ -147,6 +153,43 @@ public class AspectInfo {
         return pointcutExpression;
     }
     
+    /**
+     * 解析后的切点表达式，同一通知只解析一次
+     * @throws IllegalArgumentException 表达式不受支持时
+     */
+    public PointcutExpression getPointcut() {
+        PointcutExpression result = pointcut;
+        if (result == null) {
+            result = new PointcutExpression(pointcutExpression);
+            pointcut = result;
+        }
+        return result;
+    }
+    
+    /**
+     * 同一切面实例、通知方法、类型与切点表达式视为同一通知，
+     * 重新解析同一切面得到的通知彼此相等；代理缓存不使用此相等性，见AdviceChainTable
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AspectInfo)) {
+            return false;
+        }
+        AspectInfo other = (AspectInfo) o;
+        return aspectInstance == other.aspectInstance
+                && adviceMethod.equals(other.adviceMethod)
+                && adviceType == other.adviceType
+                && Objects.equals(pointcutExpression, other.pointcutExpression);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(aspectInstance) + adviceMethod.hashCode();
+    }
+    
     /**
      * 通知类型枚举
      */
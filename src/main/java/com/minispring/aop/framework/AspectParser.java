@@ -11,7 +11,7 @@ import java.util.Map;
 
 /**
  * 切面解析器
- * 负责解析@Aspect注解的类，提取切面信息
+ * 负责解析@Aspect注解的类，提取切面信息；由AdvisorRegistry在切面注册时调用一次
  */
 public class AspectParser {
     
@@ -98,20 +98,49 @@ public class AspectParser {
     
     /**
      * 解析切点表达式
-     * 如果是方法名引用，则从pointcutMap中查找对应的表达式
+     * 如果是方法名引用（serviceLayer或serviceLayer()），则从pointcutMap中查找对应的表达式；
+     * ||组合的表达式逐个解析其中的引用
      */
     private static String resolvePointcutExpression(String value, Map<String, String> pointcutMap) {
-        // 如果value包含'('，说明是完整的表达式
-        if (value.contains("(")) {
+        if (value.contains("||")) {
+            StringBuilder resolved = new StringBuilder();
+            for (String part : value.split("\\|\\|")) {
+                if (resolved.length() > 0) {
+                    resolved.append(" || ");
+                }
+                resolved.append(resolvePointcutExpression(part.trim(), pointcutMap));
+            }
+            return resolved.toString();
+        }
+        
+        String reference = value.trim();
+        if (reference.endsWith("()") && isJavaIdentifier(reference.substring(0, reference.length() - 2))) {
+            reference = reference.substring(0, reference.length() - 2);
+        }
+        
+        // 如果包含'('，说明是完整的表达式
+        if (reference.contains("(")) {
             return value;
         }
         
         // 否则认为是对@Pointcut方法的引用
-        String expression = pointcutMap.get(value);
+        String expression = pointcutMap.get(reference);
         if (expression == null) {
             throw new IllegalArgumentException("找不到切点方法: " + value);
         }
         
         return expression;
     }
+    
+    private static boolean isJavaIdentifier(String name) {
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,12 @@
 package com.minispring.aop.pointcut;
 
+import com.minispring.ioc.core.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -13,10 +19,62 @@ public class PointcutExpression {
     private final ExpressionType type;
     private final Pattern pattern;
     
+    /** 使用||组合时的各个子表达式 */
+    private final List<PointcutExpression> alternatives;
+    
+    /** execution表达式中"包.类.方法"或within表达式中类型模式开头的字面部分，用于类级别过滤与索引 */
+    private final String typeNamePrefix;
+    
     public PointcutExpression(String expression) {
         this.expression = expression;
         this.type = parseExpressionType(expression);
-        this.pattern = compilePattern(expression);
+        if (type == ExpressionType.OR) {
+            this.alternatives = parseAlternatives(expression);
+            this.pattern = null;
+        } else {
+            this.alternatives = null;
+            this.pattern = compilePattern(expression);
+        }
+        if (type == ExpressionType.EXECUTION) {
+            this.typeNamePrefix = literalPrefix(executionDeclaration(expression));
+        } else if (type == ExpressionType.WITHIN) {
+            this.typeNamePrefix = literalPrefix(expression.substring(7, expression.length() - 1).trim());
+        } else {
+            this.typeNamePrefix = null;
+        }
+    }
+    
+    /**
+     * 类级别的快速过滤：返回false时目标类的任何方法都不会匹配，返回true时仍需逐个方法匹配。
+     * execution比较类名与表达式开头的字面部分，within与@within直接判断类，
+     * @annotation只检查注解类型能否从目标类的类加载器加载
+     */
+    public boolean matchesClass(Class<?> targetClass) {
+        switch (type) {
+            case EXECUTION:
+                String className = targetClass.getName() + ".";
+                return className.startsWith(typeNamePrefix) || typeNamePrefix.startsWith(className);
+            case WITHIN:
+                return matchesWithin(targetClass);
+            case ANNOTATION:
+                try {
+                    Class.forName(pattern.pattern(), false, targetClass.getClassLoader());
+                    return true;
+                } catch (ClassNotFoundException e) {
+                    return false;
+                }
+            case WITHIN_ANNOTATION:
+                return matchesWithinAnnotation(targetClass);
+            case OR:
+                for (PointcutExpression alternative : alternatives) {
+                    if (alternative.matchesClass(targetClass)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return true;
+        }
     }
     
     /**
@@ -30,6 +88,15 @@ public class PointcutExpression {
                 return matchesWithin(targetClass);
             case ANNOTATION:
                 return matchesAnnotation(method);
+            case WITHIN_ANNOTATION:
+                return matchesWithinAnnotation(targetClass);
+            case OR:
+                for (PointcutExpression alternative : alternatives) {
+                    if (alternative.matches(method, targetClass)) {
+                        return true;
+                    }
+                }
+                return false;
             default:
                 return false;
         }
@@ -39,12 +106,16 @@ public class PointcutExpression {
      * 解析表达式类型
      */
     private ExpressionType parseExpressionType(String expression) {
-        if (expression.startsWith("execution(")) {
+        if (expression.contains("||")) {
+            return ExpressionType.OR;
+        } else if (expression.startsWith("execution(")) {
             return ExpressionType.EXECUTION;
         } else if (expression.startsWith("within(")) {
             return ExpressionType.WITHIN;
         } else if (expression.startsWith("@annotation(")) {
             return ExpressionType.ANNOTATION;
+        } else if (expression.startsWith("@within(")) {
+            return ExpressionType.WITHIN_ANNOTATION;
         } else {
             throw new IllegalArgumentException("不支持的切点表达式: " + expression);
         }
@@ -69,6 +140,10 @@ public class PointcutExpression {
                 // @annotation(com.minispring.annotation.Transactional)
                 patternStr = extractAnnotationPattern(expression);
                 break;
+            case WITHIN_ANNOTATION:
+                // @within(com.minispring.scheduling.annotation.Async)
+                patternStr = expression.substring(8, expression.length() - 1);
+                break;
             default:
                 throw new IllegalArgumentException("不支持的表达式类型: " + type);
         }
@@ -76,24 +151,44 @@ public class PointcutExpression {
         return Pattern.compile(patternStr);
     }
     
+    /**
+     * 拆分||组合的表达式
+     */
+    private List<PointcutExpression> parseAlternatives(String expression) {
+        List<PointcutExpression> result = new ArrayList<>();
+        for (String part : expression.split("\\|\\|")) {
+            result.add(new PointcutExpression(part.trim()));
+        }
+        return result;
+    }
+    
     /**
      * 提取execution表达式的模式
-     * execution(修饰符 返回类型 包.类.方法(参数))
+     * execution(修饰符 返回类型 包.类.方法(参数))，修饰符与返回类型不参与匹配；
+     * 参数为空时只匹配无参方法，为..时匹配任意参数，其他写法匹配有参数的方法
      */
     private String extractExecutionPattern(String expression) {
         // execution(* com.minispring.example..*(..))
-        String inner = expression.substring(10, expression.length() - 1); // 去掉 execution( 和 )
-        
-        // 简化处理：支持 * 和 .. 通配符
-        String regex = inner
-                .replaceAll("\\.", "\\\\.")     // . -> \.
-                .replaceAll("\\.\\.", ".*")      // .. -> .*
-                .replaceAll("\\*", "[^.]*")      // * -> [^.]*
-                .replaceAll("\\(\\.\\.", "\\\\(.*")  // (.. -> \(.*
-                .replaceAll("\\.\\.\\)", ".*\\\\)")  // ..) -> .*\)
-                .replaceAll("\\(\\)", "\\\\(\\\\)"); // () -> \(\)
+        String inner = expression.substring(10, expression.length() - 1).trim(); // 去掉 execution( 和 )
+        String parameters = inner.substring(inner.indexOf('(') + 1, inner.length() - 1).trim();
         
-        return regex;
+        String regex = toRegex(executionDeclaration(expression));
+        if (parameters.isEmpty()) {
+            return regex + "\\(\\)";
+        }
+        return regex + (parameters.equals("..") ? "\\(.*\\)" : "\\(\\.\\.\\)");
+    }
+    
+    /**
+     * execution表达式中"包.类.方法"部分
+     */
+    private static String executionDeclaration(String expression) {
+        String inner = expression.substring(10, expression.length() - 1).trim();
+        int paren = inner.indexOf('(');
+        if (paren < 0 || !inner.endsWith(")")) {
+            throw new IllegalArgumentException("不支持的切点表达式: " + expression);
+        }
+        return inner.substring(inner.lastIndexOf(' ', paren) + 1, paren).trim();
     }
     
     /**
@@ -101,12 +196,44 @@ public class PointcutExpression {
      */
     private String extractWithinPattern(String expression) {
         // within(com.minispring.example..*)
-        String inner = expression.substring(7, expression.length() - 1); // 去掉 within( 和 )
-        
-        return inner
-                .replaceAll("\\.", "\\\\.")
-                .replaceAll("\\.\\.", ".*")
-                .replaceAll("\\*", "[^.]*");
+        return toRegex(expression.substring(7, expression.length() - 1).trim()); // 去掉 within( 和 )
+    }
+    
+    /**
+     * 把类型或方法模式转换为正则：* 匹配不含点的任意字符，.. 匹配任意层包（含零层）
+     */
+    private static String toRegex(String typePattern) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < typePattern.length(); i++) {
+            char c = typePattern.charAt(i);
+            if (typePattern.startsWith("..", i)) {
+                regex.append("\\.(.*\\.)?");
+                i++;
+            } else if (c == '*') {
+                regex.append("[^.]*");
+            } else if (Character.isLetterOrDigit(c) || c == '_') {
+                regex.append(c);
+            } else {
+                regex.append('\\').append(c);
+            }
+        }
+        return regex.toString();
+    }
+    
+    /**
+     * 模式中第一个通配符之前的字面部分，..之前保留一个点
+     */
+    private static String literalPrefix(String typePattern) {
+        int end = typePattern.length();
+        int star = typePattern.indexOf('*');
+        if (star >= 0) {
+            end = star;
+        }
+        int dots = typePattern.indexOf("..");
+        if (dots >= 0 && dots < end) {
+            end = dots + 1;
+        }
+        return typePattern.substring(0, end);
     }
     
     /**
@@ -140,23 +267,36 @@ public class PointcutExpression {
     private boolean matchesAnnotation(Method method) {
         String annotationName = pattern.pattern();
         try {
-            Class<?> annotationClass = Class.forName(annotationName);
-            return method.isAnnotationPresent((Class) annotationClass);
-        } catch (ClassNotFoundException e) {
+            // 按目标类的类加载器解析，开发模式下重载的项目注解也能匹配
+            Class<? extends Annotation> annotationClass = Class.forName(annotationName, false,
+                    method.getDeclaringClass().getClassLoader()).asSubclass(Annotation.class);
+            return ReflectionUtils.hasAnnotation(method, annotationClass);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 匹配@within表达式：目标类上标注了指定注解
+     */
+    private boolean matchesWithinAnnotation(Class<?> targetClass) {
+        String annotationName = pattern.pattern();
+        try {
+            Class<? extends Annotation> annotationClass = Class.forName(annotationName, false,
+                    targetClass.getClassLoader()).asSubclass(Annotation.class);
+            return ReflectionUtils.hasAnnotation(targetClass, annotationClass);
+        } catch (ClassNotFoundException | ClassCastException e) {
             return false;
         }
     }
     
     /**
      * 构建方法签名字符串
-     * 格式：修饰符 返回类型 包.类.方法(参数类型...)
+     * 格式：包.类.方法(..)，无参方法为包.类.方法()
      */
     private String buildMethodSignature(Method method, Class<?> targetClass) {
         StringBuilder signature = new StringBuilder();
         
-        // 返回类型（简化为*）
-        signature.append("* ");
-        
         // 类名.方法名
         signature.append(targetClass.getName())
                 .append(".")
@@ -178,16 +318,44 @@ public class PointcutExpression {
     /**
      * 表达式类型枚举
      */
-    private enum ExpressionType {
+    public enum ExpressionType {
         EXECUTION,  // execution() 表达式
         WITHIN,     // within() 表达式
-        ANNOTATION  // @annotation() 表达式
+        ANNOTATION, // @annotation() 表达式
+        WITHIN_ANNOTATION, // @within() 表达式
+        OR          // 使用||组合的表达式
     }
     
     public String getExpression() {
         return expression;
     }
     
+    public ExpressionType getType() {
+        return type;
+    }
+    
+    /**
+     * ||组合的各个子表达式，其他类型返回只含自身的列表
+     */
+    public List<PointcutExpression> getAlternatives() {
+        return alternatives != null ? Collections.unmodifiableList(alternatives) : Collections.singletonList(this);
+    }
+    
+    /**
+     * execution与within表达式开头不含通配符的字面部分（如com.minispring.example.），其他类型返回null；
+     * 匹配的类名必然与它互为前缀
+     */
+    public String getTypeNamePrefix() {
+        return typeNamePrefix;
+    }
+    
+    /**
+     * @annotation与@within表达式的注解类型名，其他类型返回null
+     */
+    public String getAnnotationTypeName() {
+        return type == ExpressionType.ANNOTATION || type == ExpressionType.WITHIN_ANNOTATION ? pattern.pattern() : null;
+    }
+    
     @Override
     public String toString() {
         return "PointcutExpression{" +
@@ -0,0 +1,216 @@
+package com.minispring.aop.proxy;
+
+import com.minispring.aop.framework.AspectInfo;
+import com.minispring.aop.pointcut.PointcutExpression;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 代理类的通知链表
+ *
+ * 创建代理时，先按类级别过滤掉不可能匹配目标类的切点（切点由AspectInfo解析并缓存），
+ * 再对目标类的每个可拦截方法求出匹配的通知链，
+ * 拦截时查表即可得到通知链，不再在每次调用时构造切点表达式、编译正则或加载注解类。
+ * 表按(目标类, 通知结构)缓存在目标类的ClassValue上，通知结构只包含切面类、通知方法、通知类型与切点表达式，
+ * 不引用切面实例：通知链记录的是通知在切面列表中的下标，由各代理用自己的切面列表取出实例。
+ * 不同容器中结构相同的切面因此共享同一张表，关闭的容器不会因为缓存而无法回收；
+ * 代理类的结构只取决于这张表，按表生成的代理类也按类加载器缓存在表上。
+ */
+final class AdviceChainTable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AdviceChainTable.class);
+    
+    static final int[] NO_ADVICE = new int[0];
+    
+    private static final ClassValue<Map<List<Advice>, AdviceChainTable>> TABLES =
+            new ClassValue<Map<List<Advice>, AdviceChainTable>>() {
+                @Override
+                protected Map<List<Advice>, AdviceChainTable> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+    
+    private final Class<?> targetClass;
+    
+    /** 与切面列表一一对应，解析失败或在类级别被过滤掉的表达式为null */
+    private final PointcutExpression[] pointcuts;
+    
+    /** 创建时枚举到的方法 -> 通知链（切面列表中的下标），未被通知的方法对应NO_ADVICE */
+    private final Map<Method, int[]> chains;
+    
+    /** 枚举时未覆盖到的方法（如Object的受保护方法），首次调用时计算 */
+    private final Map<Method, int[]> lateChains = new ConcurrentHashMap<>();
+    
+    private final int advisedMethodCount;
+    
+    /** 类加载器 -> 按本表生成的代理类 */
+    private final Map<ClassLoader, CglibAopProxy.ProxyClass> proxyClasses = new ConcurrentHashMap<>();
+    
+    /**
+     * 切点取自首次创建本表的切面列表，切面实例不被保留
+     */
+    private AdviceChainTable(Class<?> targetClass, List<AspectInfo> aspects) {
+        this.targetClass = targetClass;
+        this.pointcuts = new PointcutExpression[aspects.size()];
+        for (int i = 0; i < pointcuts.length; i++) {
+            String expression = aspects.get(i).getPointcutExpression();
+            if (expression == null || expression.isEmpty()) {
+                continue;
+            }
+            try {
+                pointcuts[i] = aspects.get(i).getPointcut();
+            } catch (RuntimeException e) {
+                logger.warn("切点表达式解析失败: " + expression + ", 错误: " + e.getMessage());
+            }
+        }
+        
+        boolean anyClassMatch = false;
+        for (int i = 0; i < pointcuts.length; i++) {
+            if (pointcuts[i] != null && !pointcuts[i].matchesClass(targetClass)) {
+                pointcuts[i] = null;
+            }
+            anyClassMatch |= pointcuts[i] != null;
+        }
+        
+        // 没有切点通过类级别过滤时无需枚举方法
+        Map<Method, int[]> table = new HashMap<>();
+        int advised = 0;
+        if (anyClassMatch) {
+            for (Method method : candidateMethods(targetClass)) {
+                int[] chain = match(method);
+                table.put(method, chain);
+                if (chain.length > 0) {
+                    advised++;
+                }
+            }
+        }
+        this.chains = table;
+        this.advisedMethodCount = advised;
+    }
+    
+    /**
+     * 获取目标类在指定切面组合下的通知链表，通知结构相同的组合复用已计算的表
+     */
+    static AdviceChainTable forClass(Class<?> targetClass, List<AspectInfo> aspects) {
+        List<AspectInfo> advisors = aspects != null ? aspects : Collections.<AspectInfo>emptyList();
+        List<Advice> key = new ArrayList<>(advisors.size());
+        for (AspectInfo advisor : advisors) {
+            key.add(new Advice(advisor));
+        }
+        Map<List<Advice>, AdviceChainTable> tables = TABLES.get(targetClass);
+        AdviceChainTable table = tables.get(key);
+        if (table == null) {
+            table = tables.computeIfAbsent(key, k -> new AdviceChainTable(targetClass, advisors));
+        }
+        return table;
+    }
+    
+    /**
+     * 方法的通知链，元素为通知在切面列表中的下标，按切面注册顺序排列；没有通知时返回空数组
+     */
+    int[] getChain(Method method) {
+        int[] chain = chains.get(method);
+        if (chain != null) {
+            return chain;
+        }
+        chain = lateChains.get(method);
+        if (chain == null) {
+            chain = lateChains.computeIfAbsent(method, this::match);
+        }
+        return chain;
+    }
+    
+    /**
+     * 存在通知的可拦截方法数，为0时无需创建代理
+     */
+    int getAdvisedMethodCount() {
+        return advisedMethodCount;
+    }
+    
+    Map<ClassLoader, CglibAopProxy.ProxyClass> getProxyClasses() {
+        return proxyClasses;
+    }
+    
+    private int[] match(Method method) {
+        int[] matched = new int[pointcuts.length];
+        int count = 0;
+        for (int i = 0; i < pointcuts.length; i++) {
+            if (pointcuts[i] != null && pointcuts[i].matches(method, targetClass)) {
+                matched[count++] = i;
+            }
+        }
+        return count > 0 ? Arrays.copyOf(matched, count) : NO_ADVICE;
+    }
+    
+    /**
+     * CGLIB可能拦截的方法：类层次中声明的非私有实例方法，以及公共的继承方法（含接口默认方法），
+     * final方法无法被子类覆盖，不计入
+     */
+    private static List<Method> candidateMethods(Class<?> targetClass) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : ReflectionUtils.getAllMethods(targetClass)) {
+            int modifiers = method.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isPrivate(modifiers) && !Modifier.isFinal(modifiers)) {
+                methods.add(method);
+            }
+        }
+        for (Method method : targetClass.getMethods()) {
+            int modifiers = method.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+    
+    /**
+     * 通知结构：切面类、通知方法、通知类型与切点表达式，不引用切面实例
+     */
+    private static final class Advice {
+        
+        private final Class<?> aspectClass;
+        private final Method adviceMethod;
+        private final AspectInfo.AdviceType adviceType;
+        private final String pointcutExpression;
+        
+        Advice(AspectInfo advisor) {
+            Object aspectInstance = advisor.getAspectInstance();
+            this.aspectClass = aspectInstance != null ? aspectInstance.getClass() : null;
+            this.adviceMethod = advisor.getAdviceMethod();
+            this.adviceType = advisor.getAdviceType();
+            this.pointcutExpression = advisor.getPointcutExpression();
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Advice)) {
+                return false;
+            }
+            Advice other = (Advice) o;
+            return aspectClass == other.aspectClass
+                    && adviceMethod.equals(other.adviceMethod)
+                    && adviceType == other.adviceType
+                    && Objects.equals(pointcutExpression, other.pointcutExpression);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(aspectClass, adviceMethod, adviceType, pointcutExpression);
+        }
+    }
+}
\ No newline at end of file
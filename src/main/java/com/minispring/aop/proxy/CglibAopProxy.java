@@ -3,29 +3,56 @@ package com.minispring.aop.proxy;
 import com.minispring.aop.JoinPoint;
 import com.minispring.aop.ProceedingJoinPoint;
 import com.minispring.aop.framework.AspectInfo;
-import com.minispring.aop.pointcut.PointcutExpression;
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
+import net.sf.cglib.proxy.Dispatcher;
 import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 基于CGLIB的AOP代理实现
  * AOP模块的核心代理机制，使用CGLIB字节码生成技术创建代理对象
+ *
+ * 代理类按方法分派回调：有通知的方法进入本拦截器执行通知链，
+ * 没有通知的方法（包括toString、hashCode等）经Dispatcher直接调用目标对象，
+ * 不再创建参数数组、也不经过MethodProxy。
+ *
+ * 代理类按(目标类, 通知结构, 类加载器)缓存，通知结构不含切面实例，
+ * 同一个类的多个代理（如原型Bean）以及不同容器中切面结构相同的代理只生成一次代理类，
+ * 之后实例化缓存的类并为每个实例设置各自的回调，回调持有本代理的目标对象与切面实例。实例化不运行目标类的构造函数。
  */
 public class CglibAopProxy implements MethodInterceptor {
     
+    private static final int ADVISED = 0;
+    private static final int UNADVISED = 1;
+    
+    /** 进程内累计：生成的代理类数，以及复用已生成代理类的次数 */
+    private static final LongAdder proxyClassesGenerated = new LongAdder();
+    private static final LongAdder proxyClassesReused = new LongAdder();
+    
     private final Object target;
     private final Class<?> targetClass;
-    private final List<AspectInfo> aspects;
+    
+    /** 本代理的切面列表，通知链中的下标指向这里的切面实例 */
+    private final AspectInfo[] aspects;
+    
+    /** 各方法的通知链，创建代理时计算，同一目标类与通知结构的代理共享 */
+    private final AdviceChainTable adviceChains;
     
     public CglibAopProxy(Object target, List<AspectInfo> aspects) {
         this.target = target;
         this.targetClass = target.getClass();
-        this.aspects = aspects;
+        this.aspects = aspects != null ? aspects.toArray(new AspectInfo[0]) : new AspectInfo[0];
+        this.adviceChains = AdviceChainTable.forClass(targetClass, aspects);
     }
     
     /**
@@ -39,27 +66,76 @@ public class CglibAopProxy implements MethodInterceptor {
      * 使用指定的类加载器创建代理对象
      */
     public Object getProxy(ClassLoader classLoader) {
+        // 下标分别对应ADVISED与UNADVISED
+        Callback[] callbacks = {this, (Dispatcher) () -> target};
+        return getProxyClass(classLoader).newInstance(callbacks);
+    }
+    
+    /**
+     * 获取缓存的代理类，不存在时生成
+     */
+    private ProxyClass getProxyClass(ClassLoader classLoader) {
+        ClassLoader loader = classLoader != null ? classLoader : targetClass.getClassLoader();
+        if (loader == null) {
+            loader = Enhancer.class.getClassLoader();
+        }
+        Map<ClassLoader, ProxyClass> proxyClasses = adviceChains.getProxyClasses();
+        ProxyClass proxyClass = proxyClasses.get(loader);
+        if (proxyClass != null) {
+            proxyClassesReused.increment();
+            return proxyClass;
+        }
+        boolean[] generated = new boolean[1];
+        proxyClass = proxyClasses.computeIfAbsent(loader, l -> {
+            generated[0] = true;
+            return createProxyClass(l);
+        });
+        (generated[0] ? proxyClassesGenerated : proxyClassesReused).increment();
+        return proxyClass;
+    }
+    
+    private ProxyClass createProxyClass(ClassLoader classLoader) {
         Enhancer enhancer = new Enhancer();
         enhancer.setSuperclass(targetClass);
-        enhancer.setCallback(this);
-        
-        if (classLoader != null) {
-            enhancer.setClassLoader(classLoader);
-        }
-        
-        return enhancer.create();
+        enhancer.setCallbackTypes(new Class<?>[] {MethodInterceptor.class, Dispatcher.class});
+        enhancer.setCallbackFilter(new AdvisedMethodFilter(adviceChains));
+        // 代理类名在多次运行间保持一致，见DeterministicNamingPolicy
+        enhancer.setNamingPolicy(DeterministicNamingPolicy.INSTANCE);
+        enhancer.setClassLoader(classLoader);
+        return new ProxyClass(enhancer.createClass());
+    }
+    
+    /**
+     * 判断目标类是否至少有一个可拦截方法被给定切面通知，结果与创建代理时使用的通知链表共享
+     */
+    public static boolean hasAdvisedMethods(Class<?> targetClass, List<AspectInfo> aspects) {
+        return AdviceChainTable.forClass(targetClass, aspects).getAdvisedMethodCount() > 0;
+    }
+    
+    /**
+     * 进程内累计生成的代理类数
+     */
+    public static long getProxyClassesGenerated() {
+        return proxyClassesGenerated.sum();
+    }
+    
+    /**
+     * 进程内累计复用已生成代理类的次数
+     */
+    public static long getProxyClassesReused() {
+        return proxyClassesReused.sum();
     }
     
     /**
      * CGLIB方法拦截器实现
-     * 这是AOP的核心：在方法调用时织入切面逻辑
+     * 这是AOP的核心：在方法调用时织入切面逻辑，只有存在通知的方法才会进入
      */
     @Override
     public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
-        // 获取匹配的切面信息
-        List<AspectInfo> matchedAspects = getMatchedAspects(method);
+        // 查表获取创建代理时已计算好的通知链
+        int[] chain = adviceChains.getChain(method);
         
-        if (matchedAspects.isEmpty()) {
+        if (chain.length == 0) {
             // 没有匹配的切面，直接调用原方法
             return methodProxy.invoke(target, args);
         }
@@ -68,42 +144,82 @@ public class CglibAopProxy implements MethodInterceptor {
         JoinPointImpl joinPoint = new JoinPointImpl(method, args, target, proxy);
         
         // 执行切面逻辑
-        return executeAspects(matchedAspects, joinPoint, () -> methodProxy.invoke(target, args));
+        return new AspectInterceptorChain(aspects, chain, joinPoint, () -> methodProxy.invoke(target, args)).proceed();
     }
     
     /**
-     * 获取匹配当前方法的切面
+     * 缓存的代理类及其实例化器
+     *
+     * 默认不调用构造函数创建代理实例（见ProxyInstantiator），实例化后直接设置回调；
+     * 回退到无参构造函数时，与Enhancer.create()一致在构造前绑定回调，构造期间调用的方法也经过回调。
      */
-    private List<AspectInfo> getMatchedAspects(Method method) {
-        List<AspectInfo> matchedAspects = new ArrayList<>();
+    static final class ProxyClass {
+        
+        private final Class<?> type;
+        private final ProxyInstantiator instantiator;
         
-        for (AspectInfo aspectInfo : aspects) {
-            String pointcutExpression = aspectInfo.getPointcutExpression();
-            if (pointcutExpression != null && !pointcutExpression.isEmpty()) {
+        /** 仅在回退到构造函数时使用 */
+        private final MethodHandle setThreadCallbacks;
+        
+        ProxyClass(Class<?> type) {
+            this.type = type;
+            this.instantiator = ProxyInstantiator.forClass(type);
+            try {
+                Method method = type.getDeclaredMethod("CGLIB$SET_THREAD_CALLBACKS", Callback[].class);
+                method.setAccessible(true);
+                this.setThreadCallbacks = MethodHandles.lookup().unreflect(method);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("无法为代理类准备实例化: " + type.getName(), e);
+            }
+        }
+        
+        Object newInstance(Callback[] callbacks) {
+            if (instantiator.isConstructorFree()) {
+                Factory proxy = (Factory) instantiator.newInstance();
+                proxy.setCallbacks(callbacks);
+                return proxy;
+            }
+            try {
+                setThreadCallbacks.invokeExact(callbacks);
                 try {
-                    PointcutExpression pointcut = new PointcutExpression(pointcutExpression);
-                    if (pointcut.matches(method, targetClass)) {
-                        matchedAspects.add(aspectInfo);
-                    }
-                } catch (Exception e) {
-                    System.err.println("切点表达式解析失败: " + pointcutExpression + ", 错误: " + e.getMessage());
+                    return instantiator.newInstance();
+                } finally {
+                    setThreadCallbacks.invokeExact((Callback[]) null);
                 }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("创建代理实例失败: " + type.getName(), e);
             }
         }
-        
-        return matchedAspects;
     }
     
     /**
-     * 执行切面逻辑链
+     * 按通知链表把方法分派到拦截器或Dispatcher
+     * 生成代理类时CGLIB以过滤器参与类缓存的键，同一张表对应的过滤器相等；表按通知结构共享，过滤器不引用切面实例
      */
-    private Object executeAspects(List<AspectInfo> aspects, JoinPointImpl joinPoint, MethodInvocation invocation) throws Throwable {
-        if (aspects.isEmpty()) {
-            return invocation.proceed();
+    private static final class AdvisedMethodFilter implements CallbackFilter {
+        
+        private final AdviceChainTable adviceChains;
+        
+        AdvisedMethodFilter(AdviceChainTable adviceChains) {
+            this.adviceChains = adviceChains;
+        }
+        
+        @Override
+        public int accept(Method method) {
+            return adviceChains.getChain(method).length > 0 ? ADVISED : UNADVISED;
         }
         
-        // 构建拦截器链并执行
-        return new AspectInterceptorChain(aspects, joinPoint, invocation).proceed();
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AdvisedMethodFilter && ((AdvisedMethodFilter) o).adviceChains == adviceChains;
+        }
+        
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(adviceChains);
+        }
     }
     
     /**
@@ -118,13 +234,15 @@ public class CglibAopProxy implements MethodInterceptor {
      * 切面拦截器链实现
      */
     private static class AspectInterceptorChain implements ProceedingJoinPoint {
-        private final List<AspectInfo> aspects;
+        private final AspectInfo[] aspects;
+        private final int[] chain;
         private final JoinPointImpl joinPoint;
         private final MethodInvocation targetInvocation;
         private int currentIndex = 0;
         
-        public AspectInterceptorChain(List<AspectInfo> aspects, JoinPointImpl joinPoint, MethodInvocation targetInvocation) {
+        public AspectInterceptorChain(AspectInfo[] aspects, int[] chain, JoinPointImpl joinPoint, MethodInvocation targetInvocation) {
             this.aspects = aspects;
+            this.chain = chain;
             this.joinPoint = joinPoint;
             this.targetInvocation = targetInvocation;
         }
@@ -136,12 +254,12 @@ public class CglibAopProxy implements MethodInterceptor {
         
         @Override
         public Object proceed(Object[] args) throws Throwable {
-            if (currentIndex >= aspects.size()) {
+            if (currentIndex >= chain.length) {
                 // 所有切面都执行完了，调用目标方法
                 return targetInvocation.proceed();
             }
             
-            AspectInfo aspectInfo = aspects.get(currentIndex++);
+            AspectInfo aspectInfo = aspects[chain[currentIndex++]];
             return aspectInfo.invoke(this, joinPoint);
         }
         
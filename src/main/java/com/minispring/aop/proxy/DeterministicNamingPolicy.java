@@ -0,0 +1,57 @@
+package com.minispring.aop.proxy;
+
+import net.sf.cglib.core.DefaultNamingPolicy;
+import net.sf.cglib.core.Predicate;
+
+/**
+ * 确定性的CGLIB类命名策略
+ *
+ * CGLIB默认在类名末尾追加生成键的hashCode，其中包含回调类型等对象的身份哈希，
+ * 同一个类在每次启动时得到的代理类名都不一样。这里改用序号后缀：
+ * 同一类加载器中第一个代理类为 Target$$EnhancerByCGLIB$$0，仅在名称冲突时递增，
+ * Bean创建顺序不变时代理类名在多次运行之间保持一致，便于训练生成的类列表复用。
+ * 名称中保留"EnhancerByCGLIB"，代理识别逻辑不受影响；其他用途生成的子类可指定不同的标记加以区分。
+ */
+public class DeterministicNamingPolicy extends DefaultNamingPolicy {
+    
+    public static final DeterministicNamingPolicy INSTANCE = new DeterministicNamingPolicy("ByCGLIB");
+    
+    private final String tag;
+    
+    public DeterministicNamingPolicy(String tag) {
+        this.tag = tag;
+    }
+    
+    @Override
+    protected String getTag() {
+        return tag;
+    }
+    
+    @Override
+    public String getClassName(String prefix, String source, Object key, Predicate names) {
+        if (prefix == null) {
+            prefix = "net.sf.cglib.empty.Object";
+        } else if (prefix.startsWith("java")) {
+            // java.*包下不允许定义类
+            prefix = "$" + prefix;
+        }
+        String base = prefix + "$$" + source.substring(source.lastIndexOf('.') + 1) + getTag() + "$$";
+        
+        int index = 0;
+        String attempt = base + index;
+        while (names.evaluate(attempt)) {
+            attempt = base + (++index);
+        }
+        return attempt;
+    }
+    
+    @Override
+    public int hashCode() {
+        return tag.hashCode();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DeterministicNamingPolicy && tag.equals(((DeterministicNamingPolicy) o).tag);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.minispring.aop.proxy;
+
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 代理实例化器
+ *
+ * 仿照Objenesis在HotSpot系JVM上的标准策略：通过ReflectionFactory为代理类生成序列化构造器，
+ * 只执行Object的构造函数，不运行目标类的构造函数与字段初始化。代理实例的字段保持默认值，
+ * 方法调用都转发到目标对象，代理只需持有回调引用；目标类也不再需要无参构造函数。
+ *
+ * ReflectionFactory不可用或设置minispring.proxy.constructor.free=false时，回退到调用无参构造函数。
+ */
+public final class ProxyInstantiator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProxyInstantiator.class);
+    
+    private static final Object REFLECTION_FACTORY;
+    private static final Method NEW_CONSTRUCTOR_FOR_SERIALIZATION;
+    
+    static {
+        Object factory = null;
+        Method method = null;
+        if (Boolean.parseBoolean(System.getProperty("minispring.proxy.constructor.free", "true"))) {
+            try {
+                Class<?> factoryClass = Class.forName("sun.reflect.ReflectionFactory");
+                factory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+                method = factoryClass.getMethod("newConstructorForSerialization", Class.class, Constructor.class);
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                logger.info("当前JVM不支持不调用构造函数创建代理，回退到无参构造函数: " + e);
+                factory = null;
+                method = null;
+            }
+        }
+        REFLECTION_FACTORY = factory;
+        NEW_CONSTRUCTOR_FOR_SERIALIZATION = method;
+    }
+    
+    private final Class<?> type;
+    private final Constructor<?> constructor;
+    private final boolean constructorFree;
+    
+    private ProxyInstantiator(Class<?> type, Constructor<?> constructor, boolean constructorFree) {
+        this.type = type;
+        this.constructor = constructor;
+        this.constructorFree = constructorFree;
+    }
+    
+    /**
+     * 为指定类准备实例化器，调用方应按类缓存
+     */
+    public static ProxyInstantiator forClass(Class<?> type) {
+        if (NEW_CONSTRUCTOR_FOR_SERIALIZATION != null) {
+            try {
+                Constructor<?> constructor = (Constructor<?>) NEW_CONSTRUCTOR_FOR_SERIALIZATION.invoke(
+                        REFLECTION_FACTORY, type, Object.class.getDeclaredConstructor());
+                constructor.setAccessible(true);
+                return new ProxyInstantiator(type, constructor, true);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.debug(() -> "无法为类生成序列化构造器，回退到无参构造函数: " + type.getName() + ", 错误: " + e);
+            }
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return new ProxyInstantiator(type, constructor, false);
+        } catch (NoSuchMethodException e) {
+            return new ProxyInstantiator(type, null, false);
+        }
+    }
+    
+    /**
+     * 是否跳过构造函数；为false时newInstance()调用无参构造函数
+     */
+    public boolean isConstructorFree() {
+        return constructorFree;
+    }
+    
+    public Object newInstance() {
+        if (constructor == null) {
+            throw new IllegalStateException("无法实例化代理类，需要无参构造函数: " + type.getName());
+        }
+        try {
+            return constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("创建代理实例失败: " + type.getName(), cause);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("创建代理实例失败: " + type.getName(), e);
+        }
+    }
+}
\ No newline at end of file
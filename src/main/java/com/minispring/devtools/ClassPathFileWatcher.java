@@ -0,0 +1,122 @@
+package com.minispring.devtools;
+
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 类目录监视器
+ *
+ * 按固定间隔轮询目录下所有文件的修改时间与大小。检测到变化后继续等待，
+ * 直到一个静默期内不再有新的变化才通知监听器，避免编译器逐个写出类文件时触发多次重启。
+ */
+public class ClassPathFileWatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClassPathFileWatcher.class);
+    
+    private final List<File> directories;
+    private final long pollIntervalMillis;
+    private final long quietPeriodMillis;
+    private final Runnable listener;
+    
+    private volatile boolean running = false;
+    private Thread thread;
+    
+    public ClassPathFileWatcher(List<File> directories, long pollIntervalMillis, long quietPeriodMillis, Runnable listener) {
+        this.directories = Collections.unmodifiableList(new ArrayList<>(directories));
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.listener = listener;
+    }
+    
+    /**
+     * 记录当前快照并启动监视线程；监视线程不是守护线程，开发模式下保持JVM运行
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Map<String, Long> initial = takeSnapshot();
+        thread = new Thread(() -> watch(initial), "minispring-restart-watcher");
+        thread.start();
+    }
+    
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+    
+    private void watch(Map<String, Long> snapshot) {
+        Map<String, Long> previous = snapshot;
+        try {
+            while (running) {
+                Thread.sleep(pollIntervalMillis);
+                Map<String, Long> current = takeSnapshot();
+                if (current.equals(previous)) {
+                    continue;
+                }
+                // 等到静默期内不再变化
+                Map<String, Long> settled;
+                while (running) {
+                    Thread.sleep(quietPeriodMillis);
+                    settled = takeSnapshot();
+                    if (settled.equals(current)) {
+                        break;
+                    }
+                    current = settled;
+                }
+                previous = current;
+                if (running) {
+                    notifyListener();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void notifyListener() {
+        try {
+            listener.run();
+        } catch (RuntimeException e) {
+            logger.error("处理类目录变化失败: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 文件路径 -> 修改时间与大小的组合，文件被增删或改写时快照随之变化
+     */
+    private Map<String, Long> takeSnapshot() {
+        Map<String, Long> snapshot = new HashMap<>();
+        for (File directory : directories) {
+            if (!directory.isDirectory()) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(directory.toPath())) {
+                paths.filter(Files::isRegularFile).forEach(path -> {
+                    File file = path.toFile();
+                    snapshot.put(file.getPath(), file.lastModified() * 31 + file.length());
+                });
+            } catch (IOException | UncheckedIOException e) {
+                // 编译器正在删除文件时遍历可能失败，下一轮轮询会重新比较
+                logger.debug(() -> "扫描类目录失败: " + directory + ", 错误: " + e.getMessage());
+            }
+        }
+        return snapshot;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.minispring.devtools;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 开发模式启动器
+ *
+ * 启动应用后监视项目类目录，类文件变化时只重建应用上下文而不重启JVM。
+ * 用法: java -cp <classpath> com.minispring.devtools.DevToolsLauncher <配置类全名>...
+ *
+ * 可通过系统属性调整：
+ * minispring.devtools.classes.dirs 项目类目录（以路径分隔符分隔），默认取类路径中的所有目录；
+ * minispring.devtools.restart.prefixes 可重载的类名前缀（逗号分隔），默认取各配置类所在的包；
+ * minispring.devtools.poll.interval.ms 轮询间隔，默认1000；
+ * minispring.devtools.quiet.period.ms 静默期，默认400。
+ */
+public final class DevToolsLauncher {
+    
+    private DevToolsLauncher() {
+    }
+    
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("用法: java -cp <classpath> " + DevToolsLauncher.class.getName() + " <配置类全名>...");
+            System.exit(1);
+        }
+        
+        List<File> directories = resolveClassesDirectories();
+        Restarter restarter = new Restarter(directories, resolveReloadablePrefixes(args), args);
+        restarter.start();
+        
+        ClassPathFileWatcher watcher = new ClassPathFileWatcher(directories,
+                Long.getLong("minispring.devtools.poll.interval.ms", 1000),
+                Long.getLong("minispring.devtools.quiet.period.ms", 400),
+                restarter::restart);
+        watcher.start();
+        
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            watcher.stop();
+            restarter.close();
+        }, "minispring-devtools-shutdown"));
+    }
+    
+    /**
+     * jar包是稳定的依赖，类路径中的目录才是项目自身编译输出的类
+     */
+    static List<File> resolveClassesDirectories() {
+        String configured = System.getProperty("minispring.devtools.classes.dirs");
+        String classPath = configured != null ? configured : System.getProperty("java.class.path", "");
+        List<File> directories = new ArrayList<>();
+        for (String entry : classPath.split(File.pathSeparator)) {
+            File file = new File(entry);
+            if (!entry.isEmpty() && file.isDirectory()) {
+                directories.add(file.getAbsoluteFile());
+            }
+        }
+        return directories;
+    }
+    
+    /**
+     * 框架与示例代码可能编译到同一个目录，只重载配置类所在包下的类
+     */
+    static String[] resolveReloadablePrefixes(String[] configClassNames) {
+        String configured = System.getProperty("minispring.devtools.restart.prefixes");
+        Set<String> prefixes = new LinkedHashSet<>();
+        if (configured != null) {
+            for (String prefix : configured.split(",")) {
+                if (!prefix.trim().isEmpty()) {
+                    prefixes.add(prefix.trim());
+                }
+            }
+        } else {
+            for (String className : configClassNames) {
+                int lastDot = className.lastIndexOf('.');
+                prefixes.add(lastDot > 0 ? className.substring(0, lastDot + 1) : className);
+            }
+        }
+        return prefixes.toArray(new String[0]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.minispring.devtools;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * 重启类加载器
+ *
+ * 类名匹配可重载前缀、且类文件位于项目类目录中的类由本加载器优先加载，
+ * 其余类（框架与第三方jar）一律委托给基础类加载器。每次重启创建一个新实例，
+ * 旧实例连同它加载的项目类一起被回收；基础类加载器中已加载、链接和初始化的类，
+ * 以及以这些类为键的缓存（ClassValue元数据、CGLIB生成的类等）在重启之间保留。
+ */
+public class RestartClassLoader extends URLClassLoader {
+    
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+    
+    private final String[] reloadablePrefixes;
+    
+    /**
+     * @param urls 项目类目录
+     * @param parent 基础类加载器
+     * @param reloadablePrefixes 可重载的类名前缀，如"com.example."
+     */
+    public RestartClassLoader(URL[] urls, ClassLoader parent, String[] reloadablePrefixes) {
+        super(urls, parent);
+        this.reloadablePrefixes = reloadablePrefixes.clone();
+    }
+    
+    /**
+     * 可重载的类先在项目类目录中查找，找不到再交给基础类加载器
+     */
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!isReloadable(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loadedClass = findLoadedClass(name);
+            if (loadedClass == null) {
+                try {
+                    loadedClass = findClass(name);
+                } catch (ClassNotFoundException e) {
+                    loadedClass = getParent().loadClass(name);
+                }
+            }
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+            return loadedClass;
+        }
+    }
+    
+    public boolean isReloadable(String className) {
+        for (String prefix : reloadablePrefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.minispring.devtools;
+
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * 应用重启器
+ *
+ * 每次启动创建一个新的RestartClassLoader，从中加载配置类并创建AnnotationConfigApplicationContext；
+ * 重启时只关闭旧容器、丢弃旧类加载器再重新创建容器，JVM以及基础类加载器中已经初始化的
+ * Reflections、CGLIB、Jackson等保持不变。刷新期间线程上下文类加载器指向重启类加载器，
+ * 组件扫描因此加载到的是新版本的项目类。
+ */
+public class Restarter implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(Restarter.class);
+    
+    private final URL[] urls;
+    private final String[] reloadablePrefixes;
+    private final String[] configClassNames;
+    private final ClassLoader baseClassLoader;
+    
+    private AnnotationConfigApplicationContext applicationContext;
+    private RestartClassLoader classLoader;
+    private int restartCount = 0;
+    private boolean closed = false;
+    
+    /**
+     * @param classesDirectories 项目类目录
+     * @param reloadablePrefixes 可重载的类名前缀
+     * @param configClassNames 配置类全名
+     */
+    public Restarter(List<File> classesDirectories, String[] reloadablePrefixes, String... configClassNames) {
+        this.urls = new URL[classesDirectories.size()];
+        for (int i = 0; i < urls.length; i++) {
+            try {
+                urls[i] = classesDirectories.get(i).toURI().toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("无效的类目录: " + classesDirectories.get(i), e);
+            }
+        }
+        this.reloadablePrefixes = reloadablePrefixes.clone();
+        this.configClassNames = configClassNames.clone();
+        this.baseClassLoader = Restarter.class.getClassLoader();
+    }
+    
+    /**
+     * 首次启动
+     */
+    public synchronized void start() {
+        if (!closed && applicationContext == null) {
+            createApplicationContext();
+        }
+    }
+    
+    /**
+     * 关闭当前容器并用新的类加载器重新创建；创建失败（如代码改到一半）时保持停止状态，
+     * 等待下一次类变化再重试
+     */
+    public synchronized void restart() {
+        if (closed) {
+            return;
+        }
+        long start = System.nanoTime();
+        stopApplicationContext();
+        if (createApplicationContext()) {
+            restartCount++;
+            logger.info("重启完成，耗时 " + (System.nanoTime() - start) / 1_000_000 + " ms（第 " + restartCount + " 次）");
+        }
+    }
+    
+    private boolean createApplicationContext() {
+        RestartClassLoader loader = new RestartClassLoader(urls, baseClassLoader, reloadablePrefixes);
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            Class<?>[] configClasses = new Class<?>[configClassNames.length];
+            for (int i = 0; i < configClasses.length; i++) {
+                configClasses[i] = Class.forName(configClassNames[i], false, loader);
+            }
+            this.applicationContext = new AnnotationConfigApplicationContext(configClasses);
+            this.classLoader = loader;
+            return true;
+        } catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+            logger.error("启动失败，等待下一次类变化后重试: " + e, e);
+            // refresh()失败时已销毁创建的单例并停止其线程，这里只需关闭类加载器
+            closeClassLoader(loader);
+            return false;
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+    
+    private void stopApplicationContext() {
+        if (applicationContext != null) {
+            applicationContext.close();
+            applicationContext = null;
+        }
+        if (classLoader != null) {
+            closeClassLoader(classLoader);
+            classLoader = null;
+        }
+    }
+    
+    private void closeClassLoader(RestartClassLoader loader) {
+        try {
+            loader.close();
+        } catch (IOException e) {
+            logger.warn("关闭重启类加载器失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 当前容器，启动失败时为null
+     */
+    public synchronized AnnotationConfigApplicationContext getApplicationContext() {
+        return applicationContext;
+    }
+    
+    public synchronized int getRestartCount() {
+        return restartCount;
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            stopApplicationContext();
+        }
+    }
+}
\ No newline at end of file
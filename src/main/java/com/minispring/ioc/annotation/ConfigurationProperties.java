@@ -0,0 +1,28 @@
+package com.minispring.ioc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 配置属性绑定注解，标注在组件类上
+ * 将prefix下的属性按名称绑定到字段（有setter时通过setter），支持嵌套对象，
+ * 键名不区分大小写并忽略'-'与'_'，如db.pool.max-size可绑定到pool.maxSize
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConfigurationProperties {
+    
+    /**
+     * 属性前缀，prefix的别名
+     */
+    String value() default "";
+    
+    /**
+     * 属性前缀，如"db"
+     */
+    String prefix() default "";
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.minispring.ioc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 事件监听注解，标识一个Bean方法为应用事件监听器
+ * 方法最多只能有一个参数，参数类型即为监听的事件类型
+ * IoC模块事件机制核心注解
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventListener {
+    
+    /**
+     * 监听的事件类型，不指定时使用方法参数类型
+     */
+    Class<?>[] value() default {};
+}
\ No newline at end of file
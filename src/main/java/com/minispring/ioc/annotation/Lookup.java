@@ -0,0 +1,23 @@
+package com.minispring.ioc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 查找方法注入注解，标注在无参的抽象方法或桩方法上
+ * 容器为所在类生成CGLIB子类实现该方法，每次调用都返回容器中的目标Bean，
+ * 单例Bean由此可以在每次调用时获得一个新的原型Bean，而无需持有ApplicationContext
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Lookup {
+    
+    /**
+     * 目标Bean的名称，不指定时按方法返回类型查找
+     */
+    String value() default "";
+}
\ No newline at end of file
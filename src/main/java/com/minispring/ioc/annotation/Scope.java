@@ -0,0 +1,29 @@
+package com.minispring.ioc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 作用域注解，与@Component一起标注在组件类上
+ * 支持singleton（默认）、prototype和striped：
+ * striped作用域创建多个实例，注入的代理按调用线程把方法分派到其中一个实例，
+ * 适合内部加锁、在高并发下争用严重的有状态Bean（计数器、缓冲区、解析器等）
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Scope {
+    
+    /**
+     * 作用域名称：singleton、prototype或striped
+     */
+    String value() default "singleton";
+    
+    /**
+     * striped作用域的实例数，不大于0时取可用处理器数
+     */
+    int stripes() default 0;
+}
\ No newline at end of file
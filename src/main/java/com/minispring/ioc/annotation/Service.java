@@ -0,0 +1,22 @@
+package com.minispring.ioc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标识业务服务层组件，以@Component为元注解，会被自动扫描并注册为Bean
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Component
+public @interface Service {
+    
+    /**
+     * Bean的名称，如果不指定则使用类名的首字母小写形式
+     */
+    String value() default "";
+}
\ No newline at end of file
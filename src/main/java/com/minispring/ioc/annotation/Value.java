@@ -16,7 +16,9 @@ import java.lang.annotation.Target;
 public @interface Value {
     
     /**
-     * 属性表达式，支持占位符格式：${property.name:defaultValue}
+     * 属性表达式，支持占位符格式：${property.name:defaultValue}，
+     * 以及#{...}表达式，如#{T(java.lang.Math).max(${a}, ${b})}、#{someBean.timeout * 2}，
+     * 表达式中的占位符先按原文替换
      */
     String value();
 }
\ No newline at end of file
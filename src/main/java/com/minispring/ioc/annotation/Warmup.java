@@ -0,0 +1,23 @@
+package com.minispring.ioc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 预热方法注解
+ * 标识在容器刷新末尾、对外报告就绪之前反复调用的无参方法，
+ * 用于让代理、序列化等热点代码在接收真实流量前完成JIT编译
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Warmup {
+    
+    /**
+     * 调用次数，小于0时使用minispring.warmup.iterations配置
+     */
+    int iterations() default -1;
+}
\ No newline at end of file
@@ -12,6 +12,7 @@ public class BeanDefinition {
     private Class<?> beanClass;
     private String scope = "singleton";
     private boolean lazyInit = false;
+    private int stripes = 0;
     private List<ConstructorArgument> constructorArguments = new ArrayList<>();
     private List<PropertyValue> propertyValues = new ArrayList<>();
     private String initMethodName;
@@ -48,6 +49,17 @@ public class BeanDefinition {
         this.lazyInit = lazyInit;
     }
     
+    /**
+     * striped作用域的实例数，不大于0时取可用处理器数
+     */
+    public int getStripes() {
+        return stripes;
+    }
+    
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+    
     public List<ConstructorArgument> getConstructorArguments() {
         return constructorArguments;
     }
@@ -95,4 +107,11 @@ public class BeanDefinition {
     public boolean isPrototype() {
         return "prototype".equals(scope);
     }
+    
+    /**
+     * striped作用域：容器持有多个实例和一个分派代理，代理本身像单例一样只创建一次
+     */
+    public boolean isStriped() {
+        return "striped".equals(scope);
+    }
 }
\ No newline at end of file
@@ -6,6 +6,11 @@ package com.minispring.ioc.beans;
  */
 public interface BeanFactory {
     
+    /**
+     * 获取FactoryBean工厂本身时Bean名称的前缀
+     */
+    String FACTORY_BEAN_PREFIX = "&";
+    
     /**
      * 根据名称获取Bean实例
      * @param name Bean名称
@@ -0,0 +1,145 @@
+package com.minispring.ioc.beans;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bean工厂运行统计
+ *
+ * 计数器全部基于LongAdder，getBean热路径上只有一次Map查找加一次无竞争的累加，
+ * 不会在多线程获取Bean时引入新的锁竞争。未设置到工厂时不产生任何开销。
+ * 按名称与按类型的计数只记录解析成功的查找，计数表的大小受Bean定义数量限制；
+ * 每次getBean只计入其中一张表，失败的查找计入failedLookupCount。
+ */
+public class BeanFactoryStatistics {
+    
+    private final Map<String, LongAdder> getBeanCountsByName = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LongAdder> getBeanCountsByType = new ConcurrentHashMap<>();
+    private final LongAdder failedLookupCount = new LongAdder();
+    
+    private final LongAdder singletonLockWaitNanos = new LongAdder();
+    private final LongAdder singletonLockAcquisitionCount = new LongAdder();
+    
+    /** Bean名称 -> 最近一次创建耗时（包含创建其依赖的时间） */
+    private final Map<String, Long> creationNanos = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> postProcessorNanos = new ConcurrentHashMap<>();
+    
+    public void recordGetBean(String beanName) {
+        counter(getBeanCountsByName, beanName).increment();
+    }
+    
+    public void recordGetBeanByType(Class<?> type) {
+        counter(getBeanCountsByType, type).increment();
+    }
+    
+    public void recordFailedLookup() {
+        failedLookupCount.increment();
+    }
+    
+    public void recordSingletonLockWait(long waitNanos) {
+        singletonLockWaitNanos.add(waitNanos);
+        singletonLockAcquisitionCount.increment();
+    }
+    
+    public void recordCreation(String beanName, long nanos) {
+        creationNanos.put(beanName, nanos);
+    }
+    
+    public void recordPostProcessor(BeanPostProcessor processor, long nanos) {
+        counter(postProcessorNanos, processor.getClass().getName()).add(nanos);
+    }
+    
+    /**
+     * 先无锁读取，不存在时才创建计数器（Java 8的computeIfAbsent即使命中也会锁住桶）
+     */
+    private static <K> LongAdder counter(Map<K, LongAdder> counters, K key) {
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        return counter;
+    }
+    
+    /**
+     * 成功的getBean调用总数（按名称与按类型之和）
+     */
+    public long getGetBeanCount() {
+        long total = 0;
+        for (LongAdder counter : getBeanCountsByName.values()) {
+            total += counter.sum();
+        }
+        for (LongAdder counter : getBeanCountsByType.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+    
+    public Map<String, Long> getGetBeanCountsByName() {
+        return sums(getBeanCountsByName);
+    }
+    
+    public Map<String, Long> getGetBeanCountsByType() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<Class<?>, LongAdder> entry : getBeanCountsByType.entrySet()) {
+            result.put(entry.getKey().getName(), entry.getValue().sum());
+        }
+        return result;
+    }
+    
+    public long getFailedLookupCount() {
+        return failedLookupCount.sum();
+    }
+    
+    public long getSingletonLockWaitNanos() {
+        return singletonLockWaitNanos.sum();
+    }
+    
+    public long getSingletonLockAcquisitionCount() {
+        return singletonLockAcquisitionCount.sum();
+    }
+    
+    /**
+     * 各Bean最近一次创建耗时（微秒）
+     */
+    public Map<String, Long> getBeanCreationMicros() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, Long> entry : creationNanos.entrySet()) {
+            result.put(entry.getKey(), TimeUnit.NANOSECONDS.toMicros(entry.getValue()));
+        }
+        return result;
+    }
+    
+    /**
+     * 各后置处理器累计耗时（微秒）
+     */
+    public Map<String, Long> getPostProcessorMicros() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : postProcessorNanos.entrySet()) {
+            result.put(entry.getKey(), TimeUnit.NANOSECONDS.toMicros(entry.getValue().sum()));
+        }
+        return result;
+    }
+    
+    /**
+     * 清零调用计数与耗时累计，保留各Bean的创建耗时
+     */
+    public void reset() {
+        getBeanCountsByName.clear();
+        getBeanCountsByType.clear();
+        failedLookupCount.reset();
+        singletonLockWaitNanos.reset();
+        singletonLockAcquisitionCount.reset();
+        postProcessorNanos.clear();
+    }
+    
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return result;
+    }
+}
\ No newline at end of file
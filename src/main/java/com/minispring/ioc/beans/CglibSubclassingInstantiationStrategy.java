@@ -0,0 +1,232 @@
+package com.minispring.ioc.beans;
+
+import com.minispring.aop.proxy.DeterministicNamingPolicy;
+import com.minispring.ioc.annotation.Lookup;
+import com.minispring.ioc.core.ReflectionUtils;
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+import net.sf.cglib.proxy.NoOp;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为声明了@Lookup方法的Bean类生成CGLIB子类并实例化
+ *
+ * 子类只覆盖@Lookup方法，每个方法对应一个独立的拦截器（由CallbackFilter按方法分派），
+ * 拦截器首次调用时解析出目标Bean名称与定义并缓存为创建计划：原型直接按计划调用createBean，
+ * 不再经过按名称查找Bean定义的过程；Bean定义被注册、替换或删除后计划失效并重新解析。
+ */
+final class CglibSubclassingInstantiationStrategy {
+    
+    private static final DeterministicNamingPolicy NAMING_POLICY = new DeterministicNamingPolicy("ByLookup");
+    
+    /** 类 -> 其@Lookup方法（含继承的），按方法签名排序，没有时为空数组 */
+    private static final ClassValue<Method[]> LOOKUP_METHODS = new ClassValue<Method[]>() {
+        @Override
+        protected Method[] computeValue(Class<?> type) {
+            return findLookupMethods(type);
+        }
+    };
+    
+    /** 类 -> 生成的子类 */
+    private static final ClassValue<Class<?>> SUBCLASSES = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            return createSubclass(type, LOOKUP_METHODS.get(type));
+        }
+    };
+    
+    private final DefaultBeanFactory beanFactory;
+    
+    /** 拦截器持有各自的创建计划，按Bean类在当前工厂内共享 */
+    private final Map<Class<?>, Callback[]> callbacksCache = new ConcurrentHashMap<>();
+    
+    CglibSubclassingInstantiationStrategy(DefaultBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+    
+    static boolean hasLookupMethods(Class<?> beanClass) {
+        return LOOKUP_METHODS.get(beanClass).length > 0;
+    }
+    
+    /**
+     * 使用与给定构造器参数相同的子类构造器创建实例，随后设置回调
+     */
+    Object instantiate(Class<?> beanClass, Constructor<?> constructor, Object[] args) throws Exception {
+        Class<?> subclass = SUBCLASSES.get(beanClass);
+        Constructor<?> subclassConstructor = subclass.getDeclaredConstructor(constructor.getParameterTypes());
+        subclassConstructor.setAccessible(true);
+        Object instance = subclassConstructor.newInstance(args);
+        ((Factory) instance).setCallbacks(getCallbacks(beanClass));
+        return instance;
+    }
+    
+    private Callback[] getCallbacks(Class<?> beanClass) {
+        Callback[] callbacks = callbacksCache.get(beanClass);
+        if (callbacks == null) {
+            callbacks = callbacksCache.computeIfAbsent(beanClass, type -> {
+                Method[] lookupMethods = LOOKUP_METHODS.get(type);
+                Callback[] result = new Callback[lookupMethods.length + 1];
+                result[0] = NoOp.INSTANCE;
+                for (int i = 0; i < lookupMethods.length; i++) {
+                    result[i + 1] = new LookupMethodInterceptor(beanFactory, lookupMethods[i]);
+                }
+                return result;
+            });
+        }
+        return callbacks;
+    }
+    
+    private static Method[] findLookupMethods(Class<?> type) {
+        List<Method> result = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        // getAllMethods从子类向父类遍历，子类覆盖的方法先被看到
+        for (Method method : ReflectionUtils.getAllMethods(type)) {
+            if (!signatures.add(signature(method)) || !ReflectionUtils.hasAnnotation(method, Lookup.class)) {
+                continue;
+            }
+            int modifiers = method.getModifiers();
+            if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                throw new BeansException("@Lookup方法不能是private、static或final的: " + method);
+            }
+            if (method.getParameterCount() != 0) {
+                throw new BeansException("@Lookup方法不能有参数: " + method);
+            }
+            if (method.getReturnType() == void.class || method.getReturnType().isPrimitive()) {
+                throw new BeansException("@Lookup方法必须返回对象类型: " + method);
+            }
+            result.add(method);
+        }
+        result.sort(Comparator.comparing(CglibSubclassingInstantiationStrategy::signature));
+        return result.toArray(new Method[0]);
+    }
+    
+    private static String signature(Method method) {
+        return method.getName() + Arrays.toString(method.getParameterTypes());
+    }
+    
+    private static Class<?> createSubclass(Class<?> beanClass, Method[] lookupMethods) {
+        Class<?>[] callbackTypes = new Class<?>[lookupMethods.length + 1];
+        callbackTypes[0] = NoOp.class;
+        Arrays.fill(callbackTypes, 1, callbackTypes.length, MethodInterceptor.class);
+        
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(beanClass);
+        enhancer.setNamingPolicy(NAMING_POLICY);
+        enhancer.setCallbackFilter(new LookupCallbackFilter(lookupMethods));
+        enhancer.setCallbackTypes(callbackTypes);
+        enhancer.setClassLoader(beanClass.getClassLoader());
+        return enhancer.createClass();
+    }
+    
+    /**
+     * @Lookup方法分派到下标i+1的拦截器，其余方法分派到NoOp（不覆盖）
+     * CGLIB按过滤器的equals缓存生成的类，因此按方法签名比较
+     */
+    private static final class LookupCallbackFilter implements CallbackFilter {
+        
+        private final List<String> signatures = new ArrayList<>();
+        
+        LookupCallbackFilter(Method[] lookupMethods) {
+            for (Method method : lookupMethods) {
+                signatures.add(signature(method));
+            }
+        }
+        
+        @Override
+        public int accept(Method method) {
+            return signatures.indexOf(signature(method)) + 1;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LookupCallbackFilter && signatures.equals(((LookupCallbackFilter) o).signatures);
+        }
+        
+        @Override
+        public int hashCode() {
+            return signatures.hashCode();
+        }
+    }
+    
+    /**
+     * 单个@Lookup方法的拦截器
+     */
+    private static final class LookupMethodInterceptor implements MethodInterceptor {
+        
+        private final DefaultBeanFactory beanFactory;
+        private final Method method;
+        private volatile LookupPlan plan;
+        
+        LookupMethodInterceptor(DefaultBeanFactory beanFactory, Method method) {
+            this.beanFactory = beanFactory;
+            this.method = method;
+        }
+        
+        @Override
+        public Object intercept(Object obj, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            LookupPlan current = this.plan;
+            if (current == null || current.definitionVersion != beanFactory.getBeanDefinitionVersion()) {
+                current = resolvePlan();
+                this.plan = current;
+            }
+            if (current.createDirectly) {
+                return beanFactory.createBean(current.beanName, current.beanDefinition);
+            }
+            return beanFactory.getBean(current.beanName);
+        }
+        
+        /**
+         * 先读版本号再解析，解析期间定义发生变化时下次调用会重新解析
+         */
+        private LookupPlan resolvePlan() {
+            long version = beanFactory.getBeanDefinitionVersion();
+            String beanName = ReflectionUtils.getAnnotation(method, Lookup.class).value();
+            if (beanName.isEmpty()) {
+                String[] candidates = beanFactory.getBeanNamesForType(method.getReturnType());
+                if (candidates.length != 1) {
+                    throw new BeansException("@Lookup方法 " + method + " 需要唯一的 " + method.getReturnType().getName()
+                            + " 类型Bean，实际找到 " + candidates.length + " 个");
+                }
+                beanName = candidates[0];
+            }
+            BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanFactory.transformedBeanName(beanName));
+            if (beanDefinition == null) {
+                throw new BeansException("@Lookup方法 " + method + " 引用的Bean '" + beanName + "' 不存在");
+            }
+            return new LookupPlan(beanName, beanDefinition, version);
+        }
+    }
+    
+    private static final class LookupPlan {
+        
+        final String beanName;
+        final BeanDefinition beanDefinition;
+        final long definitionVersion;
+        
+        /** 普通原型直接按定义创建；单例、striped Bean与FactoryBean的产品仍经getBean获取 */
+        final boolean createDirectly;
+        
+        LookupPlan(String beanName, BeanDefinition beanDefinition, long definitionVersion) {
+            this.beanName = beanName;
+            this.beanDefinition = beanDefinition;
+            this.definitionVersion = definitionVersion;
+            this.createDirectly = beanDefinition.isPrototype()
+                    && !FactoryBean.class.isAssignableFrom(beanDefinition.getBeanClass());
+        }
+    }
+}
\ No newline at end of file
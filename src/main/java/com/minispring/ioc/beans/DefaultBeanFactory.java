@@ -1,14 +1,20 @@
 package com.minispring.ioc.beans;
 
 import com.minispring.ioc.annotation.*;
+import com.minispring.ioc.core.PropertySource;
 import com.minispring.ioc.core.ReflectionUtils;
 import com.minispring.ioc.core.TypeConverter;
+import com.minispring.ioc.expression.Expression;
+import com.minispring.ioc.expression.ExpressionParser;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 默认Bean工厂实现 - Spring风格的IoC容器核心
@@ -16,21 +22,60 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DefaultBeanFactory implements BeanFactory {
     
+    private static final Logger logger = LoggerFactory.getLogger(DefaultBeanFactory.class);
+    
     // 三级缓存 - Spring循环依赖解决方案
     private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>(); // 一级缓存：完成的单例
     private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>(); // 二级缓存：早期单例
     private final Map<String, ObjectFactory<?>> singletonFactories = new ConcurrentHashMap<>(); // 三级缓存：单例工厂
     
-    // Bean定义注册表
+    // FactoryBean创建的单例产品，与工厂实例分开缓存：Bean名称 -> 产品
+    private final Map<String, Object> factoryBeanObjectCache = new ConcurrentHashMap<>();
+    
+    // Bean定义注册表：写操作在beanDefinitionMap上加锁并发布新的不可变快照，遍历定义的读操作只使用快照，不需要加锁
     private final Map<String, BeanDefinition> beanDefinitionMap = new ConcurrentHashMap<>();
     private final List<String> beanDefinitionNames = new ArrayList<>();
+    private volatile BeanDefinitionSnapshot beanDefinitionSnapshot = BeanDefinitionSnapshot.EMPTY;
+    
+    // 类型索引：类型 -> 匹配的Bean名称，Bean定义或手动单例变化时整体替换为新表
+    private volatile Map<Class<?>, String[]> beanNamesByType = new ConcurrentHashMap<>();
+    
+    // FactoryBean定义暴露的产品类型，按定义对象缓存，定义被替换后旧条目自然失效
+    private final Map<BeanDefinition, Class<?>> factoryBeanObjectTypeCache = new ConcurrentHashMap<>();
+    
+    // 手动注册的单例名称（没有对应的Bean定义）
+    private final Set<String> manualSingletonNames = Collections.synchronizedSet(new LinkedHashSet<>());
+    
+    // 依赖关系：Bean名称 -> 注入了该Bean的Bean名称，用于替换或删除时只失效受影响的单例
+    private final Map<String, Set<String>> dependentBeanMap = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>();
+    
+    // 需要执行销毁回调的单例（原始对象，按创建顺序）
+    private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
     
     // Bean后置处理器
-    private final List<BeanPostProcessor> beanPostProcessors = new ArrayList<>();
+    private final List<BeanPostProcessor> beanPostProcessors = new CopyOnWriteArrayList<>();
+    private volatile boolean hasInstantiationAwareBeanPostProcessors = false;
+    
+    // 声明了@Lookup方法的Bean通过CGLIB子类实例化
+    private final CglibSubclassingInstantiationStrategy lookupInstantiationStrategy =
+            new CglibSubclassingInstantiationStrategy(this);
+    
+    // Bean定义每次注册、替换或删除时递增，用于使缓存的查找计划失效
+    private volatile long beanDefinitionVersion;
     
     // 正在创建的Bean集合（用于检测循环依赖）
     private final Set<String> singletonsCurrentlyInCreation = Collections.synchronizedSet(new HashSet<>());
     
+    // 运行统计，为null时不采集
+    private volatile BeanFactoryStatistics statistics;
+    
+    /** @Value占位符的属性来源，未设置时只查找系统属性 */
+    private PropertySource propertySource;
+    
+    /** @Value中#{...}表达式的解析器，首次使用时按属性来源中的编译阈值创建 */
+    private volatile ExpressionParser expressionParser;
+    
     
     @Override
     public Object getBean(String name) throws BeansException {
@@ -39,14 +84,24 @@ public class DefaultBeanFactory implements BeanFactory {
     
     @Override
     public <T> T getBean(Class<T> type) throws BeansException {
+        BeanFactoryStatistics stats = this.statistics;
         String[] beanNames = getBeanNamesForType(type);
         if (beanNames.length == 0) {
+            if (stats != null) {
+                stats.recordFailedLookup();
+            }
             throw new BeansException("No bean of type " + type.getName() + " found");
         }
         if (beanNames.length > 1) {
+            if (stats != null) {
+                stats.recordFailedLookup();
+            }
             throw new BeansException("Multiple beans of type " + type.getName() + " found: " + Arrays.toString(beanNames));
         }
-        return (T) getBean(beanNames[0]);
+        if (stats != null) {
+            stats.recordGetBeanByType(type);
+        }
+        return (T) doGetBean(beanNames[0], type);
     }
     
     @Override
@@ -60,27 +115,116 @@ public class DefaultBeanFactory implements BeanFactory {
     
     /**
      * 核心获取Bean方法 - 实现三级缓存
+     * requiredType不为null表示按类型查找，已在getBean(Class)中按类型计数，这里不再按名称重复计数
      */
     protected Object doGetBean(String name, Class<?> requiredType) throws BeansException {
+        BeanFactoryStatistics stats = requiredType == null ? this.statistics : null;
+        String beanName = transformedBeanName(name);
+        
         // 1. 尝试从三级缓存获取
-        Object singleton = getSingleton(name);
+        Object singleton = getSingleton(beanName);
         if (singleton != null) {
-            return singleton;
+            if (stats != null) {
+                stats.recordGetBean(name);
+            }
+            return getObjectForBeanInstance(singleton, name, beanName);
         }
         
         // 2. 获取Bean定义
-        BeanDefinition beanDefinition = getBeanDefinition(name);
+        BeanDefinition beanDefinition = getBeanDefinition(beanName);
         if (beanDefinition == null) {
-            throw new BeansException("No bean named '" + name + "' is defined");
+            if (stats != null) {
+                stats.recordFailedLookup();
+            }
+            throw new BeansException("No bean named '" + beanName + "' is defined");
+        }
+        // 名称解析到Bean之后才计数，不存在的名称不会在计数表中留下条目
+        if (stats != null) {
+            stats.recordGetBean(name);
         }
         
         // 3. 创建Bean实例
+        Object beanInstance;
         if (beanDefinition.isSingleton()) {
-            singleton = getSingleton(name, () -> createBean(name, beanDefinition));
-            return singleton;
+            beanInstance = getSingleton(beanName, () -> createBean(beanName, beanDefinition));
+        } else if (beanDefinition.isStriped()) {
+            // 分派代理像单例一样只创建一次
+            beanInstance = getSingleton(beanName, () -> createStripedBean(beanName, beanDefinition));
         } else {
-            return createBean(name, beanDefinition);
+            beanInstance = createBean(beanName, beanDefinition);
+        }
+        
+        // 4. FactoryBean按请求的名称返回工厂本身或其产品
+        return getObjectForBeanInstance(beanInstance, name, beanName);
+    }
+    
+    /**
+     * 去掉名称的"&"前缀，得到工厂在容器中注册的Bean名称
+     */
+    protected String transformedBeanName(String name) {
+        String beanName = name;
+        while (beanName.startsWith(FACTORY_BEAN_PREFIX)) {
+            beanName = beanName.substring(FACTORY_BEAN_PREFIX.length());
+        }
+        return beanName;
+    }
+    
+    /**
+     * 名称带"&"前缀时返回工厂本身，否则FactoryBean返回其产品，普通Bean原样返回
+     */
+    protected Object getObjectForBeanInstance(Object beanInstance, String name, String beanName) {
+        if (name.startsWith(FACTORY_BEAN_PREFIX)) {
+            if (!(beanInstance instanceof FactoryBean)) {
+                throw new BeansException("Bean named '" + beanName + "' is not a FactoryBean");
+            }
+            return beanInstance;
+        }
+        if (!(beanInstance instanceof FactoryBean)) {
+            return beanInstance;
         }
+        return getObjectFromFactoryBean((FactoryBean<?>) beanInstance, beanName);
+    }
+    
+    /**
+     * 获取FactoryBean的产品
+     * 已注册的单例工厂产出的单例产品只创建一次，缓存在factoryBeanObjectCache中；
+     * 原型工厂或原型产品每次调用getObject()
+     */
+    private Object getObjectFromFactoryBean(FactoryBean<?> factory, String beanName) {
+        Object object = factoryBeanObjectCache.get(beanName);
+        if (object != null) {
+            return object;
+        }
+        if (factory.isSingleton()) {
+            synchronized (singletonObjects) {
+                // 工厂必须是已完成创建的单例，早期引用或原型工厂的产品不缓存
+                if (singletonObjects.get(beanName) == factory) {
+                    object = factoryBeanObjectCache.get(beanName);
+                    if (object == null) {
+                        object = doGetObjectFromFactoryBean(factory, beanName);
+                        factoryBeanObjectCache.put(beanName, object);
+                    }
+                    return object;
+                }
+            }
+        }
+        return doGetObjectFromFactoryBean(factory, beanName);
+    }
+    
+    /**
+     * 调用getObject()创建产品；产品由工厂负责配置，不再经过依赖注入与Bean后置处理器
+     */
+    private Object doGetObjectFromFactoryBean(FactoryBean<?> factory, String beanName) {
+        Object object;
+        try {
+            object = factory.getObject();
+        } catch (Exception e) {
+            throw new BeanCreationException(beanName, "FactoryBean threw exception on object creation", e);
+        }
+        if (object == null) {
+            throw new BeanCreationException(beanName, "FactoryBean returned null object");
+        }
+        return object;
     }
     
     /**
@@ -106,7 +250,12 @@ public class DefaultBeanFactory implements BeanFactory {
      * 获取单例Bean（带工厂方法）
      */
     protected Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+        BeanFactoryStatistics stats = this.statistics;
+        long waitStart = stats != null ? System.nanoTime() : 0L;
         synchronized (singletonObjects) {
+            if (stats != null) {
+                stats.recordSingletonLockWait(System.nanoTime() - waitStart);
+            }
             Object singletonObject = singletonObjects.get(beanName);
             if (singletonObject == null) {
                 beforeSingletonCreation(beanName);
@@ -125,8 +274,11 @@ public class DefaultBeanFactory implements BeanFactory {
      * 创建Bean实例 - 完整的生命周期管理
      */
     protected Object createBean(String beanName, BeanDefinition beanDefinition) throws BeansException {
+        BeanFactoryStatistics stats = this.statistics;
+        long start = stats != null ? System.nanoTime() : 0L;
         try {
             // 1. 创建Bean实例
+            applyBeanPostProcessorsBeforeInstantiation(beanDefinition.getBeanClass(), beanName);
             Object bean = createBeanInstance(beanName, beanDefinition);
             
             // 2. 早期暴露Bean（解决循环依赖）
@@ -140,12 +292,73 @@ public class DefaultBeanFactory implements BeanFactory {
             // 4. 初始化Bean
             Object exposedObject = initializeBean(beanName, bean, beanDefinition);
             
+            // 5. 登记单例的销毁回调
+            if (beanDefinition.isSingleton()) {
+                registerDisposableBeanIfNecessary(beanName, bean);
+            }
+            
+            if (stats != null) {
+                stats.recordCreation(beanName, System.nanoTime() - start);
+            }
             return exposedObject;
         } catch (Exception e) {
             throw new BeanCreationException(beanName, "Bean creation failed", e);
         }
     }
     
+    /**
+     * 创建striped作用域的Bean：按定义创建N个完整经过生命周期的实例，再生成按线程分派调用的代理
+     */
+    protected Object createStripedBean(String beanName, BeanDefinition beanDefinition) throws BeansException {
+        if (FactoryBean.class.isAssignableFrom(beanDefinition.getBeanClass())) {
+            throw new BeanCreationException(beanName, "striped作用域不支持FactoryBean");
+        }
+        int stripeCount = beanDefinition.getStripes() > 0
+                ? beanDefinition.getStripes() : Runtime.getRuntime().availableProcessors();
+        List<Object> stripes = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            // 各实例以不同的名称经过后置处理器，避免按名称缓存的处理器（如AOP代理缓存）把它们合并为同一个对象
+            String stripeName = beanName + "#" + i;
+            stripes.add(createBean(stripeName, beanDefinition));
+            transferDependencies(stripeName, beanName);
+        }
+        
+        Object proxy;
+        try {
+            proxy = StripedProxyFactory.createProxy(beanDefinition.getBeanClass(), stripes);
+        } catch (Exception e) {
+            throw new BeanCreationException(beanName, "Striped proxy creation failed", e);
+        }
+        if (hasDestroyMethods(stripes.get(0))) {
+            synchronized (singletonObjects) {
+                disposableBeans.put(beanName, (DisposableBean) () -> {
+                    for (Object stripe : stripes) {
+                        invokeDestroyMethods(beanName, stripe);
+                    }
+                });
+            }
+        }
+        logger.debug(() -> "创建striped Bean: " + beanName + "，实例数 " + stripeCount);
+        return proxy;
+    }
+    
+    /**
+     * 把实例注入依赖时记录的依赖关系转到代理的Bean名称上，依赖被替换时整个striped Bean随之重建
+     */
+    private void transferDependencies(String fromBeanName, String toBeanName) {
+        Set<String> dependencies = dependenciesForBeanMap.remove(fromBeanName);
+        if (dependencies == null) {
+            return;
+        }
+        for (String dependency : dependencies) {
+            Set<String> dependents = dependentBeanMap.get(dependency);
+            if (dependents != null) {
+                dependents.remove(fromBeanName);
+            }
+            registerDependentBean(dependency, toBeanName);
+        }
+    }
+    
     /**
      * 创建Bean实例
      */
@@ -156,7 +369,7 @@ public class DefaultBeanFactory implements BeanFactory {
         // 寻找带@Autowired注解的构造函数
         Constructor<?> targetConstructor = null;
         for (Constructor<?> constructor : constructors) {
-            if (constructor.isAnnotationPresent(Autowired.class)) {
+            if (ReflectionUtils.hasAnnotation(constructor, Autowired.class)) {
                 targetConstructor = constructor;
                 break;
             }
@@ -170,6 +383,10 @@ public class DefaultBeanFactory implements BeanFactory {
         
         // 解析构造函数参数
         Object[] args = resolveConstructorArgs(targetConstructor, beanName);
+        if (CglibSubclassingInstantiationStrategy.hasLookupMethods(beanClass)) {
+            // 声明了@Lookup方法的类实例化为生成的子类
+            return lookupInstantiationStrategy.instantiate(beanClass, targetConstructor, args);
+        }
         return targetConstructor.newInstance(args);
     }
     
@@ -177,20 +394,21 @@ public class DefaultBeanFactory implements BeanFactory {
      * 属性注入
      */
     protected void populateBean(String beanName, BeanDefinition beanDefinition, Object bean) throws Exception {
-        Class<?> beanClass = bean.getClass();
+        Class<?> beanClass = ReflectionUtils.getUserClass(bean.getClass());
         
         // 处理@Autowired字段注入
         Field[] fields = beanClass.getDeclaredFields();
         for (Field field : fields) {
-            if (field.isAnnotationPresent(Autowired.class)) {
+            if (ReflectionUtils.hasAnnotation(field, Autowired.class)) {
                 field.setAccessible(true);
-                Object dependentBean = resolveDependency(field.getType(), field.getName());
+                Object dependentBean = resolveDependency(field.getType(), field.getName(), beanName);
                 field.set(bean, dependentBean);
-            } else if (field.isAnnotationPresent(Value.class)) {
+            } else if (ReflectionUtils.hasAnnotation(field, Value.class)) {
                 field.setAccessible(true);
-                Value valueAnnotation = field.getAnnotation(Value.class);
-                String value = resolveValue(valueAnnotation.value());
-                Object convertedValue = TypeConverter.convertValue(value, field.getType());
+                Value valueAnnotation = ReflectionUtils.getAnnotation(field, Value.class);
+                Object value = evaluateValue(valueAnnotation.value(), beanName);
+                Object convertedValue = field.getType().isInstance(value) ? value
+                        : TypeConverter.convertValue(value != null ? String.valueOf(value) : null, field.getType());
                 field.set(bean, convertedValue);
             }
         }
@@ -198,11 +416,11 @@ public class DefaultBeanFactory implements BeanFactory {
         // 处理@Autowired方法注入
         Method[] methods = beanClass.getDeclaredMethods();
         for (Method method : methods) {
-            if (method.isAnnotationPresent(Autowired.class) && method.getName().startsWith("set")) {
+            if (ReflectionUtils.hasAnnotation(method, Autowired.class) && method.getName().startsWith("set")) {
                 method.setAccessible(true);
                 Class<?>[] paramTypes = method.getParameterTypes();
                 if (paramTypes.length == 1) {
-                    Object dependentBean = resolveDependency(paramTypes[0], method.getName());
+                    Object dependentBean = resolveDependency(paramTypes[0], method.getName(), beanName);
                     method.invoke(bean, dependentBean);
                 }
             }
@@ -230,9 +448,9 @@ public class DefaultBeanFactory implements BeanFactory {
      */
     protected void invokeInitMethods(String beanName, Object bean, BeanDefinition beanDefinition) throws Exception {
         // 1. 调用@PostConstruct方法
-        Method[] methods = bean.getClass().getDeclaredMethods();
+        Method[] methods = ReflectionUtils.getUserClass(bean.getClass()).getDeclaredMethods();
         for (Method method : methods) {
-            if (method.isAnnotationPresent(PostConstruct.class)) {
+            if (ReflectionUtils.hasAnnotation(method, PostConstruct.class)) {
                 method.setAccessible(true);
                 method.invoke(bean);
             }
@@ -247,12 +465,50 @@ public class DefaultBeanFactory implements BeanFactory {
     // Bean后置处理器相关方法
     public void addBeanPostProcessor(BeanPostProcessor beanPostProcessor) {
         this.beanPostProcessors.add(beanPostProcessor);
+        if (beanPostProcessor instanceof InstantiationAwareBeanPostProcessor) {
+            this.hasInstantiationAwareBeanPostProcessors = true;
+        }
+    }
+    
+    /**
+     * 移除后置处理器，之后创建的Bean不再经过它；正在创建Bean的线程不受影响
+     */
+    public boolean removeBeanPostProcessor(BeanPostProcessor beanPostProcessor) {
+        boolean removed = this.beanPostProcessors.remove(beanPostProcessor);
+        if (removed && beanPostProcessor instanceof InstantiationAwareBeanPostProcessor) {
+            boolean remaining = false;
+            for (BeanPostProcessor processor : beanPostProcessors) {
+                remaining |= processor instanceof InstantiationAwareBeanPostProcessor;
+            }
+            this.hasInstantiationAwareBeanPostProcessors = remaining;
+        }
+        return removed;
+    }
+    
+    public int getBeanPostProcessorCount() {
+        return beanPostProcessors.size();
+    }
+    
+    protected void applyBeanPostProcessorsBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+        if (!hasInstantiationAwareBeanPostProcessors) {
+            return;
+        }
+        for (BeanPostProcessor processor : beanPostProcessors) {
+            if (processor instanceof InstantiationAwareBeanPostProcessor) {
+                ((InstantiationAwareBeanPostProcessor) processor).postProcessBeforeInstantiation(beanClass, beanName);
+            }
+        }
     }
     
     protected Object applyBeanPostProcessorsBeforeInitialization(Object existingBean, String beanName) throws BeansException {
         Object result = existingBean;
+        BeanFactoryStatistics stats = this.statistics;
         for (BeanPostProcessor processor : beanPostProcessors) {
+            long start = stats != null ? System.nanoTime() : 0L;
             Object current = processor.postProcessBeforeInitialization(result, beanName);
+            if (stats != null) {
+                stats.recordPostProcessor(processor, System.nanoTime() - start);
+            }
             if (current == null) {
                 return result;
             }
@@ -263,8 +519,13 @@ public class DefaultBeanFactory implements BeanFactory {
     
     protected Object applyBeanPostProcessorsAfterInitialization(Object existingBean, String beanName) throws BeansException {
         Object result = existingBean;
+        BeanFactoryStatistics stats = this.statistics;
         for (BeanPostProcessor processor : beanPostProcessors) {
+            long start = stats != null ? System.nanoTime() : 0L;
             Object current = processor.postProcessAfterInitialization(result, beanName);
+            if (stats != null) {
+                stats.recordPostProcessor(processor, System.nanoTime() - start);
+            }
             if (current == null) {
                 return result;
             }
@@ -273,46 +534,467 @@ public class DefaultBeanFactory implements BeanFactory {
         return result;
     }
     
+    /**
+     * 设置运行统计收集器，为null时关闭统计
+     */
+    public void setStatistics(BeanFactoryStatistics statistics) {
+        this.statistics = statistics;
+    }
+    
+    public BeanFactoryStatistics getStatistics() {
+        return statistics;
+    }
+    
+    public void setPropertySource(PropertySource propertySource) {
+        this.propertySource = propertySource;
+    }
+    
+    public PropertySource getPropertySource() {
+        return propertySource;
+    }
+    
+    /**
+     * 对容器外创建的对象执行@Autowired/@Value注入，不执行初始化回调和后置处理器
+     * 用于测试实例等生命周期不由容器管理的对象；这类对象没有Bean名称，不登记依赖关系
+     */
+    public void autowireBean(Object existingBean) throws BeansException {
+        try {
+            populateBean(null, null, existingBean);
+        } catch (BeansException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BeansException("依赖注入失败: " + existingBean.getClass().getName(), e);
+        }
+    }
+    
+    /**
+     * 已创建的单例数量
+     */
+    public int getSingletonCount() {
+        return singletonObjects.size();
+    }
+    
     // Bean定义管理
+    /**
+     * 注册Bean定义，可在容器运行期间调用
+     * 同名定义已存在时替换它：旧单例及注入了它的单例被销毁，之前已实例化的非延迟单例按新定义重新创建
+     */
     public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
-        beanDefinitionMap.put(beanName, beanDefinition);
-        beanDefinitionNames.add(beanName);
+        BeanDefinition existing;
+        synchronized (beanDefinitionMap) {
+            existing = beanDefinitionMap.put(beanName, beanDefinition);
+            beanDefinitionVersion++;
+            if (existing == null) {
+                beanDefinitionNames.add(beanName);
+            } else {
+                factoryBeanObjectTypeCache.remove(existing);
+            }
+            publishBeanDefinitionSnapshot();
+            clearTypeIndex();
+        }
+        
+        // 单例的销毁与重建在注册锁之外进行，避免与正在创建Bean的线程互相等待
+        boolean replacesManualSingleton = existing == null && manualSingletonNames.remove(beanName);
+        if (replacesManualSingleton) {
+            clearTypeIndex();
+        }
+        if (existing != null || replacesManualSingleton) {
+            resetBeanDefinition(beanName);
+        }
+    }
+    
+    /**
+     * 删除Bean定义，并销毁其单例以及注入了它的单例
+     * 依赖方若仍是非延迟单例会尝试重新创建，缺少依赖时创建失败并输出错误
+     */
+    public void removeBeanDefinition(String beanName) throws NoSuchBeanDefinitionException {
+        synchronized (beanDefinitionMap) {
+            BeanDefinition existing = beanDefinitionMap.remove(beanName);
+            if (existing == null) {
+                throw new NoSuchBeanDefinitionException(beanName);
+            }
+            beanDefinitionNames.remove(beanName);
+            beanDefinitionVersion++;
+            factoryBeanObjectTypeCache.remove(existing);
+            publishBeanDefinitionSnapshot();
+            clearTypeIndex();
+        }
+        resetBeanDefinition(beanName);
+    }
+    
+    /**
+     * 失效指定Bean及其依赖方的单例，并重新创建其中仍有定义的非延迟单例
+     */
+    protected void resetBeanDefinition(String beanName) {
+        List<String> destroyedNames = new ArrayList<>();
+        destroySingleton(beanName, new HashSet<>(), destroyedNames);
+        
+        for (String destroyedName : destroyedNames) {
+            BeanDefinition bd = getBeanDefinition(destroyedName);
+            if (bd != null && (bd.isSingleton() || bd.isStriped()) && !bd.isLazyInit()) {
+                try {
+                    getBean(isFactoryBean(destroyedName) ? FACTORY_BEAN_PREFIX + destroyedName : destroyedName);
+                } catch (BeansException e) {
+                    logger.error("重新创建Bean失败: " + destroyedName + ", 错误: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * 记录dependentBeanName注入了beanName，dependentBeanName为null（容器外的对象）时不记录
+     */
+    public void registerDependentBean(String beanName, String dependentBeanName) {
+        if (dependentBeanName == null) {
+            return;
+        }
+        beanName = transformedBeanName(beanName);
+        if (beanName.equals(dependentBeanName)) {
+            return;
+        }
+        dependentBeanMap.computeIfAbsent(beanName, key -> ConcurrentHashMap.newKeySet()).add(dependentBeanName);
+        dependenciesForBeanMap.computeIfAbsent(dependentBeanName, key -> ConcurrentHashMap.newKeySet()).add(beanName);
+    }
+    
+    /**
+     * 获取注入了指定Bean的Bean名称
+     */
+    public String[] getDependentBeans(String beanName) {
+        Set<String> dependents = dependentBeanMap.get(beanName);
+        return dependents != null ? dependents.toArray(new String[0]) : new String[0];
+    }
+    
+    /**
+     * 销毁单个单例：先销毁依赖它的单例，再执行自身的销毁回调
+     */
+    public void destroySingleton(String beanName) {
+        destroySingleton(beanName, new HashSet<>(), new ArrayList<>());
+    }
+    
+    /**
+     * 按创建顺序的逆序销毁所有单例，容器关闭时调用
+     */
+    public void destroySingletons() {
+        String[] names;
+        synchronized (singletonObjects) {
+            names = disposableBeans.keySet().toArray(new String[0]);
+        }
+        Set<String> visited = new HashSet<>();
+        for (int i = names.length - 1; i >= 0; i--) {
+            destroySingleton(names[i], visited, new ArrayList<>());
+        }
+        
+        synchronized (singletonObjects) {
+            singletonObjects.clear();
+            earlySingletonObjects.clear();
+            singletonFactories.clear();
+            factoryBeanObjectCache.clear();
+            manualSingletonNames.clear();
+        }
+        clearTypeIndex();
+        dependentBeanMap.clear();
+        dependenciesForBeanMap.clear();
+    }
+    
+    private void destroySingleton(String beanName, Set<String> visited, List<String> destroyedNames) {
+        if (!visited.add(beanName)) {
+            return;
+        }
+        
+        // 依赖方持有的引用即将失效，先销毁它们
+        Set<String> dependents = dependentBeanMap.remove(beanName);
+        if (dependents != null) {
+            for (String dependent : dependents) {
+                destroySingleton(dependent, visited, destroyedNames);
+            }
+        }
+        
+        Object exposedObject;
+        Object disposableBean;
+        synchronized (singletonObjects) {
+            exposedObject = singletonObjects.remove(beanName);
+            earlySingletonObjects.remove(beanName);
+            singletonFactories.remove(beanName);
+            factoryBeanObjectCache.remove(beanName);
+            disposableBean = disposableBeans.remove(beanName);
+        }
+        
+        Set<String> dependencies = dependenciesForBeanMap.remove(beanName);
+        if (dependencies != null) {
+            for (String dependency : dependencies) {
+                Set<String> siblings = dependentBeanMap.get(dependency);
+                if (siblings != null) {
+                    siblings.remove(beanName);
+                }
+            }
+        }
+        
+        if (exposedObject == null) {
+            return;
+        }
+        destroyedNames.add(beanName);
+        
+        for (BeanPostProcessor processor : beanPostProcessors) {
+            if (processor instanceof DestructionAwareBeanPostProcessor) {
+                try {
+                    ((DestructionAwareBeanPostProcessor) processor).postProcessBeforeDestruction(exposedObject, beanName);
+                } catch (Exception e) {
+                    logger.error("Bean销毁前处理失败: " + beanName + ", 错误: " + e.getMessage());
+                }
+            }
+        }
+        if (disposableBean != null) {
+            invokeDestroyMethods(beanName, disposableBean);
+        }
+    }
+    
+    /**
+     * 登记实现了DisposableBean或声明了@PreDestroy方法的单例
+     */
+    protected void registerDisposableBeanIfNecessary(String beanName, Object bean) {
+        if (hasDestroyMethods(bean)) {
+            synchronized (singletonObjects) {
+                disposableBeans.put(beanName, bean);
+            }
+        }
+    }
+    
+    private boolean hasDestroyMethods(Object bean) {
+        if (bean instanceof DisposableBean) {
+            return true;
+        }
+        for (Method method : ReflectionUtils.getUserClass(bean.getClass()).getDeclaredMethods()) {
+            if (ReflectionUtils.hasAnnotation(method, PreDestroy.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 调用销毁回调：先DisposableBean.destroy()，再@PreDestroy方法
+     */
+    protected void invokeDestroyMethods(String beanName, Object bean) {
+        if (bean instanceof DisposableBean) {
+            try {
+                ((DisposableBean) bean).destroy();
+            } catch (Exception e) {
+                logger.error("调用DisposableBean.destroy()失败: " + beanName + ", 错误: " + e.getMessage());
+            }
+        }
+        
+        for (Method method : ReflectionUtils.getUserClass(bean.getClass()).getDeclaredMethods()) {
+            if (ReflectionUtils.hasAnnotation(method, PreDestroy.class)) {
+                try {
+                    method.setAccessible(true);
+                    method.invoke(bean);
+                } catch (Exception e) {
+                    logger.error("调用Bean销毁方法失败: " + beanName + ", 错误: " + e.getMessage());
+                }
+            }
+        }
     }
     
     public BeanDefinition getBeanDefinition(String beanName) {
         return beanDefinitionMap.get(beanName);
     }
     
+    /**
+     * Bean定义的版本号，注册、替换或删除定义时递增（在注册锁内修改）
+     */
+    long getBeanDefinitionVersion() {
+        return beanDefinitionVersion;
+    }
+    
+    /**
+     * 直接注册一个已创建好的单例对象，不经过Bean生命周期
+     * 用于容器内部创建的基础设施对象
+     */
+    public void registerSingleton(String beanName, Object singletonObject) {
+        synchronized (singletonObjects) {
+            if (singletonObjects.containsKey(beanName)) {
+                throw new BeansException("Could not register object under bean name '" + beanName + "': there is already an object bound");
+            }
+            addSingleton(beanName, singletonObject);
+            if (!beanDefinitionMap.containsKey(beanName)) {
+                manualSingletonNames.add(beanName);
+                clearTypeIndex();
+            }
+        }
+    }
+    
     @Override
     public boolean containsBean(String name) {
-        return beanDefinitionMap.containsKey(name) || singletonObjects.containsKey(name);
+        String beanName = transformedBeanName(name);
+        return beanDefinitionMap.containsKey(beanName) || singletonObjects.containsKey(beanName);
     }
     
     @Override
     public boolean isSingleton(String name) {
-        BeanDefinition bd = getBeanDefinition(name);
-        return bd != null && bd.isSingleton();
+        String beanName = transformedBeanName(name);
+        BeanDefinition bd = getBeanDefinition(beanName);
+        Object beanInstance = singletonObjects.get(beanName);
+        if (bd == null && beanInstance == null) {
+            return false;
+        }
+        boolean singleton = bd == null || bd.isSingleton() || bd.isStriped();
+        if (singleton && beanInstance instanceof FactoryBean && !name.startsWith(FACTORY_BEAN_PREFIX)) {
+            // 单例工厂的产品是否单例由工厂决定，工厂尚未创建时按定义判断
+            return ((FactoryBean<?>) beanInstance).isSingleton();
+        }
+        return singleton;
     }
     
     @Override
     public Class<?> getType(String name) {
-        BeanDefinition bd = getBeanDefinition(name);
-        return bd != null ? bd.getBeanClass() : null;
+        String beanName = transformedBeanName(name);
+        boolean factoryDereference = name.startsWith(FACTORY_BEAN_PREFIX);
+        BeanDefinition bd = getBeanDefinition(beanName);
+        if (bd == null) {
+            Object singleton = singletonObjects.get(beanName);
+            if (singleton instanceof FactoryBean && !factoryDereference) {
+                return ((FactoryBean<?>) singleton).getObjectType();
+            }
+            return singleton != null ? singleton.getClass() : null;
+        }
+        if (!factoryDereference && FactoryBean.class.isAssignableFrom(bd.getBeanClass())) {
+            return getFactoryBeanObjectType(beanName, bd);
+        }
+        return bd.getBeanClass();
+    }
+    
+    /**
+     * 指定名称的Bean是否为FactoryBean，只根据Bean定义或已注册的单例判断，不会创建Bean
+     */
+    public boolean isFactoryBean(String name) {
+        String beanName = transformedBeanName(name);
+        BeanDefinition bd = getBeanDefinition(beanName);
+        if (bd != null) {
+            return FactoryBean.class.isAssignableFrom(bd.getBeanClass());
+        }
+        return singletonObjects.get(beanName) instanceof FactoryBean;
+    }
+    
+    /**
+     * FactoryBean定义暴露的产品类型
+     * 优先从实现类的FactoryBean<T>泛型参数解析，无需创建工厂；无法解析时只询问已创建的工厂，
+     * 绝不为了类型匹配提前创建工厂。工厂尚未创建且类型未知时返回null，不缓存
+     */
+    protected Class<?> getFactoryBeanObjectType(String beanName, BeanDefinition beanDefinition) {
+        Class<?> objectType = factoryBeanObjectTypeCache.get(beanDefinition);
+        if (objectType != null) {
+            return objectType;
+        }
+        objectType = ReflectionUtils.resolveTypeArgument(beanDefinition.getBeanClass(), FactoryBean.class);
+        if (objectType == null) {
+            Object factory = singletonObjects.get(beanName);
+            if (factory instanceof FactoryBean) {
+                objectType = ((FactoryBean<?>) factory).getObjectType();
+            }
+        }
+        if (objectType != null) {
+            factoryBeanObjectTypeCache.put(beanDefinition, objectType);
+        }
+        return objectType;
     }
     
     public String[] getBeanDefinitionNames() {
-        return beanDefinitionNames.toArray(new String[0]);
+        return beanDefinitionSnapshot.names.clone();
     }
     
+    /**
+     * 在注册锁内按当前注册顺序重建快照并发布，须在clearTypeIndex()之前调用：
+     * 读到新类型索引的线程也一定读到新快照
+     */
+    private void publishBeanDefinitionSnapshot() {
+        String[] names = beanDefinitionNames.toArray(new String[0]);
+        BeanDefinition[] definitions = new BeanDefinition[names.length];
+        for (int i = 0; i < names.length; i++) {
+            definitions[i] = beanDefinitionMap.get(names[i]);
+        }
+        beanDefinitionSnapshot = new BeanDefinitionSnapshot(names, definitions);
+    }
+    
+    /**
+     * 获取匹配指定类型的Bean名称
+     * FactoryBean按产品类型匹配；产品不匹配而工厂本身匹配时返回带"&"前缀的名称
+     * 结果缓存在类型索引中，所有FactoryBean的产品类型都已确定时才写入
+     */
     public String[] getBeanNamesForType(Class<?> type) {
+        Map<Class<?>, String[]> index = this.beanNamesByType;
+        String[] cached = index.get(type);
+        if (cached != null) {
+            return cached.clone();
+        }
+        
         List<String> result = new ArrayList<>();
-        for (String beanName : beanDefinitionNames) {
-            BeanDefinition bd = getBeanDefinition(beanName);
-            if (bd != null && type.isAssignableFrom(bd.getBeanClass())) {
+        boolean complete = true;
+        // 名称与定义取自同一个快照，并发的替换或删除不会让名称配上缺失或更新的定义
+        BeanDefinitionSnapshot snapshot = this.beanDefinitionSnapshot;
+        for (int i = 0; i < snapshot.names.length; i++) {
+            String beanName = snapshot.names[i];
+            BeanDefinition bd = snapshot.definitions[i];
+            Class<?> beanClass = bd.getBeanClass();
+            if (FactoryBean.class.isAssignableFrom(beanClass)) {
+                Class<?> objectType = getFactoryBeanObjectType(beanName, bd);
+                complete &= objectType != null;
+                if (objectType != null && type.isAssignableFrom(objectType)) {
+                    result.add(beanName);
+                } else if (type.isAssignableFrom(beanClass)) {
+                    result.add(FACTORY_BEAN_PREFIX + beanName);
+                }
+            } else if (type.isAssignableFrom(beanClass)) {
                 result.add(beanName);
             }
         }
-        return result.toArray(new String[0]);
+        synchronized (manualSingletonNames) {
+            for (String beanName : manualSingletonNames) {
+                Object singleton = singletonObjects.get(beanName);
+                if (singleton instanceof FactoryBean) {
+                    Class<?> objectType = ((FactoryBean<?>) singleton).getObjectType();
+                    complete &= objectType != null;
+                    if (objectType != null && type.isAssignableFrom(objectType)) {
+                        result.add(beanName);
+                        continue;
+                    }
+                    beanName = FACTORY_BEAN_PREFIX + beanName;
+                }
+                if (singleton != null && type.isInstance(singleton)) {
+                    result.add(beanName);
+                }
+            }
+        }
+        
+        String[] beanNames = result.toArray(new String[0]);
+        if (complete) {
+            // 期间索引若已被替换，写入的是旧表，不会污染新表
+            index.put(type, beanNames);
+            return beanNames.clone();
+        }
+        return beanNames;
+    }
+    
+    /**
+     * Bean定义的不可变快照：名称按注册顺序排列，definitions与names一一对应
+     */
+    private static final class BeanDefinitionSnapshot {
+        
+        static final BeanDefinitionSnapshot EMPTY = new BeanDefinitionSnapshot(new String[0], new BeanDefinition[0]);
+        
+        final String[] names;
+        final BeanDefinition[] definitions;
+        
+        BeanDefinitionSnapshot(String[] names, BeanDefinition[] definitions) {
+            this.names = names;
+            this.definitions = definitions;
+        }
+    }
+    
+    /**
+     * 使类型索引失效，替换为新表而不是清空，避免并发计算的旧结果写入新表
+     */
+    private void clearTypeIndex() {
+        beanNamesByType = new ConcurrentHashMap<>();
     }
     
     // 循环依赖管理
@@ -358,24 +1040,29 @@ public class DefaultBeanFactory implements BeanFactory {
         Object[] args = new Object[paramTypes.length];
         
         for (int i = 0; i < paramTypes.length; i++) {
-            args[i] = resolveDependency(paramTypes[i], "arg" + i);
+            args[i] = resolveDependency(paramTypes[i], "arg" + i, beanName);
         }
         
         return args;
     }
     
-    protected Object resolveDependency(Class<?> type, String name) throws Exception {
+    /**
+     * 解析注入依赖，并记录requestingBeanName依赖于被注入的Bean
+     */
+    protected Object resolveDependency(Class<?> type, String name, String requestingBeanName) throws Exception {
         String[] beanNames = getBeanNamesForType(type);
         if (beanNames.length == 0) {
             throw new BeansException("No bean of type " + type.getName() + " found for dependency injection");
         }
         if (beanNames.length == 1) {
+            registerDependentBean(beanNames[0], requestingBeanName);
             return getBean(beanNames[0]);
         }
         
         // 多个候选bean，尝试按名称匹配
         for (String beanName : beanNames) {
             if (beanName.equals(name)) {
+                registerDependentBean(beanName, requestingBeanName);
                 return getBean(beanName);
             }
         }
@@ -391,18 +1078,81 @@ public class DefaultBeanFactory implements BeanFactory {
             String propertyKey = parts[0];
             String defaultValue = parts.length > 1 ? parts[1] : null;
             
-            String resolved = System.getProperty(propertyKey);
+            String resolved = propertySource != null
+                    ? propertySource.getProperty(propertyKey) : System.getProperty(propertyKey);
             return resolved != null ? resolved : defaultValue;
         }
         return value;
     }
     
+    /**
+     * 解析@Value的值：含#{...}时先替换其中的${...}占位符，再按表达式求值，
+     * 表达式引用的Bean登记为当前Bean的依赖；否则按占位符解析
+     */
+    protected Object evaluateValue(String value, String beanName) {
+        if (!value.contains(ExpressionParser.TEMPLATE_PREFIX)) {
+            return resolveValue(value);
+        }
+        Expression expression = getExpressionParser().parseTemplate(resolveEmbeddedPlaceholders(value));
+        return expression.getValue(name -> {
+            registerDependentBean(name, beanName);
+            return getBean(name);
+        });
+    }
+    
+    /**
+     * 替换文本中所有${key:default}占位符，属性值按原文插入
+     */
+    protected String resolveEmbeddedPlaceholders(String value) {
+        StringBuilder result = new StringBuilder();
+        int index = 0;
+        int start;
+        while ((start = value.indexOf("${", index)) >= 0) {
+            int end = value.indexOf('}', start);
+            if (end < 0) {
+                break;
+            }
+            result.append(value, index, start);
+            String placeholder = value.substring(start, end + 1);
+            String resolved = resolveValue(placeholder);
+            if (resolved == null) {
+                throw new BeansException("无法解析占位符: " + placeholder + "，所在表达式: " + value);
+            }
+            result.append(resolved);
+            index = end + 1;
+        }
+        return result.append(value, index, value.length()).toString();
+    }
+    
+    private ExpressionParser getExpressionParser() {
+        ExpressionParser parser = expressionParser;
+        if (parser == null) {
+            synchronized (this) {
+                parser = expressionParser;
+                if (parser == null) {
+                    String key = "minispring.expression.compile.threshold";
+                    String threshold = propertySource != null
+                            ? propertySource.getProperty(key, "3") : System.getProperty(key, "3");
+                    parser = new ExpressionParser(Integer.parseInt(threshold.trim()));
+                    expressionParser = parser;
+                }
+            }
+        }
+        return parser;
+    }
+    
     // 对象工厂接口
     @FunctionalInterface
     public interface ObjectFactory<T> {
         T getObject() throws BeansException;
     }
     
+    // 实例化感知Bean后置处理器，在创建Bean实例之前回调
+    public interface InstantiationAwareBeanPostProcessor extends BeanPostProcessor {
+        default void postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+        }
+    }
+    
     // 智能实例化感知Bean后置处理器
     public interface SmartInstantiationAwareBeanPostProcessor extends BeanPostProcessor {
         default Object getEarlyBeanReference(Object bean, String beanName) throws BeansException {
@@ -0,0 +1,16 @@
+package com.minispring.ioc.beans;
+
+/**
+ * 销毁感知的Bean后置处理器
+ * 单例被销毁（容器关闭、定义被替换或删除）前回调，用于释放处理器为该Bean保存的状态
+ */
+public interface DestructionAwareBeanPostProcessor extends BeanPostProcessor {
+    
+    /**
+     * 在Bean的销毁回调执行前调用
+     * @param bean 容器中暴露的Bean实例（可能是代理）
+     * @param beanName Bean名称
+     * @throws BeansException 处理异常
+     */
+    void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException;
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.minispring.ioc.beans;
+
+/**
+ * 工厂Bean接口 - 由自定义逻辑创建对外暴露的对象
+ * 按名称获取得到的是getObject()返回的产品，名称前加"&"才得到工厂本身
+ * 适合连接池、HTTP客户端等创建过程复杂的对象
+ *
+ * @param <T> 产品类型
+ */
+public interface FactoryBean<T> {
+    
+    /**
+     * 创建产品对象
+     * @return 产品对象，不能为null
+     * @throws Exception 创建异常
+     */
+    T getObject() throws Exception;
+    
+    /**
+     * 产品类型，用于按类型匹配
+     * 容器优先从实现类的泛型参数解析产品类型，无法解析时才在工厂创建后调用此方法
+     * @return 产品类型，未知时返回null
+     */
+    Class<?> getObjectType();
+    
+    /**
+     * 产品是否为单例，单例产品只创建一次并与工厂分开缓存
+     * @return 是否为单例
+     */
+    default boolean isSingleton() {
+        return true;
+    }
+}
\ No newline at end of file
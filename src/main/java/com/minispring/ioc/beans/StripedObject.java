@@ -0,0 +1,30 @@
+package com.minispring.ioc.beans;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * striped作用域Bean的代理实现此接口，供调用方读取所有实例的合并状态
+ * 如 ((StripedObject<Counter>) counter).aggregate(stripes -> stripes.stream().mapToLong(Counter::get).sum())
+ *
+ * @param <T> Bean类型
+ */
+public interface StripedObject<T> {
+    
+    /**
+     * 实例数
+     */
+    int getStripeCount();
+    
+    /**
+     * 所有实例，按创建顺序
+     */
+    List<T> getStripes();
+    
+    /**
+     * 合并所有实例的状态
+     */
+    default <R> R aggregate(Function<? super List<T>, ? extends R> aggregator) {
+        return aggregator.apply(getStripes());
+    }
+}
\ No newline at end of file
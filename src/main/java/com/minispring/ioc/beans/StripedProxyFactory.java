@@ -0,0 +1,172 @@
+package com.minispring.ioc.beans;
+
+import com.minispring.aop.proxy.DeterministicNamingPolicy;
+import com.minispring.aop.proxy.ProxyInstantiator;
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
+import net.sf.cglib.proxy.Dispatcher;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 为striped作用域的Bean生成分派代理
+ *
+ * 代理类继承Bean类并实现StripedObject：Bean的方法经CGLIB Dispatcher直接转发到
+ * 按当前线程ID选出的实例上（不经过反射），StripedObject的方法转发到持有全部实例的视图对象供调用方合并状态。
+ * equals、hashCode与toString按代理自身的身份实现，不随调用线程变化。
+ * 每个Bean类只生成一次代理类，不经构造函数实例化后再设置持有各自实例数组的回调。
+ */
+final class StripedProxyFactory {
+    
+    private static final DeterministicNamingPolicy NAMING_POLICY = new DeterministicNamingPolicy("ByStriped");
+    
+    /** 类 -> 生成的代理类的实例化器 */
+    private static final ClassValue<ProxyInstantiator> PROXY_INSTANTIATORS = new ClassValue<ProxyInstantiator>() {
+        @Override
+        protected ProxyInstantiator computeValue(Class<?> type) {
+            return ProxyInstantiator.forClass(createProxyClass(type));
+        }
+    };
+    
+    private StripedProxyFactory() {
+    }
+    
+    /**
+     * 创建分派到给定实例的代理，代理的字段不会被使用
+     */
+    static Object createProxy(Class<?> beanClass, List<Object> stripes) {
+        Object proxy;
+        try {
+            proxy = PROXY_INSTANTIATORS.get(beanClass).newInstance();
+        } catch (IllegalStateException e) {
+            throw new BeansException("无法为striped作用域的Bean创建代理: " + beanClass.getName(), e);
+        }
+        List<Object> view = Collections.unmodifiableList(new ArrayList<>(stripes));
+        StripedView stripedView = new StripedView(view);
+        ((Factory) proxy).setCallbacks(new Callback[]{
+                new StripeDispatcher(view.toArray()),
+                (Dispatcher) () -> stripedView,
+                new ObjectMethodsInterceptor(beanClass, view.size())});
+        return proxy;
+    }
+    
+    /**
+     * 按线程ID选择实例。线程池中的线程ID通常是连续的，直接取模即可让它们均匀分布，
+     * 混合哈希反而会让少量线程随机碰撞到同一个实例
+     */
+    static int stripeIndex(long threadId, int stripeCount) {
+        return Math.floorMod(Long.hashCode(threadId), stripeCount);
+    }
+    
+    private static Class<?> createProxyClass(Class<?> beanClass) {
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(beanClass);
+        enhancer.setInterfaces(new Class<?>[]{StripedObject.class});
+        enhancer.setNamingPolicy(NAMING_POLICY);
+        enhancer.setCallbackFilter(StripedCallbackFilter.INSTANCE);
+        enhancer.setCallbackTypes(new Class<?>[]{Dispatcher.class, Dispatcher.class, MethodInterceptor.class});
+        enhancer.setClassLoader(beanClass.getClassLoader());
+        return enhancer.createClass();
+    }
+    
+    /**
+     * StripedObject的方法分派到下标1的视图，java.lang.Object的方法（含Bean类重写的equals、hashCode、toString）
+     * 分派到下标2的拦截器，其余方法分派到下标0按线程选择实例的Dispatcher
+     */
+    private static final class StripedCallbackFilter implements CallbackFilter {
+        
+        static final StripedCallbackFilter INSTANCE = new StripedCallbackFilter();
+        
+        @Override
+        public int accept(Method method) {
+            if (method.getDeclaringClass() == StripedObject.class) {
+                return 1;
+            }
+            return isObjectMethod(method) ? 2 : 0;
+        }
+        
+        private static boolean isObjectMethod(Method method) {
+            if (method.getDeclaringClass() == Object.class) {
+                return true;
+            }
+            try {
+                Object.class.getDeclaredMethod(method.getName(), method.getParameterTypes());
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+    
+    private static final class StripeDispatcher implements Dispatcher {
+        
+        private final Object[] stripes;
+        
+        StripeDispatcher(Object[] stripes) {
+            this.stripes = stripes;
+        }
+        
+        @Override
+        public Object loadObject() {
+            return stripes[stripeIndex(Thread.currentThread().getId(), stripes.length)];
+        }
+    }
+    
+    /**
+     * StripedObject的实现，代理上的StripedObject方法（包括接口默认方法）都转发到这里
+     */
+    private static final class StripedView implements StripedObject<Object> {
+        
+        private final List<Object> stripes;
+        
+        StripedView(List<Object> stripes) {
+            this.stripes = stripes;
+        }
+        
+        @Override
+        public int getStripeCount() {
+            return stripes.size();
+        }
+        
+        @Override
+        public List<Object> getStripes() {
+            return stripes;
+        }
+    }
+    
+    /**
+     * java.lang.Object的方法按代理自身的身份实现；clone、finalize等其他方法执行Object的原始实现
+     */
+    private static final class ObjectMethodsInterceptor implements MethodInterceptor {
+        
+        private final Class<?> beanClass;
+        private final int stripeCount;
+        
+        ObjectMethodsInterceptor(Class<?> beanClass, int stripeCount) {
+            this.beanClass = beanClass;
+            this.stripeCount = stripeCount;
+        }
+        
+        @Override
+        public Object intercept(Object obj, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            if (method.getName().equals("equals") && args.length == 1) {
+                return obj == args[0];
+            }
+            if (method.getName().equals("hashCode") && args.length == 0) {
+                return System.identityHashCode(obj);
+            }
+            if (method.getName().equals("toString") && args.length == 0) {
+                return beanClass.getName() + "@" + Integer.toHexString(System.identityHashCode(obj))
+                        + "[stripes=" + stripeCount + "]";
+            }
+            return methodProxy.invokeSuper(obj, args);
+        }
+    }
+}
\ No newline at end of file
@@ -1,18 +1,39 @@
 package com.minispring.ioc.context;
 
+import com.minispring.aop.annotation.Aspect;
 import com.minispring.aop.framework.AopBeanPostProcessor;
 import com.minispring.ioc.annotation.*;
 import com.minispring.ioc.beans.*;
+import com.minispring.ioc.context.event.ContextClosedEvent;
+import com.minispring.ioc.context.event.ContextRefreshedEvent;
+import com.minispring.ioc.context.event.EventListenerMethodProcessor;
+import com.minispring.ioc.context.event.SimpleApplicationEventMulticaster;
+import com.minispring.ioc.context.properties.ConfigurationPropertiesBinder;
+import com.minispring.ioc.context.properties.ConfigurationPropertiesBindingPostProcessor;
+import com.minispring.ioc.core.MergedAnnotations;
+import com.minispring.ioc.core.PropertySource;
 import com.minispring.ioc.core.ReflectionUtils;
 import com.minispring.ioc.core.TypeConverter;
+import com.minispring.jmx.ContainerStatistics;
+import com.minispring.logging.LogLevel;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+import com.minispring.scheduling.annotation.AsyncExecutionAspect;
+import com.minispring.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import com.minispring.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 注解配置应用上下文 - Spring风格的IoC容器实现
@@ -20,24 +41,52 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class AnnotationConfigApplicationContext implements ApplicationContext, Closeable {
     
+    private static final Logger logger = LoggerFactory.getLogger(AnnotationConfigApplicationContext.class);
+    
     private final DefaultBeanFactory beanFactory;
     private final ComponentScanner componentScanner;
-    private final Properties properties;
+    private final PropertySource propertySource;
     private final Set<Class<?>> configurationClasses;
+    /** 容器自身创建的基础设施对象，在所有单例销毁之后关闭 */
     private final List<DisposableBean> disposableBeans;
+    private final SimpleApplicationEventMulticaster applicationEventMulticaster;
+    private final ScheduledAnnotationBeanPostProcessor scheduledAnnotationBeanPostProcessor;
+    private final ConfigurationPropertiesBinder configurationPropertiesBinder;
+    private final ConfigurationPropertiesBindingPostProcessor configurationPropertiesBindingPostProcessor;
+    private final AopBeanPostProcessor aopBeanPostProcessor;
+    
+    /** 异步事件分发使用的执行器，由容器创建时在close()中关闭 */
+    private ExecutorService eventExecutor;
+    
+    /** 组件类后台预取器，仅在refresh()期间存在 */
+    private ClassPrefetcher classPrefetcher;
     
-    private boolean active = false;
+    /** 容器统计MBean，配置minispring.jmx.enabled=true时注册 */
+    private ContainerStatistics containerStatistics;
+    
+    private volatile boolean active = false;
+    
+    /** 预热阶段允许访问Bean，但容器尚未对外报告就绪 */
+    private volatile boolean warmingUp = false;
     
     public AnnotationConfigApplicationContext() {
         this.beanFactory = new DefaultBeanFactory();
         this.componentScanner = new ComponentScanner();
-        this.properties = new Properties();
-        this.configurationClasses = new HashSet<>();
+        this.propertySource = new PropertySource();
+        this.configurationPropertiesBinder = new ConfigurationPropertiesBinder(propertySource);
+        this.configurationClasses = new LinkedHashSet<>();
         this.disposableBeans = new ArrayList<>();
+        this.applicationEventMulticaster = new SimpleApplicationEventMulticaster();
+        this.scheduledAnnotationBeanPostProcessor = new ScheduledAnnotationBeanPostProcessor(beanFactory);
+        this.configurationPropertiesBindingPostProcessor = new ConfigurationPropertiesBindingPostProcessor(
+                beanFactory, configurationPropertiesBinder);
+        this.aopBeanPostProcessor = new AopBeanPostProcessor(beanFactory);
+        beanFactory.setPropertySource(propertySource);
         
         // 注册默认的BeanPostProcessor
         registerDefaultBeanPostProcessors();
         loadProperties();
+        applyLogLevel();
     }
     
     public AnnotationConfigApplicationContext(Class<?>... configClasses) {
@@ -69,23 +118,129 @@ public class AnnotationConfigApplicationContext implements ApplicationContext, C
     
     @Override
     public void refresh() {
+        ClassListRecorder classListRecorder = createClassListRecorder();
         try {
-            // 1. 处理配置类
+            // 0. 按配置开启运行统计，需在创建任何Bean之前
+            initContainerStatistics();
+            
+            // 1. 处理配置类，扫描到的组件类交给后台线程预取
+            this.classPrefetcher = createClassPrefetcher();
             processConfigurationClasses();
             
-            // 2. 实例化所有非延迟加载的单例Bean
+            // 2. 初始化事件多播器
+            initApplicationEventMulticaster();
+            
+            // 3. 注册默认的任务执行器并配置定时任务调度
+            registerDefaultTaskExecutor();
+            configureTaskScheduling();
+            
+            // 4. 实例化所有非延迟加载的单例Bean
             preInstantiateSingletons();
+            finishClassPrefetching();
+            logProxyStatistics();
+            
+            // 5. 预热热点代码，完成后才对外报告就绪
+            warmUp();
             
-            // 3. 标记容器为活跃状态
+            // 6. 标记容器为活跃状态
             this.active = true;
             
-            System.out.println("Spring容器启动完成，共注册了 " + beanFactory.getBeanDefinitionNames().length + " 个Bean");
+            logger.info("Spring容器启动完成，共注册了 " + beanFactory.getBeanDefinitionNames().length + " 个Bean");
+            
+            // 7. 发布容器刷新完成事件
+            publishEvent(new ContextRefreshedEvent(this));
+            
+            // 8. 训练模式下写出AppCDS类列表与归档配置
+            if (classListRecorder != null) {
+                finishClassListRecording(classListRecorder);
+            }
             
         } catch (Exception e) {
+            cancelRefresh();
             throw new RuntimeException("容器刷新失败", e);
         }
     }
     
+    /**
+     * 刷新失败时释放已创建的资源：已创建的单例、定时任务与预取线程会留住Bean类及其类加载器，
+     * 调用方拿不到未完成的容器，无法再通过close()释放
+     */
+    private void cancelRefresh() {
+        ClassPrefetcher prefetcher = this.classPrefetcher;
+        if (prefetcher != null) {
+            this.classPrefetcher = null;
+            beanFactory.removeBeanPostProcessor(prefetcher);
+            prefetcher.cancel();
+        }
+        try {
+            destroyBeans();
+        } catch (RuntimeException e) {
+            logger.error("刷新失败后销毁Bean失败: " + e.getMessage());
+        }
+        this.active = false;
+    }
+    
+    /**
+     * 配置minispring.cds.training=true时开始记录类加载，
+     * 输出目录由minispring.cds.output.dir指定，默认为工作目录下的cds
+     */
+    private ClassListRecorder createClassListRecorder() {
+        if (!Boolean.parseBoolean(getProperty("minispring.cds.training", "false"))) {
+            return null;
+        }
+        ClassListRecorder recorder = new ClassListRecorder(new File(getProperty("minispring.cds.output.dir", "cds")));
+        recorder.start();
+        return recorder;
+    }
+    
+    private void finishClassListRecording(ClassListRecorder recorder) {
+        try {
+            recorder.finish();
+        } catch (IOException e) {
+            // 训练输出失败不影响容器启动
+            logger.warn("写出AppCDS类列表失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 配置minispring.prefetch.enabled=true时开启类预取；线程数由minispring.prefetch.threads指定，
+     * 配置minispring.prefetch.order.file后按上次记录的顺序预取并写出本次观察到的顺序
+     */
+    private ClassPrefetcher createClassPrefetcher() {
+        if (!Boolean.parseBoolean(getProperty("minispring.prefetch.enabled", "false"))) {
+            return null;
+        }
+        int defaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int threads = Integer.parseInt(getProperty("minispring.prefetch.threads", String.valueOf(defaultThreads)));
+        String orderFile = getProperty("minispring.prefetch.order.file");
+        ClassPrefetcher prefetcher = new ClassPrefetcher(threads, orderFile != null ? new File(orderFile) : null);
+        beanFactory.addBeanPostProcessor(prefetcher);
+        return prefetcher;
+    }
+    
+    private void logProxyStatistics() {
+        long proxied = aopBeanPostProcessor.getProxiedBeanCount();
+        long skipped = aopBeanPostProcessor.getSkippedBeanCount();
+        if (proxied > 0) {
+            logger.info("AOP代理: 代理 " + proxied + " 个Bean，没有匹配切点跳过 " + skipped + " 个");
+        }
+    }
+    
+    private void finishClassPrefetching() {
+        ClassPrefetcher prefetcher = this.classPrefetcher;
+        if (prefetcher == null) {
+            return;
+        }
+        this.classPrefetcher = null;
+        // 之后创建的Bean（延迟加载、运行期注册）不再经过预取器
+        beanFactory.removeBeanPostProcessor(prefetcher);
+        try {
+            prefetcher.finish();
+        } catch (IOException e) {
+            logger.warn("写出类加载顺序失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 处理配置类
      */
@@ -103,8 +258,8 @@ public class AnnotationConfigApplicationContext implements ApplicationContext, C
         registerBean(configClass);
         
         // 2. 处理@ComponentScan注解
-        if (configClass.isAnnotationPresent(ComponentScan.class)) {
-            ComponentScan componentScan = configClass.getAnnotation(ComponentScan.class);
+        if (ReflectionUtils.hasAnnotation(configClass, ComponentScan.class)) {
+            ComponentScan componentScan = ReflectionUtils.getAnnotation(configClass, ComponentScan.class);
             String[] basePackages = componentScan.value();
             if (basePackages.length == 0) {
                 basePackages = componentScan.basePackages();
@@ -116,6 +271,9 @@ public class AnnotationConfigApplicationContext implements ApplicationContext, C
             
             for (String basePackage : basePackages) {
                 Set<Class<?>> scannedClasses = componentScanner.scan(basePackage);
+                if (classPrefetcher != null) {
+                    classPrefetcher.prefetch(scannedClasses);
+                }
                 for (Class<?> clazz : scannedClasses) {
                     registerBean(clazz);
                 }
@@ -136,22 +294,29 @@ public class AnnotationConfigApplicationContext implements ApplicationContext, C
         BeanDefinition beanDefinition = new BeanDefinition(beanClass);
         
         // 处理作用域
-        if (beanClass.isAnnotationPresent(Component.class)) {
-            Component component = beanClass.getAnnotation(Component.class);
-            // 这里可以扩展处理Scope注解
+        Scope scope = ReflectionUtils.getAnnotation(beanClass, Scope.class);
+        if (scope != null) {
+            beanDefinition.setScope(scope.value());
+            beanDefinition.setStripes(scope.stripes());
         }
         
         beanFactory.registerBeanDefinition(beanName, beanDefinition);
-        System.out.println("注册Bean: " + beanName + " -> " + beanClass.getSimpleName());
+        logger.debug(() -> "注册Bean: " + beanName + " -> " + beanClass.getSimpleName());
     }
     
     /**
      * 确定Bean名称
+     * 优先使用@Component或以其为元注解的注解（如@Controller、@Service）上非空的value
      */
     private String determineBeanName(Class<?> beanClass) {
-        Component component = beanClass.getAnnotation(Component.class);
-        if (component != null && !component.value().isEmpty()) {
-            return component.value();
+        for (Annotation annotation : MergedAnnotations.from(beanClass).getDirectAnnotations()) {
+            if (annotation instanceof Component
+                    || ReflectionUtils.hasAnnotation(annotation.annotationType(), Component.class)) {
+                String value = getStereotypeValue(annotation);
+                if (!value.isEmpty()) {
+                    return value;
+                }
+            }
         }
         
         // 默认使用类名首字母小写
@@ -159,37 +324,251 @@ public class AnnotationConfigApplicationContext implements ApplicationContext, C
         return Character.toLowerCase(className.charAt(0)) + className.substring(1);
     }
     
+    private static String getStereotypeValue(Annotation annotation) {
+        try {
+            Method valueMethod = annotation.annotationType().getMethod("value");
+            if (valueMethod.getReturnType() == String.class) {
+                return (String) valueMethod.invoke(annotation);
+            }
+        } catch (NoSuchMethodException e) {
+            // 没有value属性的组件注解
+        } catch (ReflectiveOperationException e) {
+            logger.warn("读取注解属性失败: " + annotation + ", 错误: " + e.getMessage());
+        }
+        return "";
+    }
+    
+    /**
+     * 在容器运行期间注册或替换Bean定义
+     * 替换时只有旧Bean及注入了它的单例会被销毁并重新创建，其他单例不受影响
+     */
+    public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+        beanFactory.registerBeanDefinition(beanName, beanDefinition);
+    }
+    
+    /**
+     * 在容器运行期间删除Bean定义，销毁其单例以及注入了它的单例
+     */
+    public void removeBeanDefinition(String beanName) {
+        beanFactory.removeBeanDefinition(beanName);
+    }
+    
     /**
      * 预实例化所有单例Bean
      */
     private void preInstantiateSingletons() {
         String[] beanNames = beanFactory.getBeanDefinitionNames();
         
+        // 切面先于普通Bean创建，否则先创建的Bean会因切面尚未注册而得不到代理
+        Set<String> orderedNames = new LinkedHashSet<>(beanNames.length * 2);
         for (String beanName : beanNames) {
             BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
-            if (bd != null && bd.isSingleton() && !bd.isLazyInit()) {
+            if (bd != null && ReflectionUtils.hasAnnotation(bd.getBeanClass(), Aspect.class)) {
+                orderedNames.add(beanName);
+            }
+        }
+        orderedNames.addAll(Arrays.asList(beanNames));
+        
+        for (String beanName : orderedNames) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+            if (bd != null && (bd.isSingleton() || bd.isStriped()) && !bd.isLazyInit()) {
                 try {
-                    Object bean = beanFactory.getBean(beanName);
-                    
-                    // 收集DisposableBean
-                    if (bean instanceof DisposableBean) {
-                        disposableBeans.add((DisposableBean) bean);
-                    }
-                    
+                    // FactoryBean只创建工厂，产品在首次获取时才创建
+                    beanFactory.getBean(beanFactory.isFactoryBean(beanName)
+                            ? BeanFactory.FACTORY_BEAN_PREFIX + beanName : beanName);
                 } catch (Exception e) {
-                    System.err.println("预实例化Bean失败: " + beanName + ", 错误: " + e.getMessage());
+                    logger.error("预实例化Bean失败: " + beanName + ", 错误: " + e.getMessage());
                 }
             }
         }
     }
     
+    /**
+     * 预热阶段：反复调用单例Bean上的@Warmup方法与WarmupTask
+     * 配置minispring.warmup.enabled=true时执行，由minispring.warmup.iterations和minispring.warmup.time.budget.ms控制
+     */
+    private void warmUp() {
+        if (!Boolean.parseBoolean(getProperty("minispring.warmup.enabled", "false"))) {
+            return;
+        }
+        
+        WarmupRunner runner = new WarmupRunner(
+                Integer.parseInt(getProperty("minispring.warmup.iterations", "10000")),
+                Long.parseLong(getProperty("minispring.warmup.time.budget.ms", "5000")));
+        
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+            if (bd == null || !(bd.isSingleton() || bd.isStriped()) || bd.isLazyInit()) {
+                continue;
+            }
+            Object bean;
+            try {
+                bean = beanFactory.getBean(beanFactory.isFactoryBean(beanName)
+                        ? BeanFactory.FACTORY_BEAN_PREFIX + beanName : beanName);
+            } catch (BeansException e) {
+                continue; // 预实例化时已输出错误
+            }
+            
+            if (bean instanceof WarmupTask) {
+                runner.addTask(beanName, (WarmupTask) bean);
+            }
+            for (Map.Entry<Method, Warmup> entry : ReflectionUtils.getAnnotatedMethods(bean.getClass(), Warmup.class).entrySet()) {
+                runner.addWarmupMethod(beanName, bean, entry.getKey(), entry.getValue().iterations());
+            }
+        }
+        
+        if (!runner.hasTasks()) {
+            return;
+        }
+        this.warmingUp = true;
+        try {
+            runner.run();
+        } finally {
+            this.warmingUp = false;
+        }
+    }
+    
     /**
      * 注册默认的BeanPostProcessor
      */
     private void registerDefaultBeanPostProcessors() {
+        // 注册@ConfigurationProperties绑定，在初始化方法之前完成
+        beanFactory.addBeanPostProcessor(configurationPropertiesBindingPostProcessor);
+        
         // 注册AOP支持
-        AopBeanPostProcessor aopBeanPostProcessor = new AopBeanPostProcessor(beanFactory);
+        AsyncExecutionAspect asyncExecutionAspect = new AsyncExecutionAspect(beanFactory);
+        aopBeanPostProcessor.registerInfrastructureAspect(asyncExecutionAspect);
         beanFactory.addBeanPostProcessor(aopBeanPostProcessor);
+        beanFactory.addBeanPostProcessor(asyncExecutionAspect);
+        
+        // 注册事件监听器探测
+        beanFactory.addBeanPostProcessor(new EventListenerMethodProcessor(beanFactory, applicationEventMulticaster));
+        
+        // 注册@Scheduled支持：创建单例时收集任务，容器刷新完成后开始调度
+        beanFactory.addBeanPostProcessor(scheduledAnnotationBeanPostProcessor);
+        applicationEventMulticaster.addApplicationListener(scheduledAnnotationBeanPostProcessor);
+    }
+    
+    /**
+     * 开启Bean工厂运行统计并注册JMX MBean
+     * 配置minispring.jmx.enabled=true时生效，minispring.jmx.context.id指定ObjectName中的上下文标识
+     */
+    private void initContainerStatistics() {
+        if (!Boolean.parseBoolean(getProperty("minispring.jmx.enabled", "false")) || containerStatistics != null) {
+            return;
+        }
+        
+        BeanFactoryStatistics statistics = new BeanFactoryStatistics();
+        beanFactory.setStatistics(statistics);
+        
+        ContainerStatistics mbean = new ContainerStatistics(beanFactory, statistics);
+        String contextId = getProperty("minispring.jmx.context.id", "context-" + Integer.toHexString(System.identityHashCode(this)));
+        try {
+            mbean.register(contextId);
+            logger.info("注册容器统计MBean: " + mbean.getObjectName());
+        } catch (Exception e) {
+            logger.warn("注册容器统计MBean失败: " + e.getMessage());
+        }
+        this.containerStatistics = mbean;
+    }
+    
+    /**
+     * 获取容器统计MBean，未开启统计时返回null
+     */
+    public ContainerStatistics getContainerStatistics() {
+        return containerStatistics;
+    }
+    
+    /**
+     * 初始化事件多播器
+     * 配置minispring.event.async=true时切换为异步分发
+     */
+    private void initApplicationEventMulticaster() {
+        if (!Boolean.parseBoolean(getProperty("minispring.event.async", "false"))
+                || applicationEventMulticaster.getTaskExecutor() != null) {
+            return;
+        }
+        
+        applicationEventMulticaster.setQueueCapacity(Integer.parseInt(getProperty("minispring.event.queue.capacity",
+                String.valueOf(SimpleApplicationEventMulticaster.DEFAULT_QUEUE_CAPACITY))));
+        applicationEventMulticaster.setBatchSize(Integer.parseInt(getProperty("minispring.event.batch.size",
+                String.valueOf(SimpleApplicationEventMulticaster.DEFAULT_BATCH_SIZE))));
+        
+        this.eventExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "minispring-event");
+            thread.setDaemon(true);
+            return thread;
+        });
+        applicationEventMulticaster.setTaskExecutor(eventExecutor);
+    }
+    
+    /**
+     * 注册@Async使用的默认执行器
+     * 未定义名为taskExecutor的Bean时，根据minispring.task.*配置创建
+     */
+    private void registerDefaultTaskExecutor() {
+        if (beanFactory.containsBean(AsyncExecutionAspect.DEFAULT_TASK_EXECUTOR_BEAN_NAME)) {
+            return;
+        }
+        
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        String poolSize = getProperty("minispring.task.pool.size");
+        if (poolSize != null) {
+            taskExecutor.setCorePoolSize(Integer.parseInt(poolSize));
+            taskExecutor.setMaxPoolSize(Integer.parseInt(poolSize));
+        }
+        String queueCapacity = getProperty("minispring.task.queue.capacity");
+        if (queueCapacity != null) {
+            taskExecutor.setQueueCapacity(Integer.parseInt(queueCapacity));
+        }
+        taskExecutor.setVirtualThreads(Boolean.parseBoolean(getProperty("minispring.task.virtual.enabled", "true")));
+        
+        beanFactory.registerSingleton(AsyncExecutionAspect.DEFAULT_TASK_EXECUTOR_BEAN_NAME, taskExecutor);
+        disposableBeans.add(taskExecutor);
+    }
+    
+    /**
+     * 根据minispring.scheduling.*配置定时任务的时间轮与工作线程池
+     */
+    private void configureTaskScheduling() {
+        String poolSize = getProperty("minispring.scheduling.pool.size");
+        if (poolSize != null) {
+            scheduledAnnotationBeanPostProcessor.setPoolSize(Integer.parseInt(poolSize));
+        }
+        String tickMillis = getProperty("minispring.scheduling.tick.ms");
+        if (tickMillis != null) {
+            scheduledAnnotationBeanPostProcessor.setTickMillis(Long.parseLong(tickMillis));
+        }
+        String wheelSize = getProperty("minispring.scheduling.wheel.size");
+        if (wheelSize != null) {
+            scheduledAnnotationBeanPostProcessor.setWheelSize(Integer.parseInt(wheelSize));
+        }
+    }
+    
+    /**
+     * 获取AOP后置处理器，可用于查看代理与跳过的Bean数
+     */
+    public AopBeanPostProcessor getAopBeanPostProcessor() {
+        return aopBeanPostProcessor;
+    }
+    
+    /**
+     * 获取定时任务后置处理器，可用于查看任务的执行与超时统计
+     */
+    public ScheduledAnnotationBeanPostProcessor getScheduledAnnotationBeanPostProcessor() {
+        return scheduledAnnotationBeanPostProcessor;
+    }
+    
+    /**
+     * 获取事件多播器，可用于手动注册监听器或设置自定义执行器
+     */
+    public SimpleApplicationEventMulticaster getApplicationEventMulticaster() {
+        return applicationEventMulticaster;
+    }
+    
+    @Override
+    public void publishEvent(Object event) {
+        applicationEventMulticaster.multicastEvent(event);
     }
     
     /**
@@ -198,11 +577,21 @@ public class AnnotationConfigApplicationContext implements ApplicationContext, C
     private void loadProperties() {
         try (InputStream is = getClass().getClassLoader().getResourceAsStream("application.properties")) {
             if (is != null) {
-                properties.load(is);
-                System.out.println("加载配置文件: application.properties");
+                propertySource.load(is);
+                logger.info("加载配置文件: application.properties");
             }
         } catch (IOException e) {
-            System.out.println("未找到application.properties配置文件，使用默认配置");
+            logger.info("未找到application.properties配置文件，使用默认配置");
+        }
+    }
+    
+    /**
+     * 配置文件中设置了minispring.log.level时调整全局日志级别
+     */
+    private void applyLogLevel() {
+        String level = getProperty("minispring.log.level");
+        if (level != null) {
+            LoggerFactory.setLevel(LogLevel.parse(level, LoggerFactory.getRootLevel()));
         }
     }
     
@@ -256,7 +645,7 @@ public class AnnotationConfigApplicationContext implements ApplicationContext, C
                 T bean = beanFactory.getBean(beanName, type);
                 result.put(beanName, bean);
             } catch (Exception e) {
-                System.err.println("获取类型为 " + type.getName() + " 的Bean失败: " + beanName);
+                logger.warn("获取类型为 " + type.getName() + " 的Bean失败: " + beanName);
             }
         }
         
@@ -269,47 +658,72 @@ public class AnnotationConfigApplicationContext implements ApplicationContext, C
             return;
         }
         
-        System.out.println("正在关闭Spring容器...");
+        logger.info("正在关闭Spring容器...");
+        
+        // 发布容器关闭事件
+        try {
+            publishEvent(new ContextClosedEvent(this));
+        } catch (Exception e) {
+            logger.error("发布容器关闭事件失败: " + e.getMessage());
+        }
+        
+        destroyBeans();
+        
+        this.active = false;
+        logger.info("Spring容器已关闭");
+        LoggerFactory.flush();
+    }
+    
+    /**
+     * 停止定时任务，销毁单例与容器创建的基础设施对象，关闭事件执行器并注销运行统计
+     */
+    private void destroyBeans() {
+        // 先停止定时任务，避免在Bean销毁过程中继续触发
+        scheduledAnnotationBeanPostProcessor.destroy();
+        
+        // 按创建顺序的逆序销毁单例：DisposableBean.destroy()与@PreDestroy方法
+        beanFactory.destroySingletons();
         
-        // 调用所有DisposableBean的destroy方法
+        // 关闭容器创建的基础设施对象
         for (DisposableBean disposableBean : disposableBeans) {
             try {
                 disposableBean.destroy();
             } catch (Exception e) {
-                System.err.println("调用DisposableBean.destroy()失败: " + e.getMessage());
+                logger.error("调用DisposableBean.destroy()失败: " + e.getMessage());
             }
         }
         
-        // 调用所有Bean的@PreDestroy方法
-        String[] beanNames = beanFactory.getBeanDefinitionNames();
-        for (String beanName : beanNames) {
-            try {
-                Object bean = beanFactory.getBean(beanName);
-                invokeDestroyMethods(bean);
-            } catch (Exception e) {
-                System.err.println("调用Bean销毁方法失败: " + beanName + ", 错误: " + e.getMessage());
-            }
-        }
+        shutdownEventExecutor();
         
-        this.active = false;
-        System.out.println("Spring容器已关闭");
+        if (containerStatistics != null) {
+            containerStatistics.unregister();
+            beanFactory.setStatistics(null);
+            containerStatistics = null;
+        }
     }
     
     /**
-     * 调用Bean的销毁方法
+     * 关闭容器创建的事件执行器，等待已入队的事件分发完成
      */
-    private void invokeDestroyMethods(Object bean) throws Exception {
-        Method[] methods = bean.getClass().getDeclaredMethods();
-        for (Method method : methods) {
-            if (method.isAnnotationPresent(PreDestroy.class)) {
-                method.setAccessible(true);
-                method.invoke(bean);
+    private void shutdownEventExecutor() {
+        if (eventExecutor == null) {
+            return;
+        }
+        eventExecutor.shutdown();
+        try {
+            if (!eventExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                eventExecutor.shutdownNow();
             }
+        } catch (InterruptedException e) {
+            eventExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
+        applicationEventMulticaster.setTaskExecutor(null);
+        eventExecutor = null;
     }
     
     private void assertActive() {
-        if (!active) {
+        if (!active && !warmingUp) {
             throw new IllegalStateException("ApplicationContext is not active - call refresh() before accessing beans");
         }
     }
@@ -318,20 +732,52 @@ public class AnnotationConfigApplicationContext implements ApplicationContext, C
      * 获取属性值
      */
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return propertySource.getProperty(key);
     }
     
     /**
      * 获取属性值（带默认值）
      */
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return propertySource.getProperty(key, defaultValue);
     }
     
     /**
-     * 检查容器是否活跃
+     * 设置属性值，覆盖application.properties中的配置
+     * 容器相关的开关（如minispring.jmx.enabled）需在refresh()之前设置；
+     * 已绑定的@ConfigurationProperties单例在相关属性变化时重新绑定
+     */
+    public void setProperty(String key, String value) {
+        propertySource.setProperty(key, value);
+        configurationPropertiesBindingPostProcessor.rebind();
+    }
+    
+    /**
+     * 对容器外创建的对象（如测试实例）执行@Autowired/@Value注入
+     */
+    public void autowireBean(Object existingBean) {
+        assertActive();
+        beanFactory.autowireBean(existingBean);
+    }
+    
+    /**
+     * @ConfigurationProperties绑定器，也可用于将属性绑定到容器外的对象
+     */
+    public ConfigurationPropertiesBinder getConfigurationPropertiesBinder() {
+        return configurationPropertiesBinder;
+    }
+    
+    /**
+     * 检查容器是否活跃：刷新与预热均已完成，可以接收流量
      */
     public boolean isActive() {
         return active;
     }
+    
+    /**
+     * 检查容器是否处于预热阶段
+     */
+    public boolean isWarmingUp() {
+        return warmingUp;
+    }
 }
\ No newline at end of file
@@ -4,9 +4,9 @@ import com.minispring.ioc.beans.BeanFactory;
 
 /**
  * 应用上下文接口 - IoC容器的高级接口
- * 提供更丰富的功能，包括组件扫描、生命周期管理等
+ * 提供更丰富的功能，包括组件扫描、生命周期管理、事件发布等
  */
-public interface ApplicationContext extends BeanFactory {
+public interface ApplicationContext extends BeanFactory, ApplicationEventPublisher {
     
     /**
      * 启动应用上下文
@@ -0,0 +1,14 @@
+package com.minispring.ioc.context;
+
+/**
+ * 应用事件发布接口
+ * ApplicationContext的父接口之一，负责将事件分发给已注册的监听器
+ */
+public interface ApplicationEventPublisher {
+    
+    /**
+     * 发布事件
+     * @param event 事件对象，可以是ApplicationEvent，也可以是任意领域对象
+     */
+    void publishEvent(Object event);
+}
\ No newline at end of file
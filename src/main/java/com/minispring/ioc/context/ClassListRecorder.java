@@ -0,0 +1,200 @@
+package com.minispring.ioc.context;
+
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * AppCDS训练记录器
+ *
+ * 在refresh()前后各取一次JVM已加载类的快照，刷新结束后输出：
+ * classes.lst（-XX:SharedClassListFile使用的类列表）、cds-dump.args（生成归档的参数文件）、
+ * cds-run.args（使用-XX:SharedArchiveFile启动的参数文件），以及刷新期间加载的类和被排除的动态生成类。
+ *
+ * 已加载类通过DiagnosticCommand MBean的VM.class_hierarchy命令获取（JDK 9+），无需Java Agent。
+ * CGLIB代理、Lambda、JDK动态代理等运行期生成的类无法放入静态归档，只记录不写入类列表。
+ */
+public class ClassListRecorder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClassListRecorder.class);
+    
+    private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+    
+    private static final Pattern JDK_PROXY_NAME = Pattern.compile("\\$Proxy\\d+$");
+    
+    public static final String CLASS_LIST_FILE = "classes.lst";
+    public static final String ARCHIVE_FILE = "app-cds.jsa";
+    public static final String DUMP_ARGS_FILE = "cds-dump.args";
+    public static final String RUN_ARGS_FILE = "cds-run.args";
+    public static final String REFRESH_CLASSES_FILE = "refresh-classes.txt";
+    public static final String GENERATED_CLASSES_FILE = "generated-classes.txt";
+    
+    private final File outputDir;
+    private Set<String> classesBeforeRefresh;
+    
+    public ClassListRecorder(File outputDir) {
+        this.outputDir = outputDir;
+    }
+    
+    /**
+     * refresh()开始前调用，记录已加载的类
+     */
+    public void start() {
+        this.classesBeforeRefresh = loadedClassNames();
+    }
+    
+    /**
+     * refresh()结束后调用，写出类列表与归档配置
+     *
+     * @return 写入classes.lst的类数量；无法获取已加载类时返回-1
+     */
+    public int finish() throws IOException {
+        Set<String> loaded = loadedClassNames();
+        if (loaded == null) {
+            logger.warn("当前JVM不支持VM.class_hierarchy诊断命令，无法记录类列表，可改用-XX:DumpLoadedClassList");
+            return -1;
+        }
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("无法创建目录: " + outputDir);
+        }
+        
+        List<String> classList = new ArrayList<>();
+        List<String> generated = new ArrayList<>();
+        List<String> loadedDuringRefresh = new ArrayList<>();
+        for (String className : loaded) {
+            if (isGeneratedClass(className)) {
+                generated.add(className);
+            } else {
+                // 类列表使用JVM内部名称
+                classList.add(className.replace('.', '/'));
+            }
+            if (classesBeforeRefresh != null && !classesBeforeRefresh.contains(className)) {
+                loadedDuringRefresh.add(className);
+            }
+        }
+        
+        File classListFile = new File(outputDir, CLASS_LIST_FILE).getAbsoluteFile();
+        File archiveFile = new File(outputDir, ARCHIVE_FILE).getAbsoluteFile();
+        String classPath = System.getProperty("java.class.path");
+        for (String entry : classPath.split(File.pathSeparator)) {
+            String[] children = new File(entry).list();
+            if (children != null && children.length > 0) {
+                logger.warn("AppCDS只能归档jar中的类，classpath包含非空目录时-Xshare:dump会失败: " + entry);
+            }
+        }
+        
+        write(CLASS_LIST_FILE, classList);
+        write(REFRESH_CLASSES_FILE, loadedDuringRefresh);
+        write(GENERATED_CLASSES_FILE, generated);
+        // 运行时的classpath必须与生成归档时一致（或以其为前缀），否则JVM会拒绝使用归档
+        write(DUMP_ARGS_FILE, Arrays.asList(
+                "-Xshare:dump",
+                "-XX:SharedClassListFile=" + quote(classListFile.getPath()),
+                "-XX:SharedArchiveFile=" + quote(archiveFile.getPath()),
+                "-cp", quote(classPath)));
+        write(RUN_ARGS_FILE, Arrays.asList(
+                "-Xshare:auto",
+                "-XX:SharedArchiveFile=" + quote(archiveFile.getPath()),
+                "-cp", quote(classPath)));
+        
+        logger.info("AppCDS训练完成: 类列表 " + classList.size() + " 个类（刷新期间加载 " + loadedDuringRefresh.size()
+                + " 个，排除动态生成类 " + generated.size() + " 个），输出目录 " + outputDir.getAbsolutePath());
+        logger.info("生成归档: java @" + new File(outputDir, DUMP_ARGS_FILE).getPath()
+                + "，使用归档启动: java @" + new File(outputDir, RUN_ARGS_FILE).getPath() + " <主类>");
+        return classList.size();
+    }
+    
+    private void write(String fileName, List<String> lines) throws IOException {
+        Files.write(new File(outputDir, fileName).toPath(), lines, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 参数文件中含空白的值需加引号，引号内反斜杠是转义符
+     */
+    private static String quote(String value) {
+        if (value.indexOf(' ') < 0 && value.indexOf('\t') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\\", "\\\\") + "\"";
+    }
+    
+    /**
+     * 运行期生成、无法从classpath加载的类
+     */
+    static boolean isGeneratedClass(String className) {
+        return className.contains("ByCGLIB$$")
+                || className.contains("$$EnhancerByLookup$$")
+                || className.contains("$$EnhancerByStriped$$")
+                || className.contains("$$Lambda")
+                || JDK_PROXY_NAME.matcher(className).find()
+                || className.startsWith("jdk.internal.reflect.Generated")
+                || className.startsWith("sun.reflect.Generated");
+    }
+    
+    /**
+     * 获取JVM当前已加载的全部类名，不支持时返回null
+     */
+    static Set<String> loadedClassNames() {
+        String output;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            output = (String) server.invoke(new ObjectName(DIAGNOSTIC_COMMAND), "vmClassHierarchy",
+                    new Object[]{new String[0]}, new String[]{String[].class.getName()});
+        } catch (Exception e) {
+            logger.debug(() -> "调用VM.class_hierarchy失败: " + e);
+            return null;
+        }
+        if (output == null) {
+            return null;
+        }
+        
+        Set<String> names = new TreeSet<>();
+        for (String line : output.split("\n")) {
+            String className = parseClassHierarchyLine(line);
+            if (className != null) {
+                names.add(className);
+            }
+        }
+        return names.isEmpty() ? null : Collections.unmodifiableSet(names);
+    }
+    
+    /**
+     * 解析形如"|  |--java.lang.String/null"或"|--com.foo.Bar/0x00007f... (intf)"的行
+     */
+    static String parseClassHierarchyLine(String line) {
+        int start = 0;
+        while (start < line.length() && (line.charAt(start) == '|' || line.charAt(start) == '-'
+                || line.charAt(start) == ' ')) {
+            start++;
+        }
+        int end = line.length();
+        if (line.endsWith(" (intf)")) {
+            end -= " (intf)".length();
+        }
+        // 最后一个'/'之后是类加载器标识
+        int loaderSeparator = line.lastIndexOf('/', end - 1);
+        if (loaderSeparator <= start) {
+            return null;
+        }
+        String className = line.substring(start, loaderSeparator);
+        // 隐藏类的名称本身带有"/0x..."后缀
+        if (className.indexOf('/') >= 0 || className.indexOf(' ') >= 0 || className.isEmpty()) {
+            return null;
+        }
+        return className;
+    }
+}
\ No newline at end of file
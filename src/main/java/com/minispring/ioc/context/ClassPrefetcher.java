@@ -0,0 +1,260 @@
+package com.minispring.ioc.context;
+
+import com.minispring.ioc.beans.DefaultBeanFactory;
+import com.minispring.ioc.core.MergedAnnotations;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 组件类预取器
+ *
+ * 扫描得到组件类后，由后台线程提前链接这些类并加载、链接其字段、构造器参数和setter参数的类型，
+ * 同时填充反射数据与MergedAnnotations注解缓存，preInstantiateSingletons在主线程创建Bean时即可直接使用。
+ * getDeclaredFields等反射调用会触发类的校验与链接，但不执行静态初始化。
+ *
+ * 作为实例化感知后置处理器记录主线程实际创建Bean的类顺序；主线程已经用到的类不再预取。
+ * 指定顺序文件时，刷新结束后写出观察到的顺序，下次启动按该顺序优先预取。
+ * 默认关闭，配置minispring.prefetch.enabled=true时由容器创建，单例创建完成后从Bean工厂移除。
+ */
+public class ClassPrefetcher implements DefaultBeanFactory.InstantiationAwareBeanPostProcessor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClassPrefetcher.class);
+    
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    
+    private final ExecutorService executor;
+    private final int threads;
+    
+    /** 上次启动记录的顺序文件，为null时不读写 */
+    private final File orderFile;
+    
+    /** 类名 -> 上次启动时主线程首次使用的序号 */
+    private final Map<String, Integer> previousOrder;
+    
+    /** 已处理（或正在处理）的组件类 */
+    private final Set<Class<?>> preparedComponents = ConcurrentHashMap.newKeySet();
+    
+    /** 已链接的类，组件类与依赖类型共用，避免重复链接 */
+    private final Set<Class<?>> prepared = ConcurrentHashMap.newKeySet();
+    
+    /** 主线程按实际创建顺序用到的Bean类 */
+    private final Set<Class<?>> used = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Class<?>> observedOrder = new ConcurrentLinkedQueue<>();
+    
+    private final LongAdder prefetchedCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    
+    private volatile boolean finished = false;
+    
+    public ClassPrefetcher(int threads, File orderFile) {
+        this.threads = Math.max(1, threads);
+        this.orderFile = orderFile;
+        this.previousOrder = readOrder(orderFile);
+        // 空闲线程超时退出，刷新失败未调用finish()时也不会留下常驻线程
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(this.threads, this.threads, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "minispring-prefetch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+    
+    /**
+     * 提交扫描结果，按上次记录的顺序排序（未记录的类保持扫描顺序排在后面），
+     * 各后台线程从同一个游标依次领取，越靠前的类越早就绪
+     */
+    public void prefetch(Collection<Class<?>> componentClasses) {
+        if (finished || componentClasses.isEmpty()) {
+            return;
+        }
+        List<Class<?>> ordered = new ArrayList<>(componentClasses);
+        if (!previousOrder.isEmpty()) {
+            // List.sort是稳定排序
+            ordered.sort((a, b) -> Integer.compare(
+                    previousOrder.getOrDefault(a.getName(), Integer.MAX_VALUE),
+                    previousOrder.getOrDefault(b.getName(), Integer.MAX_VALUE)));
+        }
+        
+        AtomicInteger cursor = new AtomicInteger();
+        int workers = Math.min(threads, ordered.size());
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                int index;
+                while (!finished && (index = cursor.getAndIncrement()) < ordered.size()) {
+                    Class<?> type = ordered.get(index);
+                    if (used.contains(type)) {
+                        // 主线程已经创建了该Bean，预取已无意义
+                        skippedCount.increment();
+                    } else {
+                        prepareComponent(type);
+                    }
+                }
+            });
+        }
+    }
+    
+    /**
+     * 链接组件类并填充其构造器、字段、方法的反射数据与注解缓存，再链接依赖类型
+     */
+    private void prepareComponent(Class<?> type) {
+        // 组件类可能已作为其他组件的依赖类型被链接，仍需填充反射数据与注解缓存
+        if (!preparedComponents.add(type)) {
+            return;
+        }
+        prepared.add(type);
+        try {
+            MergedAnnotations.from(type);
+            for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+                MergedAnnotations.from(constructor);
+                for (Class<?> parameterType : constructor.getParameterTypes()) {
+                    prepareDependency(parameterType);
+                }
+            }
+            for (Field field : type.getDeclaredFields()) {
+                MergedAnnotations.from(field);
+                prepareDependency(field.getType());
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                MergedAnnotations.from(method);
+                if (method.getParameterCount() == 1 && method.getName().startsWith("set")) {
+                    prepareDependency(method.getParameterTypes()[0]);
+                }
+            }
+            prefetchedCount.increment();
+        } catch (LinkageError | RuntimeException e) {
+            // 交给主线程在创建Bean时按正常流程报错
+            failedCount.increment();
+            logger.debug(() -> "预取类失败: " + type.getName() + ", 错误: " + e);
+        }
+    }
+    
+    /**
+     * 依赖类型只需完成链接，JDK自带的类通常已在CDS归档中，无需处理
+     */
+    private void prepareDependency(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || type.getClassLoader() == null || !prepared.add(type)) {
+            return;
+        }
+        type.getDeclaredConstructors();
+    }
+    
+    /**
+     * 主线程即将创建Bean实例时回调，记录首次使用顺序
+     */
+    @Override
+    public void postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        if (!finished && used.add(beanClass)) {
+            observedOrder.add(beanClass);
+        }
+    }
+    
+    /**
+     * 单例创建完成后调用：停止尚未开始的预取，写出本次观察到的顺序，并释放记录的类
+     * 调用后getObservedOrder()返回空列表，预取与跳过的计数保留
+     */
+    public void finish() throws IOException {
+        this.finished = true;
+        executor.shutdown();
+        try {
+            writeObservedOrder();
+        } finally {
+            used.clear();
+            observedOrder.clear();
+            prepared.clear();
+            preparedComponents.clear();
+        }
+    }
+    
+    /**
+     * 刷新失败时调用：停止预取并释放记录的类，不写出顺序文件
+     */
+    public void cancel() {
+        this.finished = true;
+        executor.shutdownNow();
+        used.clear();
+        observedOrder.clear();
+        prepared.clear();
+        preparedComponents.clear();
+    }
+    
+    private void writeObservedOrder() throws IOException {
+        logger.info("类预取完成: 预取 " + prefetchedCount.sum() + " 个，主线程已先行使用跳过 " + skippedCount.sum()
+                + " 个，失败 " + failedCount.sum() + " 个");
+        
+        if (orderFile != null) {
+            List<String> lines = new ArrayList<>(observedOrder.size());
+            for (Class<?> type : observedOrder) {
+                lines.add(type.getName());
+            }
+            File parent = orderFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("无法创建目录: " + parent);
+            }
+            Files.write(orderFile.toPath(), lines, StandardCharsets.UTF_8);
+            logger.debug(() -> "写出类加载顺序: " + orderFile + "，共 " + lines.size() + " 个类");
+        }
+    }
+    
+    /**
+     * 主线程按实际创建顺序用到的Bean类，finish()之后为空
+     */
+    public List<Class<?>> getObservedOrder() {
+        return Collections.unmodifiableList(new ArrayList<>(observedOrder));
+    }
+    
+    public long getPrefetchedCount() {
+        return prefetchedCount.sum();
+    }
+    
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+    
+    private static Map<String, Integer> readOrder(File orderFile) {
+        Map<String, Integer> order = new HashMap<>();
+        if (orderFile == null || !orderFile.isFile()) {
+            return order;
+        }
+        try {
+            List<String> lines = Files.readAllLines(orderFile.toPath(), StandardCharsets.UTF_8);
+            for (String line : lines) {
+                String className = line.trim();
+                if (!className.isEmpty()) {
+                    order.putIfAbsent(className, order.size());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("读取类加载顺序文件失败: " + orderFile + ", 错误: " + e.getMessage());
+        }
+        return order;
+    }
+}
\ No newline at end of file
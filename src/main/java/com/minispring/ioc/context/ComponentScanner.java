@@ -1,10 +1,17 @@
 package com.minispring.ioc.context;
 
 import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
 import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
 
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * 组件扫描器 - Spring风格的包扫描实现
@@ -12,13 +19,18 @@ import java.util.Set;
  */
 public class ComponentScanner {
     
+    private static final Logger logger = LoggerFactory.getLogger(ComponentScanner.class);
+    
+    /** 按类名排序，使Bean的注册与创建顺序（以及代理类名）在多次运行之间保持一致 */
+    private static final Comparator<Class<?>> CLASS_NAME_ORDER = Comparator.comparing(Class::getName);
+    
     /**
      * 扫描指定包路径下的组件
      * @param basePackage 基础包路径
      * @return 扫描到的组件类集合
      */
     public Set<Class<?>> scan(String basePackage) {
-        Set<Class<?>> components = new HashSet<>();
+        Set<Class<?>> components = new TreeSet<>(CLASS_NAME_ORDER);
         
         try {
             // 使用Reflections库进行包扫描
@@ -27,23 +39,63 @@ public class ComponentScanner {
             // 扫描所有带@Component注解的类
             Set<Class<?>> componentClasses = reflections.getTypesAnnotatedWith(Component.class);
             components.addAll(componentClasses);
+            components.addAll(findMetaAnnotatedComponents(reflections));
             
-            System.out.println("扫描包 '" + basePackage + "' 发现 " + components.size() + " 个组件");
+            logger.info("扫描包 '" + basePackage + "' 发现 " + components.size() + " 个组件");
             
         } catch (Exception e) {
-            System.err.println("扫描包失败: " + basePackage + ", 错误: " + e.getMessage());
+            logger.error("扫描包失败: " + basePackage + ", 错误: " + e.getMessage());
         }
         
         return components;
     }
     
+    /**
+     * 查找标注了以@Component为元注解的注解（如@Controller）的类
+     * Reflections只有在注解类本身也位于扫描路径中时才能识别元注解，组件打成独立jar时需要在这里补充
+     */
+    private Set<Class<?>> findMetaAnnotatedComponents(Reflections reflections) {
+        Set<Class<?>> result = new HashSet<>();
+        Map<String, Set<String>> typesAnnotated = reflections.getStore().get(Scanners.TypesAnnotated.index());
+        if (typesAnnotated == null) {
+            return result;
+        }
+        
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ComponentScanner.class.getClassLoader();
+        }
+        for (Map.Entry<String, Set<String>> entry : typesAnnotated.entrySet()) {
+            Class<?> annotationType = loadClass(entry.getKey(), classLoader);
+            if (annotationType == null || !annotationType.isAnnotation() || annotationType == Component.class
+                    || !ReflectionUtils.hasAnnotation(annotationType, Component.class)) {
+                continue;
+            }
+            for (String typeName : entry.getValue()) {
+                Class<?> type = loadClass(typeName, classLoader);
+                if (type != null && !type.isAnnotation()) {
+                    result.add(type);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private Class<?> loadClass(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+    
     /**
      * 扫描多个包路径
      * @param basePackages 基础包路径数组
      * @return 扫描到的组件类集合
      */
     public Set<Class<?>> scan(String... basePackages) {
-        Set<Class<?>> allComponents = new HashSet<>();
+        Set<Class<?>> allComponents = new TreeSet<>(CLASS_NAME_ORDER);
         
         for (String basePackage : basePackages) {
             allComponents.addAll(scan(basePackage));
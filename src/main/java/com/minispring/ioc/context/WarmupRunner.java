@@ -0,0 +1,130 @@
+package com.minispring.ioc.context;
+
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预热执行器
+ *
+ * 所有任务轮流执行，每个任务达到自己的调用次数后退出，
+ * 总耗时超过时间预算时提前结束；单个任务抛出异常只会停止该任务，不影响容器启动。
+ */
+public class WarmupRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+    
+    private final int defaultIterations;
+    private final long timeBudgetMillis;
+    private final List<Entry> entries = new ArrayList<>();
+    
+    private long invocationCount;
+    private long elapsedMillis;
+    
+    /**
+     * @param defaultIterations 未单独指定时每个任务的调用次数
+     * @param timeBudgetMillis 预热总时间预算，小于等于0表示不限制
+     */
+    public WarmupRunner(int defaultIterations, long timeBudgetMillis) {
+        this.defaultIterations = defaultIterations;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+    
+    public void addTask(String name, WarmupTask task) {
+        addTask(name, task, task.getIterations());
+    }
+    
+    /**
+     * 添加@Warmup方法，通过容器中暴露的对象调用，代理上的通知链也会一并预热
+     */
+    public void addWarmupMethod(String beanName, Object bean, Method method, int iterations) {
+        if (method.getParameterCount() != 0) {
+            throw new IllegalStateException("@Warmup方法不能有参数: " + method);
+        }
+        method.setAccessible(true);
+        addTask(beanName + "." + method.getName(), () -> {
+            try {
+                method.invoke(bean);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getTargetException();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }, iterations);
+    }
+    
+    private void addTask(String name, WarmupTask task, int iterations) {
+        entries.add(new Entry(name, task, iterations >= 0 ? iterations : defaultIterations));
+    }
+    
+    public boolean hasTasks() {
+        return !entries.isEmpty();
+    }
+    
+    /**
+     * 执行预热，返回是否所有任务都完成了预定的调用次数
+     */
+    public boolean run() {
+        long start = System.nanoTime();
+        long deadline = timeBudgetMillis > 0 ? start + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis) : Long.MAX_VALUE;
+        boolean remaining = true;
+        boolean budgetExhausted = false;
+        
+        while (remaining) {
+            remaining = false;
+            for (Entry entry : entries) {
+                if (entry.failed || entry.completed >= entry.iterations) {
+                    continue;
+                }
+                try {
+                    entry.task.warmup();
+                    entry.completed++;
+                    invocationCount++;
+                } catch (Throwable e) {
+                    entry.failed = true;
+                    logger.warn("预热任务执行失败，停止该任务: " + entry.name + ", 错误: " + e);
+                    continue;
+                }
+                remaining |= entry.completed < entry.iterations;
+            }
+            if (remaining && System.nanoTime() - deadline >= 0) {
+                budgetExhausted = true;
+                break;
+            }
+        }
+        
+        this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (budgetExhausted) {
+            logger.info("预热时间预算(" + timeBudgetMillis + "ms)已用完，共调用 " + invocationCount + " 次");
+        } else {
+            logger.info("预热完成: " + entries.size() + " 个任务，共调用 " + invocationCount + " 次，耗时 " + elapsedMillis + "ms");
+        }
+        return !budgetExhausted;
+    }
+    
+    public long getInvocationCount() {
+        return invocationCount;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    private static class Entry {
+        private final String name;
+        private final WarmupTask task;
+        private final int iterations;
+        private int completed;
+        private boolean failed;
+        
+        Entry(String name, WarmupTask task, int iterations) {
+            this.name = name;
+            this.task = task;
+            this.iterations = iterations;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.minispring.ioc.context;
+
+/**
+ * 预热任务接口
+ * 实现此接口的单例Bean会在容器预热阶段被反复调用，适合无法用@Warmup方法表达的预热逻辑
+ */
+public interface WarmupTask {
+    
+    /**
+     * 执行一次预热
+     * @throws Exception 预热失败，该任务不再继续执行
+     */
+    void warmup() throws Exception;
+    
+    /**
+     * 调用次数，小于0时使用minispring.warmup.iterations配置
+     */
+    default int getIterations() {
+        return -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.minispring.ioc.context.event;
+
+import com.minispring.ioc.context.ApplicationContext;
+
+/**
+ * 应用上下文事件基类
+ * 事件源固定为发布事件的ApplicationContext
+ */
+public abstract class ApplicationContextEvent extends ApplicationEvent {
+    
+    public ApplicationContextEvent(ApplicationContext source) {
+        super(source);
+    }
+    
+    /**
+     * 获取发布事件的ApplicationContext
+     */
+    public final ApplicationContext getApplicationContext() {
+        return (ApplicationContext) getSource();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.minispring.ioc.context.event;
+
+import java.util.EventObject;
+
+/**
+ * 应用事件基类
+ * 所有框架内置事件都继承自此类，业务事件也可以直接发布普通对象
+ */
+public abstract class ApplicationEvent extends EventObject {
+    
+    private final long timestamp;
+    
+    public ApplicationEvent(Object source) {
+        super(source);
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    /**
+     * 获取事件发生的时间戳
+     */
+    public final long getTimestamp() {
+        return timestamp;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.minispring.ioc.context.event;
+
+/**
+ * 应用事件多播器接口
+ * 管理监听器集合，并将事件分发给所有匹配的监听器
+ */
+public interface ApplicationEventMulticaster {
+    
+    /**
+     * 注册监听器，事件类型从泛型参数中解析；Lambda监听器无法解析，需显式指定事件类型
+     */
+    void addApplicationListener(ApplicationListener<?> listener);
+    
+    /**
+     * 注册监听器，并显式指定监听的事件类型
+     */
+    void addApplicationListener(ApplicationListener<?> listener, Class<?> eventType);
+    
+    /**
+     * 移除监听器
+     */
+    void removeApplicationListener(ApplicationListener<?> listener);
+    
+    /**
+     * 移除所有监听器
+     */
+    void removeAllListeners();
+    
+    /**
+     * 将事件分发给所有匹配的监听器
+     */
+    void multicastEvent(Object event);
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.minispring.ioc.context.event;
+
+import java.util.EventListener;
+
+/**
+ * 应用事件监听器接口
+ * 泛型参数声明监听的事件类型，多播器据此建立按事件类型索引的监听器缓存
+ *
+ * @param <E> 监听的事件类型
+ */
+@FunctionalInterface
+public interface ApplicationListener<E> extends EventListener {
+    
+    /**
+     * 处理应用事件
+     * @param event 事件对象
+     */
+    void onApplicationEvent(E event);
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.minispring.ioc.context.event;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 将@EventListener注解的Bean方法适配为ApplicationListener
+ */
+public class ApplicationListenerMethodAdapter implements ApplicationListener<Object> {
+    
+    private final String beanName;
+    private final Object bean;
+    private final Method method;
+    private final boolean hasEventParameter;
+    
+    public ApplicationListenerMethodAdapter(String beanName, Object bean, Method method) {
+        if (method.getParameterCount() > 1) {
+            throw new IllegalStateException("@EventListener方法最多只能有一个参数: " + method);
+        }
+        this.beanName = beanName;
+        this.bean = bean;
+        this.method = method;
+        this.hasEventParameter = method.getParameterCount() == 1;
+        this.method.setAccessible(true);
+    }
+    
+    @Override
+    public void onApplicationEvent(Object event) {
+        try {
+            if (hasEventParameter) {
+                method.invoke(bean, event);
+            } else {
+                method.invoke(bean);
+            }
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getTargetException();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("事件监听方法执行失败: " + beanName + "." + method.getName(), cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问事件监听方法: " + beanName + "." + method.getName(), e);
+        }
+    }
+    
+    public String getBeanName() {
+        return beanName;
+    }
+    
+    public Method getMethod() {
+        return method;
+    }
+    
+    @Override
+    public String toString() {
+        return "ApplicationListenerMethodAdapter{" + beanName + "." + method.getName() + "}";
+    }
+}
\ No newline at end of file
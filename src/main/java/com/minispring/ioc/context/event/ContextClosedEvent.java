@@ -0,0 +1,14 @@
+package com.minispring.ioc.context.event;
+
+import com.minispring.ioc.context.ApplicationContext;
+
+/**
+ * 容器关闭事件
+ * 在close()销毁Bean之前发布
+ */
+public class ContextClosedEvent extends ApplicationContextEvent {
+    
+    public ContextClosedEvent(ApplicationContext source) {
+        super(source);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.minispring.ioc.context.event;
+
+import com.minispring.ioc.context.ApplicationContext;
+
+/**
+ * 容器刷新完成事件
+ * 在refresh()完成所有单例Bean实例化后发布
+ */
+public class ContextRefreshedEvent extends ApplicationContextEvent {
+    
+    public ContextRefreshedEvent(ApplicationContext source) {
+        super(source);
+    }
+}
\ No newline at end of file
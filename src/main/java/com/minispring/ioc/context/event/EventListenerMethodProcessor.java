@@ -0,0 +1,90 @@
+package com.minispring.ioc.context.event;
+
+import com.minispring.ioc.annotation.EventListener;
+import com.minispring.ioc.beans.BeanFactory;
+import com.minispring.ioc.beans.BeansException;
+import com.minispring.ioc.beans.DestructionAwareBeanPostProcessor;
+import com.minispring.ioc.core.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 事件监听器注册后置处理器
+ * 在单例Bean初始化完成后，将ApplicationListener实现类与@EventListener方法注册到多播器，
+ * 单例被销毁时再从多播器中移除
+ */
+public class EventListenerMethodProcessor implements DestructionAwareBeanPostProcessor {
+    
+    private final BeanFactory beanFactory;
+    private final ApplicationEventMulticaster eventMulticaster;
+    
+    /** Bean名称 -> 为其注册的监听器 */
+    private final Map<String, List<ApplicationListener<?>>> registeredListeners = new ConcurrentHashMap<>();
+    
+    public EventListenerMethodProcessor(BeanFactory beanFactory, ApplicationEventMulticaster eventMulticaster) {
+        this.beanFactory = beanFactory;
+        this.eventMulticaster = eventMulticaster;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        // 原型Bean每次创建都会产生新实例，不作为监听器注册
+        if (!beanFactory.isSingleton(beanName)) {
+            return bean;
+        }
+        
+        if (bean instanceof ApplicationListener) {
+            eventMulticaster.addApplicationListener((ApplicationListener<?>) bean);
+            trackListener(beanName, (ApplicationListener<?>) bean);
+        }
+        
+        for (Map.Entry<Method, EventListener> entry : ReflectionUtils.getAnnotatedMethods(bean.getClass(), EventListener.class).entrySet()) {
+            registerListenerMethod(beanName, bean, entry.getKey(), entry.getValue());
+        }
+        
+        return bean;
+    }
+    
+    private void registerListenerMethod(String beanName, Object bean, Method method, EventListener eventListener) {
+        ApplicationListenerMethodAdapter adapter = new ApplicationListenerMethodAdapter(beanName, bean, method);
+        Class<?>[] eventTypes = eventListener.value();
+        if (eventTypes.length == 0) {
+            if (method.getParameterCount() == 0) {
+                throw new IllegalStateException("@EventListener方法未声明事件类型: " + method);
+            }
+            eventTypes = new Class<?>[]{method.getParameterTypes()[0]};
+        } else if (method.getParameterCount() == 1) {
+            // 声明的每个事件类型都必须能作为参数传入，否则发布该事件时方法调用失败
+            Class<?> parameterType = method.getParameterTypes()[0];
+            for (Class<?> eventType : eventTypes) {
+                if (!parameterType.isAssignableFrom(eventType)) {
+                    throw new IllegalStateException("@EventListener声明的事件类型" + eventType.getName()
+                            + "不能赋值给方法参数类型" + parameterType.getName() + ": " + method);
+                }
+            }
+        }
+        
+        for (Class<?> eventType : eventTypes) {
+            eventMulticaster.addApplicationListener(adapter, eventType);
+        }
+        trackListener(beanName, adapter);
+    }
+    
+    private void trackListener(String beanName, ApplicationListener<?> listener) {
+        registeredListeners.computeIfAbsent(beanName, key -> new ArrayList<>()).add(listener);
+    }
+    
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+        List<ApplicationListener<?>> listeners = registeredListeners.remove(beanName);
+        if (listeners != null) {
+            for (ApplicationListener<?> listener : listeners) {
+                eventMulticaster.removeApplicationListener(listener);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,326 @@
+package com.minispring.ioc.context.event;
+
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 默认的应用事件多播器实现
+ *
+ * 监听器的事件类型在注册时解析，分发时只调用事件类型匹配的监听器。
+ * 监听器按事件类型建立缓存索引：同一事件类型第一次发布时计算匹配的监听器数组，
+ * 之后的发布只需一次Map查找加数组遍历，不会遍历全部监听器，也不会按监听器分配对象。
+ *
+ * 设置taskExecutor后进入异步模式：事件写入有界队列，由执行器上的单个排空任务
+ * 按批次取出并分发，保证事件按发布顺序处理；队列已满时由发布线程直接分发（调用者执行策略）。
+ */
+public class SimpleApplicationEventMulticaster implements ApplicationEventMulticaster {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SimpleApplicationEventMulticaster.class);
+    
+    private static final ApplicationListener<?>[] NO_LISTENERS = new ApplicationListener<?>[0];
+    
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    
+    /** 所有已注册的监听器（注册顺序） */
+    private final List<ListenerRegistration> registrations = new ArrayList<>();
+    
+    /** 事件类型 -> 匹配的监听器数组 */
+    private final Map<Class<?>, ApplicationListener<?>[]> listenerCache = new ConcurrentHashMap<>();
+    
+    /** 保护registrations与listenerCache的一致性，发布路径只在缓存未命中时进入 */
+    private final Object retrievalMutex = new Object();
+    
+    // 异步模式
+    private volatile Executor taskExecutor;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private BlockingQueue<Object> eventQueue;
+    private final List<Object> drainBatch = new ArrayList<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final Runnable drainTask = this::drainQueue;
+    private final AtomicLong callerRunsCount = new AtomicLong();
+    
+    public SimpleApplicationEventMulticaster() {
+    }
+    
+    public SimpleApplicationEventMulticaster(Executor taskExecutor) {
+        setTaskExecutor(taskExecutor);
+    }
+    
+    /**
+     * 设置异步分发使用的执行器，为null时同步分发
+     */
+    public void setTaskExecutor(Executor taskExecutor) {
+        if (taskExecutor != null && this.eventQueue == null) {
+            this.eventQueue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+        this.taskExecutor = taskExecutor;
+    }
+    
+    public Executor getTaskExecutor() {
+        return taskExecutor;
+    }
+    
+    /**
+     * 设置异步队列容量，必须在setTaskExecutor之前调用
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        if (this.eventQueue != null) {
+            throw new IllegalStateException("Event queue already created - set queueCapacity before taskExecutor");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+    
+    /**
+     * 设置异步模式下每批次最多分发的事件数
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * 注册监听器，事件类型从实现类的泛型声明中解析（含父类与子接口上绑定的类型变量）
+     * Lambda监听器的泛型参数在运行时被擦除，必须使用addApplicationListener(listener, eventType)
+     */
+    @Override
+    public void addApplicationListener(ApplicationListener<?> listener) {
+        if (listener.getClass().isSynthetic()) {
+            throw new IllegalArgumentException("无法解析Lambda监听器的事件类型，请使用addApplicationListener(listener, eventType)显式指定: "
+                    + listener.getClass().getName());
+        }
+        addApplicationListener(listener, resolveDeclaredEventType(listener.getClass()));
+    }
+    
+    @Override
+    public void addApplicationListener(ApplicationListener<?> listener, Class<?> eventType) {
+        synchronized (retrievalMutex) {
+            registrations.add(new ListenerRegistration(listener, eventType));
+            listenerCache.clear();
+        }
+    }
+    
+    @Override
+    public void removeApplicationListener(ApplicationListener<?> listener) {
+        synchronized (retrievalMutex) {
+            registrations.removeIf(registration -> registration.listener == listener);
+            listenerCache.clear();
+        }
+    }
+    
+    @Override
+    public void removeAllListeners() {
+        synchronized (retrievalMutex) {
+            registrations.clear();
+            listenerCache.clear();
+        }
+    }
+    
+    @Override
+    public void multicastEvent(Object event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event must not be null");
+        }
+        
+        Executor executor = this.taskExecutor;
+        if (executor == null) {
+            invokeListeners(event);
+            return;
+        }
+        
+        if (eventQueue.offer(event)) {
+            scheduleDrain(executor);
+        } else {
+            // 队列已满：由发布线程直接分发，形成背压
+            callerRunsCount.incrementAndGet();
+            invokeListeners(event);
+        }
+    }
+    
+    /**
+     * 获取监听指定事件类型的监听器
+     */
+    public ApplicationListener<?>[] getApplicationListeners(Class<?> eventType) {
+        ApplicationListener<?>[] listeners = listenerCache.get(eventType);
+        if (listeners != null) {
+            return listeners;
+        }
+        
+        synchronized (retrievalMutex) {
+            listeners = listenerCache.get(eventType);
+            if (listeners == null) {
+                List<ApplicationListener<?>> matched = new ArrayList<>();
+                for (ListenerRegistration registration : registrations) {
+                    if (registration.eventType.isAssignableFrom(eventType)) {
+                        matched.add(registration.listener);
+                    }
+                }
+                listeners = matched.isEmpty() ? NO_LISTENERS : matched.toArray(NO_LISTENERS);
+                listenerCache.put(eventType, listeners);
+            }
+            return listeners;
+        }
+    }
+    
+    /**
+     * 当前在异步队列中等待分发的事件数
+     */
+    public int getQueuedEventCount() {
+        return eventQueue != null ? eventQueue.size() : 0;
+    }
+    
+    /**
+     * 因队列已满而在发布线程中直接分发的事件数
+     */
+    public long getCallerRunsCount() {
+        return callerRunsCount.get();
+    }
+    
+    /**
+     * 同步调用所有匹配的监听器
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected void invokeListeners(Object event) {
+        ApplicationListener[] listeners = getApplicationListeners(event.getClass());
+        for (ApplicationListener listener : listeners) {
+            listener.onApplicationEvent(event);
+        }
+    }
+    
+    private void scheduleDrain(Executor executor) {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(drainTask);
+            } catch (RuntimeException e) {
+                drainScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * 按批次排空事件队列，同一时刻只有一个排空任务在运行
+     */
+    private void drainQueue() {
+        try {
+            int drained;
+            while ((drained = eventQueue.drainTo(drainBatch, batchSize)) > 0) {
+                for (int i = 0; i < drained; i++) {
+                    Object event = drainBatch.get(i);
+                    try {
+                        invokeListeners(event);
+                    } catch (Throwable e) {
+                        logger.error("异步事件分发失败: " + event.getClass().getName() + ", 错误: " + e.getMessage());
+                    }
+                }
+                drainBatch.clear();
+            }
+        } finally {
+            drainBatch.clear();
+            drainScheduled.set(false);
+        }
+        
+        // 释放标记后可能有新事件入队但未触发调度，重新检查一次
+        Executor executor = this.taskExecutor;
+        if (executor != null && !eventQueue.isEmpty()) {
+            scheduleDrain(executor);
+        }
+    }
+    
+    /**
+     * 从监听器实现类的泛型声明中解析事件类型
+     * 沿父类与接口向上查找ApplicationListener，途中记录类型变量的绑定，
+     * 使class OrderListener extends BaseListener<OrderEvent>也能解析出OrderEvent；
+     * 原始类型实现或无法确定时返回Object，即接收所有事件
+     */
+    static Class<?> resolveDeclaredEventType(Class<?> listenerClass) {
+        Class<?> eventType = findEventType(listenerClass, new HashMap<>());
+        return eventType != null ? eventType : Object.class;
+    }
+    
+    private static Class<?> findEventType(Type type, Map<TypeVariable<?>, Type> bindings) {
+        Class<?> rawClass;
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            rawClass = (Class<?>) parameterizedType.getRawType();
+            Type[] arguments = parameterizedType.getActualTypeArguments();
+            if (rawClass == ApplicationListener.class) {
+                return toClass(arguments[0], bindings);
+            }
+            TypeVariable<?>[] parameters = rawClass.getTypeParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                Type argument = arguments[i];
+                bindings.put(parameters[i], argument instanceof TypeVariable ? bindings.getOrDefault(argument, argument) : argument);
+            }
+        } else if (type instanceof Class) {
+            rawClass = (Class<?>) type;
+            if (rawClass == ApplicationListener.class) {
+                return Object.class;
+            }
+        } else {
+            return null;
+        }
+        
+        for (Type genericInterface : rawClass.getGenericInterfaces()) {
+            Class<?> eventType = findEventType(genericInterface, bindings);
+            if (eventType != null) {
+                return eventType;
+            }
+        }
+        Type superclass = rawClass.getGenericSuperclass();
+        return superclass != null ? findEventType(superclass, bindings) : null;
+    }
+    
+    private static Class<?> toClass(Type type, Map<TypeVariable<?>, Type> bindings) {
+        if (type instanceof TypeVariable) {
+            Type bound = bindings.get(type);
+            return bound != null && !(bound instanceof TypeVariable)
+                    ? toClass(bound, bindings) : toClass(((TypeVariable<?>) type).getBounds()[0], bindings);
+        }
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof WildcardType) {
+            return toClass(((WildcardType) type).getUpperBounds()[0], bindings);
+        }
+        return Object.class;
+    }
+    
+    /**
+     * 监听器注册信息
+     */
+    private static class ListenerRegistration {
+        private final ApplicationListener<?> listener;
+        private final Class<?> eventType;
+        
+        ListenerRegistration(ApplicationListener<?> listener, Class<?> eventType) {
+            this.listener = listener;
+            this.eventType = eventType;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,325 @@
+package com.minispring.ioc.context.properties;
+
+import com.minispring.ioc.beans.BeansException;
+import com.minispring.ioc.core.PropertySource;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.ioc.core.TypeConverter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @ConfigurationProperties绑定器
+ *
+ * 每个类只编译一次绑定计划：规范化属性路径 -> 写入目标（setter或字段，嵌套对象按路径逐级创建）。
+ * 绑定时对属性源做一次遍历，按前缀取出命中计划的原始值，转换后得到绑定快照；
+ * 快照按(类型, 前缀)缓存，属性源版本未变化时直接复用，版本变化但相关属性值未变时也不重新转换。
+ */
+public class ConfigurationPropertiesBinder {
+    
+    /** 嵌套对象的最大层数，防止自引用类型无限展开 */
+    private static final int MAX_NESTING_DEPTH = 8;
+    
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<BindingPlan>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> type) {
+            return BindingPlan.compile(type);
+        }
+    };
+    
+    private final PropertySource propertySource;
+    private final Map<SnapshotKey, BindingSnapshot> snapshots = new ConcurrentHashMap<>();
+    
+    public ConfigurationPropertiesBinder(PropertySource propertySource) {
+        this.propertySource = propertySource;
+    }
+    
+    /**
+     * 将prefix下的属性绑定到已有对象，返回本次应用的快照
+     */
+    public BindingSnapshot bind(Object target, String prefix) {
+        BindingSnapshot snapshot = getSnapshot(ReflectionUtils.getUserClass(target.getClass()), prefix);
+        snapshot.applyTo(target);
+        return snapshot;
+    }
+    
+    /**
+     * 创建type的新实例并绑定prefix下的属性
+     */
+    public <T> T bind(Class<T> type, String prefix) {
+        T instance = ReflectionUtils.createInstance(type);
+        bind(instance, prefix);
+        return instance;
+    }
+    
+    /**
+     * 获取(类型, 前缀)对应的绑定快照，仅在属性源发生变化且相关属性值不同时重建
+     */
+    public BindingSnapshot getSnapshot(Class<?> type, String prefix) {
+        SnapshotKey key = new SnapshotKey(type, prefix);
+        long version = propertySource.getVersion();
+        BindingSnapshot current = snapshots.get(key);
+        if (current != null && current.version == version) {
+            return current;
+        }
+        
+        BindingPlan plan = PLANS.get(type);
+        String[] rawValues = collect(plan, prefix);
+        if (current != null && Arrays.equals(current.rawValues, rawValues)) {
+            // 变化的属性与此前缀无关，沿用已转换的值
+            current.version = version;
+            return current;
+        }
+        
+        BindingSnapshot rebuilt = new BindingSnapshot(plan, prefix, rawValues, version);
+        snapshots.put(key, rebuilt);
+        return rebuilt;
+    }
+    
+    /**
+     * 单次遍历属性源，取出prefix下命中绑定计划的原始值
+     */
+    private String[] collect(BindingPlan plan, String prefix) {
+        String[] rawValues = new String[plan.targets.length];
+        String keyPrefix = prefix.isEmpty() ? "" : prefix + ".";
+        propertySource.forEach((key, value) -> {
+            if (key.length() > keyPrefix.length() && key.regionMatches(true, 0, keyPrefix, 0, keyPrefix.length())) {
+                Integer slot = plan.slots.get(canonicalName(key.substring(keyPrefix.length())));
+                if (slot != null) {
+                    rawValues[slot] = value;
+                }
+            }
+        });
+        return rawValues;
+    }
+    
+    /**
+     * 宽松名称：忽略大小写、'-'与'_'，保留路径分隔符'.'
+     */
+    static String canonicalName(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != '-' && c != '_') {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * 绑定快照：与绑定计划槽位对齐的原始值和转换后的值，不可变
+     */
+    public static final class BindingSnapshot {
+        private final BindingPlan plan;
+        private final String prefix;
+        private final String[] rawValues;
+        private final Object[] values;
+        /** 快照对应的属性源版本，只会前移 */
+        private volatile long version;
+        
+        BindingSnapshot(BindingPlan plan, String prefix, String[] rawValues, long version) {
+            this.plan = plan;
+            this.prefix = prefix;
+            this.rawValues = rawValues;
+            this.values = new Object[rawValues.length];
+            this.version = version;
+            for (int i = 0; i < rawValues.length; i++) {
+                if (rawValues[i] != null) {
+                    PropertyTarget target = plan.targets[i];
+                    try {
+                        values[i] = TypeConverter.convertValue(rawValues[i].trim(), target.type);
+                    } catch (RuntimeException e) {
+                        throw new BeansException("无法将属性 " + prefix + "." + target.path + "=" + rawValues[i]
+                                + " 转换为 " + target.type.getName(), e);
+                    }
+                }
+            }
+        }
+        
+        /**
+         * 按计划写入目标对象，未配置的属性保留对象中的默认值
+         */
+        public void applyTo(Object target) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    plan.targets[i].apply(target, values[i]);
+                }
+            }
+        }
+        
+        /**
+         * 绑定到的属性数
+         */
+        public int getBoundCount() {
+            int count = 0;
+            for (Object value : values) {
+                if (value != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+    
+    /**
+     * 编译后的绑定计划
+     */
+    static final class BindingPlan {
+        private final Map<String, Integer> slots;
+        private final PropertyTarget[] targets;
+        
+        private BindingPlan(Map<String, Integer> slots, PropertyTarget[] targets) {
+            this.slots = slots;
+            this.targets = targets;
+        }
+        
+        static BindingPlan compile(Class<?> type) {
+            List<PropertyTarget> targets = new ArrayList<>();
+            collectTargets(type, "", new Field[0], targets, 0);
+            Map<String, Integer> slots = new HashMap<>();
+            for (int i = 0; i < targets.size(); i++) {
+                slots.put(canonicalName(targets.get(i).path), i);
+            }
+            return new BindingPlan(slots, targets.toArray(new PropertyTarget[0]));
+        }
+        
+        private static void collectTargets(Class<?> type, String pathPrefix, Field[] parents,
+                                           List<PropertyTarget> targets, int depth) {
+            for (Field field : ReflectionUtils.getAllFields(type)) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                String path = pathPrefix + field.getName();
+                Class<?> fieldType = field.getType();
+                if (isSimpleType(fieldType)) {
+                    field.setAccessible(true);
+                    targets.add(new PropertyTarget(path, fieldType, parents, field, findSetter(type, field)));
+                } else if (depth < MAX_NESTING_DEPTH && isNestedType(fieldType)) {
+                    field.setAccessible(true);
+                    Field[] nestedParents = Arrays.copyOf(parents, parents.length + 1);
+                    nestedParents[parents.length] = field;
+                    collectTargets(fieldType, path + ".", nestedParents, targets, depth + 1);
+                }
+            }
+        }
+        
+        private static Method findSetter(Class<?> type, Field field) {
+            String name = field.getName();
+            String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            try {
+                Method setter = type.getMethod(setterName, field.getType());
+                return setter.getReturnType() == void.class ? setter : null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+        
+        private static boolean isSimpleType(Class<?> type) {
+            return type.isPrimitive() || type.isEnum() || type == String.class || type == Integer.class || type == Long.class
+                    || type == Boolean.class || type == Double.class || type == Float.class || type == Byte.class
+                    || type == Short.class || type == Character.class;
+        }
+        
+        private static boolean isNestedType(Class<?> type) {
+            if (type.isArray() || type.isInterface() || type.isEnum() || Modifier.isAbstract(type.getModifiers())
+                    || type.getName().startsWith("java.")) {
+                return false;
+            }
+            try {
+                type.getDeclaredConstructor();
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+    
+    /**
+     * 单个属性的写入目标，parents为从根对象到所在嵌套对象的字段路径
+     */
+    static final class PropertyTarget {
+        private final String path;
+        private final Class<?> type;
+        private final Field[] parents;
+        private final Constructor<?>[] parentConstructors;
+        private final Field field;
+        private final Method setter;
+        
+        PropertyTarget(String path, Class<?> type, Field[] parents, Field field, Method setter) {
+            this.path = path;
+            this.type = type;
+            this.parents = parents;
+            this.field = field;
+            this.setter = setter;
+            this.parentConstructors = new Constructor<?>[parents.length];
+            for (int i = 0; i < parents.length; i++) {
+                try {
+                    parentConstructors[i] = parents[i].getType().getDeclaredConstructor();
+                    parentConstructors[i].setAccessible(true);
+                } catch (NoSuchMethodException e) {
+                    throw new BeansException("嵌套属性类型缺少无参构造函数: " + parents[i].getType().getName(), e);
+                }
+            }
+        }
+        
+        void apply(Object root, Object value) {
+            try {
+                Object owner = root;
+                for (int i = 0; i < parents.length; i++) {
+                    Object nested = parents[i].get(owner);
+                    if (nested == null) {
+                        nested = parentConstructors[i].newInstance();
+                        parents[i].set(owner, nested);
+                    }
+                    owner = nested;
+                }
+                if (setter != null) {
+                    setter.invoke(owner, value);
+                } else {
+                    field.set(owner, value);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new BeansException("绑定属性失败: " + path, e);
+            }
+        }
+    }
+    
+    private static final class SnapshotKey {
+        private final Class<?> type;
+        private final String prefix;
+        
+        SnapshotKey(Class<?> type, String prefix) {
+            this.type = type;
+            this.prefix = prefix;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SnapshotKey)) {
+                return false;
+            }
+            SnapshotKey other = (SnapshotKey) o;
+            return type == other.type && prefix.equals(other.prefix);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, prefix);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.minispring.ioc.context.properties;
+
+import com.minispring.ioc.annotation.ConfigurationProperties;
+import com.minispring.ioc.beans.BeanFactory;
+import com.minispring.ioc.beans.BeansException;
+import com.minispring.ioc.beans.DestructionAwareBeanPostProcessor;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @ConfigurationProperties绑定后置处理器
+ *
+ * 在初始化方法之前把属性绑定到Bean上。单例Bean会被记录下来，属性修改后调用rebind()，
+ * 只有相关属性确实变化、快照被重建的Bean才会重新写入。
+ */
+public class ConfigurationPropertiesBindingPostProcessor implements DestructionAwareBeanPostProcessor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationPropertiesBindingPostProcessor.class);
+    
+    private final BeanFactory beanFactory;
+    private final ConfigurationPropertiesBinder binder;
+    private final Map<String, BoundBean> boundBeans = new ConcurrentHashMap<>();
+    
+    public ConfigurationPropertiesBindingPostProcessor(BeanFactory beanFactory, ConfigurationPropertiesBinder binder) {
+        this.beanFactory = beanFactory;
+        this.binder = binder;
+    }
+    
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        ConfigurationProperties annotation = ReflectionUtils.getAnnotation(ReflectionUtils.getUserClass(bean.getClass()), ConfigurationProperties.class);
+        if (annotation == null) {
+            return bean;
+        }
+        
+        String prefix = !annotation.prefix().isEmpty() ? annotation.prefix() : annotation.value();
+        ConfigurationPropertiesBinder.BindingSnapshot snapshot = binder.bind(bean, prefix);
+        if (beanFactory.isSingleton(beanName)) {
+            boundBeans.put(beanName, new BoundBean(bean, snapshot));
+        }
+        logger.debug(() -> "绑定配置属性: " + beanName + " <- " + prefix + ".*，共 " + snapshot.getBoundCount() + " 项");
+        return bean;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+    
+    /**
+     * 属性变化后重新绑定单例Bean，快照未重建的Bean保持不变
+     *
+     * @return 重新写入的Bean数量
+     */
+    public int rebind() {
+        int rebound = 0;
+        for (Map.Entry<String, BoundBean> entry : boundBeans.entrySet()) {
+            BoundBean boundBean = entry.getValue();
+            ConfigurationPropertiesBinder.BindingSnapshot snapshot;
+            try {
+                snapshot = binder.getSnapshot(ReflectionUtils.getUserClass(boundBean.bean.getClass()), boundBean.snapshot.getPrefix());
+            } catch (BeansException e) {
+                // 新值无法转换时保留原有绑定
+                logger.error("重新绑定配置属性失败: " + entry.getKey() + ", 错误: " + e.getMessage());
+                continue;
+            }
+            if (snapshot != boundBean.snapshot) {
+                snapshot.applyTo(boundBean.bean);
+                boundBean.snapshot = snapshot;
+                rebound++;
+                logger.debug(() -> "配置属性已变化，重新绑定: " + entry.getKey());
+            }
+        }
+        return rebound;
+    }
+    
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+        boundBeans.remove(beanName);
+    }
+    
+    private static final class BoundBean {
+        private final Object bean;
+        private volatile ConfigurationPropertiesBinder.BindingSnapshot snapshot;
+        
+        BoundBean(Object bean, ConfigurationPropertiesBinder.BindingSnapshot snapshot) {
+            this.bean = bean;
+            this.snapshot = snapshot;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.minispring.ioc.core;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.lang.reflect.Parameter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 合并后的注解元数据
+ *
+ * 包含元素上直接声明的注解（类包括@Inherited继承的注解），以及沿元注解传递解析到的注解，
+ * 如标注@RestController的类同时能查到@Controller、@Component与@ResponseBody。
+ * 同一类型的注解以离元素最近的为准：直接声明优先，其次按元注解层级广度优先。
+ *
+ * 每个元素只计算一次：类的元数据及其字段、方法、构造器、参数的元数据都挂在所属类的ClassValue上，
+ * 不持有对类的强引用，类加载器可被正常卸载。
+ */
+public final class MergedAnnotations {
+    
+    private static final MergedAnnotations EMPTY =
+            new MergedAnnotations(new Annotation[0], Collections.emptyMap());
+    
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(compute(type.getAnnotations()));
+        }
+    };
+    
+    private final List<Annotation> directAnnotations;
+    private final Map<Class<? extends Annotation>, Annotation> annotations;
+    
+    private MergedAnnotations(Annotation[] directAnnotations, Map<Class<? extends Annotation>, Annotation> annotations) {
+        this.directAnnotations = Collections.unmodifiableList(Arrays.asList(directAnnotations));
+        this.annotations = annotations;
+    }
+    
+    /**
+     * 获取元素的合并注解元数据，支持Class、Field、Method、Constructor与Parameter
+     */
+    public static MergedAnnotations from(AnnotatedElement element) {
+        if (element instanceof Class) {
+            return CACHE.get((Class<?>) element).typeAnnotations;
+        }
+        if (element instanceof Member) {
+            return CACHE.get(((Member) element).getDeclaringClass()).forElement(element);
+        }
+        if (element instanceof Parameter) {
+            return CACHE.get(((Parameter) element).getDeclaringExecutable().getDeclaringClass()).forElement(element);
+        }
+        // 包等其他元素很少被查询，不缓存
+        return compute(element.getDeclaredAnnotations());
+    }
+    
+    /**
+     * 广度优先解析元注解，跳过java.*中的注解（@Retention、@Documented等）并防止循环
+     */
+    private static MergedAnnotations compute(Annotation[] declared) {
+        if (declared.length == 0) {
+            return EMPTY;
+        }
+        Map<Class<? extends Annotation>, Annotation> result = new LinkedHashMap<>();
+        Deque<Annotation> queue = new ArrayDeque<>();
+        Set<Class<? extends Annotation>> visited = new HashSet<>();
+        for (Annotation annotation : declared) {
+            queue.add(annotation);
+        }
+        while (!queue.isEmpty()) {
+            Annotation annotation = queue.poll();
+            Class<? extends Annotation> type = annotation.annotationType();
+            if (!visited.add(type)) {
+                continue;
+            }
+            result.put(type, annotation);
+            for (Annotation meta : type.getDeclaredAnnotations()) {
+                if (!meta.annotationType().getName().startsWith("java.")) {
+                    queue.add(meta);
+                }
+            }
+        }
+        return new MergedAnnotations(declared, result);
+    }
+    
+    /**
+     * 获取指定类型的注解（直接声明或元注解），不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends Annotation> A get(Class<A> annotationType) {
+        return (A) annotations.get(annotationType);
+    }
+    
+    /**
+     * 是否直接声明或通过元注解带有指定注解
+     */
+    public boolean isPresent(Class<? extends Annotation> annotationType) {
+        return annotations.containsKey(annotationType);
+    }
+    
+    /**
+     * 是否直接声明了指定注解（类上包括@Inherited继承的注解）
+     */
+    public boolean isDirectlyPresent(Class<? extends Annotation> annotationType) {
+        for (Annotation annotation : directAnnotations) {
+            if (annotation.annotationType() == annotationType) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 直接声明的注解，按声明顺序
+     */
+    public List<Annotation> getDirectAnnotations() {
+        return directAnnotations;
+    }
+    
+    /**
+     * 所有合并后的注解，直接声明的在前
+     */
+    public Collection<Annotation> getAll() {
+        return Collections.unmodifiableCollection(annotations.values());
+    }
+    
+    /**
+     * 挂在类上的元数据：类自身的注解，以及按需计算的成员与参数注解
+     */
+    private static final class ClassMetadata {
+        
+        private final MergedAnnotations typeAnnotations;
+        private final Map<AnnotatedElement, MergedAnnotations> elementAnnotations = new ConcurrentHashMap<>();
+        
+        ClassMetadata(MergedAnnotations typeAnnotations) {
+            this.typeAnnotations = typeAnnotations;
+        }
+        
+        /**
+         * 先无锁读取（Java 8的computeIfAbsent即使命中也会锁住桶）
+         */
+        MergedAnnotations forElement(AnnotatedElement element) {
+            MergedAnnotations merged = elementAnnotations.get(element);
+            if (merged == null) {
+                merged = elementAnnotations.computeIfAbsent(element, e -> compute(e.getDeclaredAnnotations()));
+            }
+            return merged;
+        }
+    }
+}
\ No newline at end of file
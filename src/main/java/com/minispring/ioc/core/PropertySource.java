@@ -0,0 +1,74 @@
+package com.minispring.ioc.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * 容器属性源
+ * 保存application.properties与运行期设置的属性，查找时系统属性优先。
+ * 每次修改都会递增版本号，@ConfigurationProperties绑定据此判断是否需要重建快照；
+ * 系统属性可能在外部被修改，读取版本号时比较系统属性的指纹，变化时同样递增
+ */
+public class PropertySource {
+    
+    private final Properties properties = new Properties();
+    private final AtomicLong version = new AtomicLong();
+    
+    /** 上次读取版本号时系统属性的散列值，作为廉价的指纹 */
+    private final AtomicInteger systemPropertiesFingerprint = new AtomicInteger(System.getProperties().hashCode());
+    
+    public String getProperty(String key) {
+        String value = System.getProperty(key);
+        return value != null ? value : properties.getProperty(key);
+    }
+    
+    public String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
+    }
+    
+    public void setProperty(String key, String value) {
+        properties.setProperty(key, value);
+        version.incrementAndGet();
+    }
+    
+    public void load(InputStream inputStream) throws IOException {
+        properties.load(inputStream);
+        version.incrementAndGet();
+    }
+    
+    /**
+     * 当前版本号，属性每修改一次加一；系统属性自上次读取后发生变化时也加一
+     */
+    public long getVersion() {
+        int fingerprint = System.getProperties().hashCode();
+        int previous = systemPropertiesFingerprint.get();
+        if (fingerprint != previous && systemPropertiesFingerprint.compareAndSet(previous, fingerprint)) {
+            version.incrementAndGet();
+        }
+        return version.get();
+    }
+    
+    /**
+     * 单次遍历所有属性：先配置属性，后系统属性，同名时后者覆盖前者
+     */
+    public void forEach(BiConsumer<String, String> action) {
+        forEach(properties, action);
+        forEach(System.getProperties(), action);
+    }
+    
+    private static void forEach(Properties source, BiConsumer<String, String> action) {
+        synchronized (source) {
+            for (Map.Entry<Object, Object> entry : source.entrySet()) {
+                if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
+                    action.accept((String) entry.getKey(), (String) entry.getValue());
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,13 +1,18 @@
 package com.minispring.ioc.core;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 反射工具类
@@ -86,6 +91,21 @@ public class ReflectionUtils {
         return methods.toArray(new Method[0]);
     }
     
+    /**
+     * 获取类及其父类中标注了指定注解（含元注解）的方法，按getAllMethods的顺序
+     * 代理类重写的方法上没有注解，传入代理类时会一并遍历到目标类中声明的原方法
+     */
+    public static <A extends Annotation> Map<Method, A> getAnnotatedMethods(Class<?> clazz, Class<A> annotationClass) {
+        Map<Method, A> result = new LinkedHashMap<>();
+        for (Method method : getAllMethods(clazz)) {
+            A annotation = getAnnotation(method, annotationClass);
+            if (annotation != null) {
+                result.put(method, annotation);
+            }
+        }
+        return result;
+    }
+    
     /**
      * 调用方法
      */
@@ -99,58 +119,86 @@ public class ReflectionUtils {
     }
     
     /**
-     * 检查类是否有指定注解
-     */
-    public static boolean hasAnnotation(Class<?> clazz, Class<? extends Annotation> annotationClass) {
-        return clazz.isAnnotationPresent(annotationClass);
-    }
-    
-    /**
-     * 获取类上的注解
+     * 检查类、字段、方法、构造器或参数是否有指定注解，包括通过元注解间接标注的情况
+     * 结果由MergedAnnotations按元素缓存
      */
-    public static <T extends Annotation> T getAnnotation(Class<?> clazz, Class<T> annotationClass) {
-        return clazz.getAnnotation(annotationClass);
+    public static boolean hasAnnotation(AnnotatedElement element, Class<? extends Annotation> annotationClass) {
+        return MergedAnnotations.from(element).isPresent(annotationClass);
     }
     
     /**
-     * 检查字段是否有指定注解
+     * 获取元素上的注解，直接声明的优先，其次是离元素最近的元注解
      */
-    public static boolean hasAnnotation(Field field, Class<? extends Annotation> annotationClass) {
-        return field.isAnnotationPresent(annotationClass);
+    public static <T extends Annotation> T getAnnotation(AnnotatedElement element, Class<T> annotationClass) {
+        return MergedAnnotations.from(element).get(annotationClass);
     }
     
     /**
-     * 获取字段上的注解
+     * 创建类的实例
      */
-    public static <T extends Annotation> T getAnnotation(Field field, Class<T> annotationClass) {
-        return field.getAnnotation(annotationClass);
+    public static <T> T createInstance(Class<T> clazz) {
+        try {
+            Constructor<T> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException("Unable to create instance of: " + clazz.getName(), e);
+        }
     }
     
     /**
-     * 检查方法是否有指定注解
+     * 获取用户定义的类：CGLIB生成的代理类或@Lookup子类（类名含"$$"）返回其父类
      */
-    public static boolean hasAnnotation(Method method, Class<? extends Annotation> annotationClass) {
-        return method.isAnnotationPresent(annotationClass);
+    public static Class<?> getUserClass(Class<?> clazz) {
+        Class<?> userClass = clazz;
+        while (userClass.getName().contains("$$")) {
+            Class<?> superclass = userClass.getSuperclass();
+            if (superclass == null || superclass == Object.class) {
+                break;
+            }
+            userClass = superclass;
+        }
+        return userClass;
     }
     
     /**
-     * 获取方法上的注解
+     * 解析类为泛型接口指定的第一个类型参数，如FooFactory implements FactoryBean<Foo>解析得到Foo
+     * 沿父类与父接口查找；类型参数仍是类型变量等无法静态确定的情况返回null
      */
-    public static <T extends Annotation> T getAnnotation(Method method, Class<T> annotationClass) {
-        return method.getAnnotation(annotationClass);
+    public static Class<?> resolveTypeArgument(Class<?> clazz, Class<?> genericInterface) {
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            Class<?> resolved = resolveTypeArgument(current.getGenericInterfaces(), genericInterface);
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        return null;
     }
     
-    /**
-     * 创建类的实例
-     */
-    public static <T> T createInstance(Class<T> clazz) {
-        try {
-            Constructor<T> constructor = clazz.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            return constructor.newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException("Unable to create instance of: " + clazz.getName(), e);
+    private static Class<?> resolveTypeArgument(Type[] interfaces, Class<?> genericInterface) {
+        for (Type type : interfaces) {
+            Class<?> rawType = type instanceof ParameterizedType
+                    ? (Class<?>) ((ParameterizedType) type).getRawType() : (Class<?>) type;
+            if (rawType == genericInterface) {
+                if (type instanceof ParameterizedType) {
+                    Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+                    if (argument instanceof ParameterizedType) {
+                        argument = ((ParameterizedType) argument).getRawType();
+                    }
+                    if (argument instanceof Class) {
+                        return (Class<?>) argument;
+                    }
+                }
+                return null;
+            }
+            if (genericInterface.isAssignableFrom(rawType)) {
+                Class<?> resolved = resolveTypeArgument(rawType.getGenericInterfaces(), genericInterface);
+                if (resolved != null) {
+                    return resolved;
+                }
+            }
         }
+        return null;
     }
     
     /**
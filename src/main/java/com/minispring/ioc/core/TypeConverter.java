@@ -53,7 +53,22 @@ public class TypeConverter {
             throw new IllegalArgumentException("Cannot convert string '" + value + "' to char");
         }
         
+        if (targetType.isEnum()) {
+            return toEnum(value, targetType);
+        }
+        
         // 如果不支持的类型，尝试返回字符串
         return value;
     }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object toEnum(String value, Class<?> enumType) {
+        String name = value.trim();
+        try {
+            return Enum.valueOf((Class<? extends Enum>) enumType, name);
+        } catch (IllegalArgumentException e) {
+            // 允许小写形式，如 mode=fast
+            return Enum.valueOf((Class<? extends Enum>) enumType, name.toUpperCase());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.minispring.ioc.expression;
+
+/**
+ * 表达式求值上下文，解析表达式中按名称引用的Bean
+ */
+@FunctionalInterface
+public interface EvaluationContext {
+    
+    /**
+     * 按名称获取Bean，如#{orderService.timeout}中的orderService
+     * @param name Bean名称
+     * @return Bean实例
+     */
+    Object lookupBean(String name);
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.minispring.ioc.expression;
+
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 解析后的表达式
+ *
+ * 前几次求值解释执行语法树，同时记录属性与方法调用的实际类型；
+ * 解释执行达到编译阈值后，把整棵语法树编译为一个方法句柄链，之后的求值直接调用该句柄。
+ * 编译失败时保持解释执行，不影响结果。
+ */
+public final class Expression {
+    
+    private static final Logger logger = LoggerFactory.getLogger(Expression.class);
+    
+    private final String expressionString;
+    private final ExpressionNode root;
+    
+    /** 解释执行多少次后编译，负数表示从不编译 */
+    private final int compileThreshold;
+    
+    private final AtomicInteger interpretedCount = new AtomicInteger();
+    private volatile MethodHandle compiled;
+    private volatile boolean compilationFailed;
+    
+    Expression(String expressionString, ExpressionNode root, int compileThreshold) {
+        this.expressionString = expressionString;
+        this.root = root;
+        this.compileThreshold = compileThreshold;
+    }
+    
+    /**
+     * 求值
+     * @param context 解析Bean引用的上下文
+     * @return 表达式的值，数值为Integer、Long或Double
+     */
+    public Object getValue(EvaluationContext context) {
+        MethodHandle handle = compiled;
+        if (handle != null) {
+            try {
+                return (Object) handle.invokeExact(context);
+            } catch (Throwable e) {
+                throw ExpressionNode.unwrap(expressionString, e);
+            }
+        }
+        Object value = root.getValue(context);
+        if (compileThreshold >= 0 && !compilationFailed
+                && interpretedCount.incrementAndGet() >= compileThreshold) {
+            compile();
+        }
+        return value;
+    }
+    
+    /**
+     * 立即编译，已编译时直接返回
+     * @return 是否已编译
+     */
+    public synchronized boolean compile() {
+        if (compiled != null) {
+            return true;
+        }
+        if (compilationFailed) {
+            return false;
+        }
+        try {
+            compiled = root.compile().asType(ExpressionNode.COMPILED_TYPE);
+            logger.debug(() -> "表达式已编译: " + expressionString + "，此前解释执行 " + interpretedCount.get() + " 次");
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            compilationFailed = true;
+            logger.warn("表达式编译失败，继续解释执行: " + expressionString + ", 错误: " + e);
+            return false;
+        }
+    }
+    
+    public boolean isCompiled() {
+        return compiled != null;
+    }
+    
+    public String getExpressionString() {
+        return expressionString;
+    }
+    
+    @Override
+    public String toString() {
+        return expressionString;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.minispring.ioc.expression;
+
+import com.minispring.ioc.beans.BeansException;
+
+/**
+ * 表达式解析或求值失败时抛出
+ */
+public class ExpressionException extends BeansException {
+    
+    public ExpressionException(String message) {
+        super(message);
+    }
+    
+    public ExpressionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,683 @@
+package com.minispring.ioc.expression;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 表达式语法树节点
+ *
+ * 每个节点既可以解释执行，也可以编译为类型为(EvaluationContext)Object的方法句柄。
+ * 属性访问与方法调用在解释执行时记录实际的接收者与参数类型，编译时据此直接绑定到目标方法，
+ * 并以类型守卫回退到通用解析，运行时类型变化后结果仍然正确。
+ */
+abstract class ExpressionNode {
+    
+    static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    
+    static final MethodType COMPILED_TYPE = MethodType.methodType(Object.class, EvaluationContext.class);
+    
+    private static final MethodHandle TO_BOOLEAN;
+    private static final MethodHandle BOOLEAN_VALUE;
+    private static final MethodHandle IS_EXACT_CLASS;
+    private static final MethodHandle LOOKUP_BEAN;
+    
+    static {
+        try {
+            TO_BOOLEAN = LOOKUP.findStatic(Operators.class, "toBoolean",
+                    MethodType.methodType(boolean.class, Object.class));
+            BOOLEAN_VALUE = LOOKUP.findStatic(Operators.class, "booleanValue",
+                    MethodType.methodType(Object.class, Object.class));
+            IS_EXACT_CLASS = LOOKUP.findStatic(Operators.class, "isExactClass",
+                    MethodType.methodType(boolean.class, Class.class, Object.class));
+            LOOKUP_BEAN = LOOKUP.findVirtual(EvaluationContext.class, "lookupBean",
+                    MethodType.methodType(Object.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    /**
+     * 解释执行
+     */
+    abstract Object getValue(EvaluationContext context);
+    
+    /**
+     * 编译为(EvaluationContext)Object的方法句柄
+     */
+    abstract MethodHandle compile() throws ReflectiveOperationException;
+    
+    /**
+     * 忽略上下文、始终返回常量的句柄
+     */
+    static MethodHandle constant(Object value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(Object.class, value), 0, EvaluationContext.class);
+    }
+    
+    /**
+     * 把参数均为Object的操作与各操作数的句柄组合为(EvaluationContext)Object，
+     * 所有操作数共享同一个上下文参数
+     */
+    static MethodHandle combine(MethodHandle operation, MethodHandle... operands) {
+        MethodHandle filtered = MethodHandles.filterArguments(operation, 0, operands);
+        return MethodHandles.permuteArguments(filtered, COMPILED_TYPE, new int[operands.length]);
+    }
+    
+    /**
+     * 条件为真时执行then，否则执行otherwise，条件结果须为布尔值
+     */
+    static MethodHandle condition(MethodHandle test, MethodHandle then, MethodHandle otherwise) {
+        return MethodHandles.guardWithTest(MethodHandles.filterReturnValue(test, TO_BOOLEAN), then, otherwise);
+    }
+    
+    /**
+     * 参数均为Object的类型守卫：第i个参数的运行时类型恰好为expected[i]（为null时要求参数为null）
+     */
+    static MethodHandle exactClassGuard(Class<?>[] expected) {
+        int count = expected.length;
+        Class<?>[] objects = new Class<?>[count];
+        Arrays.fill(objects, Object.class);
+        MethodHandle guard = MethodHandles.dropArguments(
+                MethodHandles.constant(boolean.class, true), 0, objects);
+        MethodHandle fail = MethodHandles.dropArguments(
+                MethodHandles.constant(boolean.class, false), 0, objects);
+        for (int i = count - 1; i >= 0; i--) {
+            MethodHandle check = IS_EXACT_CLASS.bindTo(expected[i]);
+            check = MethodHandles.dropArguments(check, 0, Arrays.copyOfRange(objects, 0, i));
+            check = MethodHandles.dropArguments(check, i + 1, Arrays.copyOfRange(objects, i + 1, count));
+            guard = MethodHandles.guardWithTest(check, guard, fail);
+        }
+        return guard;
+    }
+    
+    /**
+     * 公共类中声明的同一方法，避免通过非公共实现类（如集合的内部类）调用时访问失败
+     */
+    static Method accessibleMethod(Method method) {
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            return method;
+        }
+        Method candidate = findPublicDeclaration(method.getDeclaringClass(), method);
+        if (candidate != null) {
+            return candidate;
+        }
+        method.setAccessible(true);
+        return method;
+    }
+    
+    private static Method findPublicDeclaration(Class<?> type, Method method) {
+        if (type == null) {
+            return null;
+        }
+        if (Modifier.isPublic(type.getModifiers())) {
+            try {
+                return type.getMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                // 继续查找接口与父类
+            }
+        }
+        for (Class<?> interfaceType : type.getInterfaces()) {
+            Method candidate = findPublicDeclaration(interfaceType, method);
+            if (candidate != null) {
+                return candidate;
+            }
+        }
+        return findPublicDeclaration(type.getSuperclass(), method);
+    }
+    
+    static RuntimeException unwrap(String description, Throwable e) {
+        Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ExpressionException("表达式求值失败: " + description, cause);
+    }
+    
+    /**
+     * 字面量：数字、字符串、布尔值与null
+     */
+    static class Literal extends ExpressionNode {
+        
+        private final Object value;
+        
+        Literal(Object value) {
+            this.value = value;
+        }
+        
+        @Override
+        Object getValue(EvaluationContext context) {
+            return value;
+        }
+        
+        @Override
+        MethodHandle compile() {
+            return constant(value);
+        }
+    }
+    
+    /**
+     * 类型引用T(java.lang.Math)，在解析时加载类型
+     */
+    static class TypeReference extends Literal {
+        
+        private final Class<?> type;
+        
+        TypeReference(Class<?> type) {
+            super(type);
+            this.type = type;
+        }
+        
+        Class<?> getType() {
+            return type;
+        }
+    }
+    
+    /**
+     * Bean引用：someBean或@someBean
+     */
+    static class BeanReference extends ExpressionNode {
+        
+        private final String beanName;
+        
+        BeanReference(String beanName) {
+            this.beanName = beanName;
+        }
+        
+        @Override
+        Object getValue(EvaluationContext context) {
+            return context.lookupBean(beanName);
+        }
+        
+        @Override
+        MethodHandle compile() {
+            return MethodHandles.insertArguments(LOOKUP_BEAN, 1, beanName);
+        }
+    }
+    
+    /**
+     * 一元运算：负号与逻辑非
+     */
+    static class Unary extends ExpressionNode {
+        
+        private final String operator;
+        private final ExpressionNode operand;
+        
+        Unary(String operator, ExpressionNode operand) {
+            this.operator = operator;
+            this.operand = operand;
+        }
+        
+        @Override
+        Object getValue(EvaluationContext context) {
+            Object value = operand.getValue(context);
+            return "-".equals(operator) ? Operators.negate(value) : Operators.not(value);
+        }
+        
+        @Override
+        MethodHandle compile() throws ReflectiveOperationException {
+            MethodHandle operation = LOOKUP.findStatic(Operators.class, "-".equals(operator) ? "negate" : "not",
+                    MethodType.methodType(Object.class, Object.class));
+            return combine(operation, operand.compile());
+        }
+    }
+    
+    /**
+     * 二元算术与比较运算
+     */
+    static class Binary extends ExpressionNode {
+        
+        private static final Map<String, String> OPERATIONS = new HashMap<>();
+        
+        static {
+            OPERATIONS.put("+", "add");
+            OPERATIONS.put("-", "subtract");
+            OPERATIONS.put("*", "multiply");
+            OPERATIONS.put("/", "divide");
+            OPERATIONS.put("%", "modulo");
+            OPERATIONS.put("==", "equal");
+            OPERATIONS.put("!=", "notEqual");
+            OPERATIONS.put("<", "lessThan");
+            OPERATIONS.put("<=", "lessOrEqual");
+            OPERATIONS.put(">", "greaterThan");
+            OPERATIONS.put(">=", "greaterOrEqual");
+        }
+        
+        private final String operator;
+        private final ExpressionNode left;
+        private final ExpressionNode right;
+        
+        Binary(String operator, ExpressionNode left, ExpressionNode right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+        
+        static boolean isOperator(String symbol) {
+            return OPERATIONS.containsKey(symbol);
+        }
+        
+        @Override
+        Object getValue(EvaluationContext context) {
+            Object a = left.getValue(context);
+            Object b = right.getValue(context);
+            switch (operator) {
+                case "+": return Operators.add(a, b);
+                case "-": return Operators.subtract(a, b);
+                case "*": return Operators.multiply(a, b);
+                case "/": return Operators.divide(a, b);
+                case "%": return Operators.modulo(a, b);
+                case "==": return Operators.equal(a, b);
+                case "!=": return Operators.notEqual(a, b);
+                case "<": return Operators.lessThan(a, b);
+                case "<=": return Operators.lessOrEqual(a, b);
+                case ">": return Operators.greaterThan(a, b);
+                default: return Operators.greaterOrEqual(a, b);
+            }
+        }
+        
+        @Override
+        MethodHandle compile() throws ReflectiveOperationException {
+            MethodHandle operation = LOOKUP.findStatic(Operators.class, OPERATIONS.get(operator),
+                    MethodType.methodType(Object.class, Object.class, Object.class));
+            return combine(operation, left.compile(), right.compile());
+        }
+    }
+    
+    /**
+     * 短路逻辑运算and / or
+     */
+    static class Logical extends ExpressionNode {
+        
+        private final boolean and;
+        private final ExpressionNode left;
+        private final ExpressionNode right;
+        
+        Logical(boolean and, ExpressionNode left, ExpressionNode right) {
+            this.and = and;
+            this.left = left;
+            this.right = right;
+        }
+        
+        @Override
+        Object getValue(EvaluationContext context) {
+            boolean first = Operators.toBoolean(left.getValue(context));
+            if (and != first) {
+                return first;
+            }
+            return Operators.booleanValue(right.getValue(context));
+        }
+        
+        @Override
+        MethodHandle compile() throws ReflectiveOperationException {
+            MethodHandle second = MethodHandles.filterReturnValue(right.compile(), BOOLEAN_VALUE);
+            return and
+                    ? condition(left.compile(), second, constant(Boolean.FALSE))
+                    : condition(left.compile(), constant(Boolean.TRUE), second);
+        }
+    }
+    
+    /**
+     * 三元条件运算
+     */
+    static class Ternary extends ExpressionNode {
+        
+        private final ExpressionNode test;
+        private final ExpressionNode then;
+        private final ExpressionNode otherwise;
+        
+        Ternary(ExpressionNode test, ExpressionNode then, ExpressionNode otherwise) {
+            this.test = test;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+        
+        @Override
+        Object getValue(EvaluationContext context) {
+            return Operators.toBoolean(test.getValue(context)) ? then.getValue(context) : otherwise.getValue(context);
+        }
+        
+        @Override
+        MethodHandle compile() throws ReflectiveOperationException {
+            return condition(test.compile(), then.compile(), otherwise.compile());
+        }
+    }
+    
+    /**
+     * 模板：字面文本与#{...}片段依次拼接
+     */
+    static class Template extends ExpressionNode {
+        
+        private final ExpressionNode[] parts;
+        
+        Template(List<ExpressionNode> parts) {
+            this.parts = parts.toArray(new ExpressionNode[0]);
+        }
+        
+        @Override
+        Object getValue(EvaluationContext context) {
+            Object[] values = new Object[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = parts[i].getValue(context);
+            }
+            return Operators.concat(values);
+        }
+        
+        @Override
+        MethodHandle compile() throws ReflectiveOperationException {
+            MethodHandle concat = LOOKUP.findStatic(Operators.class, "concat",
+                    MethodType.methodType(Object.class, Object[].class)).asCollector(Object[].class, parts.length);
+            MethodHandle[] operands = new MethodHandle[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                operands[i] = parts[i].compile();
+            }
+            return combine(concat, operands);
+        }
+    }
+    
+    /**
+     * 属性访问：target.name，依次尝试getName()、isName()与公共字段；
+     * 目标为类型引用时读取静态字段，如T(java.lang.Integer).MAX_VALUE
+     */
+    static class PropertyAccess extends ExpressionNode {
+        
+        private static final MethodHandle READ;
+        
+        static {
+            try {
+                READ = LOOKUP.findVirtual(PropertyAccess.class, "read",
+                        MethodType.methodType(Object.class, Object.class));
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+        
+        private final ExpressionNode target;
+        private final String name;
+        
+        /** 最近一次解析的访问器，按接收者类型命中 */
+        private volatile Accessor cachedAccessor;
+        
+        PropertyAccess(ExpressionNode target, String name) {
+            this.target = target;
+            this.name = name;
+        }
+        
+        @Override
+        Object getValue(EvaluationContext context) {
+            if (target instanceof TypeReference) {
+                return readStatic();
+            }
+            return read(target.getValue(context));
+        }
+        
+        Object read(Object receiver) {
+            if (receiver == null) {
+                throw new ExpressionException("不能在null上访问属性: " + name);
+            }
+            Accessor accessor = cachedAccessor;
+            if (accessor == null || accessor.receiverType != receiver.getClass()) {
+                accessor = Accessor.resolve(receiver.getClass(), name);
+                cachedAccessor = accessor;
+            }
+            try {
+                return accessor.method != null ? accessor.method.invoke(receiver) : accessor.field.get(receiver);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw unwrap(name, e);
+            }
+        }
+        
+        private Object readStatic() {
+            try {
+                return staticField().get(null);
+            } catch (IllegalAccessException e) {
+                throw unwrap(name, e);
+            }
+        }
+        
+        private Field staticField() {
+            Class<?> type = ((TypeReference) target).getType();
+            try {
+                Field field = type.getField(name);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    return field;
+                }
+            } catch (NoSuchFieldException e) {
+                // 统一在下面报错
+            }
+            throw new ExpressionException("类型 " + type.getName() + " 上没有公共静态字段: " + name);
+        }
+        
+        @Override
+        MethodHandle compile() throws ReflectiveOperationException {
+            if (target instanceof TypeReference) {
+                Field field = staticField();
+                if (Modifier.isFinal(field.getModifiers())) {
+                    return constant(field.get(null));
+                }
+                MethodHandle getter = LOOKUP.unreflectGetter(field).asType(MethodType.methodType(Object.class));
+                return MethodHandles.dropArguments(getter, 0, EvaluationContext.class);
+            }
+            MethodHandle access = READ.bindTo(this);
+            Accessor observed = cachedAccessor;
+            if (observed != null) {
+                MethodHandle direct = observed.method != null
+                        ? LOOKUP.unreflect(observed.method) : LOOKUP.unreflectGetter(observed.field);
+                direct = direct.asType(MethodType.methodType(Object.class, observed.receiverType))
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                access = MethodHandles.guardWithTest(
+                        exactClassGuard(new Class<?>[] {observed.receiverType}), direct, access);
+            }
+            return MethodHandles.filterReturnValue(target.compile(), access);
+        }
+        
+        private static final class Accessor {
+            
+            final Class<?> receiverType;
+            final Method method;
+            final Field field;
+            
+            private Accessor(Class<?> receiverType, Method method, Field field) {
+                this.receiverType = receiverType;
+                this.method = method;
+                this.field = field;
+            }
+            
+            static Accessor resolve(Class<?> type, String name) {
+                String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                for (String prefix : new String[] {"get", "is"}) {
+                    try {
+                        Method method = type.getMethod(prefix + suffix);
+                        if (!Modifier.isStatic(method.getModifiers()) && method.getReturnType() != void.class) {
+                            return new Accessor(type, accessibleMethod(method), null);
+                        }
+                    } catch (NoSuchMethodException e) {
+                        // 尝试下一种形式
+                    }
+                }
+                try {
+                    Field field = type.getField(name);
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        if (!Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+                            field.setAccessible(true);
+                        }
+                        return new Accessor(type, null, field);
+                    }
+                } catch (NoSuchFieldException e) {
+                    // 统一在下面报错
+                }
+                throw new ExpressionException("类型 " + type.getName() + " 上没有可读属性: " + name);
+            }
+        }
+    }
+    
+    /**
+     * 方法调用：target.name(args)，目标为类型引用时调用静态方法
+     *
+     * 重载按参数的运行时类型选择：类型完全一致优先，其次是引用的子类型与基本类型的拓宽转换。
+     */
+    static class MethodCall extends ExpressionNode {
+        
+        private static final MethodHandle INVOKE;
+        
+        /** 基本类型拓宽转换的顺序 */
+        private static final List<Class<?>> WIDENING = Arrays.asList(
+                Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
+        
+        static {
+            try {
+                INVOKE = LOOKUP.findVirtual(MethodCall.class, "invoke",
+                        MethodType.methodType(Object.class, Object.class, Object[].class));
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+        
+        private final ExpressionNode target;
+        private final String name;
+        private final ExpressionNode[] arguments;
+        
+        /** 最近一次选中的方法，按接收者与参数的运行时类型命中 */
+        private volatile Invocation cachedInvocation;
+        
+        MethodCall(ExpressionNode target, String name, List<ExpressionNode> arguments) {
+            this.target = target;
+            this.name = name;
+            this.arguments = arguments.toArray(new ExpressionNode[0]);
+        }
+        
+        @Override
+        Object getValue(EvaluationContext context) {
+            Object receiver = target.getValue(context);
+            Object[] values = new Object[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                values[i] = arguments[i].getValue(context);
+            }
+            return invoke(receiver, values);
+        }
+        
+        Object invoke(Object receiver, Object[] values) {
+            if (receiver == null) {
+                throw new ExpressionException("不能在null上调用方法: " + name);
+            }
+            boolean isStatic = target instanceof TypeReference;
+            Class<?>[] types = new Class<?>[values.length + 1];
+            types[0] = receiver.getClass();
+            for (int i = 0; i < values.length; i++) {
+                types[i + 1] = values[i] != null ? values[i].getClass() : null;
+            }
+            Invocation invocation = cachedInvocation;
+            if (invocation == null || !Arrays.equals(invocation.types, types)) {
+                Class<?> owner = isStatic ? ((TypeReference) target).getType() : receiver.getClass();
+                invocation = new Invocation(types, resolve(owner, isStatic, values));
+                cachedInvocation = invocation;
+            }
+            try {
+                return invocation.method.invoke(isStatic ? null : receiver, values);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw unwrap(name, e);
+            }
+        }
+        
+        private Method resolve(Class<?> owner, boolean isStatic, Object[] values) {
+            Method best = null;
+            int bestCost = Integer.MAX_VALUE;
+            for (Method method : owner.getMethods()) {
+                if (!method.getName().equals(name) || method.getParameterCount() != values.length
+                        || Modifier.isStatic(method.getModifiers()) != isStatic) {
+                    continue;
+                }
+                int cost = 0;
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                for (int i = 0; i < values.length && cost >= 0; i++) {
+                    int argumentCost = conversionCost(parameterTypes[i], values[i]);
+                    cost = argumentCost < 0 ? -1 : cost + argumentCost;
+                }
+                if (cost >= 0 && cost < bestCost) {
+                    best = method;
+                    bestCost = cost;
+                }
+            }
+            if (best == null) {
+                throw new ExpressionException("类型 " + owner.getName() + " 上没有匹配的" + (isStatic ? "静态" : "")
+                        + "方法: " + name + "，参数个数: " + values.length);
+            }
+            return accessibleMethod(best);
+        }
+        
+        /**
+         * 参数转换代价，不可转换时返回-1
+         */
+        private static int conversionCost(Class<?> parameterType, Object value) {
+            if (value == null) {
+                return parameterType.isPrimitive() ? -1 : 0;
+            }
+            if (parameterType.isPrimitive()) {
+                Class<?> wrapper = MethodType.methodType(parameterType).wrap().returnType();
+                if (wrapper == value.getClass()) {
+                    return 0;
+                }
+                int from = WIDENING.indexOf(value.getClass());
+                int to = WIDENING.indexOf(wrapper);
+                return from >= 0 && to > from ? to - from : -1;
+            }
+            if (parameterType == value.getClass()) {
+                return 0;
+            }
+            return parameterType.isInstance(value) ? 1 : -1;
+        }
+        
+        @Override
+        MethodHandle compile() throws ReflectiveOperationException {
+            int count = arguments.length;
+            MethodHandle invoker = INVOKE.bindTo(this).asCollector(Object[].class, count);
+            Invocation observed = cachedInvocation;
+            if (observed != null) {
+                MethodHandle direct = LOOKUP.unreflect(observed.method);
+                if (Modifier.isStatic(observed.method.getModifiers())) {
+                    direct = MethodHandles.dropArguments(direct, 0, Object.class);
+                }
+                Class<?>[] observedTypes = observed.types.clone();
+                Class<?>[] objects = new Class<?>[count + 1];
+                Arrays.fill(objects, Object.class);
+                for (int i = 0; i < observedTypes.length; i++) {
+                    if (observedTypes[i] == null) {
+                        observedTypes[i] = direct.type().parameterType(i);
+                    }
+                }
+                // 先按观察到的运行时类型适配（拆箱、拓宽），再统一为Object
+                direct = direct.asType(MethodType.methodType(Object.class, observedTypes))
+                        .asType(MethodType.methodType(Object.class, objects));
+                invoker = MethodHandles.guardWithTest(exactClassGuard(observed.types), direct, invoker);
+            }
+            MethodHandle[] operands = new MethodHandle[count + 1];
+            operands[0] = target.compile();
+            for (int i = 0; i < count; i++) {
+                operands[i + 1] = arguments[i].compile();
+            }
+            return combine(invoker, operands);
+        }
+        
+        private static final class Invocation {
+            
+            /** 接收者与各参数的运行时类型，参数为null时对应位置为null */
+            final Class<?>[] types;
+            final Method method;
+            
+            Invocation(Class<?>[] types, Method method) {
+                this.types = types;
+                this.method = method;
+            }
+        }
+    }
+}
\ No newline at end of file
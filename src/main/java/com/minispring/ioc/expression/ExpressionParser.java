@@ -0,0 +1,408 @@
+package com.minispring.ioc.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 表达式解析器
+ *
+ * 支持的语法（优先级从低到高）：
+ * <pre>
+ * 条件        a ? b : c
+ * 逻辑        or ||   and &amp;&amp;
+ * 相等与比较  == != &lt; &lt;= &gt; &gt;=
+ * 算术        + - * / %（+ 的任一操作数为字符串时拼接）
+ * 一元        -x  !x  not x
+ * 后缀        x.property  x.method(args)
+ * 基本项      数字、'字符串'、"字符串"、true/false/null、T(java.lang.Math)、bean或@bean、(表达式)
+ * </pre>
+ * T(...)中不带包名的类型在java.lang中查找。
+ *
+ * 同一表达式字符串只解析一次，解析结果连同其编译状态一起缓存。
+ */
+public class ExpressionParser {
+    
+    public static final String TEMPLATE_PREFIX = "#{";
+    
+    private final int compileThreshold;
+    
+    private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>();
+    private final Map<String, Expression> templateCache = new ConcurrentHashMap<>();
+    
+    public ExpressionParser() {
+        this(3);
+    }
+    
+    /**
+     * @param compileThreshold 解释执行多少次后编译为方法句柄，负数表示从不编译
+     */
+    public ExpressionParser(int compileThreshold) {
+        this.compileThreshold = compileThreshold;
+    }
+    
+    /**
+     * 解析单个表达式，如T(java.lang.Math).max(1, 2)
+     */
+    public Expression parseExpression(String expressionString) {
+        Expression expression = expressionCache.get(expressionString);
+        if (expression == null) {
+            expression = expressionCache.computeIfAbsent(expressionString,
+                    s -> new Expression(s, new Parser(s, 0).parseAll(), compileThreshold));
+        }
+        return expression;
+    }
+    
+    /**
+     * 解析模板，#{...}之外的文本原样保留；模板仅由一个#{...}组成时保留表达式结果的类型
+     */
+    public Expression parseTemplate(String template) {
+        Expression expression = templateCache.get(template);
+        if (expression == null) {
+            expression = templateCache.computeIfAbsent(template,
+                    s -> new Expression(s, parseTemplateNode(s), compileThreshold));
+        }
+        return expression;
+    }
+    
+    private static ExpressionNode parseTemplateNode(String template) {
+        List<ExpressionNode> parts = new ArrayList<>();
+        int index = 0;
+        while (index < template.length()) {
+            int start = template.indexOf(TEMPLATE_PREFIX, index);
+            if (start < 0) {
+                parts.add(new ExpressionNode.Literal(template.substring(index)));
+                break;
+            }
+            if (start > index) {
+                parts.add(new ExpressionNode.Literal(template.substring(index, start)));
+            }
+            int end = findClosingBrace(template, start + TEMPLATE_PREFIX.length());
+            String body = template.substring(start + TEMPLATE_PREFIX.length(), end);
+            parts.add(new Parser(body, start + TEMPLATE_PREFIX.length()).parseAll());
+            index = end + 1;
+        }
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        return parts.isEmpty() ? new ExpressionNode.Literal("") : new ExpressionNode.Template(parts);
+    }
+    
+    /**
+     * 查找与#{配对的}，跳过字符串字面量中的括号
+     */
+    private static int findClosingBrace(String template, int from) {
+        int depth = 1;
+        char quote = 0;
+        for (int i = from; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        throw new ExpressionException("表达式缺少结束的'}': " + template);
+    }
+    
+    private enum TokenType {
+        NUMBER, STRING, IDENTIFIER, SYMBOL, END
+    }
+    
+    private static final class Token {
+        
+        final TokenType type;
+        final String text;
+        final int position;
+        
+        Token(TokenType type, String text, int position) {
+            this.type = type;
+            this.text = text;
+            this.position = position;
+        }
+        
+        boolean is(String symbol) {
+            return (type == TokenType.SYMBOL || type == TokenType.IDENTIFIER) && text.equals(symbol);
+        }
+    }
+    
+    /**
+     * 递归下降解析器，每个表达式字符串使用一个实例
+     */
+    private static final class Parser {
+        
+        private final String source;
+        private final int offset;
+        private final List<Token> tokens;
+        private int position;
+        
+        Parser(String source, int offset) {
+            this.source = source;
+            this.offset = offset;
+            this.tokens = tokenize();
+        }
+        
+        ExpressionNode parseAll() {
+            ExpressionNode node = parseTernary();
+            if (peek().type != TokenType.END) {
+                throw error("多余的内容 '" + peek().text + "'", peek());
+            }
+            return node;
+        }
+        
+        private ExpressionNode parseTernary() {
+            ExpressionNode test = parseOr();
+            if (accept("?")) {
+                ExpressionNode then = parseTernary();
+                expect(":");
+                return new ExpressionNode.Ternary(test, then, parseTernary());
+            }
+            return test;
+        }
+        
+        private ExpressionNode parseOr() {
+            ExpressionNode node = parseAnd();
+            while (accept("or") || accept("||")) {
+                node = new ExpressionNode.Logical(false, node, parseAnd());
+            }
+            return node;
+        }
+        
+        private ExpressionNode parseAnd() {
+            ExpressionNode node = parseEquality();
+            while (accept("and") || accept("&&")) {
+                node = new ExpressionNode.Logical(true, node, parseEquality());
+            }
+            return node;
+        }
+        
+        private ExpressionNode parseEquality() {
+            ExpressionNode node = parseRelational();
+            while (peek().is("==") || peek().is("!=")) {
+                String operator = next().text;
+                node = new ExpressionNode.Binary(operator, node, parseRelational());
+            }
+            return node;
+        }
+        
+        private ExpressionNode parseRelational() {
+            ExpressionNode node = parseAdditive();
+            while (peek().is("<") || peek().is("<=") || peek().is(">") || peek().is(">=")) {
+                String operator = next().text;
+                node = new ExpressionNode.Binary(operator, node, parseAdditive());
+            }
+            return node;
+        }
+        
+        private ExpressionNode parseAdditive() {
+            ExpressionNode node = parseMultiplicative();
+            while (peek().is("+") || peek().is("-")) {
+                String operator = next().text;
+                node = new ExpressionNode.Binary(operator, node, parseMultiplicative());
+            }
+            return node;
+        }
+        
+        private ExpressionNode parseMultiplicative() {
+            ExpressionNode node = parseUnary();
+            while (peek().is("*") || peek().is("/") || peek().is("%")) {
+                String operator = next().text;
+                node = new ExpressionNode.Binary(operator, node, parseUnary());
+            }
+            return node;
+        }
+        
+        private ExpressionNode parseUnary() {
+            if (accept("-")) {
+                return new ExpressionNode.Unary("-", parseUnary());
+            }
+            if (accept("!") || accept("not")) {
+                return new ExpressionNode.Unary("!", parseUnary());
+            }
+            return parsePostfix();
+        }
+        
+        private ExpressionNode parsePostfix() {
+            ExpressionNode node = parsePrimary();
+            while (accept(".")) {
+                Token name = next();
+                if (name.type != TokenType.IDENTIFIER) {
+                    throw error("'.'之后需要属性或方法名", name);
+                }
+                if (accept("(")) {
+                    node = new ExpressionNode.MethodCall(node, name.text, parseArguments());
+                } else {
+                    node = new ExpressionNode.PropertyAccess(node, name.text);
+                }
+            }
+            return node;
+        }
+        
+        private List<ExpressionNode> parseArguments() {
+            List<ExpressionNode> arguments = new ArrayList<>();
+            if (accept(")")) {
+                return arguments;
+            }
+            do {
+                arguments.add(parseTernary());
+            } while (accept(","));
+            expect(")");
+            return arguments;
+        }
+        
+        private ExpressionNode parsePrimary() {
+            Token token = next();
+            switch (token.type) {
+                case NUMBER:
+                    return new ExpressionNode.Literal(parseNumber(token));
+                case STRING:
+                    return new ExpressionNode.Literal(token.text);
+                case IDENTIFIER:
+                    if (token.text.equals("true") || token.text.equals("false")) {
+                        return new ExpressionNode.Literal(Boolean.valueOf(token.text));
+                    }
+                    if (token.text.equals("null")) {
+                        return new ExpressionNode.Literal(null);
+                    }
+                    if (token.text.equals("T") && accept("(")) {
+                        return new ExpressionNode.TypeReference(parseTypeName());
+                    }
+                    return new ExpressionNode.BeanReference(token.text);
+                case SYMBOL:
+                    if (token.is("@")) {
+                        Token name = next();
+                        if (name.type != TokenType.IDENTIFIER) {
+                            throw error("'@'之后需要Bean名称", name);
+                        }
+                        return new ExpressionNode.BeanReference(name.text);
+                    }
+                    if (token.is("(")) {
+                        ExpressionNode node = parseTernary();
+                        expect(")");
+                        return node;
+                    }
+                    throw error("意外的符号 '" + token.text + "'", token);
+                default:
+                    throw error("表达式不完整", token);
+            }
+        }
+        
+        private Class<?> parseTypeName() {
+            StringBuilder name = new StringBuilder();
+            Token start = peek();
+            while (!peek().is(")")) {
+                Token token = next();
+                if (token.type == TokenType.END) {
+                    throw error("T(...)缺少')'", token);
+                }
+                name.append(token.text);
+            }
+            next();
+            String typeName = name.indexOf(".") < 0 ? "java.lang." + name : name.toString();
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            try {
+                return Class.forName(typeName, false, loader != null ? loader : ExpressionParser.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw error("找不到类型 " + typeName, start);
+            }
+        }
+        
+        private Object parseNumber(Token token) {
+            String text = token.text;
+            try {
+                if (text.endsWith("L") || text.endsWith("l")) {
+                    return Long.parseLong(text.substring(0, text.length() - 1));
+                }
+                if (text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+                    return Double.parseDouble(text);
+                }
+                long value = Long.parseLong(text);
+                return value == (int) value ? (Object) (int) value : (Object) value;
+            } catch (NumberFormatException e) {
+                throw error("无效的数字 " + text, token);
+            }
+        }
+        
+        private Token peek() {
+            return tokens.get(position);
+        }
+        
+        private Token next() {
+            Token token = tokens.get(position);
+            if (token.type != TokenType.END) {
+                position++;
+            }
+            return token;
+        }
+        
+        private boolean accept(String symbol) {
+            if (peek().is(symbol)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+        
+        private void expect(String symbol) {
+            if (!accept(symbol)) {
+                throw error("需要 '" + symbol + "'", peek());
+            }
+        }
+        
+        private ExpressionException error(String message, Token token) {
+            return new ExpressionException(message + "，位置 " + (token.position + offset) + ": " + source);
+        }
+        
+        private List<Token> tokenize() {
+            List<Token> result = new ArrayList<>();
+            int i = 0;
+            while (i < source.length()) {
+                char c = source.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (Character.isDigit(c)) {
+                    int start = i;
+                    while (i < source.length() && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '.'
+                            || ((source.charAt(i) == '-' || source.charAt(i) == '+')
+                                && (source.charAt(i - 1) == 'e' || source.charAt(i - 1) == 'E')))) {
+                        i++;
+                    }
+                    result.add(new Token(TokenType.NUMBER, source.substring(start, i), start));
+                } else if (Character.isJavaIdentifierStart(c)) {
+                    int start = i;
+                    while (i < source.length() && Character.isJavaIdentifierPart(source.charAt(i))) {
+                        i++;
+                    }
+                    result.add(new Token(TokenType.IDENTIFIER, source.substring(start, i), start));
+                } else if (c == '\'' || c == '"') {
+                    int end = source.indexOf(c, i + 1);
+                    if (end < 0) {
+                        throw new ExpressionException("字符串缺少结束引号，位置 " + (i + offset) + ": " + source);
+                    }
+                    result.add(new Token(TokenType.STRING, source.substring(i + 1, end), i));
+                    i = end + 1;
+                } else {
+                    String symbol = i + 1 < source.length() ? source.substring(i, i + 2) : "";
+                    if (!symbol.equals("==") && !symbol.equals("!=") && !symbol.equals("<=") && !symbol.equals(">=")
+                            && !symbol.equals("&&") && !symbol.equals("||")) {
+                        symbol = String.valueOf(c);
+                        if ("+-*/%<>!?:(),.@".indexOf(c) < 0) {
+                            throw new ExpressionException("无法识别的字符 '" + c + "'，位置 " + (i + offset) + ": " + source);
+                        }
+                    }
+                    result.add(new Token(TokenType.SYMBOL, symbol, i));
+                    i += symbol.length();
+                }
+            }
+            result.add(new Token(TokenType.END, "<结束>", source.length()));
+            return result;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.minispring.ioc.expression;
+
+import java.util.Objects;
+
+/**
+ * 表达式运算符的实现，解释执行与编译后的方法句柄共用
+ *
+ * 数值运算按Java的二元数值提升：任一操作数为浮点数时按double计算，
+ * 其次任一为long时按long计算，否则按int计算。
+ */
+final class Operators {
+    
+    private Operators() {
+    }
+    
+    static Object add(Object left, Object right) {
+        if (left instanceof String || right instanceof String) {
+            return String.valueOf(left) + right;
+        }
+        return arithmetic('+', left, right);
+    }
+    
+    static Object subtract(Object left, Object right) {
+        return arithmetic('-', left, right);
+    }
+    
+    static Object multiply(Object left, Object right) {
+        return arithmetic('*', left, right);
+    }
+    
+    static Object divide(Object left, Object right) {
+        return arithmetic('/', left, right);
+    }
+    
+    static Object modulo(Object left, Object right) {
+        return arithmetic('%', left, right);
+    }
+    
+    static Object negate(Object operand) {
+        Number number = toNumber(operand, '-');
+        if (isFloating(number)) {
+            return -number.doubleValue();
+        }
+        if (number instanceof Long) {
+            return -number.longValue();
+        }
+        return -number.intValue();
+    }
+    
+    static Object not(Object operand) {
+        return !toBoolean(operand);
+    }
+    
+    static Object equal(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return compare(left, right) == 0;
+        }
+        return Objects.equals(left, right);
+    }
+    
+    static Object notEqual(Object left, Object right) {
+        return !((Boolean) equal(left, right));
+    }
+    
+    static Object lessThan(Object left, Object right) {
+        return compare(left, right) < 0;
+    }
+    
+    static Object lessOrEqual(Object left, Object right) {
+        return compare(left, right) <= 0;
+    }
+    
+    static Object greaterThan(Object left, Object right) {
+        return compare(left, right) > 0;
+    }
+    
+    static Object greaterOrEqual(Object left, Object right) {
+        return compare(left, right) >= 0;
+    }
+    
+    static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        throw new ExpressionException("需要布尔值，实际为: " + value);
+    }
+    
+    /**
+     * 逻辑运算右操作数的结果，校验为布尔值后原样返回
+     */
+    static Object booleanValue(Object value) {
+        return toBoolean(value) ? Boolean.TRUE : Boolean.FALSE;
+    }
+    
+    /**
+     * 模板拼接，null按空字符串处理
+     */
+    static Object concat(Object[] parts) {
+        StringBuilder result = new StringBuilder();
+        for (Object part : parts) {
+            if (part != null) {
+                result.append(part);
+            }
+        }
+        return result.toString();
+    }
+    
+    /**
+     * 值的运行时类型是否恰好为expected，expected为null时要求值为null
+     */
+    static boolean isExactClass(Class<?> expected, Object value) {
+        return expected == null ? value == null : value != null && value.getClass() == expected;
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            Number a = (Number) left;
+            Number b = (Number) right;
+            if (isFloating(a) || isFloating(b)) {
+                return Double.compare(a.doubleValue(), b.doubleValue());
+            }
+            return Long.compare(a.longValue(), b.longValue());
+        }
+        if (left instanceof Comparable && right != null && left.getClass() == right.getClass()) {
+            return ((Comparable) left).compareTo(right);
+        }
+        throw new ExpressionException("无法比较: " + left + " 与 " + right);
+    }
+    
+    private static Object arithmetic(char operator, Object left, Object right) {
+        Number a = toNumber(left, operator);
+        Number b = toNumber(right, operator);
+        if (isFloating(a) || isFloating(b)) {
+            double x = a.doubleValue();
+            double y = b.doubleValue();
+            switch (operator) {
+                case '+': return x + y;
+                case '-': return x - y;
+                case '*': return x * y;
+                case '/': return x / y;
+                default: return x % y;
+            }
+        }
+        if (a instanceof Long || b instanceof Long) {
+            long x = a.longValue();
+            long y = b.longValue();
+            switch (operator) {
+                case '+': return x + y;
+                case '-': return x - y;
+                case '*': return x * y;
+                case '/': return x / y;
+                default: return x % y;
+            }
+        }
+        int x = a.intValue();
+        int y = b.intValue();
+        switch (operator) {
+            case '+': return x + y;
+            case '-': return x - y;
+            case '*': return x * y;
+            case '/': return x / y;
+            default: return x % y;
+        }
+    }
+    
+    private static Number toNumber(Object value, char operator) {
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        throw new ExpressionException("运算符 '" + operator + "' 需要数值，实际为: " + value);
+    }
+    
+    private static boolean isFloating(Number number) {
+        return number instanceof Double || number instanceof Float
+                || !(number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.minispring.jmx;
+
+import com.minispring.aop.proxy.CglibAopProxy;
+import com.minispring.ioc.beans.BeanFactoryStatistics;
+import com.minispring.ioc.beans.DefaultBeanFactory;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 容器运行统计MXBean实现
+ * 只在读取属性时汇总BeanFactoryStatistics中的计数器，采集路径上没有额外开销
+ */
+public class ContainerStatistics implements ContainerStatisticsMXBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContainerStatistics.class);
+    
+    public static final String DOMAIN = "com.minispring";
+    
+    private final DefaultBeanFactory beanFactory;
+    private final BeanFactoryStatistics statistics;
+    private ObjectName objectName;
+    
+    public ContainerStatistics(DefaultBeanFactory beanFactory, BeanFactoryStatistics statistics) {
+        this.beanFactory = beanFactory;
+        this.statistics = statistics;
+    }
+    
+    /**
+     * 注册到平台MBeanServer，ObjectName为com.minispring:type=ContainerStatistics,context=contextId
+     */
+    public synchronized void register(String contextId) throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(DOMAIN + ":type=ContainerStatistics,context=" + ObjectName.quote(contextId));
+        try {
+            server.registerMBean(this, name);
+        } catch (InstanceAlreadyExistsException e) {
+            // 同名上下文未正常关闭，替换旧的MBean
+            server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        }
+        this.objectName = name;
+    }
+    
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            // 已被外部注销
+        } catch (Exception e) {
+            logger.warn("注销容器统计MBean失败: " + e.getMessage());
+        }
+        objectName = null;
+    }
+    
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+    
+    @Override
+    public int getBeanDefinitionCount() {
+        return beanFactory.getBeanDefinitionNames().length;
+    }
+    
+    @Override
+    public int getSingletonCount() {
+        return beanFactory.getSingletonCount();
+    }
+    
+    @Override
+    public long getGetBeanCount() {
+        return statistics.getGetBeanCount();
+    }
+    
+    @Override
+    public Map<String, Long> getGetBeanCountsByName() {
+        return statistics.getGetBeanCountsByName();
+    }
+    
+    @Override
+    public Map<String, Long> getGetBeanCountsByType() {
+        return statistics.getGetBeanCountsByType();
+    }
+    
+    @Override
+    public long getFailedLookupCount() {
+        return statistics.getFailedLookupCount();
+    }
+    
+    @Override
+    public long getSingletonLockWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(statistics.getSingletonLockWaitNanos());
+    }
+    
+    @Override
+    public long getSingletonLockAcquisitionCount() {
+        return statistics.getSingletonLockAcquisitionCount();
+    }
+    
+    @Override
+    public Map<String, Long> getBeanCreationMicros() {
+        return statistics.getBeanCreationMicros();
+    }
+    
+    @Override
+    public Map<String, Long> getPostProcessorMicros() {
+        return statistics.getPostProcessorMicros();
+    }
+    
+    @Override
+    public long getProxyClassesGenerated() {
+        return CglibAopProxy.getProxyClassesGenerated();
+    }
+    
+    @Override
+    public long getProxyClassesReused() {
+        return CglibAopProxy.getProxyClassesReused();
+    }
+    
+    @Override
+    public void reset() {
+        statistics.reset();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.minispring.jmx;
+
+import java.util.Map;
+
+/**
+ * 容器运行统计MXBean
+ * 通过JConsole、VisualVM或任意JMX客户端查看，Map类型的属性以TabularData形式展示
+ */
+public interface ContainerStatisticsMXBean {
+    
+    int getBeanDefinitionCount();
+    
+    int getSingletonCount();
+    
+    /**
+     * getBean调用总次数（按名称与按类型的调用都计入）
+     */
+    long getGetBeanCount();
+    
+    Map<String, Long> getGetBeanCountsByName();
+    
+    Map<String, Long> getGetBeanCountsByType();
+    
+    /**
+     * 未找到Bean或按类型匹配到多个Bean的查找次数
+     */
+    long getFailedLookupCount();
+    
+    /**
+     * 进入单例创建锁前的累计等待时间（毫秒）
+     */
+    long getSingletonLockWaitMillis();
+    
+    long getSingletonLockAcquisitionCount();
+    
+    /**
+     * 各Bean最近一次创建耗时（微秒），包含创建其依赖的时间
+     */
+    Map<String, Long> getBeanCreationMicros();
+    
+    /**
+     * 各后置处理器累计耗时（微秒）
+     */
+    Map<String, Long> getPostProcessorMicros();
+    
+    /**
+     * 进程内累计生成的AOP代理类数
+     */
+    long getProxyClassesGenerated();
+    
+    /**
+     * 进程内累计复用已生成AOP代理类的次数
+     */
+    long getProxyClassesReused();
+    
+    /**
+     * 清零调用计数与耗时累计
+     */
+    void reset();
+}
\ No newline at end of file
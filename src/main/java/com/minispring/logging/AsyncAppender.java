@@ -0,0 +1,204 @@
+package com.minispring.logging;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步批量追加器
+ *
+ * 日志线程只把事件写入环形缓冲区（多生产者CAS领取序号，单消费者读取），不会竞争stdout锁；
+ * 后台线程按批次取出事件，把同一输出流的连续日志拼成一次写入。
+ * 缓冲区满时生产者短暂等待消费者腾出空间，保证日志不丢失且保持提交顺序。
+ */
+public class AsyncAppender implements LogAppender {
+    
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    
+    /** 消费者空闲时的最长休眠时间，生产者会在提交时唤醒它 */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    
+    private final AtomicReferenceArray<LogEvent> ringBuffer;
+    private final int mask;
+    private final int batchSize;
+    
+    /** 下一个待领取的序号（生产者） */
+    private final AtomicLong tail = new AtomicLong();
+    
+    /** 下一个待消费的序号（只由消费者推进） */
+    private final AtomicLong head = new AtomicLong();
+    
+    private final Thread consumerThread;
+    private final StringBuilder batchBuffer = new StringBuilder(8192);
+    private volatile boolean consumerParked;
+    private volatile boolean closed;
+    
+    public AsyncAppender() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * @param bufferSize 环形缓冲区容量，会向上取整为2的幂
+     * @param batchSize 每次写入输出流的最大事件数
+     */
+    public AsyncAppender(int bufferSize, int batchSize) {
+        if (bufferSize <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("bufferSize and batchSize must be positive");
+        }
+        int capacity = 1;
+        while (capacity < bufferSize) {
+            capacity <<= 1;
+        }
+        this.ringBuffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.batchSize = batchSize;
+        
+        this.consumerThread = new Thread(this::consume, "minispring-log");
+        this.consumerThread.setDaemon(true);
+        this.consumerThread.start();
+        
+        // 守护线程随JVM退出，退出前输出剩余日志
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "minispring-log-shutdown"));
+    }
+    
+    @Override
+    public void append(LogEvent event) {
+        if (closed) {
+            writeDirectly(event);
+            return;
+        }
+        
+        long sequence;
+        for (;;) {
+            sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                // 缓冲区已满，等待消费者腾出空间
+                wakeConsumer();
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+                if (closed) {
+                    writeDirectly(event);
+                    return;
+                }
+                continue;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        
+        ringBuffer.lazySet((int) (sequence & mask), event);
+        if (consumerParked) {
+            wakeConsumer();
+        }
+    }
+    
+    private void wakeConsumer() {
+        LockSupport.unpark(consumerThread);
+    }
+    
+    /**
+     * 等待调用时已提交的日志全部输出
+     */
+    @Override
+    public void flush() {
+        long target = tail.get();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while (head.get() < target && consumerThread.isAlive() && System.nanoTime() < deadline) {
+            wakeConsumer();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+    
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+    }
+    
+    /**
+     * 当前缓冲区中等待输出的事件数
+     */
+    public int getPendingCount() {
+        return (int) (tail.get() - head.get());
+    }
+    
+    private void consume() {
+        for (;;) {
+            int drained = drainBatch();
+            if (drained == 0) {
+                if (closed && head.get() == tail.get()) {
+                    return;
+                }
+                consumerParked = true;
+                // 再次确认，避免生产者在设置标记前提交而错过唤醒
+                if (head.get() == tail.get()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                consumerParked = false;
+            }
+        }
+    }
+    
+    /**
+     * 取出最多batchSize个事件并输出，同一输出流的连续日志合并为一次写入
+     */
+    private int drainBatch() {
+        long sequence = head.get();
+        int drained = 0;
+        PrintStream currentStream = null;
+        
+        while (drained < batchSize) {
+            int index = (int) (sequence & mask);
+            LogEvent event = ringBuffer.get(index);
+            if (event == null) {
+                if (sequence < tail.get()) {
+                    // 序号已领取但事件尚未写入，稍候重试
+                    Thread.yield();
+                    continue;
+                }
+                break;
+            }
+            
+            PrintStream stream = ConsoleAppender.isErrorStream(event) ? System.err : System.out;
+            if (stream != currentStream) {
+                writeBatch(currentStream);
+                currentStream = stream;
+            }
+            try {
+                ConsoleAppender.format(event, batchBuffer);
+            } catch (RuntimeException e) {
+                batchBuffer.append("日志格式化失败: ").append(e).append(System.lineSeparator());
+            }
+            
+            ringBuffer.lazySet(index, null);
+            sequence++;
+            drained++;
+        }
+        
+        writeBatch(currentStream);
+        // 写出之后才推进消费序号，flush()看到序号追上时这批日志已经输出
+        head.lazySet(sequence);
+        return drained;
+    }
+    
+    private void writeBatch(PrintStream stream) {
+        if (stream == null || batchBuffer.length() == 0) {
+            return;
+        }
+        stream.print(batchBuffer);
+        stream.flush();
+        batchBuffer.setLength(0);
+    }
+    
+    private void writeDirectly(LogEvent event) {
+        StringBuilder line = new StringBuilder(128);
+        ConsoleAppender.format(event, line);
+        (ConsoleAppender.isErrorStream(event) ? System.err : System.out).print(line);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.minispring.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 同步控制台追加器
+ * WARN及以上输出到System.err，其余输出到System.out
+ */
+public class ConsoleAppender implements LogAppender {
+    
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    
+    @Override
+    public void append(LogEvent event) {
+        StringBuilder line = new StringBuilder(128);
+        format(event, line);
+        if (isErrorStream(event)) {
+            System.err.print(line);
+        } else {
+            System.out.print(line);
+        }
+    }
+    
+    static boolean isErrorStream(LogEvent event) {
+        return event.getLevel().compareTo(LogLevel.WARN) >= 0;
+    }
+    
+    /**
+     * 格式：时间 级别 [线程] 日志名 - 消息，附带异常堆栈
+     */
+    static void format(LogEvent event, StringBuilder out) {
+        LocalTime time = LocalTime.from(Instant.ofEpochMilli(event.getTimestamp()).atZone(ZoneId.systemDefault()));
+        TIME_FORMATTER.formatTo(time, out);
+        out.append(' ').append(event.getLevel().name());
+        for (int i = event.getLevel().name().length(); i < 5; i++) {
+            out.append(' ');
+        }
+        out.append(" [").append(event.getThreadName()).append("] ")
+                .append(event.getLoggerName()).append(" - ")
+                .append(event.getMessage())
+                .append(System.lineSeparator());
+        
+        if (event.getThrowable() != null) {
+            StringWriter stackTrace = new StringWriter();
+            event.getThrowable().printStackTrace(new PrintWriter(stackTrace));
+            out.append(stackTrace);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.minispring.logging;
+
+/**
+ * 日志输出目标
+ */
+public interface LogAppender {
+    
+    /**
+     * 输出一条日志，可能由任意线程并发调用
+     */
+    void append(LogEvent event);
+    
+    /**
+     * 等待已提交的日志全部输出
+     */
+    default void flush() {
+    }
+    
+    /**
+     * 输出剩余日志并释放资源
+     */
+    default void close() {
+        flush();
+    }
+}
\ No newline at end of file
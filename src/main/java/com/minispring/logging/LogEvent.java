@@ -0,0 +1,48 @@
+package com.minispring.logging;
+
+/**
+ * 一条日志记录
+ * 消息在产生日志的线程上求值，格式化与输出在追加器中完成
+ */
+public final class LogEvent {
+    
+    private final long timestamp;
+    private final LogLevel level;
+    private final String loggerName;
+    private final String threadName;
+    private final String message;
+    private final Throwable throwable;
+    
+    public LogEvent(LogLevel level, String loggerName, String message, Throwable throwable) {
+        this.timestamp = System.currentTimeMillis();
+        this.level = level;
+        this.loggerName = loggerName;
+        this.threadName = Thread.currentThread().getName();
+        this.message = message;
+        this.throwable = throwable;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public LogLevel getLevel() {
+        return level;
+    }
+    
+    public String getLoggerName() {
+        return loggerName;
+    }
+    
+    public String getThreadName() {
+        return threadName;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public Throwable getThrowable() {
+        return throwable;
+    }
+}
\ No newline at end of file
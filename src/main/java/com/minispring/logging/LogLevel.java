@@ -0,0 +1,27 @@
+package com.minispring.logging;
+
+/**
+ * 日志级别，按严重程度递增
+ */
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+    
+    /**
+     * 解析级别名称（不区分大小写），无法识别时返回默认级别
+     */
+    public static LogLevel parse(String name, LogLevel defaultLevel) {
+        if (name == null || name.trim().isEmpty()) {
+            return defaultLevel;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
\ No newline at end of file
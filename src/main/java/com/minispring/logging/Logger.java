@@ -0,0 +1,109 @@
+package com.minispring.logging;
+
+import java.util.function.Supplier;
+
+/**
+ * 框架内部日志记录器
+ *
+ * 级别检查只是一次volatile读取；未开启的级别既不拼接字符串也不分配事件对象。
+ * 需要拼接的消息应使用Supplier重载，只有级别开启时才会求值：
+ * <pre>
+ * logger.debug(() -> "注册Bean: " + beanName);
+ * </pre>
+ */
+public final class Logger {
+    
+    private final String name;
+    private final String shortName;
+    private volatile LogLevel level;
+    
+    Logger(String name, LogLevel level) {
+        this.name = name;
+        this.shortName = name.substring(name.lastIndexOf('.') + 1);
+        this.level = level;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public LogLevel getLevel() {
+        return level;
+    }
+    
+    void setLevel(LogLevel level) {
+        this.level = level;
+    }
+    
+    public boolean isEnabled(LogLevel candidate) {
+        return candidate.compareTo(level) >= 0 && candidate != LogLevel.OFF;
+    }
+    
+    public boolean isTraceEnabled() {
+        return isEnabled(LogLevel.TRACE);
+    }
+    
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+    
+    public boolean isInfoEnabled() {
+        return isEnabled(LogLevel.INFO);
+    }
+    
+    public void trace(Supplier<String> message) {
+        log(LogLevel.TRACE, message, null);
+    }
+    
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message, null);
+    }
+    
+    public void debug(Supplier<String> message) {
+        log(LogLevel.DEBUG, message, null);
+    }
+    
+    public void info(String message) {
+        log(LogLevel.INFO, message, null);
+    }
+    
+    public void info(Supplier<String> message) {
+        log(LogLevel.INFO, message, null);
+    }
+    
+    public void warn(String message) {
+        log(LogLevel.WARN, message, null);
+    }
+    
+    public void warn(Supplier<String> message) {
+        log(LogLevel.WARN, message, null);
+    }
+    
+    public void warn(String message, Throwable throwable) {
+        log(LogLevel.WARN, message, throwable);
+    }
+    
+    public void error(String message) {
+        log(LogLevel.ERROR, message, null);
+    }
+    
+    public void error(Supplier<String> message) {
+        log(LogLevel.ERROR, message, null);
+    }
+    
+    public void error(String message, Throwable throwable) {
+        log(LogLevel.ERROR, message, throwable);
+    }
+    
+    public void log(LogLevel eventLevel, String message, Throwable throwable) {
+        if (isEnabled(eventLevel)) {
+            LoggerFactory.getAppender().append(new LogEvent(eventLevel, shortName, message, throwable));
+        }
+    }
+    
+    public void log(LogLevel eventLevel, Supplier<String> message, Throwable throwable) {
+        if (isEnabled(eventLevel)) {
+            LoggerFactory.getAppender().append(new LogEvent(eventLevel, shortName, message.get(), throwable));
+        }
+    }
+}
\ No newline at end of file
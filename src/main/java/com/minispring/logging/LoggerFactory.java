@@ -0,0 +1,112 @@
+package com.minispring.logging;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 日志记录器工厂
+ *
+ * 通过系统属性配置：
+ * minispring.log.level 全局级别（默认INFO）；
+ * minispring.log.async 是否使用异步追加器（默认true）。
+ * 运行期可以调用setLevel按包名前缀调整级别。
+ */
+public final class LoggerFactory {
+    
+    private static final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    
+    /** 包名前缀 -> 级别，最长前缀优先 */
+    private static final Map<String, LogLevel> levelOverrides = new TreeMap<>();
+    
+    private static volatile LogLevel rootLevel = LogLevel.parse(System.getProperty("minispring.log.level"), LogLevel.INFO);
+    
+    private static volatile LogAppender appender = Boolean.parseBoolean(System.getProperty("minispring.log.async", "true"))
+            ? new AsyncAppender() : new ConsoleAppender();
+    
+    private LoggerFactory() {
+    }
+    
+    public static Logger getLogger(Class<?> clazz) {
+        return getLogger(clazz.getName());
+    }
+    
+    public static Logger getLogger(String name) {
+        Logger logger = loggers.get(name);
+        if (logger == null) {
+            logger = loggers.computeIfAbsent(name, key -> new Logger(key, effectiveLevel(key)));
+        }
+        return logger;
+    }
+    
+    /**
+     * 设置全局日志级别
+     */
+    public static void setLevel(LogLevel level) {
+        synchronized (levelOverrides) {
+            rootLevel = level;
+            refreshLevels();
+        }
+    }
+    
+    /**
+     * 设置指定包或类名前缀的日志级别，level为null时移除该设置
+     */
+    public static void setLevel(String prefix, LogLevel level) {
+        synchronized (levelOverrides) {
+            if (level == null) {
+                levelOverrides.remove(prefix);
+            } else {
+                levelOverrides.put(prefix, level);
+            }
+            refreshLevels();
+        }
+    }
+    
+    public static LogLevel getRootLevel() {
+        return rootLevel;
+    }
+    
+    /**
+     * 替换日志输出目标，旧的追加器会先输出剩余日志
+     */
+    public static void setAppender(LogAppender newAppender) {
+        LogAppender old = appender;
+        appender = newAppender;
+        if (old != newAppender) {
+            old.close();
+        }
+    }
+    
+    static LogAppender getAppender() {
+        return appender;
+    }
+    
+    /**
+     * 等待已提交的日志全部输出
+     */
+    public static void flush() {
+        appender.flush();
+    }
+    
+    private static void refreshLevels() {
+        for (Logger logger : loggers.values()) {
+            logger.setLevel(effectiveLevel(logger.getName()));
+        }
+    }
+    
+    private static LogLevel effectiveLevel(String name) {
+        synchronized (levelOverrides) {
+            LogLevel level = rootLevel;
+            int matchedLength = -1;
+            for (Map.Entry<String, LogLevel> entry : levelOverrides.entrySet()) {
+                String prefix = entry.getKey();
+                if (name.startsWith(prefix) && prefix.length() > matchedLength) {
+                    level = entry.getValue();
+                    matchedLength = prefix.length();
+                }
+            }
+            return level;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,238 @@
+package com.minispring.scheduling;
+
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+import com.minispring.scheduling.concurrent.HashedWheelTimer;
+import com.minispring.scheduling.support.CronExpression;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个已调度的定时任务
+ *
+ * 时间轮到期时只负责把任务交给工作线程池；fixedRate与cron任务在到期时就计算下一次触发时间，
+ * 因此单个任务执行缓慢不会推迟其他任务。如果到期时上一次执行尚未结束，则跳过本次执行并记为一次超时（overrun）。
+ */
+public class ScheduledTask implements Runnable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledTask.class);
+    
+    /**
+     * 调度方式
+     */
+    public enum Kind {
+        FIXED_RATE,
+        FIXED_DELAY,
+        CRON
+    }
+    
+    private final String beanName;
+    private final Object bean;
+    private final Method method;
+    private final Kind kind;
+    private final long periodMillis;
+    private final long initialDelayMillis;
+    private final CronExpression cronExpression;
+    
+    private HashedWheelTimer timer;
+    private Executor executor;
+    private volatile HashedWheelTimer.Timeout currentTimeout;
+    private volatile boolean cancelled;
+    private long nextFireNanos;
+    private LocalDateTime nextCronTime;
+    
+    private final Runnable timeoutCallback = this::onTimeout;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    
+    // 运行统计
+    private final LongAdder executionCount = new LongAdder();
+    private final LongAdder overrunCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private volatile long lastDurationNanos;
+    private volatile long maxDurationNanos;
+    
+    public ScheduledTask(String beanName, Object bean, Method method, Kind kind,
+                         long periodMillis, long initialDelayMillis, CronExpression cronExpression) {
+        this.beanName = beanName;
+        this.bean = bean;
+        this.method = method;
+        this.kind = kind;
+        this.periodMillis = periodMillis;
+        this.initialDelayMillis = initialDelayMillis;
+        this.cronExpression = cronExpression;
+        this.method.setAccessible(true);
+    }
+    
+    /**
+     * 在时间轮上开始调度
+     */
+    public synchronized void schedule(HashedWheelTimer timer, Executor executor) {
+        this.timer = timer;
+        this.executor = executor;
+        this.cancelled = false;
+        
+        if (kind == Kind.CRON) {
+            scheduleNextCron(LocalDateTime.now());
+        } else {
+            nextFireNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initialDelayMillis);
+            currentTimeout = timer.newTimeout(timeoutCallback, initialDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * 取消调度，正在执行的任务会执行完毕
+     */
+    public void cancel() {
+        cancelled = true;
+        HashedWheelTimer.Timeout timeout = currentTimeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+    
+    /**
+     * 时间轮线程上的到期回调：计算下一次触发时间并把执行交给工作线程池
+     */
+    private void onTimeout() {
+        if (cancelled) {
+            return;
+        }
+        
+        if (kind == Kind.FIXED_RATE) {
+            nextFireNanos += TimeUnit.MILLISECONDS.toNanos(periodMillis);
+            scheduleTimeout(nextFireNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } else if (kind == Kind.CRON) {
+            scheduleNextCron(nextCronTime);
+        }
+        
+        if (!running.compareAndSet(false, true)) {
+            overrunCount.increment();
+            logger.warn(() -> "定时任务执行超时，跳过本次执行: " + getName());
+            return;
+        }
+        
+        try {
+            executor.execute(this);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            overrunCount.increment();
+            logger.warn(() -> "定时任务被工作线程池拒绝: " + getName());
+            if (kind == Kind.FIXED_DELAY) {
+                scheduleNextDelay();
+            }
+        }
+    }
+    
+    /**
+     * 在工作线程上执行目标方法
+     */
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            method.invoke(bean);
+        } catch (InvocationTargetException e) {
+            failureCount.increment();
+            logger.error("定时任务执行失败: " + getName() + ", 错误: " + e.getTargetException());
+        } catch (Exception e) {
+            failureCount.increment();
+            logger.error("定时任务执行失败: " + getName() + ", 错误: " + e);
+        } finally {
+            long duration = System.nanoTime() - start;
+            lastDurationNanos = duration;
+            if (duration > maxDurationNanos) {
+                maxDurationNanos = duration;
+            }
+            executionCount.increment();
+            running.set(false);
+            
+            if (kind == Kind.FIXED_DELAY) {
+                scheduleNextDelay();
+            }
+        }
+    }
+    
+    private void scheduleNextDelay() {
+        if (!cancelled) {
+            scheduleTimeout(periodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void scheduleNextCron(LocalDateTime after) {
+        LocalDateTime next = cronExpression.next(after);
+        if (next == null) {
+            logger.warn("Cron表达式不会再触发，停止调度: " + getName());
+            return;
+        }
+        nextCronTime = next;
+        long delayMillis = Duration.between(LocalDateTime.now(), next).toMillis();
+        scheduleTimeout(delayMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * 提交下一次触发。容器关闭时先取消任务再停止时间轮，仍在执行的任务结束时时间轮可能已经停止，
+     * 此时停止调度而不是从工作线程抛出异常
+     */
+    private void scheduleTimeout(long delay, TimeUnit unit) {
+        try {
+            currentTimeout = timer.newTimeout(timeoutCallback, delay, unit);
+        } catch (IllegalStateException e) {
+            cancelled = true;
+            logger.debug(() -> "时间轮已停止，不再调度: " + getName());
+        }
+    }
+    
+    public String getBeanName() {
+        return beanName;
+    }
+    
+    public String getName() {
+        return beanName + "." + method.getName();
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public long getExecutionCount() {
+        return executionCount.sum();
+    }
+    
+    /**
+     * 因上一次执行未结束（或线程池拒绝）而跳过的次数
+     */
+    public long getOverrunCount() {
+        return overrunCount.sum();
+    }
+    
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+    
+    public long getLastDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastDurationNanos);
+    }
+    
+    public long getMaxDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxDurationNanos);
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    @Override
+    public String toString() {
+        return "ScheduledTask{" + getName() + ", kind=" + kind +
+                ", executions=" + getExecutionCount() +
+                ", overruns=" + getOverrunCount() + '}';
+    }
+}
\ No newline at end of file
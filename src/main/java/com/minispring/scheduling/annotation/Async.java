@@ -0,0 +1,23 @@
+package com.minispring.scheduling.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 异步执行注解，标注的方法会被提交到执行器中异步执行
+ * 方法返回类型必须为void、Future或CompletableFuture
+ * 标注在类上时，类中所有公共方法都异步执行
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Async {
+    
+    /**
+     * 执行器Bean的名称，不指定时使用名为taskExecutor的默认执行器
+     */
+    String value() default "";
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.minispring.scheduling.annotation;
+
+import com.minispring.aop.ProceedingJoinPoint;
+import com.minispring.aop.annotation.Around;
+import com.minispring.aop.annotation.Aspect;
+import com.minispring.ioc.beans.BeanFactory;
+import com.minispring.ioc.beans.BeansException;
+import com.minispring.ioc.beans.DestructionAwareBeanPostProcessor;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * @Async异步执行切面
+ * 由AopBeanPostProcessor作为内置切面注册，通过环绕通知把方法调用提交到执行器；
+ * 同时作为销毁感知的后置处理器注册到容器，执行器Bean被销毁或替换时丢弃缓存的执行器
+ */
+@Aspect
+public class AsyncExecutionAspect implements DestructionAwareBeanPostProcessor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncExecutionAspect.class);
+    
+    /** 默认执行器的Bean名称 */
+    public static final String DEFAULT_TASK_EXECUTOR_BEAN_NAME = "taskExecutor";
+    
+    private final BeanFactory beanFactory;
+    
+    /** 目标类 -> (方法 -> 执行器)缓存，避免每次调用都按名称查找Bean；继承的方法在不同子类上可能使用不同执行器 */
+    private final Map<Class<?>, Map<Method, Executor>> executorCache = new ConcurrentHashMap<>();
+    
+    public AsyncExecutionAspect(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+    
+    @Around("@annotation(com.minispring.scheduling.annotation.Async) || @within(com.minispring.scheduling.annotation.Async)")
+    public Object executeAsync(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = joinPoint.getMethod();
+        Class<?> returnType = method.getReturnType();
+        
+        // 类级别@Async只作用于返回类型可以异步化的业务方法
+        if (!ReflectionUtils.hasAnnotation(method, Async.class)
+                && (method.getDeclaringClass() == Object.class || !isAsyncReturnType(returnType))) {
+            return joinPoint.proceed();
+        }
+        if (!isAsyncReturnType(returnType)) {
+            throw new IllegalStateException("@Async方法的返回类型必须为void、Future或CompletableFuture: " + method);
+        }
+        
+        Executor executor = determineExecutor(ReflectionUtils.getUserClass(joinPoint.getTarget().getClass()), method);
+        if (returnType == void.class) {
+            executor.execute(() -> {
+                try {
+                    joinPoint.proceed();
+                } catch (Throwable ex) {
+                    logger.error("异步方法执行失败: " + method.getName() + ", 错误: " + ex.getMessage());
+                }
+            });
+            return null;
+        }
+        
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                completeFrom(joinPoint.proceed(), result);
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        return result;
+    }
+    
+    private boolean isAsyncReturnType(Class<?> returnType) {
+        return returnType == void.class
+                || (Future.class.isAssignableFrom(returnType) && returnType.isAssignableFrom(CompletableFuture.class));
+    }
+    
+    /**
+     * 用目标方法返回的Future结果完成对外暴露的CompletableFuture
+     */
+    @SuppressWarnings("unchecked")
+    private void completeFrom(Object returned, CompletableFuture<Object> result) throws Exception {
+        if (returned == null) {
+            result.complete(null);
+        } else if (returned instanceof CompletableFuture) {
+            ((CompletableFuture<Object>) returned).whenComplete((value, ex) -> {
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } else {
+            result.complete(((Future<Object>) returned).get());
+        }
+    }
+    
+    /**
+     * 确定方法使用的执行器：方法注解优先，其次目标类上的注解，最后默认执行器
+     * 类级别注解按目标类解析，与@within匹配的类一致，继承的方法也使用子类声明的执行器
+     */
+    private Executor determineExecutor(Class<?> targetClass, Method method) {
+        Map<Method, Executor> executors = executorCache.get(targetClass);
+        if (executors == null) {
+            executors = executorCache.computeIfAbsent(targetClass, type -> new ConcurrentHashMap<>());
+        }
+        Executor executor = executors.get(method);
+        if (executor != null) {
+            return executor;
+        }
+        
+        Async async = ReflectionUtils.getAnnotation(method, Async.class);
+        if (async == null) {
+            async = ReflectionUtils.getAnnotation(targetClass, Async.class);
+        }
+        String executorName = async != null && !async.value().isEmpty()
+                ? async.value() : DEFAULT_TASK_EXECUTOR_BEAN_NAME;
+        
+        Object bean = beanFactory.getBean(executorName);
+        if (!(bean instanceof Executor)) {
+            throw new BeansException("Bean '" + executorName + "' used by @Async is not an Executor");
+        }
+        executor = (Executor) bean;
+        executors.put(method, executor);
+        return executor;
+    }
+    
+    /**
+     * 执行器Bean被销毁（容器关闭、定义被替换或删除）时丢弃缓存，之后的调用重新按名称查找
+     */
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+        if (bean instanceof Executor) {
+            for (Map<Method, Executor> executors : executorCache.values()) {
+                executors.values().removeIf(executor -> executor == bean);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.minispring.scheduling.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 定时任务注解，标注的无参方法会在容器刷新完成后按计划周期执行
+ * fixedRate、fixedDelay、cron三者必须且只能指定一个
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Scheduled {
+    
+    /**
+     * Cron表达式（秒 分 时 日 月 周）
+     */
+    String cron() default "";
+    
+    /**
+     * 固定频率执行，两次开始执行之间的间隔毫秒数
+     */
+    long fixedRate() default -1;
+    
+    /**
+     * 固定延迟执行，上一次执行结束到下一次开始之间的间隔毫秒数
+     */
+    long fixedDelay() default -1;
+    
+    /**
+     * 首次执行前的延迟毫秒数，对cron无效
+     */
+    long initialDelay() default 0;
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.minispring.scheduling.annotation;
+
+import com.minispring.ioc.beans.BeanFactory;
+import com.minispring.ioc.beans.BeansException;
+import com.minispring.ioc.beans.DestructionAwareBeanPostProcessor;
+import com.minispring.ioc.beans.DisposableBean;
+import com.minispring.ioc.context.event.ApplicationListener;
+import com.minispring.ioc.context.event.ContextRefreshedEvent;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+import com.minispring.scheduling.ScheduledTask;
+import com.minispring.scheduling.concurrent.HashedWheelTimer;
+import com.minispring.scheduling.concurrent.ThreadPoolTaskExecutor;
+import com.minispring.scheduling.support.CronExpression;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Scheduled注解后置处理器
+ *
+ * 在preInstantiateSingletons创建单例Bean时收集@Scheduled方法，容器刷新完成后统一开始调度。
+ * 所有任务共享一个时间轮定时器和一个工作线程池，而不是每个组件各自启动线程。
+ */
+public class ScheduledAnnotationBeanPostProcessor implements DestructionAwareBeanPostProcessor,
+        ApplicationListener<ContextRefreshedEvent>, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledAnnotationBeanPostProcessor.class);
+
+    private final BeanFactory beanFactory;
+    private final List<ScheduledTask> scheduledTasks = new CopyOnWriteArrayList<>();
+
+    private long tickMillis = 10;
+    private int wheelSize = 512;
+    private int poolSize = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private HashedWheelTimer timer;
+    private ThreadPoolTaskExecutor workerPool;
+    private volatile boolean refreshed = false;
+    private volatile boolean started = false;
+
+    public ScheduledAnnotationBeanPostProcessor(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!beanFactory.isSingleton(beanName)) {
+            return bean;
+        }
+
+        for (Map.Entry<Method, Scheduled> entry : ReflectionUtils.getAnnotatedMethods(bean.getClass(), Scheduled.class).entrySet()) {
+            ScheduledTask task = createScheduledTask(beanName, bean, entry.getKey(), entry.getValue());
+            scheduledTasks.add(task);
+            if (started) {
+                task.schedule(timer, workerPool);
+            } else if (refreshed) {
+                // 刷新后才创建的延迟加载Bean
+                start();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * 根据注解属性创建定时任务
+     */
+    private ScheduledTask createScheduledTask(String beanName, Object bean, Method method, Scheduled scheduled) {
+        if (method.getParameterCount() != 0) {
+            throw new BeansException("@Scheduled方法不能有参数: " + method);
+        }
+
+        int specified = 0;
+        ScheduledTask.Kind kind = null;
+        long period = -1;
+        CronExpression cron = null;
+
+        if (!scheduled.cron().isEmpty()) {
+            specified++;
+            kind = ScheduledTask.Kind.CRON;
+            cron = CronExpression.parse(scheduled.cron());
+        }
+        if (scheduled.fixedRate() >= 0) {
+            specified++;
+            kind = ScheduledTask.Kind.FIXED_RATE;
+            period = scheduled.fixedRate();
+        }
+        if (scheduled.fixedDelay() >= 0) {
+            specified++;
+            kind = ScheduledTask.Kind.FIXED_DELAY;
+            period = scheduled.fixedDelay();
+        }
+
+        if (specified != 1) {
+            throw new BeansException("@Scheduled方法必须且只能指定cron、fixedRate、fixedDelay之一: " + method);
+        }
+        if (kind != ScheduledTask.Kind.CRON && period <= 0) {
+            throw new BeansException("@Scheduled的执行间隔必须大于0: " + method);
+        }
+
+        return new ScheduledTask(beanName, bean, method, kind, period, Math.max(scheduled.initialDelay(), 0), cron);
+    }
+
+    /**
+     * Bean被销毁（定义被替换或删除）时取消其定时任务
+     */
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+        for (ScheduledTask task : scheduledTasks) {
+            if (task.getBeanName().equals(beanName)) {
+                task.cancel();
+                scheduledTasks.remove(task);
+            }
+        }
+    }
+
+    /**
+     * 容器刷新完成后开始调度所有任务
+     */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        start();
+    }
+
+    public synchronized void start() {
+        this.refreshed = true;
+        if (started || scheduledTasks.isEmpty()) {
+            return;
+        }
+
+        this.workerPool = new ThreadPoolTaskExecutor();
+        workerPool.setCorePoolSize(poolSize);
+        workerPool.setMaxPoolSize(poolSize);
+        workerPool.setThreadNamePrefix("minispring-scheduling-");
+        workerPool.initialize();
+
+        this.timer = new HashedWheelTimer(tickMillis, TimeUnit.MILLISECONDS, wheelSize, "minispring-scheduling-timer");
+
+        for (ScheduledTask task : scheduledTasks) {
+            task.schedule(timer, workerPool);
+        }
+        this.started = true;
+        logger.info("定时任务调度已启动，共 " + scheduledTasks.size() + " 个任务");
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (!started) {
+            return;
+        }
+        for (ScheduledTask task : scheduledTasks) {
+            task.cancel();
+        }
+        timer.stop();
+        workerPool.destroy();
+        this.started = false;
+    }
+
+    /**
+     * 获取所有已注册的定时任务及其运行统计
+     */
+    public List<ScheduledTask> getScheduledTasks() {
+        return new ArrayList<>(scheduledTasks);
+    }
+
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+}
\ No newline at end of file
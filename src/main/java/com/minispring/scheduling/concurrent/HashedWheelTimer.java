@@ -0,0 +1,309 @@
+package com.minispring.scheduling.concurrent;
+
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 时间轮定时器
+ *
+ * 时间被划分为固定长度的tick，wheelSize个槽位组成一个环，每个槽位挂一条超时任务链表。
+ * 新增超时任务只是向无锁队列追加一个节点，由时间轮线程在下一个tick放入对应槽位，
+ * 因此添加、取消都是O(1)，与任务总数无关；每个tick只处理当前槽位上的任务。
+ *
+ * 到期回调在时间轮线程上执行，必须足够短小，耗时逻辑应转交给其他执行器。
+ */
+public class HashedWheelTimer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+    
+    private static final int STATE_INIT = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_SHUTDOWN = 2;
+    
+    /** 每个tick最多从待加入队列转移的任务数，避免时间轮线程饥饿 */
+    private static final int MAX_TRANSFER_PER_TICK = 100000;
+    
+    private final long tickDuration;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Thread workerThread;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+    private final CountDownLatch startTimeInitialized = new CountDownLatch(1);
+    
+    private volatile long startTime;
+    private long tick;
+    
+    /**
+     * @param tickDuration 每个tick的时长
+     * @param unit 时长单位
+     * @param wheelSize 槽位数，会向上取整为2的幂
+     * @param threadName 时间轮线程名称
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, String threadName) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize must be in (0, 2^30]");
+        }
+        
+        int normalizedSize = 1;
+        while (normalizedSize < wheelSize) {
+            normalizedSize <<= 1;
+        }
+        this.wheel = new Bucket[normalizedSize];
+        for (int i = 0; i < normalizedSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = normalizedSize - 1;
+        this.tickDuration = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        
+        this.workerThread = new Thread(this::runWheel, threadName);
+        this.workerThread.setDaemon(true);
+    }
+    
+    /**
+     * 添加超时任务
+     * @param task 到期时在时间轮线程上执行的回调
+     * @param delay 延迟时间
+     * @param unit 时间单位
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        start();
+        
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0)) - startTime;
+        Timeout timeout = new Timeout(task, deadline);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+    
+    /**
+     * 启动时间轮线程，newTimeout时自动调用
+     */
+    public void start() {
+        switch (state.get()) {
+            case STATE_INIT:
+                if (state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+                    workerThread.start();
+                }
+                break;
+            case STATE_STARTED:
+                break;
+            default:
+                throw new IllegalStateException("HashedWheelTimer has been stopped");
+        }
+        
+        while (startTime == 0) {
+            try {
+                startTimeInitialized.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 停止时间轮，未到期的任务不再执行
+     */
+    public void stop() {
+        if (state.getAndSet(STATE_SHUTDOWN) == STATE_STARTED && Thread.currentThread() != workerThread) {
+            workerThread.interrupt();
+            try {
+                workerThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * 等待调度的任务数（含尚未转移到槽位的任务）
+     */
+    public int getPendingTimeoutCount() {
+        int count = pendingTimeouts.size();
+        for (Bucket bucket : wheel) {
+            count += bucket.size;
+        }
+        return count;
+    }
+    
+    private void runWheel() {
+        startTime = System.nanoTime();
+        if (startTime == 0) {
+            startTime = 1;
+        }
+        startTimeInitialized.countDown();
+        
+        while (state.get() == STATE_STARTED) {
+            long deadline = waitForNextTick();
+            if (deadline > 0) {
+                transferTimeoutsToBuckets();
+                wheel[(int) (tick & mask)].expireTimeouts();
+                tick++;
+            }
+        }
+    }
+    
+    /**
+     * 将待加入队列中的任务放入对应槽位
+     */
+    private void transferTimeoutsToBuckets() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            
+            long calculated = timeout.deadline / tickDuration;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            
+            // 已经过期的任务放到当前槽位，本tick立即执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+    
+    /**
+     * 休眠到下一个tick，返回相对startTime的当前时间；被停止时返回-1
+     */
+    private long waitForNextTick() {
+        long deadline = tickDuration * (tick + 1);
+        
+        for (;;) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepTimeMs = (deadline - currentTime + 999999) / 1000000;
+            
+            if (sleepTimeMs <= 0) {
+                return currentTime == Long.MIN_VALUE ? -Long.MAX_VALUE : currentTime;
+            }
+            
+            try {
+                Thread.sleep(sleepTimeMs);
+            } catch (InterruptedException e) {
+                if (state.get() == STATE_SHUTDOWN) {
+                    return -1;
+                }
+            }
+        }
+    }
+    
+    /**
+     * 超时任务句柄
+     */
+    public static final class Timeout {
+        
+        private final Runnable task;
+        private final long deadline;
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+        
+        // 以下字段只由时间轮线程访问
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+        
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+        
+        /**
+         * 取消任务，槽位中的节点在下次经过时移除
+         */
+        public boolean cancel() {
+            if (expired || cancelled) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+        
+        public boolean isCancelled() {
+            return cancelled;
+        }
+        
+        public boolean isExpired() {
+            return expired;
+        }
+        
+        private void expire() {
+            expired = true;
+            try {
+                task.run();
+            } catch (Throwable e) {
+                logger.error("时间轮任务执行失败: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 槽位：超时任务的双向链表
+     */
+    private static final class Bucket {
+        
+        private Timeout head;
+        private Timeout tail;
+        private volatile int size;
+        
+        void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+            size++;
+        }
+        
+        void expireTimeouts() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    // 剩余轮数为0的任务截止时间必然落在当前tick内
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+        
+        private void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            size--;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.minispring.scheduling.concurrent;
+
+import com.minispring.ioc.beans.DisposableBean;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 任务执行器
+ * 运行时支持虚拟线程（JDK 21+）且开启virtualThreads时，每个任务使用一个虚拟线程；
+ * 否则使用有界线程池和有界队列，队列满时拒绝任务并计数
+ */
+public class ThreadPoolTaskExecutor implements Executor, DisposableBean {
+    
+    private int corePoolSize = Runtime.getRuntime().availableProcessors();
+    private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+    private int queueCapacity = 1000;
+    private int keepAliveSeconds = 60;
+    private String threadNamePrefix = "minispring-task-";
+    private boolean virtualThreads = true;
+    
+    private volatile ExecutorService executor;
+    private ThreadPoolExecutor threadPoolExecutor;
+    private boolean usingVirtualThreads;
+    
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    
+    /**
+     * 初始化底层执行器，首次提交任务时自动调用
+     */
+    public synchronized void initialize() {
+        if (executor != null) {
+            return;
+        }
+        
+        if (virtualThreads) {
+            ExecutorService virtualExecutor = createVirtualThreadExecutor();
+            if (virtualExecutor != null) {
+                this.usingVirtualThreads = true;
+                this.executor = virtualExecutor;
+                return;
+            }
+        }
+        
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.threadPoolExecutor = new ThreadPoolExecutor(corePoolSize, Math.max(corePoolSize, maxPoolSize),
+                keepAliveSeconds, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory,
+                (runnable, pool) -> {
+                    rejectedCount.incrementAndGet();
+                    throw new RejectedExecutionException("Task rejected by " + threadNamePrefix + " executor (queue capacity "
+                            + queueCapacity + ", active " + pool.getActiveCount() + ")");
+                });
+        this.executor = threadPoolExecutor;
+    }
+    
+    /**
+     * 通过反射创建虚拟线程执行器，运行时不支持时返回null
+     */
+    private ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (Exception e) {
+            // JDK 19/20未开启预览特性时会抛出UnsupportedOperationException
+            return null;
+        }
+    }
+    
+    @Override
+    public void execute(Runnable task) {
+        ExecutorService current = this.executor;
+        if (current == null) {
+            initialize();
+            current = this.executor;
+        }
+        
+        submittedCount.increment();
+        try {
+            current.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    completedCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            submittedCount.decrement();
+            if (threadPoolExecutor == null) {
+                // 线程池模式下拒绝策略中已计数
+                rejectedCount.incrementAndGet();
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        ExecutorService current = this.executor;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(5, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // 运行时统计
+    
+    /**
+     * 等待执行的任务数（虚拟线程模式下没有等待队列，恒为0）
+     */
+    public int getQueueSize() {
+        return threadPoolExecutor != null ? threadPoolExecutor.getQueue().size() : 0;
+    }
+    
+    /**
+     * 被拒绝的任务数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+    
+    /**
+     * 正在执行的任务数
+     */
+    public long getActiveCount() {
+        return submittedCount.sum() - completedCount.sum() - getQueueSize();
+    }
+    
+    /**
+     * 已完成的任务数
+     */
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+    
+    public boolean isUsingVirtualThreads() {
+        return usingVirtualThreads;
+    }
+    
+    // 配置项
+    
+    public void setCorePoolSize(int corePoolSize) {
+        this.corePoolSize = corePoolSize;
+    }
+    
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+    
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public void setKeepAliveSeconds(int keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
+    
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+    
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+    
+    @Override
+    public String toString() {
+        return "ThreadPoolTaskExecutor{" +
+                "virtualThreads=" + usingVirtualThreads +
+                ", queueSize=" + getQueueSize() +
+                ", rejected=" + getRejectedCount() +
+                ", completed=" + getCompletedCount() +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.minispring.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * Cron表达式解析器
+ * 支持6个字段：秒 分 时 日 月 周，语法与Spring的@Scheduled(cron)一致：
+ * 通配符*和?、列表(,)、范围(-)、步长(/)，月份与星期可使用英文缩写（JAN、MON等），
+ * 以及@yearly、@monthly、@weekly、@daily、@hourly宏。日与周同时指定时需要同时满足。
+ */
+public final class CronExpression {
+    
+    private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN",
+            "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    
+    private static final String[] DAY_OF_WEEK_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    
+    /** 搜索下一次触发时间的最大年份跨度，超出则认为表达式永远不会触发（如2月30日） */
+    private static final int MAX_YEARS_TO_SEARCH = 4;
+    
+    private final String expression;
+    private final BitSet seconds = new BitSet(60);
+    private final BitSet minutes = new BitSet(60);
+    private final BitSet hours = new BitSet(24);
+    private final BitSet daysOfMonth = new BitSet(32);
+    private final BitSet months = new BitSet(13);
+    
+    /** 使用java.time.DayOfWeek的编号：1=周一 ... 7=周日 */
+    private final BitSet daysOfWeek = new BitSet(8);
+    
+    private CronExpression(String expression) {
+        this.expression = expression;
+    }
+    
+    /**
+     * 解析Cron表达式
+     * @throws IllegalArgumentException 表达式不合法
+     */
+    public static CronExpression parse(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("Cron表达式不能为空");
+        }
+        
+        String normalized = resolveMacro(expression.trim());
+        String[] fields = normalized.split("\\s+");
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Cron表达式必须包含6个字段（秒 分 时 日 月 周）: " + expression);
+        }
+        
+        CronExpression cron = new CronExpression(expression);
+        try {
+            setBits(cron.seconds, fields[0], 0, 59, null);
+            setBits(cron.minutes, fields[1], 0, 59, null);
+            setBits(cron.hours, fields[2], 0, 23, null);
+            setBits(cron.daysOfMonth, fields[3], 1, 31, null);
+            setBits(cron.months, fields[4], 1, 12, MONTH_NAMES);
+            setDaysOfWeek(cron.daysOfWeek, fields[5]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cron表达式不合法: " + expression + ", " + e.getMessage(), e);
+        }
+        return cron;
+    }
+    
+    /**
+     * 计算给定时间之后的下一次触发时间
+     * @return 下一次触发时间，表达式永远不会再触发时返回null
+     */
+    public LocalDateTime next(LocalDateTime after) {
+        LocalDateTime candidate = after.plusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+        int maxYear = candidate.getYear() + MAX_YEARS_TO_SEARCH;
+        
+        while (candidate.getYear() <= maxYear) {
+            if (!months.get(candidate.getMonthValue())) {
+                candidate = candidate.plusMonths(1).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+                continue;
+            }
+            if (!daysOfMonth.get(candidate.getDayOfMonth())
+                    || !daysOfWeek.get(candidate.getDayOfWeek().getValue())) {
+                candidate = candidate.plusDays(1).truncatedTo(ChronoUnit.DAYS);
+                continue;
+            }
+            if (!hours.get(candidate.getHour())) {
+                candidate = candidate.plusHours(1).truncatedTo(ChronoUnit.HOURS);
+                continue;
+            }
+            if (!minutes.get(candidate.getMinute())) {
+                candidate = candidate.plusMinutes(1).truncatedTo(ChronoUnit.MINUTES);
+                continue;
+            }
+            if (!seconds.get(candidate.getSecond())) {
+                candidate = candidate.plusSeconds(1);
+                continue;
+            }
+            return candidate;
+        }
+        return null;
+    }
+    
+    private static String resolveMacro(String expression) {
+        switch (expression.toLowerCase()) {
+            case "@yearly":
+            case "@annually":
+                return "0 0 0 1 1 *";
+            case "@monthly":
+                return "0 0 0 1 * *";
+            case "@weekly":
+                return "0 0 0 * * 0";
+            case "@daily":
+            case "@midnight":
+                return "0 0 0 * * *";
+            case "@hourly":
+                return "0 0 * * * *";
+            default:
+                return expression;
+        }
+    }
+    
+    private static void setDaysOfWeek(BitSet bits, String field) {
+        // Cron中0和7都表示周日，先按0-7解析，再映射到DayOfWeek编号
+        BitSet cronBits = new BitSet(8);
+        setBits(cronBits, field, 0, 7, DAY_OF_WEEK_NAMES);
+        for (int day = cronBits.nextSetBit(0); day >= 0; day = cronBits.nextSetBit(day + 1)) {
+            bits.set(day == 0 ? 7 : day);
+        }
+    }
+    
+    private static void setBits(BitSet bits, String field, int min, int max, String[] names) {
+        for (String part : field.split(",")) {
+            if (part.isEmpty()) {
+                throw new IllegalArgumentException("空的字段值");
+            }
+            
+            int step = 1;
+            String range = part;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = Integer.parseInt(part.substring(slash + 1));
+                range = part.substring(0, slash);
+                if (step <= 0) {
+                    throw new IllegalArgumentException("步长必须为正数: " + part);
+                }
+            }
+            
+            int start;
+            int end;
+            if ("*".equals(range) || "?".equals(range)) {
+                start = min;
+                end = max;
+            } else {
+                int dash = range.indexOf('-');
+                if (dash > 0) {
+                    start = parseValue(range.substring(0, dash), names, min);
+                    end = parseValue(range.substring(dash + 1), names, min);
+                } else {
+                    start = parseValue(range, names, min);
+                    // a/n 表示从a开始到最大值
+                    end = slash >= 0 ? max : start;
+                }
+            }
+            
+            if (start < min || end > max || start > end) {
+                throw new IllegalArgumentException("取值超出范围[" + min + ", " + max + "]: " + part);
+            }
+            for (int value = start; value <= end; value += step) {
+                bits.set(value);
+            }
+        }
+    }
+    
+    private static int parseValue(String value, String[] names, int min) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equalsIgnoreCase(value)) {
+                    return i + min;
+                }
+            }
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("不支持的字段值: " + value);
+        }
+    }
+    
+    public String getExpression() {
+        return expression;
+    }
+    
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
\ No newline at end of file
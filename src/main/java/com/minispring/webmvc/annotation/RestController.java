@@ -0,0 +1,24 @@
+package com.minispring.webmvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @RestController注解
+ * 组合了@Controller与@ResponseBody，所有处理器方法的返回值直接写入响应正文
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Controller
+@ResponseBody
+public @interface RestController {
+    
+    /**
+     * 建议的组件名称，如果不指定则使用类名的首字母小写形式
+     */
+    String value() default "";
+}
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.minispring.webmvc.handler;
 
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.ArrayList;
@@ -12,6 +15,8 @@ import java.util.List;
  */
 public class HandlerExecutionChain {
     
+    private static final Logger logger = LoggerFactory.getLogger(HandlerExecutionChain.class);
+    
     private final Object handler;
     
     private HandlerInterceptor[] interceptors;
@@ -112,7 +117,7 @@ public class HandlerExecutionChain {
                 try {
                     interceptor.afterCompletion(request, response, this.handler, ex);
                 } catch (Throwable ex2) {
-                    System.err.println("HandlerInterceptor.afterCompletion threw exception: " + ex2);
+                    logger.error("HandlerInterceptor.afterCompletion threw exception: " + ex2);
                 }
             }
         }
@@ -0,0 +1,308 @@
+package com.minispring.webmvc.handler;
+
+import com.minispring.ioc.context.ApplicationContext;
+import com.minispring.ioc.context.WarmupTask;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * MVC预热任务
+ * 在容器预热阶段把合成请求依次送入HandlerMapping与HandlerAdapter，
+ * 使请求映射、参数绑定与返回值处理的代码在接收真实流量前完成JIT编译。
+ *
+ * 作为Bean注册即可生效，请求格式为"方法 路径[?查询参数]"：
+ * <pre>
+ * new MvcWarmupTask(context, "GET /users/1", "GET /users?page=1")
+ * </pre>
+ * 合成请求的响应内容会被丢弃。
+ */
+public class MvcWarmupTask implements WarmupTask {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MvcWarmupTask.class);
+    
+    private final ApplicationContext applicationContext;
+    private final List<String> requestSpecs;
+    private int iterations = -1;
+    
+    private List<HandlerMapping> handlerMappings;
+    private List<HandlerAdapter> handlerAdapters;
+    private List<HttpServletRequest> requests;
+    private final HttpServletResponse response = createResponse();
+    
+    public MvcWarmupTask(ApplicationContext applicationContext, String... requestSpecs) {
+        this.applicationContext = applicationContext;
+        this.requestSpecs = new ArrayList<>();
+        Collections.addAll(this.requestSpecs, requestSpecs);
+    }
+    
+    /**
+     * 使用指定的映射器与适配器，不从容器中查找
+     */
+    public MvcWarmupTask(HandlerMapping handlerMapping, HandlerAdapter handlerAdapter, String... requestSpecs) {
+        this((ApplicationContext) null, requestSpecs);
+        this.handlerMappings = new ArrayList<>(Collections.singletonList(handlerMapping));
+        this.handlerAdapters = new ArrayList<>(Collections.singletonList(handlerAdapter));
+    }
+    
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+    
+    @Override
+    public int getIterations() {
+        return iterations;
+    }
+    
+    @Override
+    public void warmup() throws Exception {
+        if (requests == null) {
+            initialize();
+        }
+        
+        for (HttpServletRequest request : requests) {
+            HandlerExecutionChain chain = getHandler(request);
+            if (chain == null) {
+                continue;
+            }
+            Object handler = chain.getHandler();
+            for (HandlerAdapter adapter : handlerAdapters) {
+                if (adapter.supports(handler)) {
+                    adapter.handle(request, response, handler);
+                    break;
+                }
+            }
+        }
+    }
+    
+    private HandlerExecutionChain getHandler(HttpServletRequest request) throws Exception {
+        for (HandlerMapping mapping : handlerMappings) {
+            HandlerExecutionChain chain = mapping.getHandler(request);
+            if (chain != null) {
+                return chain;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 首次执行时解析映射器、适配器与合成请求，并剔除无法映射的请求
+     */
+    private void initialize() throws Exception {
+        if (handlerMappings == null) {
+            this.handlerMappings = new ArrayList<>(applicationContext.getBeansOfType(HandlerMapping.class).values());
+            for (HandlerMapping mapping : handlerMappings) {
+                // 组件扫描注册的映射器尚未关联容器时，先完成处理器方法扫描（预热阶段已允许获取Bean）
+                if (mapping instanceof RequestMappingHandlerMapping
+                        && !((RequestMappingHandlerMapping) mapping).isInitialized()) {
+                    ((RequestMappingHandlerMapping) mapping).setApplicationContext(applicationContext);
+                }
+            }
+        }
+        if (handlerAdapters == null) {
+            this.handlerAdapters = new ArrayList<>(applicationContext.getBeansOfType(HandlerAdapter.class).values());
+        }
+        if (handlerAdapters.isEmpty()) {
+            handlerAdapters.add(new RequestMappingHandlerAdapter());
+        }
+        
+        List<HttpServletRequest> resolved = new ArrayList<>();
+        for (String spec : requestSpecs) {
+            HttpServletRequest request = createRequest(spec);
+            if (getHandler(request) == null) {
+                logger.warn("预热请求没有匹配的处理器，已跳过: " + spec);
+            } else {
+                resolved.add(request);
+            }
+        }
+        this.requests = resolved;
+    }
+    
+    /**
+     * 根据"方法 路径[?查询参数]"创建合成请求，只实现映射与参数绑定用到的方法
+     */
+    static HttpServletRequest createRequest(String spec) {
+        String[] parts = spec.trim().split("\\s+", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("预热请求格式应为\"方法 路径\": " + spec);
+        }
+        String method = parts[0].toUpperCase(Locale.ROOT);
+        String uri = parts[1];
+        String queryString = null;
+        int queryStart = uri.indexOf('?');
+        if (queryStart >= 0) {
+            queryString = uri.substring(queryStart + 1);
+            uri = uri.substring(0, queryStart);
+        }
+        
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        if (queryString != null) {
+            for (String pair : queryString.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int eq = pair.indexOf('=');
+                String name = eq >= 0 ? pair.substring(0, eq) : pair;
+                String value = eq >= 0 ? pair.substring(eq + 1) : "";
+                parameters.merge(name, new String[]{value}, MvcWarmupTask::concat);
+            }
+        }
+        
+        String requestUri = uri;
+        String query = queryString;
+        Map<String, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(MvcWarmupTask.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, invokedMethod, args) -> {
+                    switch (invokedMethod.getName()) {
+                        case "getMethod":
+                            return method;
+                        case "getRequestURI":
+                        case "getServletPath":
+                            return requestUri;
+                        case "getRequestURL":
+                            return new StringBuffer("http://localhost").append(requestUri);
+                        case "getContextPath":
+                            return "";
+                        case "getQueryString":
+                            return query;
+                        case "getParameter":
+                            String[] values = parameters.get((String) args[0]);
+                            return values != null && values.length > 0 ? values[0] : null;
+                        case "getParameterValues":
+                            return parameters.get((String) args[0]);
+                        case "getParameterMap":
+                            return Collections.unmodifiableMap(parameters);
+                        case "getParameterNames":
+                            return Collections.enumeration(parameters.keySet());
+                        case "getHeaders":
+                        case "getHeaderNames":
+                        case "getAttributeNames":
+                            return Collections.emptyEnumeration();
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            attributes.remove((String) args[0]);
+                            return null;
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "getLocale":
+                            return Locale.getDefault();
+                        case "toString":
+                            return "SyntheticRequest[" + spec + "]";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return defaultValue(invokedMethod.getReturnType());
+                    }
+                });
+    }
+    
+    /**
+     * 创建丢弃所有输出的合成响应
+     */
+    static HttpServletResponse createResponse() {
+        OutputStream discard = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+            
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+        PrintWriter writer = new PrintWriter(discard);
+        ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+            
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+            
+            @Override
+            public void write(int b) {
+            }
+        };
+        
+        return (HttpServletResponse) Proxy.newProxyInstance(MvcWarmupTask.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, invokedMethod, args) -> {
+                    switch (invokedMethod.getName()) {
+                        case "getWriter":
+                            return writer;
+                        case "getOutputStream":
+                            return outputStream;
+                        case "getStatus":
+                            return HttpServletResponse.SC_OK;
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "encodeURL":
+                        case "encodeRedirectURL":
+                            return args[0];
+                        case "toString":
+                            return "SyntheticResponse";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return defaultValue(invokedMethod.getReturnType());
+                    }
+                });
+    }
+    
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+    
+    private static String[] concat(String[] first, String[] second) {
+        String[] result = new String[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.minispring.webmvc.handler;
 
 import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.core.ReflectionUtils;
 import com.minispring.webmvc.ModelAndView;
 import com.minispring.webmvc.annotation.PathVariable;
 import com.minispring.webmvc.annotation.RequestParam;
@@ -81,11 +82,11 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter {
                 args[i] = response;
             } 
             // 2. 处理@RequestParam注解
-            else if (parameter.isAnnotationPresent(RequestParam.class)) {
+            else if (ReflectionUtils.hasAnnotation(parameter, RequestParam.class)) {
                 args[i] = resolveRequestParam(request, parameter);
             }
             // 3. 处理@PathVariable注解
-            else if (parameter.isAnnotationPresent(PathVariable.class)) {
+            else if (ReflectionUtils.hasAnnotation(parameter, PathVariable.class)) {
                 args[i] = resolvePathVariable(request, parameter, handlerMethod);
             }
             // 4. 处理Model参数
@@ -107,7 +108,7 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter {
      * 解析@RequestParam注解的参数
      */
     private Object resolveRequestParam(HttpServletRequest request, Parameter parameter) throws Exception {
-        RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
+        RequestParam requestParam = ReflectionUtils.getAnnotation(parameter, RequestParam.class);
         String paramName = requestParam.name();
         if (paramName.isEmpty()) {
             paramName = requestParam.value();
@@ -136,7 +137,7 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter {
      */
     private Object resolvePathVariable(HttpServletRequest request, Parameter parameter, 
                                      HandlerMethod handlerMethod) throws Exception {
-        PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
+        PathVariable pathVariable = ReflectionUtils.getAnnotation(parameter, PathVariable.class);
         String variableName = pathVariable.name();
         if (variableName.isEmpty()) {
             variableName = pathVariable.value();
@@ -202,8 +203,8 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter {
         Method method = handlerMethod.getMethod();
         
         // 1. 检查是否有@ResponseBody注解
-        if (method.isAnnotationPresent(ResponseBody.class) || 
-            handlerMethod.getBeanType().isAnnotationPresent(ResponseBody.class)) {
+        if (ReflectionUtils.hasAnnotation(method, ResponseBody.class) || 
+            ReflectionUtils.hasAnnotation(handlerMethod.getBeanType(), ResponseBody.class)) {
             
             handleResponseBody(response, returnValue);
             return null; // 直接写入响应，不需要视图解析
@@ -2,6 +2,9 @@ package com.minispring.webmvc.handler;
 
 import com.minispring.ioc.annotation.Component;
 import com.minispring.ioc.context.ApplicationContext;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
 import com.minispring.webmvc.annotation.Controller;
 import com.minispring.webmvc.annotation.RequestMapping;
 import com.minispring.webmvc.annotation.RequestMethod;
@@ -21,6 +24,8 @@ import java.util.Map;
 @Component
 public class RequestMappingHandlerMapping implements HandlerMapping {
     
+    private static final Logger logger = LoggerFactory.getLogger(RequestMappingHandlerMapping.class);
+    
     /** 存储路径模式到HandlerMethod的映射 */
     private final Map<RequestMappingInfo, HandlerMethod> handlerMethods = new HashMap<>();
     
@@ -35,6 +40,13 @@ public class RequestMappingHandlerMapping implements HandlerMapping {
         initHandlerMethods();
     }
     
+    /**
+     * 是否已设置ApplicationContext并完成处理器方法扫描
+     */
+    boolean isInitialized() {
+        return this.applicationContext != null;
+    }
+    
     @Override
     public HandlerExecutionChain getHandler(HttpServletRequest request) throws Exception {
         HandlerMethod handlerMethod = getHandlerInternal(request);
@@ -63,7 +75,7 @@ public class RequestMappingHandlerMapping implements HandlerMapping {
                 return handlerMethod;
             }
         } catch (Exception ex) {
-            System.err.println("查找处理器方法失败: " + ex.getMessage());
+            logger.error("查找处理器方法失败: " + ex.getMessage());
         }
         
         return null;
@@ -113,19 +125,19 @@ public class RequestMappingHandlerMapping implements HandlerMapping {
                     detectHandlerMethods(beanName, bean);
                 }
             } catch (Exception e) {
-                System.err.println("处理控制器 " + beanName + " 时发生错误: " + e.getMessage());
+                logger.error("处理控制器 " + beanName + " 时发生错误: " + e.getMessage());
             }
         }
         
-        System.out.println("RequestMappingHandlerMapping: 注册了 " + this.handlerMethods.size() + " 个处理器方法");
+        logger.info("RequestMappingHandlerMapping: 注册了 " + this.handlerMethods.size() + " 个处理器方法");
     }
     
     /**
      * 检查给定的类型是否是处理器
      */
     protected boolean isHandler(Class<?> beanType) {
-        return (beanType.isAnnotationPresent(Controller.class) ||
-                beanType.isAnnotationPresent(Component.class) && hasRequestMappingMethods(beanType));
+        return (ReflectionUtils.hasAnnotation(beanType, Controller.class) ||
+                ReflectionUtils.hasAnnotation(beanType, Component.class) && hasRequestMappingMethods(beanType));
     }
     
     /**
@@ -134,7 +146,7 @@ public class RequestMappingHandlerMapping implements HandlerMapping {
     private boolean hasRequestMappingMethods(Class<?> beanType) {
         Method[] methods = beanType.getDeclaredMethods();
         for (Method method : methods) {
-            if (method.isAnnotationPresent(RequestMapping.class)) {
+            if (ReflectionUtils.hasAnnotation(method, RequestMapping.class)) {
                 return true;
             }
         }
@@ -148,12 +160,12 @@ public class RequestMappingHandlerMapping implements HandlerMapping {
         Class<?> handlerType = handler.getClass();
         
         // 获取类级别的@RequestMapping
-        RequestMapping typeMapping = handlerType.getAnnotation(RequestMapping.class);
+        RequestMapping typeMapping = ReflectionUtils.getAnnotation(handlerType, RequestMapping.class);
         
         Method[] methods = handlerType.getDeclaredMethods();
         for (Method method : methods) {
-            if (method.isAnnotationPresent(RequestMapping.class)) {
-                RequestMapping methodMapping = method.getAnnotation(RequestMapping.class);
+            if (ReflectionUtils.hasAnnotation(method, RequestMapping.class)) {
+                RequestMapping methodMapping = ReflectionUtils.getAnnotation(method, RequestMapping.class);
                 
                 // 合并类级别和方法级别的映射信息
                 RequestMappingInfo info = createRequestMappingInfo(typeMapping, methodMapping);
@@ -161,7 +173,7 @@ public class RequestMappingHandlerMapping implements HandlerMapping {
                 HandlerMethod handlerMethod = new HandlerMethod(handler, method);
                 registerHandlerMethod(info, handlerMethod);
                 
-                System.out.println("映射 \"" + info + "\" 到 " + handlerMethod.getShortLogMessage());
+                logger.debug(() -> "映射 \"" + info + "\" 到 " + handlerMethod.getShortLogMessage());
             }
         }
     }
@@ -3,6 +3,9 @@ package com.minispring.webmvc.handler;
 import com.minispring.ioc.annotation.Component;
 import com.minispring.ioc.context.ApplicationContext;
 import com.minispring.ioc.context.ApplicationContextAware;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
 import com.minispring.webmvc.annotation.Controller;
 import com.minispring.webmvc.annotation.RequestMapping;
 import com.minispring.webmvc.annotation.RequestMethod;
@@ -19,6 +22,8 @@ import java.util.Map;
 @Component("requestMappingHandlerMapping")
 public class SimpleRequestMappingHandlerMapping implements HandlerMapping, ApplicationContextAware {
     
+    private static final Logger logger = LoggerFactory.getLogger(SimpleRequestMappingHandlerMapping.class);
+    
     private final Map<SimpleRequestMappingInfo, HandlerMethod> handlerMethods = new HashMap<>();
     private ApplicationContext applicationContext;
     
@@ -61,29 +66,29 @@ public class SimpleRequestMappingHandlerMapping implements HandlerMapping, Appli
                     detectHandlerMethods(bean);
                 }
             } catch (Exception e) {
-                System.err.println("Error processing controller: " + beanName);
+                logger.error("Error processing controller: " + beanName);
             }
         }
         
-        System.out.println("SimpleRequestMappingHandlerMapping: registered " + 
+        logger.info("SimpleRequestMappingHandlerMapping: registered " + 
                 handlerMethods.size() + " handler methods");
     }
     
     protected boolean isHandler(Class<?> beanType) {
-        return beanType.isAnnotationPresent(Controller.class);
+        return ReflectionUtils.hasAnnotation(beanType, Controller.class);
     }
     
     protected void detectHandlerMethods(Object handler) {
         Class<?> handlerType = handler.getClass();
         
         // 获取类级别的@RequestMapping
-        RequestMapping typeMapping = handlerType.getAnnotation(RequestMapping.class);
+        RequestMapping typeMapping = ReflectionUtils.getAnnotation(handlerType, RequestMapping.class);
         String[] typePaths = typeMapping != null ? typeMapping.value() : new String[]{""};
         
         Method[] methods = handlerType.getDeclaredMethods();
         for (Method method : methods) {
-            if (method.isAnnotationPresent(RequestMapping.class)) {
-                RequestMapping methodMapping = method.getAnnotation(RequestMapping.class);
+            if (ReflectionUtils.hasAnnotation(method, RequestMapping.class)) {
+                RequestMapping methodMapping = ReflectionUtils.getAnnotation(method, RequestMapping.class);
                 
                 // 合并路径
                 String[] paths = combinePaths(typePaths, methodMapping.value());
@@ -94,7 +99,7 @@ public class SimpleRequestMappingHandlerMapping implements HandlerMapping, Appli
                 
                 handlerMethods.put(info, handlerMethod);
                 
-                System.out.println("Mapped \"" + info + "\" onto " + handlerMethod.getShortLogMessage());
+                logger.debug(() -> "Mapped \"" + info + "\" onto " + handlerMethod.getShortLogMessage());
             }
         }
     }
@@ -1,6 +1,8 @@
 package com.minispring.webmvc.servlet;
 
 import com.minispring.ioc.context.ApplicationContext;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
 import com.minispring.webmvc.ModelAndView;
 import com.minispring.webmvc.handler.HandlerAdapter;
 import com.minispring.webmvc.handler.HandlerExecutionChain;
@@ -32,6 +34,8 @@ import java.util.Map;
  */
 public class DispatcherServlet extends HttpServlet {
     
+    private static final Logger logger = LoggerFactory.getLogger(DispatcherServlet.class);
+    
     /** 默认策略配置文件的位置 */
     private static final String DEFAULT_STRATEGIES_PATH = "DispatcherServlet.properties";
     
@@ -70,7 +74,7 @@ public class DispatcherServlet extends HttpServlet {
             // 初始化DispatcherServlet的策略对象
             initStrategies();
             
-            System.out.println("DispatcherServlet初始化完成");
+            logger.info("DispatcherServlet初始化完成");
             
         } catch (Exception e) {
             throw new ServletException("DispatcherServlet初始化失败", e);
@@ -88,7 +92,7 @@ public class DispatcherServlet extends HttpServlet {
         if (context instanceof ApplicationContext) {
             this.webApplicationContext = (ApplicationContext) context;
         } else {
-            System.err.println("警告: 未找到ApplicationContext，某些功能可能不可用");
+            logger.warn("未找到ApplicationContext，某些功能可能不可用");
         }
     }
     
@@ -121,7 +125,7 @@ public class DispatcherServlet extends HttpServlet {
                         }
                     }
                 } catch (Exception e) {
-                    System.err.println("检测HandlerMapping失败: " + e.getMessage());
+                    logger.error("检测HandlerMapping失败: " + e.getMessage());
                 }
             }
         }
@@ -129,7 +133,7 @@ public class DispatcherServlet extends HttpServlet {
         // 如果没有找到HandlerMapping，使用默认的
         if (this.handlerMappings.isEmpty()) {
             // 这里应该创建默认的HandlerMapping，暂时留空
-            System.out.println("使用默认的HandlerMapping策略");
+            logger.debug("使用默认的HandlerMapping策略");
         }
     }
     
@@ -150,13 +154,13 @@ public class DispatcherServlet extends HttpServlet {
                         }
                     }
                 } catch (Exception e) {
-                    System.err.println("检测HandlerAdapter失败: " + e.getMessage());
+                    logger.error("检测HandlerAdapter失败: " + e.getMessage());
                 }
             }
         }
         
         if (this.handlerAdapters.isEmpty()) {
-            System.out.println("使用默认的HandlerAdapter策略");
+            logger.debug("使用默认的HandlerAdapter策略");
         }
     }
     
@@ -177,13 +181,13 @@ public class DispatcherServlet extends HttpServlet {
                         }
                     }
                 } catch (Exception e) {
-                    System.err.println("检测ViewResolver失败: " + e.getMessage());
+                    logger.error("检测ViewResolver失败: " + e.getMessage());
                 }
             }
         }
         
         if (this.viewResolvers.isEmpty()) {
-            System.out.println("使用默认的ViewResolver策略");
+            logger.debug("使用默认的ViewResolver策略");
         }
     }
     
@@ -356,7 +360,7 @@ public class DispatcherServlet extends HttpServlet {
         
         if (exception != null) {
             // 异常处理逻辑
-            System.err.println("处理器执行异常: " + exception.getMessage());
+            logger.error("处理器执行异常: " + exception.getMessage());
             errorView = true;
         }
         
@@ -368,7 +372,7 @@ public class DispatcherServlet extends HttpServlet {
             }
         } else {
             if (System.getProperty("debug") != null) {
-                System.out.println("Null ModelAndView returned to DispatcherServlet: assuming HandlerAdapter completed request handling");
+                logger.debug("Null ModelAndView returned to DispatcherServlet: assuming HandlerAdapter completed request handling");
             }
         }
         
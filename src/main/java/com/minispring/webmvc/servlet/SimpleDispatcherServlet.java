@@ -1,6 +1,8 @@
 package com.minispring.webmvc.servlet;
 
 import com.minispring.ioc.context.ApplicationContext;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
 import com.minispring.webmvc.ModelAndView;
 import com.minispring.webmvc.handler.HandlerAdapter;
 import com.minispring.webmvc.handler.HandlerExecutionChain;
@@ -28,6 +30,8 @@ import java.util.Locale;
  */
 public class SimpleDispatcherServlet extends HttpServlet {
     
+    private static final Logger logger = LoggerFactory.getLogger(SimpleDispatcherServlet.class);
+    
     private ApplicationContext webApplicationContext;
     private List<HandlerMapping> handlerMappings;
     private List<HandlerAdapter> handlerAdapters;
@@ -48,7 +52,7 @@ public class SimpleDispatcherServlet extends HttpServlet {
         // 2. 初始化MVC组件
         initStrategies();
         
-        System.out.println("SimpleDispatcherServlet initialized with " + 
+        logger.info("SimpleDispatcherServlet initialized with " + 
                 handlerMappings.size() + " HandlerMappings");
     }
     
@@ -114,7 +118,7 @@ public class SimpleDispatcherServlet extends HttpServlet {
             
         } catch (Exception ex) {
             dispatchException = ex;
-            System.err.println("Request processing failed: " + ex.getMessage());
+            logger.error("Request processing failed: " + ex.getMessage());
             response.sendError(500);
         } finally {
             // 7. 执行拦截器afterCompletion
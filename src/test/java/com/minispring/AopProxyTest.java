@@ -0,0 +1,412 @@
+package com.minispring;
+
+import com.minispring.aop.JoinPoint;
+import com.minispring.aop.ProceedingJoinPoint;
+import com.minispring.aop.annotation.Around;
+import com.minispring.aop.annotation.Aspect;
+import com.minispring.aop.annotation.Before;
+import com.minispring.aop.annotation.Pointcut;
+import com.minispring.aop.framework.AdvisorRegistry;
+import com.minispring.aop.framework.AopBeanPostProcessor;
+import com.minispring.aop.framework.AspectInfo;
+import com.minispring.aop.framework.AspectParser;
+import com.minispring.aop.framework.ProxyFactory;
+import com.minispring.aop.pointcut.PointcutExpression;
+import com.minispring.aop.proxy.CglibAopProxy;
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.Scope;
+import com.minispring.ioc.beans.DefaultBeanFactory;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CGLIB代理测试
+ */
+public class AopProxyTest {
+    
+    @Test
+    public void testAdviceChainAppliedPerMethod() {
+        TracingAspect aspect = new TracingAspect();
+        Greeter proxy = (Greeter) ProxyFactory.createProxy(new Greeter(), AspectParser.parseAspect(aspect));
+        
+        assertEquals("hello, a", proxy.greet("a"));
+        assertEquals(2, aspect.calls.size(), "两个通知组成一条链");
+        assertTrue(aspect.calls.contains("around greet") && aspect.calls.contains("before greet"));
+        
+        aspect.calls.clear();
+        assertEquals("bye, a", proxy.farewell("a"));
+        assertEquals(3, proxy.count());
+        assertTrue(aspect.calls.isEmpty(), "未匹配的方法不执行通知");
+        
+        assertEquals("hello, b", proxy.greet("b"));
+        assertEquals(2, aspect.calls.size(), "重复调用使用同一条通知链");
+    }
+    
+    @Test
+    public void testInheritedMethodsAdvisedThroughSubclassProxy() {
+        TracingAspect aspect = new TracingAspect();
+        LoudGreeter proxy = (LoudGreeter) ProxyFactory.createProxy(new LoudGreeter(), AspectParser.parseAspect(aspect));
+        
+        assertEquals("HELLO, C", proxy.greet("c"));
+        assertEquals(2, aspect.calls.size(), "子类覆盖的方法按自身的注解匹配");
+        
+        aspect.calls.clear();
+        assertEquals(3, proxy.count(), "父类中未标注的方法");
+        assertNotNull(proxy.toString());
+        assertTrue(aspect.calls.isEmpty());
+    }
+    
+    @Test
+    public void testUnadvisedMethodsBypassInterceptor() {
+        TracingAspect aspect = new TracingAspect();
+        Greeter proxy = (Greeter) ProxyFactory.createProxy(new Greeter(), AspectParser.parseAspect(aspect));
+        
+        assertFalse(passesThroughInterceptor(proxy.stack("plain")), "未被通知的方法直接转发到目标对象");
+        assertFalse(passesThroughInterceptor(proxy.untracedStack()));
+        assertTrue(passesThroughInterceptor(proxy.tracedStack()), "被通知的方法经拦截器执行通知链");
+        assertEquals(2, aspect.calls.size());
+    }
+    
+    @Test
+    public void testProxyClassReusedAcrossInstances() {
+        TracingAspect aspect = new TracingAspect();
+        long generated = CglibAopProxy.getProxyClassesGenerated();
+        long reused = CglibAopProxy.getProxyClassesReused();
+        
+        List<Counter> proxies = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            proxies.add((Counter) ProxyFactory.createProxy(new Counter(i), AspectParser.parseAspect(aspect)));
+        }
+        
+        assertEquals(1, CglibAopProxy.getProxyClassesGenerated() - generated, "同一类与切面组合只生成一次代理类");
+        assertEquals(49, CglibAopProxy.getProxyClassesReused() - reused);
+        for (int i = 0; i < proxies.size(); i++) {
+            assertSame(proxies.get(0).getClass(), proxies.get(i).getClass());
+            assertEquals(i + 1, proxies.get(i).next(), "每个代理调用各自的目标对象");
+        }
+        assertEquals(50, aspect.calls.size() / 2);
+    }
+    
+    @Test
+    public void testProxyCreatedWithoutRunningConstructor() {
+        TracingAspect aspect = new TracingAspect();
+        Buffer target = new Buffer(64);
+        int constructed = Buffer.constructed.get();
+        
+        Buffer proxy = (Buffer) ProxyFactory.createProxy(target, AspectParser.parseAspect(aspect));
+        
+        assertEquals(constructed, Buffer.constructed.get(), "创建代理不再运行目标类的构造函数");
+        assertNull(proxy.data, "代理实例不持有目标字段的副本");
+        assertEquals(64, proxy.capacity(), "方法调用转发到目标对象");
+        assertEquals(2, aspect.calls.size());
+    }
+    
+    @Test
+    public void testOnlyBeansWithMatchingMethodsAreProxied() throws Exception {
+        PointcutExpression pointcut = new PointcutExpression("execution(* com.minispring.AopProxyTest$Greeter.fare*(..))");
+        assertTrue(pointcut.matchesClass(Greeter.class));
+        assertFalse(pointcut.matchesClass(LoudGreeter.class), "类名前缀不同，无需逐个方法匹配");
+        assertTrue(pointcut.matches(Greeter.class.getMethod("farewell", String.class), Greeter.class));
+        assertFalse(pointcut.matches(Greeter.class.getMethod("greet", String.class), Greeter.class));
+        assertTrue(new PointcutExpression("execution(* com.minispring..*())").matches(Greeter.class.getMethod("count"), Greeter.class));
+        
+        AopBeanPostProcessor processor = new AopBeanPostProcessor(new DefaultBeanFactory());
+        TracingAspect aspect = new TracingAspect();
+        assertSame(aspect, processor.postProcessAfterInitialization(aspect, "tracingAspect"));
+        
+        Greeter greeter = new Greeter();
+        Plain plain = new Plain();
+        Object proxy = processor.postProcessAfterInitialization(greeter, "greeter");
+        assertNotSame(greeter, proxy);
+        assertSame(proxy, processor.postProcessAfterInitialization(greeter, "greeter"), "单例返回缓存的代理");
+        assertSame(plain, processor.postProcessAfterInitialization(plain, "plain"), "没有方法匹配任何切点的Bean不创建代理");
+        FinalGreeter finalGreeter = new FinalGreeter();
+        assertSame(finalGreeter, processor.postProcessAfterInitialization(finalGreeter, "finalGreeter"), "无法代理时返回原对象");
+        
+        assertEquals(1, processor.getProxiedBeanCount(), "返回缓存的代理与创建失败都不计入");
+        assertEquals(1, processor.getSkippedBeanCount());
+    }
+    
+    @Test
+    public void testAdvisorRegistryReturnsIndexedCandidatesInOrder() {
+        AdvisorRegistry registry = new AdvisorRegistry();
+        IndexedAspect aspect = new IndexedAspect();
+        assertTrue(registry.registerAspect(aspect));
+        List<AspectInfo> advisors = registry.getAdvisors();
+        assertEquals(3, advisors.size());
+        assertFalse(registry.registerAspect(aspect), "同一切面只解析一次");
+        assertSame(advisors, registry.getAdvisors());
+        for (AspectInfo advisor : advisors) {
+            assertFalse(advisor.getPointcutExpression().contains("greeterMethods"), "切点方法引用在注册时解析");
+        }
+        
+        List<AspectInfo> greeterAdvisors = registry.getCandidateAdvisors(Greeter.class);
+        assertEquals(2, greeterAdvisors.size(), "java.util下的切点不是Greeter的候选");
+        assertTrue(advisors.indexOf(greeterAdvisors.get(0)) < advisors.indexOf(greeterAdvisors.get(1)), "候选按注册顺序排列");
+        assertEquals(1, registry.getCandidateAdvisors(ArrayList.class).size());
+        assertTrue(registry.getCandidateAdvisors(Plain.class).isEmpty());
+        
+        assertTrue(registry.unregisterAspect(aspect));
+        assertTrue(registry.getCandidateAdvisors(Greeter.class).isEmpty());
+    }
+    
+    @Test
+    public void testProxyClassReusedAcrossContexts() {
+        AnnotationConfigApplicationContext first =
+                new AnnotationConfigApplicationContext(ContextAspect.class, ContextCounter.class);
+        long generated = CglibAopProxy.getProxyClassesGenerated();
+        long reused = CglibAopProxy.getProxyClassesReused();
+        AnnotationConfigApplicationContext second =
+                new AnnotationConfigApplicationContext(ContextAspect.class, ContextCounter.class);
+        
+        ContextCounter firstCounter = first.getBean(ContextCounter.class);
+        ContextCounter secondCounter = second.getBean(ContextCounter.class);
+        assertSame(firstCounter.getClass(), secondCounter.getClass(), "各容器的切面实例不同但通知结构相同，复用同一个代理类");
+        assertEquals(generated, CglibAopProxy.getProxyClassesGenerated(), "第二个容器不再生成代理类");
+        assertEquals(1, CglibAopProxy.getProxyClassesReused() - reused);
+        
+        assertEquals(1, firstCounter.next());
+        assertEquals(1, secondCounter.next());
+        assertEquals(2, secondCounter.next());
+        assertEquals(1, first.getBean(ContextAspect.class).getCalls(), "代理调用所在容器的切面实例");
+        assertEquals(2, second.getBean(ContextAspect.class).getCalls());
+        first.close();
+        second.close();
+    }
+    
+    @Test
+    public void testAdvisedPrototypeGetsNewProxyPerInstance() {
+        AnnotationConfigApplicationContext context =
+                new AnnotationConfigApplicationContext(ContextAspect.class, PrototypeCounter.class);
+        long generated = CglibAopProxy.getProxyClassesGenerated();
+        
+        PrototypeCounter first = context.getBean(PrototypeCounter.class);
+        PrototypeCounter second = context.getBean(PrototypeCounter.class);
+        
+        assertNotSame(first, second, "原型Bean每次获取得到新的代理");
+        assertNotSame(first.self(), second.self(), "各代理包装各自的目标对象");
+        assertEquals(1, first.next());
+        assertEquals(1, second.next(), "两个实例互不共享状态");
+        assertSame(first.getClass(), second.getClass());
+        assertEquals(1, CglibAopProxy.getProxyClassesGenerated() - generated, "同一原型的代理只生成一次代理类");
+        assertEquals(2, context.getBean(ContextAspect.class).getCalls());
+        context.close();
+    }
+    
+    @Test
+    public void testClosedContextsDoNotPinAspectInstances() throws Exception {
+        List<WeakReference<ContextAspect>> aspects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            AnnotationConfigApplicationContext context =
+                    new AnnotationConfigApplicationContext(ContextAspect.class, ContextCounter.class);
+            ContextAspect aspect = context.getBean(ContextAspect.class);
+            assertEquals(1, context.getBean(ContextCounter.class).next());
+            assertEquals(1, aspect.getCalls(), "每个容器的代理调用自己的切面实例");
+            aspects.add(new WeakReference<>(aspect));
+            context.close();
+        }
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (countReachable(aspects) > 0 && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(0, countReachable(aspects), "通知链表按通知结构缓存，不引用已关闭容器的切面实例");
+    }
+    
+    private static int countReachable(List<? extends WeakReference<?>> references) {
+        int reachable = 0;
+        for (WeakReference<?> reference : references) {
+            if (reference.get() != null) {
+                reachable++;
+            }
+        }
+        return reachable;
+    }
+    
+    private static boolean passesThroughInterceptor(StackTraceElement[] stack) {
+        for (StackTraceElement element : stack) {
+            if (element.getClassName().equals(CglibAopProxy.class.getName()) && element.getMethodName().equals("intercept")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface Traced {
+    }
+    
+    @Aspect
+    public static class TracingAspect {
+        final List<String> calls = new ArrayList<>();
+        
+        @Around("@annotation(com.minispring.AopProxyTest$Traced)")
+        public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+            calls.add("around " + joinPoint.getMethod().getName());
+            return joinPoint.proceed();
+        }
+        
+        @Before("@annotation(com.minispring.AopProxyTest$Traced)")
+        public void before(JoinPoint joinPoint) {
+            calls.add("before " + joinPoint.getMethod().getName());
+        }
+    }
+    
+    @Aspect
+    @Component
+    public static class ContextAspect {
+        private final AtomicInteger calls = new AtomicInteger();
+        
+        @Before("@annotation(com.minispring.AopProxyTest$Traced)")
+        public void before(JoinPoint joinPoint) {
+            calls.incrementAndGet();
+        }
+        
+        public int getCalls() {
+            return calls.get();
+        }
+    }
+    
+    @Aspect
+    public static class IndexedAspect {
+        @Pointcut("execution(* com.minispring.AopProxyTest$Greeter.*(..))")
+        public void greeterMethods() {
+        }
+        
+        @Before("greeterMethods()")
+        public void greeter(JoinPoint joinPoint) {
+        }
+        
+        @Before("within(java.util..*)")
+        public void collections(JoinPoint joinPoint) {
+        }
+        
+        @Before("within(com.example..*) || @annotation(com.minispring.AopProxyTest$Traced)")
+        public void traced(JoinPoint joinPoint) {
+        }
+    }
+    
+    public static class Greeter {
+        @Traced
+        public String greet(String name) {
+            return "hello, " + name;
+        }
+        
+        public String farewell(String name) {
+            return "bye, " + name;
+        }
+        
+        public int count() {
+            return 3;
+        }
+        
+        public StackTraceElement[] stack(String ignored) {
+            return new Throwable().getStackTrace();
+        }
+        
+        public StackTraceElement[] untracedStack() {
+            return new Throwable().getStackTrace();
+        }
+        
+        @Traced
+        public StackTraceElement[] tracedStack() {
+            return new Throwable().getStackTrace();
+        }
+    }
+    
+    public static class Counter {
+        private int value;
+        
+        public Counter() {
+        }
+        
+        Counter(int value) {
+            this.value = value;
+        }
+        
+        @Traced
+        public int next() {
+            return ++value;
+        }
+    }
+    
+    @Component
+    public static class ContextCounter {
+        private int value;
+        
+        @Traced
+        public int next() {
+            return ++value;
+        }
+    }
+    
+    @Component
+    @Scope("prototype")
+    public static class PrototypeCounter {
+        private int value;
+        
+        @Traced
+        public int next() {
+            return ++value;
+        }
+        
+        public PrototypeCounter self() {
+            return this;
+        }
+    }
+    
+    /**
+     * 没有无参构造函数
+     */
+    public static class Buffer {
+        static final AtomicInteger constructed = new AtomicInteger();
+        final byte[] data;
+        
+        public Buffer(int size) {
+            this.data = new byte[size];
+            constructed.incrementAndGet();
+        }
+        
+        @Traced
+        public int capacity() {
+            return data.length;
+        }
+    }
+    
+    /**
+     * final类无法生成CGLIB子类
+     */
+    public static final class FinalGreeter {
+        @Traced
+        public String greet(String name) {
+            return "hi, " + name;
+        }
+    }
+    
+    public static class Plain {
+        public String name() {
+            return "plain";
+        }
+    }
+    
+    public static class LoudGreeter extends Greeter {
+        @Traced
+        @Override
+        public String greet(String name) {
+            return super.greet(name).toUpperCase();
+        }
+    }
+}
\ No newline at end of file
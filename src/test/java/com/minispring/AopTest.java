@@ -1,8 +1,9 @@
 package com.minispring;
 
-import com.minispring.ioc.context.AnnotationConfigApplicationContext;
 import com.minispring.example.aop.AopConfig;
 import com.minispring.example.aop.BusinessService;
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.test.context.ContextConfiguration;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,20 +15,18 @@ import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * AOP功能测试类
+ * 各测试方法只调用无状态的业务方法，共享缓存的容器
  */
+@ContextConfiguration(classes = AopConfig.class)
 public class AopTest {
     
-    private AnnotationConfigApplicationContext context;
+    @Autowired
     private BusinessService businessService;
     private ByteArrayOutputStream outputStream;
     private PrintStream originalOut;
     
     @BeforeEach
     void setUp() {
-        // 创建应用上下文
-        context = new AnnotationConfigApplicationContext(AopConfig.class);
-        businessService = context.getBean(BusinessService.class);
-        
         // 捕获系统输出用于验证AOP是否生效
         outputStream = new ByteArrayOutputStream();
         originalOut = System.out;
@@ -38,10 +37,6 @@ public class AopTest {
     void tearDown() {
         // 恢复系统输出
         System.setOut(originalOut);
-        
-        if (context != null) {
-            context.close();
-        }
     }
     
     @Test
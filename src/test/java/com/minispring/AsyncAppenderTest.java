@@ -0,0 +1,200 @@
+package com.minispring;
+
+import com.minispring.logging.AsyncAppender;
+import com.minispring.logging.LogEvent;
+import com.minispring.logging.LogLevel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 异步日志追加器测试
+ */
+public class AsyncAppenderTest {
+    
+    private static final String LOGGER_NAME = "AsyncAppenderTest";
+    
+    @Test
+    public void testConcurrentProducersKeepPerThreadOrder() throws Exception {
+        CapturedOutput output = CapturedOutput.start(null);
+        AsyncAppender appender = new AsyncAppender(64, 16);
+        try {
+            int producers = 4;
+            int eventsPerProducer = 500;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        appender.append(event("p" + producer + "-" + i));
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join(10000);
+            }
+            appender.flush();
+            
+            List<String> messages = output.messages();
+            assertEquals(producers * eventsPerProducer, messages.size(), "日志不丢失");
+            int[] next = new int[producers];
+            for (String message : messages) {
+                int producer = message.charAt(1) - '0';
+                int index = Integer.parseInt(message.substring(message.indexOf('-') + 1));
+                assertEquals(next[producer], index, "同一线程的日志按提交顺序输出");
+                next[producer]++;
+            }
+        } finally {
+            appender.close();
+            output.stop();
+        }
+    }
+    
+    @Test
+    public void testFullBufferBlocksProducerUntilConsumerCatchesUp() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        CapturedOutput output = CapturedOutput.start(gate);
+        AsyncAppender appender = new AsyncAppender(4, 1);
+        try {
+            int total = 10;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < total; i++) {
+                    appender.append(event("event-" + i));
+                }
+            });
+            producer.start();
+            
+            // 消费者卡在第一次写出上，生产者填满缓冲区后等待
+            producer.join(300);
+            assertTrue(producer.isAlive(), "缓冲区已满时生产者等待而不是丢弃日志");
+            assertTrue(appender.getPendingCount() <= 4, "待输出事件不超过缓冲区容量");
+            assertTrue(output.messages().isEmpty());
+            
+            gate.countDown();
+            producer.join(5000);
+            assertFalse(producer.isAlive());
+            appender.flush();
+            
+            List<String> messages = output.messages();
+            assertEquals(total, messages.size());
+            for (int i = 0; i < total; i++) {
+                assertEquals("event-" + i, messages.get(i));
+            }
+        } finally {
+            gate.countDown();
+            appender.close();
+            output.stop();
+        }
+    }
+    
+    @Test
+    public void testFlushAndCloseWriteAllPendingEvents() throws Exception {
+        CapturedOutput output = CapturedOutput.start(null);
+        AsyncAppender appender = new AsyncAppender(2048, 8);
+        try {
+            for (int i = 0; i < 500; i++) {
+                appender.append(event("flush-" + i));
+            }
+            appender.flush();
+            assertEquals(500, output.messages().size(), "flush返回时之前提交的日志已全部输出");
+            assertEquals(0, appender.getPendingCount());
+            
+            for (int i = 0; i < 500; i++) {
+                appender.append(event("close-" + i));
+            }
+            appender.close();
+            List<String> messages = output.messages();
+            assertEquals(1000, messages.size(), "close返回时剩余日志已全部输出");
+            assertEquals("close-499", messages.get(999));
+            
+            // 关闭后直接写出，不再经过缓冲区
+            appender.append(event("after-close"));
+            assertEquals("after-close", output.messages().get(1000));
+            assertEquals(0, appender.getPendingCount());
+        } finally {
+            appender.close();
+            output.stop();
+        }
+    }
+    
+    private static LogEvent event(String message) {
+        return new LogEvent(LogLevel.INFO, LOGGER_NAME, message, null);
+    }
+    
+    /**
+     * 替换System.out并收集本测试产生的日志消息；gate不为null时写出会阻塞到gate打开
+     */
+    static class CapturedOutput extends OutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final CountDownLatch gate;
+        private final PrintStream original;
+        
+        private CapturedOutput(CountDownLatch gate) {
+            this.gate = gate;
+            this.original = System.out;
+        }
+        
+        static CapturedOutput start(CountDownLatch gate) {
+            CapturedOutput output = new CapturedOutput(gate);
+            System.setOut(new PrintStream(output, true));
+            return output;
+        }
+        
+        void stop() {
+            System.setOut(original);
+        }
+        
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+        
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            if (gate != null) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (buffer) {
+                buffer.write(bytes, offset, length);
+            }
+        }
+        
+        List<String> messages() {
+            String text;
+            synchronized (buffer) {
+                text = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+            }
+            String marker = " " + LOGGER_NAME + " - ";
+            List<String> messages = new ArrayList<>();
+            for (String line : text.split("\\R")) {
+                int index = line.indexOf(marker);
+                if (index >= 0) {
+                    messages.add(line.substring(index + marker.length()));
+                }
+            }
+            return messages;
+        }
+    }
+}
\ No newline at end of file
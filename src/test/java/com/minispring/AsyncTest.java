@@ -0,0 +1,204 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.PreDestroy;
+import com.minispring.ioc.beans.BeanDefinition;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.scheduling.annotation.Async;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Async异步执行测试
+ */
+public class AsyncTest {
+    
+    @Test
+    public void testAsyncMethodRunsOnExecutorAndReturnsResult() throws Exception {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AsyncService.class);
+        try {
+            AsyncService service = context.getBean(AsyncService.class);
+            String caller = Thread.currentThread().getName();
+            
+            String worker = service.threadName().get(5, TimeUnit.SECONDS);
+            assertNotEquals(caller, worker, "@Async方法不在调用线程中执行");
+            assertTrue(worker.startsWith("minispring-task-"), "使用默认执行器taskExecutor: " + worker);
+            
+            Future<Integer> future = service.compute(20);
+            assertEquals(42, future.get(5, TimeUnit.SECONDS).intValue(), "Future返回值传回调用方");
+            
+            CountDownLatch latch = new CountDownLatch(1);
+            service.fire(latch);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(service.getFireThread().startsWith("minispring-task-"), "void方法同样异步执行");
+        } finally {
+            context.close();
+        }
+    }
+    
+    @Test
+    public void testAsyncExceptionReachesCaller() throws Exception {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AsyncService.class);
+        try {
+            AsyncService service = context.getBean(AsyncService.class);
+            
+            CompletableFuture<String> thrown = service.fail();
+            ExecutionException e = assertThrows(ExecutionException.class, () -> thrown.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException, "方法抛出的异常作为Future的失败原因");
+            assertEquals("boom", e.getCause().getMessage());
+            
+            CompletableFuture<String> failedFuture = service.failedFuture();
+            e = assertThrows(ExecutionException.class, () -> failedFuture.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalArgumentException, "方法返回的失败Future同样传回调用方");
+        } finally {
+            context.close();
+        }
+    }
+    
+    @Test
+    public void testClassLevelExecutorResolvedPerTargetClass() throws Exception {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                IoExecutor.class, CpuExecutor.class, IoWorker.class, CpuWorker.class);
+        try {
+            IoWorker ioWorker = context.getBean(IoWorker.class);
+            CpuWorker cpuWorker = context.getBean(CpuWorker.class);
+            
+            assertEquals("io", ioWorker.threadName().get(5, TimeUnit.SECONDS), "继承的方法使用子类@Async指定的执行器");
+            assertEquals("cpu", cpuWorker.threadName().get(5, TimeUnit.SECONDS), "同一继承方法在不同子类上使用各自的执行器");
+            assertEquals("io", ioWorker.threadName().get(5, TimeUnit.SECONDS));
+            
+            // 替换执行器定义后旧执行器被关闭，之后的调用使用新执行器
+            context.registerBeanDefinition("ioExecutor", new BeanDefinition(ReplacementIoExecutor.class));
+            assertEquals("io-replaced", ioWorker.threadName().get(5, TimeUnit.SECONDS), "执行器替换后不再使用已关闭的旧执行器");
+            assertEquals("cpu", cpuWorker.threadName().get(5, TimeUnit.SECONDS));
+        } finally {
+            context.close();
+        }
+    }
+    
+    /**
+     * 单线程执行器，线程名即执行器名
+     */
+    public static class NamedExecutor implements Executor {
+        private final ExecutorService delegate;
+        
+        NamedExecutor(String name) {
+            this.delegate = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(command);
+        }
+        
+        @PreDestroy
+        public void shutdown() {
+            delegate.shutdown();
+        }
+    }
+    
+    @Component("ioExecutor")
+    public static class IoExecutor extends NamedExecutor {
+        public IoExecutor() {
+            super("io");
+        }
+        
+        @PreDestroy
+        @Override
+        public void shutdown() {
+            super.shutdown();
+        }
+    }
+    
+    public static class ReplacementIoExecutor extends NamedExecutor {
+        public ReplacementIoExecutor() {
+            super("io-replaced");
+        }
+        
+        @PreDestroy
+        @Override
+        public void shutdown() {
+            super.shutdown();
+        }
+    }
+    
+    @Component("cpuExecutor")
+    public static class CpuExecutor extends NamedExecutor {
+        public CpuExecutor() {
+            super("cpu");
+        }
+        
+        @PreDestroy
+        @Override
+        public void shutdown() {
+            super.shutdown();
+        }
+    }
+    
+    public static class Worker {
+        public CompletableFuture<String> threadName() {
+            return CompletableFuture.completedFuture(Thread.currentThread().getName());
+        }
+    }
+    
+    @Component
+    @Async("ioExecutor")
+    public static class IoWorker extends Worker {
+    }
+    
+    @Component
+    @Async("cpuExecutor")
+    public static class CpuWorker extends Worker {
+    }
+    
+    @Component
+    public static class AsyncService {
+        private volatile String fireThread;
+        
+        public String getFireThread() {
+            return fireThread;
+        }
+        
+        @Async
+        public CompletableFuture<String> threadName() {
+            return CompletableFuture.completedFuture(Thread.currentThread().getName());
+        }
+        
+        @Async
+        public Future<Integer> compute(int base) {
+            return CompletableFuture.completedFuture(base + 22);
+        }
+        
+        @Async
+        public void fire(CountDownLatch latch) {
+            fireThread = Thread.currentThread().getName();
+            latch.countDown();
+        }
+        
+        @Async
+        public CompletableFuture<String> fail() {
+            throw new IllegalStateException("boom");
+        }
+        
+        @Async
+        public CompletableFuture<String> failedFuture() {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalArgumentException("bad"));
+            return future;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.minispring;
+
+import com.minispring.ioc.beans.BeanDefinition;
+import com.minispring.ioc.beans.BeanFactoryStatistics;
+import com.minispring.ioc.beans.BeansException;
+import com.minispring.ioc.beans.DefaultBeanFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bean工厂运行统计测试
+ */
+public class BeanFactoryStatisticsTest {
+    
+    @Test
+    public void testLookupsAreCountedOnce() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        BeanFactoryStatistics statistics = new BeanFactoryStatistics();
+        beanFactory.setStatistics(statistics);
+        beanFactory.registerBeanDefinition("greeter", new BeanDefinition(Greeter.class));
+        
+        beanFactory.getBean("greeter");
+        beanFactory.getBean("greeter", Greeter.class);
+        beanFactory.getBean(Greeter.class);
+        beanFactory.getBean(Greeter.class);
+        beanFactory.getBean(Greeter.class);
+        
+        assertEquals(Collections.singletonMap("greeter", 2L), statistics.getGetBeanCountsByName(),
+                "按类型获取不再按名称重复计数");
+        assertEquals(Collections.singletonMap(Greeter.class.getName(), 3L), statistics.getGetBeanCountsByType());
+        assertEquals(5, statistics.getGetBeanCount());
+        assertEquals(0, statistics.getFailedLookupCount());
+    }
+    
+    @Test
+    public void testUnknownNamesDoNotGrowCounters() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        BeanFactoryStatistics statistics = new BeanFactoryStatistics();
+        beanFactory.setStatistics(statistics);
+        beanFactory.registerBeanDefinition("greeter", new BeanDefinition(Greeter.class));
+        
+        for (int i = 0; i < 100; i++) {
+            String name = "missing" + i;
+            assertThrows(BeansException.class, () -> beanFactory.getBean(name));
+        }
+        assertThrows(BeansException.class, () -> beanFactory.getBean(Runnable.class));
+        
+        assertTrue(statistics.getGetBeanCountsByName().isEmpty(), "不存在的名称不进入计数表");
+        assertTrue(statistics.getGetBeanCountsByType().isEmpty(), "找不到的类型不进入计数表");
+        assertEquals(101, statistics.getFailedLookupCount());
+        assertEquals(0, statistics.getGetBeanCount());
+    }
+    
+    public static class Greeter {
+    }
+}
\ No newline at end of file
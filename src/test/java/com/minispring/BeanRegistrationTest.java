@@ -0,0 +1,230 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.PreDestroy;
+import com.minispring.ioc.beans.BeanDefinition;
+import com.minispring.ioc.beans.BeansException;
+import com.minispring.ioc.beans.DefaultBeanFactory;
+import com.minispring.ioc.beans.DisposableBean;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 运行期间注册、替换与删除Bean定义测试
+ */
+public class BeanRegistrationTest {
+    
+    static final List<String> destroyed = Collections.synchronizedList(new ArrayList<>());
+    
+    @Test
+    public void testReplacingDefinitionRecreatesDependents() {
+        AnnotationConfigApplicationContext context =
+                new AnnotationConfigApplicationContext(Store.class, OrderService.class, OrderController.class, Clock.class);
+        OrderService oldService = context.getBean(OrderService.class);
+        OrderController oldController = context.getBean(OrderController.class);
+        Clock clock = context.getBean(Clock.class);
+        assertEquals("memory", oldController.describe());
+        destroyed.clear();
+        
+        context.registerBeanDefinition("store", new BeanDefinition(DiskStore.class));
+        
+        assertEquals(Arrays.asList("orderController", "orderService", "store"), destroyed,
+                "依赖方先于被依赖的Bean销毁");
+        OrderService newService = context.getBean(OrderService.class);
+        OrderController newController = context.getBean(OrderController.class);
+        assertNotSame(oldService, newService, "注入了旧Bean的单例被重新创建");
+        assertNotSame(oldController, newController, "间接依赖方同样被重新创建");
+        assertSame(newService, newController.getOrderService());
+        assertEquals("disk", newController.describe(), "重新创建时注入新定义的Bean");
+        assertSame(clock, context.getBean(Clock.class), "无关的单例不受影响");
+        
+        destroyed.clear();
+        context.close();
+        assertEquals(Arrays.asList("orderController", "orderService", "store"), destroyed,
+                "关闭时按依赖关系逆序销毁");
+    }
+    
+    @Test
+    public void testRemovingDefinitionDestroysDependents() {
+        AnnotationConfigApplicationContext context =
+                new AnnotationConfigApplicationContext(Store.class, OrderService.class, OrderController.class, Clock.class);
+        Clock clock = context.getBean(Clock.class);
+        destroyed.clear();
+        
+        context.removeBeanDefinition("store");
+        
+        assertEquals(Arrays.asList("orderController", "orderService", "store"), destroyed);
+        assertFalse(context.containsBean("store"));
+        assertThrows(BeansException.class, () -> context.getBean(OrderService.class), "缺少依赖时无法重新创建");
+        assertSame(clock, context.getBean(Clock.class));
+        
+        // 补回定义后依赖方可以重新创建
+        context.registerBeanDefinition("store", new BeanDefinition(Store.class));
+        assertEquals("memory", context.getBean(OrderController.class).describe());
+        
+        destroyed.clear();
+        context.close();
+        assertEquals(Arrays.asList("orderController", "orderService", "store"), destroyed);
+    }
+    
+    @Test
+    public void testDestroyCallbacksRunInOrder() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("store", new BeanDefinition(Store.class));
+        beanFactory.registerBeanDefinition("orderService", new BeanDefinition(OrderService.class));
+        beanFactory.getBean(OrderService.class);
+        assertArrayEquals(new String[]{"orderService"}, beanFactory.getDependentBeans("store"));
+        destroyed.clear();
+        
+        beanFactory.destroySingleton("orderService");
+        
+        assertEquals(Collections.singletonList("orderService"), destroyed, "只销毁指定单例，被依赖的Bean保留");
+        assertEquals(0, beanFactory.getDependentBeans("store").length, "依赖关系随销毁一起清除");
+        
+        destroyed.clear();
+        beanFactory.registerBeanDefinition("orderService", new BeanDefinition(AuditedOrderService.class));
+        beanFactory.getBean(OrderService.class);
+        beanFactory.destroySingletons();
+        assertEquals(Arrays.asList("orderService:destroy", "orderService:preDestroy", "store"), destroyed,
+                "后创建的先销毁，DisposableBean.destroy()先于@PreDestroy执行");
+    }
+    
+    @Test
+    public void testTypeLookupsReadConsistentSnapshotDuringRegistration() throws Exception {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("store", new BeanDefinition(Store.class));
+        beanFactory.registerBeanDefinition("clock", new BeanDefinition(Clock.class));
+        
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicInteger reads = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                beanFactory.registerBeanDefinition("extra" + i, new BeanDefinition(DiskStore.class));
+                beanFactory.registerBeanDefinition("extra" + i, new BeanDefinition(Clock.class));
+                beanFactory.removeBeanDefinition("extra" + i);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            while (writer.isAlive() && failure.get() == null) {
+                String[] names = beanFactory.getBeanNamesForType(Store.class);
+                if (names.length == 0 || names.length > 2 || !"store".equals(names[0])) {
+                    failure.compareAndSet(null, Arrays.toString(names));
+                }
+                String[] all = beanFactory.getBeanDefinitionNames();
+                if (!"store".equals(all[0]) || !"clock".equals(all[1])) {
+                    failure.compareAndSet(null, Arrays.toString(all));
+                }
+                reads.incrementAndGet();
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join(30000);
+        reader.join(30000);
+        
+        assertNull(failure.get(), "并发注册时读到的名称与定义来自同一个快照");
+        assertTrue(reads.get() > 0);
+        assertArrayEquals(new String[]{"store"}, beanFactory.getBeanNamesForType(Store.class));
+        assertArrayEquals(new String[]{"store", "clock"}, beanFactory.getBeanDefinitionNames());
+    }
+    
+    @Test
+    public void testAutowiringExternalObjectDoesNotTrackDependents() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("store", new BeanDefinition(Store.class));
+        
+        OrderService external = new OrderService();
+        beanFactory.autowireBean(external);
+        
+        assertEquals("memory", external.storeName());
+        assertEquals(0, beanFactory.getDependentBeans("store").length, "容器外的对象不登记为依赖方");
+        destroyed.clear();
+        beanFactory.destroySingleton("store");
+        assertEquals(Collections.singletonList("store"), destroyed);
+    }
+    
+    @Component("store")
+    public static class Store {
+        public String name() {
+            return "memory";
+        }
+        
+        @PreDestroy
+        public void close() {
+            destroyed.add("store");
+        }
+    }
+    
+    public static class DiskStore extends Store {
+        @Override
+        public String name() {
+            return "disk";
+        }
+        
+        @PreDestroy
+        @Override
+        public void close() {
+            super.close();
+        }
+    }
+    
+    @Component("orderService")
+    public static class OrderService {
+        @Autowired
+        private Store store;
+        
+        public String storeName() {
+            return store.name();
+        }
+        
+        @PreDestroy
+        public void close() {
+            destroyed.add("orderService");
+        }
+    }
+    
+    public static class AuditedOrderService extends OrderService implements DisposableBean {
+        @Override
+        public void destroy() {
+            destroyed.add("orderService:destroy");
+        }
+        
+        @PreDestroy
+        public void preDestroy() {
+            destroyed.add("orderService:preDestroy");
+        }
+    }
+    
+    @Component("orderController")
+    public static class OrderController {
+        @Autowired
+        private OrderService orderService;
+        
+        public OrderService getOrderService() {
+            return orderService;
+        }
+        
+        public String describe() {
+            return orderService.storeName();
+        }
+        
+        @PreDestroy
+        public void close() {
+            destroyed.add("orderController");
+        }
+    }
+    
+    @Component("clock")
+    public static class Clock {
+    }
+}
\ No newline at end of file
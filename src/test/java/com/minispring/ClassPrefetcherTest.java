@@ -0,0 +1,120 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.beans.BeanDefinition;
+import com.minispring.ioc.beans.DefaultBeanFactory;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.ioc.context.ClassPrefetcher;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 组件类预取测试
+ */
+public class ClassPrefetcherTest {
+    
+    @Test
+    public void testRecordsCreationOrderAndReleasesStateOnFinish() throws Exception {
+        File orderFile = File.createTempFile("prefetch-order", ".txt");
+        orderFile.deleteOnExit();
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        ClassPrefetcher prefetcher = new ClassPrefetcher(1, orderFile);
+        beanFactory.addBeanPostProcessor(prefetcher);
+        beanFactory.registerBeanDefinition("repository", new BeanDefinition(Repository.class));
+        beanFactory.registerBeanDefinition("service", new BeanDefinition(Service.class));
+        beanFactory.registerBeanDefinition("controller", new BeanDefinition(Controller.class));
+        
+        beanFactory.getBean("controller");
+        beanFactory.getBean("repository");
+        
+        // 依赖在注入时创建，记录的是主线程实际开始创建的顺序，重复使用的类只记录一次
+        assertEquals(Arrays.asList(Controller.class, Service.class, Repository.class), prefetcher.getObservedOrder());
+        
+        prefetcher.finish();
+        assertEquals(Arrays.asList(Controller.class.getName(), Service.class.getName(), Repository.class.getName()),
+                Files.readAllLines(orderFile.toPath(), StandardCharsets.UTF_8), "顺序文件按首次使用顺序写出");
+        assertTrue(prefetcher.getObservedOrder().isEmpty(), "finish后释放记录的类");
+        
+        assertTrue(beanFactory.removeBeanPostProcessor(prefetcher));
+        assertFalse(beanFactory.removeBeanPostProcessor(prefetcher));
+        assertEquals(0, beanFactory.getBeanPostProcessorCount());
+        beanFactory.destroySingletons();
+    }
+    
+    @Test
+    public void testSkipsClassesAlreadyUsedByMainThread() throws Exception {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        ClassPrefetcher prefetcher = new ClassPrefetcher(2, null);
+        beanFactory.addBeanPostProcessor(prefetcher);
+        beanFactory.registerBeanDefinition("repository", new BeanDefinition(Repository.class));
+        beanFactory.getBean("repository");
+        
+        // Service是Controller的字段类型，作为依赖被链接后仍按组件类处理并计数
+        List<Class<?>> components = Arrays.asList(Repository.class, Controller.class, Service.class, Standalone.class);
+        prefetcher.prefetch(components);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (prefetcher.getPrefetchedCount() + prefetcher.getSkippedCount() < components.size()
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        
+        assertEquals(1, prefetcher.getSkippedCount(), "主线程已创建的类不再预取");
+        assertEquals(3, prefetcher.getPrefetchedCount(), "其余组件类各预取一次");
+        prefetcher.finish();
+        assertEquals(3, prefetcher.getPrefetchedCount(), "计数在finish后保留");
+        beanFactory.destroySingletons();
+    }
+    
+    @Test
+    public void testPrefetchingIsOptInAndWritesOrderWhenEnabled() throws Exception {
+        File orderFile = File.createTempFile("prefetch-order", ".txt");
+        orderFile.deleteOnExit();
+        assertTrue(orderFile.delete());
+        
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(Repository.class, Service.class, Controller.class);
+        context.setProperty("minispring.prefetch.order.file", orderFile.getPath());
+        context.refresh();
+        assertFalse(orderFile.exists(), "未开启时不创建预取器");
+        context.close();
+        
+        context = new AnnotationConfigApplicationContext();
+        context.register(Repository.class, Service.class, Controller.class);
+        context.setProperty("minispring.prefetch.enabled", "true");
+        context.setProperty("minispring.prefetch.order.file", orderFile.getPath());
+        context.refresh();
+        List<String> order = Files.readAllLines(orderFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, order.size(), "刷新结束时写出观察到的顺序: " + order);
+        assertTrue(order.containsAll(Arrays.asList(
+                Repository.class.getName(), Service.class.getName(), Controller.class.getName())));
+        context.close();
+    }
+    
+    @Component
+    public static class Repository {
+    }
+    
+    @Component
+    public static class Service {
+        @Autowired
+        private Repository repository;
+    }
+    
+    @Component
+    public static class Controller {
+        @Autowired
+        private Service service;
+    }
+    
+    public static class Standalone {
+    }
+}
\ No newline at end of file
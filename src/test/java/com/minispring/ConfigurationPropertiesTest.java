@@ -0,0 +1,116 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.ConfigurationProperties;
+import com.minispring.ioc.annotation.Value;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.ioc.context.properties.ConfigurationPropertiesBinder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @ConfigurationProperties绑定测试
+ */
+public class ConfigurationPropertiesTest {
+    
+    @Test
+    public void testBindNestedPropertiesWithRelaxedNames() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setProperty("db.url", "jdbc:h2:mem");
+        context.setProperty("db.mode", "safe");
+        context.setProperty("db.pool.max-size", "20");
+        context.setProperty("db.pool.timeout_ms", "300");
+        context.setProperty("app.name", "orders");
+        context.register(DataSourceProperties.class);
+        context.refresh();
+        
+        DataSourceProperties properties = context.getBean(DataSourceProperties.class);
+        assertEquals("jdbc:h2:mem", properties.getUrl());
+        assertEquals(1, properties.urlSetterCalls);
+        assertEquals(5432, properties.port, "未配置的属性保留默认值");
+        assertEquals(DataSourceProperties.Mode.SAFE, properties.mode);
+        assertEquals(20, properties.pool.maxSize);
+        assertEquals(300L, properties.pool.timeoutMs);
+        // @Value同样读取容器属性
+        assertEquals("orders", properties.appName);
+        
+        context.close();
+    }
+    
+    @Test
+    public void testRebindOnlyWhenRelevantPropertiesChange() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setProperty("db.url", "jdbc:a");
+        context.register(DataSourceProperties.class);
+        context.refresh();
+        
+        DataSourceProperties properties = context.getBean(DataSourceProperties.class);
+        ConfigurationPropertiesBinder binder = context.getConfigurationPropertiesBinder();
+        ConfigurationPropertiesBinder.BindingSnapshot snapshot = binder.getSnapshot(DataSourceProperties.class, "db");
+        
+        context.setProperty("unrelated.key", "1");
+        assertSame(snapshot, binder.getSnapshot(DataSourceProperties.class, "db"));
+        assertEquals(1, properties.urlSetterCalls);
+        
+        context.setProperty("db.url", "jdbc:b");
+        assertNotSame(snapshot, binder.getSnapshot(DataSourceProperties.class, "db"));
+        assertEquals("jdbc:b", properties.getUrl());
+        assertEquals(2, properties.urlSetterCalls);
+        
+        context.close();
+    }
+    
+    @Test
+    public void testSystemPropertyChangesInvalidateSnapshot() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setProperty("db.url", "jdbc:a");
+        context.register(DataSourceProperties.class);
+        context.refresh();
+        ConfigurationPropertiesBinder binder = context.getConfigurationPropertiesBinder();
+        ConfigurationPropertiesBinder.BindingSnapshot snapshot = binder.getSnapshot(DataSourceProperties.class, "db");
+        
+        try {
+            System.setProperty("db.url", "jdbc:system");
+            assertNotSame(snapshot, binder.getSnapshot(DataSourceProperties.class, "db"), "系统属性变化后重建快照");
+            assertEquals("jdbc:system", binder.bind(DataSourceProperties.class, "db").getUrl(), "系统属性优先");
+            
+            System.setProperty("db.url", "jdbc:changed");
+            assertEquals("jdbc:changed", binder.bind(DataSourceProperties.class, "db").getUrl(), "再次修改同样可见");
+        } finally {
+            System.clearProperty("db.url");
+        }
+        assertEquals("jdbc:a", binder.bind(DataSourceProperties.class, "db").getUrl(), "清除后回到容器属性");
+        context.close();
+    }
+    
+    @Component
+    @ConfigurationProperties(prefix = "db")
+    public static class DataSourceProperties {
+        
+        public enum Mode { FAST, SAFE }
+        
+        private String url;
+        private int port = 5432;
+        private Mode mode;
+        private Pool pool;
+        private int urlSetterCalls;
+        
+        @Value("${app.name:none}")
+        private String appName;
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+            this.urlSetterCalls++;
+        }
+    }
+    
+    public static class Pool {
+        private int maxSize;
+        private long timeoutMs;
+    }
+}
\ No newline at end of file
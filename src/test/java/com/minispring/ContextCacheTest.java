@@ -0,0 +1,87 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.Value;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.test.context.ContextCache;
+import com.minispring.test.context.ContextConfiguration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试容器缓存测试
+ */
+public class ContextCacheTest {
+    
+    @Test
+    public void testReuseContextForSameConfiguration() {
+        ContextCache cache = new ContextCache(4);
+        
+        AnnotationConfigApplicationContext first = cache.getContext(FirstTestCase.class);
+        AnnotationConfigApplicationContext second = cache.getContext(SecondTestCase.class);
+        assertSame(first, second, "配置类与属性相同（属性顺序不同）的测试类共享容器");
+        assertEquals("orders", first.getBean(GreetingService.class).name);
+        
+        AnnotationConfigApplicationContext other = cache.getContext(OtherPropertiesTestCase.class);
+        assertNotSame(first, other);
+        assertEquals("billing", other.getBean(GreetingService.class).name);
+        
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+        
+        cache.clear();
+        assertFalse(first.isActive());
+        assertFalse(other.isActive());
+    }
+    
+    @Test
+    public void testEvictLeastRecentlyUsedAndDirtyContexts() {
+        ContextCache cache = new ContextCache(2);
+        
+        AnnotationConfigApplicationContext first = cache.getContext(FirstTestCase.class);
+        AnnotationConfigApplicationContext other = cache.getContext(OtherPropertiesTestCase.class);
+        // 访问first后other成为最近最少使用
+        cache.getContext(FirstTestCase.class);
+        AnnotationConfigApplicationContext third = cache.getContext(ThirdTestCase.class);
+        
+        assertEquals(1, cache.getEvictionCount());
+        assertFalse(other.isActive(), "被淘汰的容器已关闭");
+        assertFalse(cache.contains(OtherPropertiesTestCase.class));
+        assertTrue(first.isActive());
+        
+        cache.markDirty(SecondTestCase.class);
+        assertFalse(first.isActive(), "dirty容器被移除并关闭");
+        assertEquals(1, cache.getDirtyCount());
+        
+        AnnotationConfigApplicationContext recreated = cache.getContext(FirstTestCase.class);
+        assertNotSame(first, recreated);
+        assertTrue(recreated.isActive());
+        
+        cache.clear();
+        assertFalse(third.isActive());
+    }
+    
+    @Component
+    public static class GreetingService {
+        @Value("${greeting.name:default}")
+        String name;
+    }
+    
+    @ContextConfiguration(classes = GreetingService.class, properties = {"greeting.name=orders", "greeting.lang=zh"})
+    static class FirstTestCase {
+    }
+    
+    @ContextConfiguration(classes = GreetingService.class, properties = {"greeting.lang = zh", "greeting.name=orders"})
+    static class SecondTestCase {
+    }
+    
+    @ContextConfiguration(classes = GreetingService.class, properties = "greeting.name=billing")
+    static class OtherPropertiesTestCase {
+    }
+    
+    @ContextConfiguration(classes = GreetingService.class)
+    static class ThirdTestCase {
+    }
+}
\ No newline at end of file
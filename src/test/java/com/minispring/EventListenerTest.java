@@ -0,0 +1,209 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.EventListener;
+import com.minispring.ioc.beans.BeansException;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.ioc.context.event.ApplicationListener;
+import com.minispring.ioc.context.event.ContextRefreshedEvent;
+import com.minispring.ioc.context.event.SimpleApplicationEventMulticaster;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 应用事件机制测试
+ */
+public class EventListenerTest {
+    
+    @Test
+    public void testEventListenerMethodAndListenerBean() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(OrderListener.class);
+        OrderListener listener = context.getBean(OrderListener.class);
+        
+        // 刷新完成事件通过ApplicationListener接口接收
+        assertEquals(1, listener.refreshedCount.get());
+        
+        context.publishEvent(new OrderPlacedEvent("A-1"));
+        context.publishEvent("不匹配的事件");
+        
+        assertEquals(1, listener.orders.size());
+        assertEquals("A-1", listener.orders.get(0));
+        
+        context.close();
+    }
+    
+    @Test
+    public void testDeclaredEventTypesMustMatchParameter() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(MultiEventListener.class);
+        MultiEventListener listener = context.getBean(MultiEventListener.class);
+        context.publishEvent(new OrderPlacedEvent("C-1"));
+        context.publishEvent("文本事件");
+        context.publishEvent(42);
+        assertEquals(2, listener.received.size(), "参数为共同父类型时接收声明的所有事件类型");
+        assertEquals(1, listener.signals.get(), "无参方法接收声明的事件类型");
+        context.close();
+        
+        AnnotationConfigApplicationContext mismatched = new AnnotationConfigApplicationContext(MismatchedEventListener.class);
+        BeansException e = assertThrows(BeansException.class, () -> mismatched.getBean(MismatchedEventListener.class),
+                "声明的事件类型不能赋值给参数时在注册阶段失败");
+        Throwable cause = e;
+        while (cause.getCause() != null && !(cause instanceof IllegalStateException)) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause instanceof IllegalStateException && cause.getMessage().contains(String.class.getName()),
+                "错误信息指出不匹配的事件类型: " + cause);
+        mismatched.publishEvent("文本事件");
+        mismatched.close();
+    }
+    
+    @Test
+    public void testListenerCacheIndexedByEventType() {
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+        ApplicationListener<OrderPlacedEvent> orderListener = event -> { };
+        multicaster.addApplicationListener(orderListener, OrderPlacedEvent.class);
+        multicaster.addApplicationListener(event -> { }, String.class);
+        
+        assertEquals(1, multicaster.getApplicationListeners(OrderPlacedEvent.class).length);
+        assertSame(multicaster.getApplicationListeners(OrderPlacedEvent.class),
+                multicaster.getApplicationListeners(OrderPlacedEvent.class));
+        
+        // 注册新监听器后缓存失效
+        multicaster.addApplicationListener(event -> { }, Object.class);
+        assertEquals(2, multicaster.getApplicationListeners(OrderPlacedEvent.class).length);
+        
+        multicaster.removeApplicationListener(orderListener);
+        assertEquals(1, multicaster.getApplicationListeners(OrderPlacedEvent.class).length);
+    }
+    
+    @Test
+    public void testEventTypeResolvedAtRegistration() {
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+        OrderIdListener listener = new OrderIdListener();
+        multicaster.addApplicationListener(listener);
+        assertEquals(1, multicaster.getApplicationListeners(OrderPlacedEvent.class).length, "父类上绑定的类型变量也能解析");
+        assertEquals(0, multicaster.getApplicationListeners(String.class).length);
+        
+        multicaster.multicastEvent("不匹配的事件");
+        multicaster.multicastEvent(new OrderPlacedEvent("B-1"));
+        assertEquals(1, listener.received.size());
+        
+        ApplicationListener<OrderPlacedEvent> lambda = event -> { };
+        assertThrows(IllegalArgumentException.class, () -> multicaster.addApplicationListener(lambda),
+                "Lambda监听器必须显式指定事件类型");
+        
+        // 监听器内部抛出的ClassCastException不会被当作类型不匹配吞掉
+        multicaster.addApplicationListener(event -> {
+            Object value = event;
+            ((Integer) value).intValue();
+        }, OrderPlacedEvent.class);
+        assertThrows(ClassCastException.class, () -> multicaster.multicastEvent(new OrderPlacedEvent("B-2")));
+    }
+    
+    @Test
+    public void testAsyncMulticastPreservesOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+        multicaster.setQueueCapacity(64);
+        multicaster.setBatchSize(16);
+        multicaster.setTaskExecutor(executor);
+        
+        int eventCount = 10000;
+        List<Integer> received = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(eventCount);
+        multicaster.addApplicationListener((ApplicationListener<Integer>) event -> {
+            synchronized (received) {
+                received.add(event);
+            }
+            latch.countDown();
+        }, Integer.class);
+        
+        for (int i = 0; i < eventCount; i++) {
+            multicaster.multicastEvent(i);
+        }
+        
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(eventCount, received.size());
+        
+        // 未触发调用者执行策略时，单个排空任务保证发布顺序
+        if (multicaster.getCallerRunsCount() == 0) {
+            for (int i = 0; i < eventCount; i++) {
+                assertEquals(i, received.get(i).intValue());
+            }
+        }
+        
+        executor.shutdown();
+    }
+    
+    // 测试用的辅助类
+    public static class OrderPlacedEvent {
+        private final String orderId;
+        
+        public OrderPlacedEvent(String orderId) {
+            this.orderId = orderId;
+        }
+        
+        public String getOrderId() {
+            return orderId;
+        }
+    }
+    
+    public abstract static class RecordingListener<E> implements ApplicationListener<E> {
+        final List<E> received = new ArrayList<>();
+        
+        @Override
+        public void onApplicationEvent(E event) {
+            received.add(event);
+        }
+    }
+    
+    public static class OrderIdListener extends RecordingListener<OrderPlacedEvent> {
+    }
+    
+    @Component
+    public static class MultiEventListener {
+        private final List<Object> received = new ArrayList<>();
+        private final AtomicInteger signals = new AtomicInteger();
+        
+        @EventListener({OrderPlacedEvent.class, String.class})
+        public void onEvent(Object event) {
+            received.add(event);
+        }
+        
+        @EventListener(Integer.class)
+        public void onSignal() {
+            signals.incrementAndGet();
+        }
+    }
+    
+    @Component
+    public static class MismatchedEventListener {
+        @EventListener({OrderPlacedEvent.class, String.class})
+        public void onOrderPlaced(OrderPlacedEvent event) {
+        }
+    }
+    
+    @Component
+    public static class OrderListener implements ApplicationListener<ContextRefreshedEvent> {
+        private final AtomicInteger refreshedCount = new AtomicInteger();
+        private final List<String> orders = new ArrayList<>();
+        
+        @Override
+        public void onApplicationEvent(ContextRefreshedEvent event) {
+            refreshedCount.incrementAndGet();
+        }
+        
+        @EventListener
+        public void onOrderPlaced(OrderPlacedEvent event) {
+            orders.add(event.getOrderId());
+        }
+    }
+}
\ No newline at end of file
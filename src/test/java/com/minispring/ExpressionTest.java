@@ -0,0 +1,117 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Value;
+import com.minispring.ioc.beans.BeanDefinition;
+import com.minispring.ioc.beans.DefaultBeanFactory;
+import com.minispring.ioc.core.PropertySource;
+import com.minispring.ioc.expression.Expression;
+import com.minispring.ioc.expression.ExpressionParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Value表达式测试
+ */
+public class ExpressionTest {
+    
+    @Test
+    public void testValueExpressionsWithPlaceholdersAndBeanReferences() {
+        PropertySource propertySource = new PropertySource();
+        propertySource.setProperty("pool.min", "4");
+        propertySource.setProperty("pool.max", "16");
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.setPropertySource(propertySource);
+        beanFactory.registerBeanDefinition("settings", new BeanDefinition(Settings.class));
+        BeanDefinition clientDefinition = new BeanDefinition(Client.class);
+        clientDefinition.setScope("prototype");
+        beanFactory.registerBeanDefinition("client", clientDefinition);
+        
+        for (int i = 0; i < 5; i++) {
+            Client client = beanFactory.getBean(Client.class);
+            assertEquals(16, client.poolSize);
+            assertEquals(60L, client.doubledTimeout, "引用Bean属性参与运算");
+            assertEquals("timeout=30ms", client.label, "模板拼接文本与表达式");
+            assertEquals("slow", client.mode);
+            assertEquals(Boolean.TRUE, client.enabled, "单个表达式保留结果类型");
+        }
+        
+        beanFactory.destroySingletons();
+    }
+    
+    @Test
+    public void testCompiledAfterThresholdAndGuardsReceiverTypes() {
+        ExpressionParser parser = new ExpressionParser(2);
+        Expression expression = parser.parseExpression("T(Math).max(source.text.length(), 2) * 10 + source.offset");
+        assertSame(expression, parser.parseExpression("T(Math).max(source.text.length(), 2) * 10 + source.offset"),
+                "同一表达式只解析一次");
+        
+        Map<String, Object> beans = new HashMap<>();
+        beans.put("source", new Source("abc", 1));
+        assertEquals(31, expression.getValue(beans::get));
+        assertFalse(expression.isCompiled());
+        assertEquals(31, expression.getValue(beans::get));
+        assertTrue(expression.isCompiled(), "解释执行达到阈值后编译");
+        assertEquals(31, expression.getValue(beans::get));
+        
+        // 接收者与参数类型变化时回退到通用解析，结果不变
+        beans.put("source", new Source(new StringBuilder("abcdef"), 2L));
+        assertEquals(62L, expression.getValue(beans::get));
+        beans.put("source", new Source("a", 0));
+        assertEquals(20, expression.getValue(beans::get));
+        
+        assertEquals("yes", parser.parseExpression("1 < 2 && !false ? 'yes' : 'no'").getValue(name -> null));
+    }
+    
+    public static class Settings {
+        public int getTimeout() {
+            return 30;
+        }
+        
+        public String getName() {
+            return "main";
+        }
+        
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+    
+    public static class Client {
+        @Value("#{T(java.lang.Math).max(${pool.min}, ${pool.max})}")
+        int poolSize;
+        
+        @Value("#{settings.timeout * 2}")
+        long doubledTimeout;
+        
+        @Value("timeout=#{@settings.timeout}ms")
+        String label;
+        
+        @Value("#{settings.timeout > 10 and settings.name.length() == 4 ? 'slow' : 'fast'}")
+        String mode;
+        
+        @Value("#{settings.enabled}")
+        Object enabled;
+    }
+    
+    public static class Source {
+        private final CharSequence text;
+        private final Number offset;
+        
+        Source(CharSequence text, Number offset) {
+            this.text = text;
+            this.offset = offset;
+        }
+        
+        public CharSequence getText() {
+            return text;
+        }
+        
+        public Number getOffset() {
+            return offset;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.beans.BeanDefinition;
+import com.minispring.ioc.beans.DefaultBeanFactory;
+import com.minispring.ioc.beans.FactoryBean;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FactoryBean测试
+ */
+public class FactoryBeanTest {
+    
+    @Test
+    public void testFactoryBeanExposesCachedProduct() {
+        PoolFactory.created.set(0);
+        PoolFactory.produced.set(0);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(PoolFactory.class, PoolClient.class);
+        
+        ConnectionPool pool = context.getBean(ConnectionPool.class);
+        assertSame(pool, context.getBean("connectionPool"), "单例产品只创建一次");
+        assertSame(pool, context.getBean(PoolClient.class).pool, "按产品类型注入");
+        assertEquals(1, PoolFactory.produced.get());
+        
+        Object factory = context.getBean("&connectionPool");
+        assertTrue(factory instanceof PoolFactory, "名称加&前缀得到工厂本身");
+        assertSame(factory, context.getBean(PoolFactory.class));
+        assertEquals(ConnectionPool.class, context.getType("connectionPool"));
+        assertEquals(PoolFactory.class, context.getType("&connectionPool"));
+        assertTrue(context.isSingleton("connectionPool"));
+        
+        context.close();
+    }
+    
+    @Test
+    public void testTypeMatchingDoesNotCreateFactory() {
+        PoolFactory.created.set(0);
+        PoolFactory.produced.set(0);
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        BeanDefinition definition = new BeanDefinition(PoolFactory.class);
+        definition.setLazyInit(true);
+        beanFactory.registerBeanDefinition("connectionPool", definition);
+        beanFactory.registerBeanDefinition("client", new BeanDefinition(ClientFactory.class));
+        
+        assertArrayEquals(new String[]{"connectionPool"}, beanFactory.getBeanNamesForType(ConnectionPool.class));
+        assertArrayEquals(new String[]{"&connectionPool"}, beanFactory.getBeanNamesForType(PoolFactory.class));
+        assertEquals(ConnectionPool.class, beanFactory.getType("connectionPool"));
+        assertEquals(0, PoolFactory.created.get(), "按类型匹配不会提前创建工厂");
+        
+        HttpClient first = beanFactory.getBean(HttpClient.class);
+        HttpClient second = beanFactory.getBean(HttpClient.class);
+        assertNotSame(first, second, "非单例产品每次获取都调用getObject()");
+        assertFalse(beanFactory.isSingleton("client"));
+        
+        beanFactory.destroySingletons();
+    }
+    
+    public static class ConnectionPool {
+    }
+    
+    public static class HttpClient {
+    }
+    
+    @Component("connectionPool")
+    public static class PoolFactory implements FactoryBean<ConnectionPool> {
+        static final AtomicInteger created = new AtomicInteger();
+        static final AtomicInteger produced = new AtomicInteger();
+        
+        public PoolFactory() {
+            created.incrementAndGet();
+        }
+        
+        @Override
+        public ConnectionPool getObject() {
+            produced.incrementAndGet();
+            return new ConnectionPool();
+        }
+        
+        @Override
+        public Class<?> getObjectType() {
+            return ConnectionPool.class;
+        }
+    }
+    
+    public static class ClientFactory implements FactoryBean<HttpClient> {
+        @Override
+        public HttpClient getObject() {
+            return new HttpClient();
+        }
+        
+        @Override
+        public Class<?> getObjectType() {
+            return HttpClient.class;
+        }
+        
+        @Override
+        public boolean isSingleton() {
+            return false;
+        }
+    }
+    
+    @Component
+    public static class PoolClient {
+        @Autowired
+        ConnectionPool pool;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.Lookup;
+import com.minispring.ioc.annotation.PostConstruct;
+import com.minispring.ioc.beans.BeanDefinition;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @Lookup方法注入测试
+ */
+public class LookupMethodTest {
+    
+    @Test
+    public void testAbstractLookupMethodReturnsNewPrototype() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(CommandManager.class, AuditLog.class);
+        context.registerBeanDefinition("command", prototype(Command.class));
+        context.refresh();
+        
+        CommandManager manager = context.getBean(CommandManager.class);
+        assertTrue(manager.getClass().getName().contains("$$EnhancerByLookup$$"));
+        assertNotNull(manager.auditLog, "生成的子类仍按用户类注入字段");
+        assertTrue(manager.initialized, "生成的子类仍按用户类执行@PostConstruct");
+        
+        Command first = manager.process();
+        Command second = manager.process();
+        assertNotSame(first, second, "每次调用都创建新的原型");
+        assertSame(manager.auditLog, first.auditLog, "原型按正常流程完成依赖注入");
+        assertEquals(2, manager.auditLog.entries);
+        
+        context.close();
+    }
+    
+    @Test
+    public void testLookupByNameFollowsDefinitionReplacement() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(ReportService.class, AuditLog.class);
+        context.registerBeanDefinition("report", prototype(Report.class));
+        context.refresh();
+        
+        ReportService service = context.getBean(ReportService.class);
+        assertEquals("plain", service.newReport().format());
+        
+        context.registerBeanDefinition("report", prototype(HtmlReport.class));
+        assertEquals("html", service.newReport().format(), "定义被替换后查找计划重新解析");
+        
+        context.close();
+    }
+    
+    private static BeanDefinition prototype(Class<?> beanClass) {
+        BeanDefinition definition = new BeanDefinition(beanClass);
+        definition.setScope("prototype");
+        return definition;
+    }
+    
+    @Component
+    public static class AuditLog {
+        int entries;
+    }
+    
+    public static class Command {
+        @Autowired
+        AuditLog auditLog;
+    }
+    
+    @Component
+    public abstract static class CommandManager {
+        @Autowired
+        AuditLog auditLog;
+        boolean initialized;
+        
+        @PostConstruct
+        void init() {
+            initialized = true;
+        }
+        
+        public Command process() {
+            Command command = createCommand();
+            auditLog.entries++;
+            return command;
+        }
+        
+        @Lookup
+        protected abstract Command createCommand();
+    }
+    
+    public static class Report {
+        public String format() {
+            return "plain";
+        }
+    }
+    
+    public static class HtmlReport extends Report {
+        @Override
+        public String format() {
+            return "html";
+        }
+    }
+    
+    @Component
+    public static class ReportService {
+        @Lookup("report")
+        public Report newReport() {
+            return null;
+        }
+    }
+}
\ No newline at end of file
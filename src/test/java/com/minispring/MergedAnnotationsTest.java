@@ -0,0 +1,94 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.Repository;
+import com.minispring.ioc.annotation.Service;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.ioc.core.MergedAnnotations;
+import com.minispring.ioc.core.ReflectionUtils;
+import com.minispring.webmvc.annotation.Controller;
+import com.minispring.webmvc.annotation.ResponseBody;
+import com.minispring.webmvc.annotation.RestController;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 合并注解元数据测试
+ */
+public class MergedAnnotationsTest {
+    
+    @Test
+    public void testResolveMetaAnnotationsTransitively() throws Exception {
+        MergedAnnotations merged = MergedAnnotations.from(OrderController.class);
+        assertTrue(merged.isPresent(RestController.class));
+        assertTrue(merged.isPresent(Controller.class), "@RestController以@Controller为元注解");
+        assertTrue(merged.isPresent(Component.class), "元注解传递解析到@Component");
+        assertTrue(merged.isPresent(ResponseBody.class));
+        assertFalse(merged.isDirectlyPresent(Component.class));
+        assertSame(merged, MergedAnnotations.from(OrderController.class), "同一元素只计算一次");
+        
+        // 自定义组合注解与互相引用的注解
+        assertTrue(ReflectionUtils.hasAnnotation(AuditedService.class, Service.class));
+        assertTrue(ReflectionUtils.hasAnnotation(AuditedService.class, Component.class));
+        assertTrue(ReflectionUtils.hasAnnotation(AuditedService.class, Ping.class));
+        assertTrue(ReflectionUtils.hasAnnotation(AuditedService.class, Pong.class));
+        
+        Field field = OrderController.class.getDeclaredField("orderRepository");
+        assertTrue(ReflectionUtils.hasAnnotation(field, Autowired.class));
+        assertSame(MergedAnnotations.from(field), MergedAnnotations.from(OrderController.class.getDeclaredField("orderRepository")));
+    }
+    
+    @Test
+    public void testStereotypeAnnotationsRegisterBeans() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                OrderRepository.class, OrderController.class, AuditedService.class);
+        
+        assertTrue(context.containsBean("orders"), "@Repository的value作为Bean名称");
+        assertTrue(context.containsBean("orderController"));
+        assertTrue(context.containsBean("auditedService"));
+        assertSame(context.getBean("orders"), context.getBean(OrderController.class).orderRepository);
+        
+        context.close();
+    }
+    
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Pong
+    public @interface Ping {
+    }
+    
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Ping
+    public @interface Pong {
+    }
+    
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Service
+    @Ping
+    public @interface Audited {
+    }
+    
+    @Repository("orders")
+    public static class OrderRepository {
+    }
+    
+    @RestController
+    public static class OrderController {
+        @Autowired
+        OrderRepository orderRepository;
+    }
+    
+    @Audited
+    public static class AuditedService {
+    }
+}
\ No newline at end of file
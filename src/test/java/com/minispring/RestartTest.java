@@ -0,0 +1,122 @@
+package com.minispring;
+
+import com.minispring.devtools.ClassPathFileWatcher;
+import com.minispring.devtools.RestartClassLoader;
+import com.minispring.devtools.Restarter;
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.EventListener;
+import com.minispring.ioc.annotation.PreDestroy;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.ioc.context.event.ContextRefreshedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 开发模式重启测试
+ */
+public class RestartTest {
+    
+    @Test
+    public void testRestartRebuildsContextInFreshClassLoader() throws Exception {
+        File classesDirectory = new File(RestartTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Restarter restarter = new Restarter(Collections.singletonList(classesDirectory), new String[]{RestartTest.class.getName()},
+                GreetingService.class.getName(), GreetingController.class.getName());
+        try {
+            restarter.start();
+            AnnotationConfigApplicationContext first = restarter.getApplicationContext();
+            Object firstController = first.getBean("greetingController");
+            Class<?> firstClass = firstController.getClass();
+            assertTrue(firstClass.getClassLoader() instanceof RestartClassLoader, "项目类由重启类加载器加载");
+            assertNotSame(GreetingController.class, firstClass);
+            assertSame(Component.class, firstClass.getAnnotation(Component.class).annotationType(), "框架类来自基础类加载器");
+            
+            restarter.restart();
+            AnnotationConfigApplicationContext second = restarter.getApplicationContext();
+            assertNotSame(first, second);
+            assertFalse(first.isActive(), "旧容器已关闭");
+            Class<?> secondClass = second.getBean("greetingController").getClass();
+            assertEquals(firstClass.getName(), secondClass.getName());
+            assertNotSame(firstClass, secondClass, "重启后项目类重新加载");
+            assertEquals(1, restarter.getRestartCount());
+        } finally {
+            restarter.close();
+        }
+    }
+    
+    @Test
+    public void testFailedRefreshDestroysCreatedSingletons() {
+        PooledResource.destroyed.set(0);
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> new AnnotationConfigApplicationContext(PooledResource.class, FailingStartup.class));
+        assertEquals("启动失败", rootCause(e).getMessage());
+        assertEquals(1, PooledResource.destroyed.get(), "刷新失败时已创建的单例被销毁，重启失败不会留住旧的类加载器");
+    }
+    
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+    
+    @Test
+    public void testWatcherWaitsForQuietPeriod() throws Exception {
+        File directory = Files.createTempDirectory("minispring-restart").toFile();
+        CountDownLatch changed = new CountDownLatch(1);
+        ClassPathFileWatcher watcher = new ClassPathFileWatcher(Collections.singletonList(directory), 20, 100,
+                changed::countDown);
+        try {
+            watcher.start();
+            File classFile = new File(directory, "Changed.class");
+            Files.write(classFile.toPath(), "v1".getBytes(StandardCharsets.UTF_8));
+            assertTrue(changed.await(5, TimeUnit.SECONDS), "类目录变化后通知监听器");
+        } finally {
+            watcher.stop();
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+    
+    @Component
+    public static class GreetingService {
+        public String greet(String name) {
+            return "Hello, " + name;
+        }
+    }
+    
+    @Component
+    public static class PooledResource {
+        static final AtomicInteger destroyed = new AtomicInteger();
+        
+        @PreDestroy
+        public void close() {
+            destroyed.incrementAndGet();
+        }
+    }
+    
+    @Component
+    public static class FailingStartup {
+        @EventListener
+        public void onRefreshed(ContextRefreshedEvent event) {
+            throw new IllegalStateException("启动失败");
+        }
+    }
+    
+    @Component
+    public static class GreetingController {
+        @Autowired
+        GreetingService greetingService;
+    }
+}
\ No newline at end of file
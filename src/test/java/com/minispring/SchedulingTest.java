@@ -0,0 +1,238 @@
+package com.minispring;
+
+import com.minispring.scheduling.ScheduledTask;
+import com.minispring.scheduling.concurrent.HashedWheelTimer;
+import com.minispring.scheduling.support.CronExpression;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 定时任务调度测试：时间轮、Cron表达式与ScheduledTask的重新调度
+ */
+public class SchedulingTest {
+    
+    @Test
+    public void testWheelFiresAfterDelayAcrossRounds() throws Exception {
+        // 4个槽位 x 10ms，一圈只有40ms，130ms的任务需要经过多轮
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 3, "test-wheel");
+        try {
+            long[] delays = {5, 60, 130};
+            long[] firedAfter = new long[delays.length];
+            List<Integer> order = new ArrayList<>();
+            CountDownLatch latch = new CountDownLatch(delays.length);
+            long start = System.nanoTime();
+            for (int i = delays.length - 1; i >= 0; i--) {
+                int index = i;
+                timer.newTimeout(() -> {
+                    firedAfter[index] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    synchronized (order) {
+                        order.add(index);
+                    }
+                    latch.countDown();
+                }, delays[i], TimeUnit.MILLISECONDS);
+            }
+            
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(3, order.size());
+            assertEquals(0, order.get(0).intValue());
+            assertEquals(1, order.get(1).intValue());
+            assertEquals(2, order.get(2).intValue(), "超过一圈的任务按剩余轮数等待，不会提前触发");
+            for (int i = 0; i < delays.length; i++) {
+                assertTrue(firedAfter[i] >= delays[i], "任务不会早于延迟触发: " + firedAfter[i] + "ms < " + delays[i] + "ms");
+                assertTrue(firedAfter[i] < delays[i] + 1000, "任务触发过晚: " + firedAfter[i] + "ms");
+            }
+            assertEquals(0, timer.getPendingTimeoutCount());
+        } finally {
+            timer.stop();
+        }
+    }
+    
+    @Test
+    public void testCancelledTimeoutNeverFires() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8, "test-wheel");
+        try {
+            AtomicInteger fired = new AtomicInteger();
+            HashedWheelTimer.Timeout cancelled = timer.newTimeout(fired::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+            CountDownLatch latch = new CountDownLatch(1);
+            HashedWheelTimer.Timeout kept = timer.newTimeout(latch::countDown, 100, TimeUnit.MILLISECONDS);
+            
+            assertTrue(cancelled.cancel());
+            assertFalse(cancelled.cancel(), "重复取消返回false");
+            assertTrue(cancelled.isCancelled());
+            
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, fired.get(), "已取消的任务不执行");
+            assertFalse(cancelled.isExpired());
+            assertTrue(kept.isExpired());
+            assertFalse(kept.cancel(), "已执行的任务不能取消");
+            assertEquals(0, timer.getPendingTimeoutCount(), "已取消的节点被移出槽位");
+        } finally {
+            timer.stop();
+        }
+    }
+    
+    @Test
+    public void testCronNextAcrossMonthAndDayOfWeekBoundaries() {
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0),
+                CronExpression.parse("0 0 0 1 * *").next(LocalDateTime.of(2024, 1, 31, 12, 0)));
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0),
+                CronExpression.parse("@yearly").next(LocalDateTime.of(2024, 12, 31, 23, 0)), "跨年");
+        assertEquals(LocalDateTime.of(2024, 3, 31, 12, 0),
+                CronExpression.parse("0 0 12 31 * *").next(LocalDateTime.of(2024, 2, 1, 0, 0)), "跳过没有31日的月份");
+        assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0),
+                CronExpression.parse("0 0 0 29-31 2 *").next(LocalDateTime.of(2024, 2, 28, 12, 0)),
+                "闰年2月29日");
+        
+        // 2024-03-01是周五，下一个工作日是周一
+        assertEquals(LocalDateTime.of(2024, 3, 4, 9, 30),
+                CronExpression.parse("0 30 9 * * MON-FRI").next(LocalDateTime.of(2024, 3, 1, 10, 0)));
+        assertEquals(LocalDateTime.of(2024, 3, 1, 9, 30, 0),
+                CronExpression.parse("0 30 9 * * MON-FRI").next(LocalDateTime.of(2024, 3, 1, 9, 29, 59)));
+        // 0与7都表示周日
+        LocalDateTime saturdayNight = LocalDateTime.of(2024, 6, 29, 23, 59, 59);
+        assertEquals(LocalDateTime.of(2024, 6, 30, 0, 0), CronExpression.parse("0 0 0 * * 0").next(saturdayNight));
+        assertEquals(LocalDateTime.of(2024, 6, 30, 0, 0), CronExpression.parse("0 0 0 * * 7").next(saturdayNight));
+        // 日与周同时指定时需要同时满足：2024年第一个13日周五是9月13日
+        assertEquals(LocalDateTime.of(2024, 9, 13, 0, 0),
+                CronExpression.parse("0 0 0 13 * FRI").next(LocalDateTime.of(2024, 1, 1, 0, 0)));
+        
+        assertNull(CronExpression.parse("0 0 0 30 2 *").next(LocalDateTime.of(2024, 1, 1, 0, 0)), "永远不会触发");
+        assertThrows(IllegalArgumentException.class, () -> CronExpression.parse("0 0 0 32 * *"));
+    }
+    
+    @Test
+    public void testFixedRateKeepsCadenceAndFixedDelayWaitsAfterCompletion() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 64, "test-wheel");
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            long period = 60;
+            long duration = 30;
+            int runs = 5;
+            
+            Job rateJob = new Job(duration, runs + 1);
+            ScheduledTask rate = new ScheduledTask("job", rateJob, Job.class.getMethod("run"),
+                    ScheduledTask.Kind.FIXED_RATE, period, 0, null);
+            rate.schedule(timer, executor);
+            assertTrue(rateJob.done.await(5, TimeUnit.SECONDS));
+            rate.cancel();
+            
+            Job delayJob = new Job(duration, runs + 1);
+            ScheduledTask delay = new ScheduledTask("job", delayJob, Job.class.getMethod("run"),
+                    ScheduledTask.Kind.FIXED_DELAY, period, 0, null);
+            delay.schedule(timer, executor);
+            assertTrue(delayJob.done.await(5, TimeUnit.SECONDS));
+            delay.cancel();
+            
+            // fixedRate按固定节拍触发：第runs次执行的开始时间不随执行耗时累积
+            long rateSpan = rateJob.starts.get(runs) - rateJob.starts.get(0);
+            assertTrue(rateSpan < runs * (period + duration), "fixedRate不应等待执行结束: " + rateSpan + "ms");
+            
+            // fixedDelay在上一次执行结束后才开始计时
+            for (int i = 0; i < runs; i++) {
+                long gap = delayJob.starts.get(i + 1) - delayJob.ends.get(i);
+                assertTrue(gap >= period, "fixedDelay的间隔从上一次结束算起: " + gap + "ms");
+            }
+            assertEquals(0, rate.getOverrunCount());
+            assertEquals(0, delay.getOverrunCount());
+        } finally {
+            timer.stop();
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testOverrunSkipsExecutionInsteadOfOverlapping() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 64, "test-wheel");
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            // 执行耗时超过周期，期间到期的触发被跳过
+            Job slowJob = new Job(100, 3);
+            ScheduledTask task = new ScheduledTask("slow", slowJob, Job.class.getMethod("run"),
+                    ScheduledTask.Kind.FIXED_RATE, 20, 0, null);
+            task.schedule(timer, executor);
+            assertTrue(slowJob.done.await(5, TimeUnit.SECONDS));
+            task.cancel();
+            
+            assertTrue(task.getOverrunCount() > 0, "上一次执行未结束时记为超时");
+            assertEquals(1, slowJob.maxConcurrent.get(), "同一任务不会并发执行");
+            
+            // 线程池拒绝同样记为超时，不影响调度继续
+            // 第4次提交时前3次拒绝必然已经计数
+            CountDownLatch rejected = new CountDownLatch(4);
+            ScheduledTask rejectedTask = new ScheduledTask("rejected", slowJob, Job.class.getMethod("run"),
+                    ScheduledTask.Kind.FIXED_RATE, 10, 0, null);
+            rejectedTask.schedule(timer, command -> {
+                rejected.countDown();
+                throw new RejectedExecutionException("full");
+            });
+            assertTrue(rejected.await(5, TimeUnit.SECONDS));
+            rejectedTask.cancel();
+            assertTrue(rejectedTask.getOverrunCount() >= 3, "被拒绝的执行记为超时");
+            assertEquals(0, rejectedTask.getExecutionCount());
+        } finally {
+            timer.stop();
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testTaskFinishingAfterTimerStopDoesNotReschedule() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 64, "test-wheel");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Job job = new Job(0, 1);
+            ScheduledTask task = new ScheduledTask("job", job, Job.class.getMethod("run"),
+                    ScheduledTask.Kind.FIXED_DELAY, 1000, 1000, null);
+            task.schedule(timer, executor);
+            timer.stop();
+            
+            // 模拟关闭时仍在执行的任务：执行结束后重新调度遇到已停止的时间轮
+            task.run();
+            
+            assertEquals(1, task.getExecutionCount());
+            assertTrue(task.isCancelled(), "时间轮停止后不再调度");
+            assertEquals(0, task.getFailureCount());
+        } finally {
+            timer.stop();
+            executor.shutdownNow();
+        }
+    }
+    
+    public static class Job {
+        final List<Long> starts = new ArrayList<>();
+        final List<Long> ends = new ArrayList<>();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        final CountDownLatch done;
+        private final long durationMillis;
+        
+        Job(long durationMillis, int runs) {
+            this.durationMillis = durationMillis;
+            this.done = new CountDownLatch(runs);
+        }
+        
+        public void run() throws InterruptedException {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            synchronized (starts) {
+                starts.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+            }
+            Thread.sleep(durationMillis);
+            synchronized (starts) {
+                ends.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+            }
+            concurrent.decrementAndGet();
+            done.countDown();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.PreDestroy;
+import com.minispring.ioc.annotation.Scope;
+import com.minispring.ioc.beans.StripedObject;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * striped作用域测试
+ */
+public class StripedScopeTest {
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCallsAreRoutedPerThreadAndAggregated() throws Exception {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(RequestCounter.class, Clock.class);
+        RequestCounter counter = context.getBean(RequestCounter.class);
+        assertTrue(context.isSingleton("requestCounter"), "分派代理只创建一次");
+        assertSame(counter, context.getBean(RequestCounter.class));
+        
+        StripedObject<RequestCounter> striped = (StripedObject<RequestCounter>) counter;
+        assertEquals(4, striped.getStripeCount());
+        for (RequestCounter stripe : striped.getStripes()) {
+            assertNotNull(stripe.clock, "每个实例都完成依赖注入");
+        }
+        
+        // 同一线程的调用总是落在同一个实例上
+        for (int i = 0; i < 10; i++) {
+            counter.increment();
+        }
+        assertEquals(1, striped.getStripes().stream().filter(stripe -> stripe.get() > 0).count());
+        
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    counter.increment();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long total = striped.aggregate(stripes -> stripes.stream().mapToLong(RequestCounter::get).sum());
+        assertEquals(8010, total, "合并所有实例的计数");
+        
+        context.close();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testObjectMethodsUseProxyIdentity() throws Exception {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(RequestCounter.class, Clock.class);
+        RequestCounter counter = context.getBean(RequestCounter.class);
+        
+        // 不同线程分派到不同实例，但代理的hashCode与equals不随线程变化
+        Set<Integer> hashCodes = ConcurrentHashMap.newKeySet();
+        AtomicInteger notEqualToSelf = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                hashCodes.add(counter.hashCode());
+                if (!counter.equals(counter)) {
+                    notEqualToSelf.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(Collections.singleton(System.identityHashCode(counter)), hashCodes);
+        assertEquals(0, notEqualToSelf.get(), "代理在任何线程上都等于自身");
+        for (RequestCounter stripe : ((StripedObject<RequestCounter>) counter).getStripes()) {
+            assertFalse(counter.equals(stripe), "代理不等于其中某个实例");
+        }
+        assertTrue(new HashSet<>(Collections.singletonList(counter)).contains(counter));
+        assertTrue(counter.toString().endsWith("[stripes=4]"), counter.toString());
+        
+        context.close();
+    }
+    
+    @Test
+    public void testEachStripeIsDestroyed() {
+        RequestCounter.destroyed.set(0);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(RequestCounter.class, Clock.class);
+        context.getBean(RequestCounter.class).increment();
+        context.close();
+        assertEquals(4, RequestCounter.destroyed.get());
+    }
+    
+    @Component
+    public static class Clock {
+    }
+    
+    @Component
+    @Scope(value = "striped", stripes = 4)
+    public static class RequestCounter {
+        static final AtomicInteger destroyed = new AtomicInteger();
+        
+        @Autowired
+        Clock clock;
+        private long count;
+        
+        public synchronized void increment() {
+            count++;
+        }
+        
+        public synchronized long get() {
+            return count;
+        }
+        
+        @PreDestroy
+        public void destroy() {
+            destroyed.incrementAndGet();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.minispring;
+
+import com.minispring.ioc.annotation.Component;
+import com.minispring.ioc.annotation.Warmup;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.ioc.context.WarmupRunner;
+import com.minispring.ioc.context.WarmupTask;
+import com.minispring.webmvc.annotation.Controller;
+import com.minispring.webmvc.annotation.RequestMapping;
+import com.minispring.webmvc.annotation.RequestMethod;
+import com.minispring.webmvc.annotation.RequestParam;
+import com.minispring.webmvc.handler.MvcWarmupTask;
+import com.minispring.webmvc.handler.RequestMappingHandlerAdapter;
+import com.minispring.webmvc.handler.RequestMappingHandlerMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 启动预热测试
+ */
+public class WarmupTest {
+    
+    @Test
+    public void testWarmupIsOptIn() {
+        WarmedService.calls.set(0);
+        WarmedService.limitedCalls.set(0);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(WarmedService.class);
+        assertEquals(0, WarmedService.calls.get(), "未开启时不执行预热");
+        context.close();
+        
+        context = new AnnotationConfigApplicationContext();
+        context.register(WarmedService.class);
+        context.setProperty("minispring.warmup.enabled", "true");
+        context.setProperty("minispring.warmup.iterations", "5");
+        context.refresh();
+        assertEquals(5, WarmedService.calls.get(), "未指定次数的方法使用全局配置");
+        assertEquals(3, WarmedService.limitedCalls.get(), "@Warmup(iterations)优先");
+        assertFalse(context.isWarmingUp());
+        context.close();
+    }
+    
+    @Test
+    public void testRunnerInterleavesTasksAndStopsFailedOnes() {
+        List<String> calls = new ArrayList<>();
+        WarmupRunner runner = new WarmupRunner(4, 0);
+        runner.addTask("a", () -> calls.add("a"));
+        runner.addTask("b", new WarmupTaskWithIterations(2, () -> calls.add("b")));
+        runner.addTask("c", () -> {
+            calls.add("c");
+            throw new IllegalStateException("boom");
+        });
+        
+        assertTrue(runner.hasTasks());
+        assertTrue(runner.run(), "所有未失败的任务都完成了调用次数");
+        assertEquals(Arrays.asList("a", "b", "c", "a", "b", "a", "a"), calls, "任务轮流执行，失败的任务不再调用");
+        assertEquals(6, runner.getInvocationCount());
+    }
+    
+    @Test
+    public void testRunnerStopsWhenTimeBudgetIsExhausted() {
+        AtomicInteger calls = new AtomicInteger();
+        WarmupRunner runner = new WarmupRunner(Integer.MAX_VALUE, 50);
+        runner.addTask("slow", () -> {
+            calls.incrementAndGet();
+            Thread.sleep(5);
+        });
+        
+        assertFalse(runner.run(), "时间预算用完时提前结束");
+        assertTrue(calls.get() > 0 && calls.get() < 1000, "调用次数: " + calls.get());
+        assertEquals(calls.get(), runner.getInvocationCount());
+        assertTrue(runner.getElapsedMillis() >= 50);
+    }
+    
+    @Test
+    public void testMvcWarmupTaskDrivesHandlerMethods() throws Exception {
+        OrderController.calls.clear();
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                OrderController.class, RequestMappingHandlerMapping.class, RequestMappingHandlerAdapter.class);
+        
+        MvcWarmupTask task = new MvcWarmupTask(context, "GET /orders?id=7&verbose=true", "POST /orders", "GET /missing");
+        task.warmup();
+        task.warmup();
+        
+        assertEquals(Arrays.asList("7:true", "7:true"), OrderController.calls,
+                "合成请求经过映射与参数绑定调用处理器，无法映射的请求被跳过");
+        
+        MvcWarmupTask invalid = new MvcWarmupTask(context, "/orders");
+        assertThrows(IllegalArgumentException.class, invalid::warmup, "请求格式错误");
+        context.close();
+    }
+    
+    @Component
+    public static class WarmedService {
+        static final AtomicInteger calls = new AtomicInteger();
+        static final AtomicInteger limitedCalls = new AtomicInteger();
+        
+        @Warmup
+        public void warm() {
+            calls.incrementAndGet();
+        }
+        
+        @Warmup(iterations = 3)
+        public void warmLimited() {
+            limitedCalls.incrementAndGet();
+        }
+    }
+    
+    @Controller
+    public static class OrderController {
+        static final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        
+        @RequestMapping(value = "/orders", method = RequestMethod.GET)
+        public void find(@RequestParam("id") int id, @RequestParam("verbose") boolean verbose) {
+            calls.add(id + ":" + verbose);
+        }
+    }
+    
+    static class WarmupTaskWithIterations implements WarmupTask {
+        private final int iterations;
+        private final Runnable action;
+        
+        WarmupTaskWithIterations(int iterations, Runnable action) {
+            this.iterations = iterations;
+            this.action = action;
+        }
+        
+        @Override
+        public void warmup() {
+            action.run();
+        }
+        
+        @Override
+        public int getIterations() {
+            return iterations;
+        }
+    }
+}
\ No newline at end of file
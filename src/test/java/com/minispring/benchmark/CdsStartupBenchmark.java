@@ -0,0 +1,133 @@
+package com.minispring.benchmark;
+
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.ioc.context.ClassListRecorder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AppCDS启动基准
+ *
+ * 依次执行：训练运行（生成类列表）、-Xshare:dump生成归档，然后分别以
+ * 关闭CDS、JDK默认CDS、应用归档三种方式各启动若干次子进程，比较进程总耗时与refresh()耗时。
+ *
+ * 用法: java -cp <classpath> com.minispring.benchmark.CdsStartupBenchmark [配置类] [每种方式的启动次数] [工作目录]
+ */
+public class CdsStartupBenchmark {
+    
+    private static final String DEFAULT_CONFIG_CLASS = "com.minispring.example.aop.AopConfig";
+    private static final String RESULT_PREFIX = "refresh.ms=";
+    
+    public static void main(String[] args) throws Exception {
+        String configClass = args.length > 0 ? args[0] : DEFAULT_CONFIG_CLASS;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        File workDir = new File(args.length > 2 ? args[2] : "target/cds-benchmark").getAbsoluteFile();
+        
+        System.out.println("=== 训练运行 ===");
+        launch(Arrays.asList("-Dminispring.cds.training=true", "-Dminispring.cds.output.dir=" + workDir.getPath()),
+                configClass);
+        
+        System.out.println("=== 生成归档 ===");
+        List<String> dump = ForkedJvm.javaCommand();
+        dump.add("@" + new File(workDir, ClassListRecorder.DUMP_ARGS_FILE));
+        int exit = ForkedJvm.exec(dump, System.out::println);
+        if (exit != 0) {
+            throw new IllegalStateException("生成CDS归档失败，退出码 " + exit);
+        }
+        
+        List<String> runArgs = Collections.singletonList("@" + new File(workDir, ClassListRecorder.RUN_ARGS_FILE));
+        Result off = measure("关闭CDS", Collections.singletonList("-Xshare:off"), configClass, runs);
+        Result jdk = measure("JDK默认CDS", Collections.emptyList(), configClass, runs);
+        Result app = measure("应用归档", runArgs, configClass, runs);
+        
+        System.out.println();
+        System.out.printf("%-12s %14s %14s%n", "方式", "进程耗时(ms)", "refresh(ms)");
+        for (Result result : Arrays.asList(off, jdk, app)) {
+            System.out.printf("%-12s %14.1f %14.1f%n", result.name, result.processMillis, result.refreshMillis);
+        }
+    }
+    
+    private static Result measure(String name, List<String> jvmArgs, String configClass, int runs) throws Exception {
+        // 第一次启动用于填充文件系统缓存，不计入结果
+        launch(jvmArgs, configClass);
+        double[] process = new double[runs];
+        double[] refresh = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            refresh[i] = launch(jvmArgs, configClass);
+            process[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        return new Result(name, median(process), median(refresh));
+    }
+    
+    /**
+     * 启动子进程创建上下文，返回子进程报告的refresh()耗时
+     */
+    private static double launch(List<String> jvmArgs, String configClass) throws Exception {
+        List<String> command = ForkedJvm.javaCommand();
+        command.addAll(jvmArgs);
+        boolean argFile = jvmArgs.stream().anyMatch(arg -> arg.startsWith("@"));
+        if (!argFile) {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+        }
+        command.add(Launcher.class.getName());
+        command.add(configClass);
+        
+        double[] refreshMillis = {-1};
+        int exit = ForkedJvm.exec(command, line -> {
+            if (line.startsWith(RESULT_PREFIX)) {
+                refreshMillis[0] = Double.parseDouble(line.substring(RESULT_PREFIX.length()));
+            }
+        });
+        if (exit != 0 || refreshMillis[0] < 0) {
+            throw new IllegalStateException("子进程启动失败: " + command);
+        }
+        return refreshMillis[0];
+    }
+    
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+    
+    private static class Result {
+        private final String name;
+        private final double processMillis;
+        private final double refreshMillis;
+        
+        Result(String name, double processMillis, double refreshMillis) {
+            this.name = name;
+            this.processMillis = processMillis;
+            this.refreshMillis = refreshMillis;
+        }
+    }
+    
+    /**
+     * 子进程入口：创建并刷新上下文后立即退出
+     */
+    public static class Launcher {
+        
+        public static void main(String[] args) throws Exception {
+            AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+            for (String key : new String[]{"minispring.cds.training", "minispring.cds.output.dir"}) {
+                String value = System.getProperty(key);
+                if (value != null) {
+                    context.setProperty(key, value);
+                }
+            }
+            context.setProperty("minispring.warmup.enabled", "false");
+            context.register(Class.forName(args[0]));
+            
+            long start = System.nanoTime();
+            context.refresh();
+            double elapsed = (System.nanoTime() - start) / 1_000_000.0;
+            context.close();
+            System.out.println(RESULT_PREFIX + elapsed);
+        }
+    }
+}
\ No newline at end of file
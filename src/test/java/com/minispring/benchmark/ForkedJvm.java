@@ -0,0 +1,54 @@
+package com.minispring.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试共用的子进程启动工具，每次测量都在全新的JVM中进行
+ */
+final class ForkedJvm {
+    
+    private ForkedJvm() {
+    }
+    
+    /**
+     * 子进程命令前缀：java可执行文件，加上当前进程的--add-opens与堆大小参数（CGLIB在JDK 9+上需要前者），
+     * 以及-Dminispring.*容器配置，便于对比不同配置下的启动耗时
+     */
+    static List<String> javaCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (arg.startsWith("--add-opens") || arg.startsWith("-Xmx") || arg.startsWith("-Xms")
+                    || arg.startsWith("-Dminispring.")) {
+                command.add(arg);
+            }
+        }
+        return command;
+    }
+    
+    /**
+     * 执行命令并逐行处理合并后的标准输出与错误输出，返回退出码
+     */
+    static int exec(List<String> command, LineHandler handler) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                handler.handle(line);
+            }
+        }
+        return process.waitFor();
+    }
+    
+    interface LineHandler {
+        void handle(String line);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.minispring.benchmark;
+
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.webmvc.handler.RequestMappingHandlerMapping;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 启动扩展性基准
+ *
+ * 对每个规模用SyntheticApplicationGenerator生成合成应用，在独立的子JVM中刷新上下文并测量
+ * refresh()耗时、刷新后堆占用、Metaspace占用、类加载数以及刷新后首次getBean的延迟。
+ * 每个规模输出一行JSON（同时追加到结果文件），便于脚本比较不同版本之间的扩展性回归。
+ *
+ * 用法: java -cp <classpath> com.minispring.benchmark.StartupScalingBenchmark [规模列表，如1000,10000,50000] [结果文件] [工作目录]
+ */
+public class StartupScalingBenchmark {
+    
+    private static final String RESULT_PREFIX = "result=";
+    
+    public static void main(String[] args) throws Exception {
+        String sizes = args.length > 0 ? args[0] : "1000,10000,50000";
+        File resultFile = new File(args.length > 1 ? args[1] : "target/startup-scaling.jsonl");
+        File workDir = new File(args.length > 2 ? args[2] : "target/startup-scaling").getAbsoluteFile();
+        
+        File resultDir = resultFile.getAbsoluteFile().getParentFile();
+        if (resultDir != null) {
+            resultDir.mkdirs();
+        }
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(resultFile, true), StandardCharsets.UTF_8))) {
+            for (String size : sizes.split(",")) {
+                int componentCount = Integer.parseInt(size.trim());
+                String result = run(componentCount, workDir);
+                System.out.println(result);
+                out.println(result);
+                out.flush();
+            }
+        }
+    }
+    
+    /**
+     * 生成指定规模的应用并在子进程中测量，返回JSON结果行
+     */
+    private static String run(int componentCount, File workDir) throws Exception {
+        SyntheticApplicationGenerator generator = new SyntheticApplicationGenerator();
+        generator.setComponentCount(componentCount);
+        File jar = new File(workDir, "app-" + componentCount + ".jar");
+        List<String> classNames = generator.generate(jar);
+        
+        // 以最后生成的控制器和服务作为首次getBean的探测对象
+        String nameProbe = null;
+        String typeProbe = null;
+        for (String className : classNames) {
+            if (className.contains(".web.")) {
+                nameProbe = className;
+            } else if (className.contains(".service.")) {
+                typeProbe = className;
+            }
+        }
+        
+        List<String> command = ForkedJvm.javaCommand();
+        command.add("-Dminispring.log.level=WARN");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path") + File.pathSeparator + jar.getPath());
+        command.add(Launcher.class.getName());
+        command.add(String.valueOf(componentCount));
+        command.add(SyntheticApplicationGenerator.CONFIG_CLASS);
+        command.add(nameProbe);
+        command.add(typeProbe);
+        
+        String[] result = new String[1];
+        int exit = ForkedJvm.exec(command, line -> {
+            if (line.startsWith(RESULT_PREFIX)) {
+                result[0] = line.substring(RESULT_PREFIX.length());
+            } else {
+                System.err.println(line);
+            }
+        });
+        if (exit != 0 || result[0] == null) {
+            throw new IllegalStateException("规模 " + componentCount + " 的测量失败，退出码 " + exit);
+        }
+        return result[0];
+    }
+    
+    /**
+     * 子进程入口：刷新合成应用的上下文并输出测量结果
+     */
+    public static class Launcher {
+        
+        public static void main(String[] args) throws Exception {
+            int componentCount = Integer.parseInt(args[0]);
+            Class<?> configClass = Class.forName(args[1]);
+            Class<?> nameProbe = Class.forName(args[2]);
+            Class<?> typeProbe = Class.forName(args[3]);
+            
+            AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+            context.setProperty("minispring.warmup.enabled", "false");
+            context.register(configClass);
+            
+            long start = System.nanoTime();
+            context.refresh();
+            long refreshNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            context.getBean(beanName(nameProbe));
+            long getBeanByNameNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            context.getBean(typeProbe);
+            long getBeanByTypeNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            new RequestMappingHandlerMapping().setApplicationContext(context);
+            long handlerMappingNanos = System.nanoTime() - start;
+            
+            String[] beanNames = context.getBeanDefinitionNames();
+            int proxies = 0;
+            for (String beanName : beanNames) {
+                if (context.getBean(beanName).getClass().getName().contains("EnhancerByCGLIB")) {
+                    proxies++;
+                }
+            }
+            
+            System.gc();
+            System.gc();
+            long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            long metaspaceUsed = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if ("Metaspace".equals(pool.getName())) {
+                    metaspaceUsed = pool.getUsage().getUsed();
+                }
+            }
+            
+            List<String> fields = new ArrayList<>();
+            fields.add(field("components", componentCount));
+            fields.add(field("beans", beanNames.length));
+            fields.add(field("proxies", proxies));
+            fields.add(field("refreshMs", refreshNanos / 1e6));
+            fields.add(field("firstGetBeanByNameUs", getBeanByNameNanos / 1e3));
+            fields.add(field("firstGetBeanByTypeUs", getBeanByTypeNanos / 1e3));
+            fields.add(field("handlerMappingMs", handlerMappingNanos / 1e6));
+            fields.add(field("heapUsedMb", heapUsed / 1048576.0));
+            fields.add(field("metaspaceUsedMb", metaspaceUsed / 1048576.0));
+            fields.add(field("loadedClasses", ManagementFactory.getClassLoadingMXBean().getLoadedClassCount()));
+            fields.add("\"javaVersion\":\"" + System.getProperty("java.version") + "\"");
+            System.out.println(RESULT_PREFIX + "{" + String.join(",", fields) + "}");
+            
+            context.close();
+        }
+        
+        private static String beanName(Class<?> beanClass) {
+            String simpleName = beanClass.getSimpleName();
+            return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+        }
+        
+        private static String field(String name, long value) {
+            return "\"" + name + "\":" + value;
+        }
+        
+        private static String field(String name, double value) {
+            return "\"" + name + "\":" + String.format(Locale.ROOT, "%.3f", value);
+        }
+    }
+}
\ No newline at end of file
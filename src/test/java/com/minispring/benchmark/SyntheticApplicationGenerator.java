@@ -0,0 +1,249 @@
+package com.minispring.benchmark;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * 合成应用生成器
+ *
+ * 用ASM生成指定规模的组件类并打成jar，供启动扩展性基准扫描与刷新。生成的应用分三层：
+ * 仓储（bench.app.repository，只含@Value字段）、服务（bench.app.service，依赖仓储和编号更小的服务，
+ * 依赖图无环）和控制器（bench.app.web，依赖服务并带@RequestMapping方法），另有若干切面拦截服务层。
+ * 依赖关系由固定种子的随机数决定，相同参数生成的应用完全一致。
+ */
+public class SyntheticApplicationGenerator implements Opcodes {
+    
+    public static final String BASE_PACKAGE = "bench.app";
+    public static final String CONFIG_CLASS = BASE_PACKAGE + ".BenchApplication";
+    
+    private static final String COMPONENT = "Lcom/minispring/ioc/annotation/Component;";
+    private static final String COMPONENT_SCAN = "Lcom/minispring/ioc/annotation/ComponentScan;";
+    private static final String AUTOWIRED = "Lcom/minispring/ioc/annotation/Autowired;";
+    private static final String VALUE = "Lcom/minispring/ioc/annotation/Value;";
+    private static final String CONTROLLER = "Lcom/minispring/webmvc/annotation/Controller;";
+    private static final String REQUEST_MAPPING = "Lcom/minispring/webmvc/annotation/RequestMapping;";
+    private static final String ASPECT = "Lcom/minispring/aop/annotation/Aspect;";
+    private static final String BEFORE = "Lcom/minispring/aop/annotation/Before;";
+    private static final String JOIN_POINT = "Lcom/minispring/aop/JoinPoint;";
+    
+    private int componentCount = 1000;
+    /** 每个服务、控制器注入的依赖数 */
+    private int fanOut = 4;
+    private double repositoryRatio = 0.3;
+    private double controllerRatio = 0.1;
+    /** 每个仓储的@Value字段数 */
+    private int valueFieldsPerRepository = 2;
+    private int aspectCount = 2;
+    private long seed = 42;
+    
+    /**
+     * 生成jar文件，返回应用中的组件类名（不含配置类）
+     */
+    public List<String> generate(File jarFile) throws IOException {
+        int repositories = Math.max(1, (int) (componentCount * repositoryRatio));
+        int controllers = Math.max(1, (int) (componentCount * controllerRatio));
+        int services = Math.max(1, componentCount - repositories - controllers - aspectCount);
+        Random random = new Random(seed);
+        List<String> classNames = new ArrayList<>();
+        
+        File parent = jarFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录: " + parent);
+        }
+        try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile))) {
+            // 包扫描通过ClassLoader.getResources查找包目录，jar中需要有目录条目
+            for (String directory : new String[]{"bench/", "bench/app/", "bench/app/repository/",
+                    "bench/app/service/", "bench/app/web/", "bench/app/aspect/"}) {
+                jar.putNextEntry(new JarEntry(directory));
+                jar.closeEntry();
+            }
+            write(jar, CONFIG_CLASS, generateConfiguration());
+            
+            for (int i = 0; i < repositories; i++) {
+                String name = BASE_PACKAGE + ".repository.Repository" + i;
+                write(jar, name, generateRepository(name, i));
+                classNames.add(name);
+            }
+            for (int i = 0; i < services; i++) {
+                String name = BASE_PACKAGE + ".service.Service" + i;
+                List<String> dependencies = new ArrayList<>();
+                for (int d = 0; d < fanOut; d++) {
+                    // 一半依赖仓储，一半依赖编号更小的服务，保证依赖图无环
+                    if (i > 0 && random.nextBoolean()) {
+                        dependencies.add(BASE_PACKAGE + ".service.Service" + random.nextInt(i));
+                    } else {
+                        dependencies.add(BASE_PACKAGE + ".repository.Repository" + random.nextInt(repositories));
+                    }
+                }
+                write(jar, name, generateService(name, dependencies));
+                classNames.add(name);
+            }
+            for (int i = 0; i < controllers; i++) {
+                String name = BASE_PACKAGE + ".web.Controller" + i;
+                List<String> dependencies = new ArrayList<>();
+                for (int d = 0; d < fanOut; d++) {
+                    dependencies.add(BASE_PACKAGE + ".service.Service" + random.nextInt(services));
+                }
+                write(jar, name, generateController(name, i, dependencies));
+                classNames.add(name);
+            }
+            for (int i = 0; i < aspectCount; i++) {
+                String name = BASE_PACKAGE + ".aspect.Aspect" + i;
+                write(jar, name, generateAspect(name));
+                classNames.add(name);
+            }
+        }
+        return classNames;
+    }
+    
+    private void write(JarOutputStream jar, String className, byte[] bytes) throws IOException {
+        jar.putNextEntry(new JarEntry(className.replace('.', '/') + ".class"));
+        jar.write(bytes);
+        jar.closeEntry();
+    }
+    
+    private byte[] generateConfiguration() {
+        ClassWriter cw = beginClass(CONFIG_CLASS);
+        AnnotationVisitor scan = cw.visitAnnotation(COMPONENT_SCAN, true);
+        AnnotationVisitor packages = scan.visitArray("basePackages");
+        packages.visit(null, BASE_PACKAGE);
+        packages.visitEnd();
+        scan.visitEnd();
+        return endClass(cw);
+    }
+    
+    private byte[] generateRepository(String className, int index) {
+        ClassWriter cw = beginClass(className);
+        cw.visitAnnotation(COMPONENT, true).visitEnd();
+        for (int v = 0; v < valueFieldsPerRepository; v++) {
+            // 交替使用String与int字段，覆盖类型转换
+            boolean numeric = v % 2 == 1;
+            FieldVisitor fv = cw.visitField(ACC_PRIVATE, "value" + v, numeric ? "I" : "Ljava/lang/String;", null, null);
+            AnnotationVisitor av = fv.visitAnnotation(VALUE, true);
+            av.visit("value", "${bench.repository" + index + ".value" + v + ":" + (numeric ? index : "repository" + index) + "}");
+            av.visitEnd();
+            fv.visitEnd();
+        }
+        addProcessMethod(cw, className);
+        return endClass(cw);
+    }
+    
+    private byte[] generateService(String className, List<String> dependencies) {
+        ClassWriter cw = beginClass(className);
+        cw.visitAnnotation(COMPONENT, true).visitEnd();
+        addDependencies(cw, dependencies);
+        addProcessMethod(cw, className);
+        return endClass(cw);
+    }
+    
+    private byte[] generateController(String className, int index, List<String> dependencies) {
+        ClassWriter cw = beginClass(className);
+        cw.visitAnnotation(CONTROLLER, true).visitEnd();
+        addDependencies(cw, dependencies);
+        
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "handle", "()Ljava/lang/String;", null, null);
+        AnnotationVisitor mapping = mv.visitAnnotation(REQUEST_MAPPING, true);
+        AnnotationVisitor paths = mapping.visitArray("value");
+        paths.visit(null, "/c" + index);
+        paths.visitEnd();
+        mapping.visitEnd();
+        mv.visitCode();
+        mv.visitLdcInsn("c" + index);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        return endClass(cw);
+    }
+    
+    private byte[] generateAspect(String className) {
+        ClassWriter cw = beginClass(className);
+        cw.visitAnnotation(ASPECT, true).visitEnd();
+        cw.visitAnnotation(COMPONENT, true).visitEnd();
+        
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "before", "(" + JOIN_POINT + ")V", null, null);
+        AnnotationVisitor before = mv.visitAnnotation(BEFORE, true);
+        before.visit("value", "execution(* " + BASE_PACKAGE + ".service..*(..))");
+        before.visitEnd();
+        mv.visitCode();
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        return endClass(cw);
+    }
+    
+    private void addDependencies(ClassWriter cw, List<String> dependencies) {
+        for (int d = 0; d < dependencies.size(); d++) {
+            String descriptor = "L" + dependencies.get(d).replace('.', '/') + ";";
+            FieldVisitor fv = cw.visitField(ACC_PRIVATE, "dependency" + d, descriptor, null, null);
+            fv.visitAnnotation(AUTOWIRED, true).visitEnd();
+            fv.visitEnd();
+        }
+    }
+    
+    private void addProcessMethod(ClassWriter cw, String className) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "process", "()Ljava/lang/String;", null, null);
+        mv.visitCode();
+        mv.visitLdcInsn(className);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+    
+    private ClassWriter beginClass(String className) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, className.replace('.', '/'), null, "java/lang/Object", null);
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        return cw;
+    }
+    
+    private byte[] endClass(ClassWriter cw) {
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+    
+    public void setComponentCount(int componentCount) {
+        this.componentCount = componentCount;
+    }
+    
+    public void setFanOut(int fanOut) {
+        this.fanOut = fanOut;
+    }
+    
+    public void setRepositoryRatio(double repositoryRatio) {
+        this.repositoryRatio = repositoryRatio;
+    }
+    
+    public void setControllerRatio(double controllerRatio) {
+        this.controllerRatio = controllerRatio;
+    }
+    
+    public void setValueFieldsPerRepository(int valueFieldsPerRepository) {
+        this.valueFieldsPerRepository = valueFieldsPerRepository;
+    }
+    
+    public void setAspectCount(int aspectCount) {
+        this.aspectCount = aspectCount;
+    }
+    
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
\ No newline at end of file
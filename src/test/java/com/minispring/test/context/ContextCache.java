@@ -0,0 +1,180 @@
+package com.minispring.test.context;
+
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.logging.Logger;
+import com.minispring.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 测试容器缓存，在同一JVM内的测试类之间复用已刷新的容器
+ *
+ * 按访问顺序做LRU淘汰，容量由系统属性minispring.test.context.cache.maxSize指定（默认32），
+ * 被淘汰或标记为dirty的容器会被关闭；JVM退出时关闭所有缓存的容器。
+ */
+public class ContextCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContextCache.class);
+    
+    public static final String MAX_SIZE_PROPERTY = "minispring.test.context.cache.maxSize";
+    
+    public static final int DEFAULT_MAX_SIZE = 32;
+    
+    private static final ContextCache DEFAULT = createDefault();
+    
+    private final int maxSize;
+    
+    /** accessOrder=true，迭代顺序即最近最少使用在前 */
+    private final LinkedHashMap<ContextKey, AnnotationConfigApplicationContext> contexts =
+            new LinkedHashMap<>(16, 0.75f, true);
+    
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long dirtyCount;
+    
+    public ContextCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize必须大于0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+    
+    /**
+     * MiniSpringExtension使用的JVM级共享缓存
+     */
+    public static ContextCache getDefault() {
+        return DEFAULT;
+    }
+    
+    private static ContextCache createDefault() {
+        ContextCache cache = new ContextCache(Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+        Runtime.getRuntime().addShutdownHook(new Thread(cache::clear, "minispring-test-context-cache"));
+        return cache;
+    }
+    
+    /**
+     * 获取测试类对应的容器，缓存中不存在时创建并刷新
+     * 创建过程持有缓存锁，并行执行的测试类不会重复创建同一个容器
+     */
+    public synchronized AnnotationConfigApplicationContext getContext(Class<?> testClass) {
+        ContextKey key = ContextKey.forTestClass(testClass);
+        AnnotationConfigApplicationContext context = contexts.get(key);
+        if (context != null) {
+            hitCount++;
+            logger.debug(() -> "复用缓存的测试容器 " + key + "，" + this);
+            return context;
+        }
+        
+        missCount++;
+        long start = System.nanoTime();
+        context = createContext(key);
+        contexts.put(key, context);
+        logger.info("创建测试容器 " + key + "，耗时 " + (System.nanoTime() - start) / 1_000_000 + "ms，" + this);
+        
+        evictIfNecessary();
+        return context;
+    }
+    
+    private AnnotationConfigApplicationContext createContext(ContextKey key) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        for (Map.Entry<String, String> property : key.getProperties().entrySet()) {
+            context.setProperty(property.getKey(), property.getValue());
+        }
+        context.register(key.getClasses().toArray(new Class<?>[0]));
+        context.refresh();
+        return context;
+    }
+    
+    private void evictIfNecessary() {
+        Iterator<Map.Entry<ContextKey, AnnotationConfigApplicationContext>> it = contexts.entrySet().iterator();
+        while (contexts.size() > maxSize && it.hasNext()) {
+            Map.Entry<ContextKey, AnnotationConfigApplicationContext> eldest = it.next();
+            it.remove();
+            evictionCount++;
+            logger.info("测试容器缓存已满，淘汰最近最少使用的容器 " + eldest.getKey());
+            closeQuietly(eldest.getKey(), eldest.getValue());
+        }
+    }
+    
+    /**
+     * 将测试类对应的容器标记为dirty：从缓存移除并关闭
+     */
+    public synchronized void markDirty(Class<?> testClass) {
+        ContextKey key = ContextKey.forTestClass(testClass);
+        AnnotationConfigApplicationContext context = contexts.remove(key);
+        if (context != null) {
+            dirtyCount++;
+            logger.debug(() -> "移除dirty测试容器 " + key);
+            closeQuietly(key, context);
+        }
+    }
+    
+    /**
+     * 测试类对应的容器是否已缓存，不影响LRU顺序
+     */
+    public synchronized boolean contains(Class<?> testClass) {
+        return contexts.containsKey(ContextKey.forTestClass(testClass));
+    }
+    
+    /**
+     * 关闭并移除所有缓存的容器，统计数据保留
+     */
+    public synchronized void clear() {
+        List<Map.Entry<ContextKey, AnnotationConfigApplicationContext>> entries = new ArrayList<>(contexts.entrySet());
+        contexts.clear();
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            closeQuietly(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+    }
+    
+    private void closeQuietly(ContextKey key, AnnotationConfigApplicationContext context) {
+        try {
+            context.close();
+        } catch (Exception e) {
+            logger.warn("关闭测试容器失败: " + key + ", 错误: " + e.getMessage());
+        }
+    }
+    
+    public synchronized int size() {
+        return contexts.size();
+    }
+    
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+    
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+    
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+    
+    public synchronized long getDirtyCount() {
+        return dirtyCount;
+    }
+    
+    /**
+     * 命中率，尚无访问时为0
+     */
+    public synchronized double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return String.format("缓存统计[size=%d, maxSize=%d, hits=%d, misses=%d, hitRatio=%.1f%%, evictions=%d, dirty=%d]",
+                contexts.size(), maxSize, hitCount, missCount, getHitRatio() * 100, evictionCount, dirtyCount);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.minispring.test.context;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 测试类的容器配置，标注后自动启用MiniSpringExtension
+ * 配置类与属性完全相同的测试类共享同一个已刷新的容器，
+ * 测试实例中的@Autowired/@Value字段由该容器注入
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@ExtendWith(MiniSpringExtension.class)
+public @interface ContextConfiguration {
+    
+    /**
+     * 注册到容器的配置类或组件类
+     */
+    Class<?>[] classes() default {};
+    
+    /**
+     * 在refresh()之前设置的属性，格式为"key=value"，覆盖application.properties中的配置
+     */
+    String[] properties() default {};
+}
\ No newline at end of file
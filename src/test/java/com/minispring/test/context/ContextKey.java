@@ -0,0 +1,85 @@
+package com.minispring.test.context;
+
+import com.minispring.ioc.core.ReflectionUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 容器缓存的键：配置类列表与属性
+ * 配置类按声明顺序比较（注册顺序会影响容器），属性与声明顺序无关
+ */
+final class ContextKey {
+    
+    private final List<Class<?>> classes;
+    private final Map<String, String> properties;
+    
+    private ContextKey(List<Class<?>> classes, Map<String, String> properties) {
+        this.classes = classes;
+        this.properties = properties;
+    }
+    
+    /**
+     * 从测试类（含父类）上的@ContextConfiguration创建缓存键
+     */
+    static ContextKey forTestClass(Class<?> testClass) {
+        ContextConfiguration configuration = ReflectionUtils.getAnnotation(testClass, ContextConfiguration.class);
+        if (configuration == null) {
+            throw new IllegalStateException("测试类未标注@ContextConfiguration: " + testClass.getName());
+        }
+        if (configuration.classes().length == 0) {
+            throw new IllegalStateException("@ContextConfiguration未指定配置类: " + testClass.getName());
+        }
+        
+        Map<String, String> properties = new TreeMap<>();
+        for (String property : configuration.properties()) {
+            int separator = property.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalStateException("属性格式应为key=value: \"" + property + "\"，测试类: " + testClass.getName());
+            }
+            properties.put(property.substring(0, separator).trim(), property.substring(separator + 1).trim());
+        }
+        return new ContextKey(Collections.unmodifiableList(Arrays.asList(configuration.classes())),
+                Collections.unmodifiableMap(properties));
+    }
+    
+    List<Class<?>> getClasses() {
+        return classes;
+    }
+    
+    Map<String, String> getProperties() {
+        return properties;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContextKey)) {
+            return false;
+        }
+        ContextKey other = (ContextKey) o;
+        return classes.equals(other.classes) && properties.equals(other.properties);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * classes.hashCode() + properties.hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[classes=[");
+        for (int i = 0; i < classes.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(classes.get(i).getSimpleName());
+        }
+        return sb.append("], properties=").append(properties).append(']').toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.minispring.test.context;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记测试修改了共享容器的状态（如替换Bean、修改属性），
+ * 容器将从缓存中移除并关闭，后续测试重新创建
+ * 标注在测试方法上时，该方法执行后移除；标注在测试类上时按classMode决定时机
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface DirtiesContext {
+    
+    /**
+     * 标注在测试类上时容器的移除时机
+     */
+    ClassMode classMode() default ClassMode.AFTER_CLASS;
+    
+    enum ClassMode {
+        
+        /** 测试类的所有方法执行完后移除 */
+        AFTER_CLASS,
+        
+        /** 每个测试方法执行完后移除 */
+        AFTER_EACH_TEST_METHOD
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.minispring.test.context;
+
+import com.minispring.ioc.annotation.Autowired;
+import com.minispring.ioc.context.AnnotationConfigApplicationContext;
+import com.minispring.ioc.context.ApplicationContext;
+import com.minispring.ioc.core.ReflectionUtils;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.TestInstancePostProcessor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+
+/**
+ * JUnit 5扩展，为测试类提供缓存的MiniSpring容器
+ *
+ * - 容器按@ContextConfiguration的配置类与属性从ContextCache获取，相同配置的测试类共享
+ * - 测试实例的@Autowired/@Value字段由容器注入
+ * - 测试方法参数可声明为容器类型，或标注@Autowired按类型获取Bean
+ * - @DirtiesContext标记的方法或类执行后从缓存中移除并关闭容器
+ */
+public class MiniSpringExtension implements BeforeAllCallback, AfterAllCallback, AfterEachCallback,
+        TestInstancePostProcessor, ParameterResolver {
+    
+    /**
+     * 获取测试对应的容器，供自定义扩展使用
+     */
+    public static AnnotationConfigApplicationContext getApplicationContext(ExtensionContext context) {
+        return ContextCache.getDefault().getContext(context.getRequiredTestClass());
+    }
+    
+    /**
+     * 在类级别预先获取容器，配置错误在第一个测试方法执行前暴露
+     */
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        getApplicationContext(context);
+    }
+    
+    @Override
+    public void postProcessTestInstance(Object testInstance, ExtensionContext context) {
+        getApplicationContext(context).autowireBean(testInstance);
+    }
+    
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Class<?> testClass = context.getRequiredTestClass();
+        Method testMethod = context.getRequiredTestMethod();
+        DirtiesContext classLevel = ReflectionUtils.getAnnotation(testClass, DirtiesContext.class);
+        if (ReflectionUtils.hasAnnotation(testMethod, DirtiesContext.class)
+                || (classLevel != null && classLevel.classMode() == DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)) {
+            ContextCache.getDefault().markDirty(testClass);
+        }
+    }
+    
+    @Override
+    public void afterAll(ExtensionContext context) {
+        Class<?> testClass = context.getRequiredTestClass();
+        DirtiesContext classLevel = ReflectionUtils.getAnnotation(testClass, DirtiesContext.class);
+        if (classLevel != null && classLevel.classMode() == DirtiesContext.ClassMode.AFTER_CLASS) {
+            ContextCache.getDefault().markDirty(testClass);
+        }
+    }
+    
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return isContextParameter(parameterContext.getParameter()) || parameterContext.isAnnotated(Autowired.class);
+    }
+    
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        AnnotationConfigApplicationContext applicationContext = getApplicationContext(extensionContext);
+        Parameter parameter = parameterContext.getParameter();
+        if (isContextParameter(parameter)) {
+            return applicationContext;
+        }
+        try {
+            return applicationContext.getBean(parameter.getType());
+        } catch (RuntimeException e) {
+            throw new ParameterResolutionException("无法解析测试方法参数: " + parameter, e);
+        }
+    }
+    
+    private boolean isContextParameter(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        return ApplicationContext.class.isAssignableFrom(type)
+                && type.isAssignableFrom(AnnotationConfigApplicationContext.class);
+    }
+}
\ No newline at end of file